@@ -1,5 +1,13 @@
 package io.github.reionchan;
 
+import io.github.reionchan.config.HedgingExchangeFilterConfig;
+import io.github.reionchan.config.SynchronousLoadBalancerClientConfig;
+import io.github.reionchan.loadbalancer.PeakEwmaLoadBalancer;
+import io.github.reionchan.loadbalancer.ServerLoadAwareLoadBalancer;
+import io.github.reionchan.loadbalancer.SynchronousLoadBalancer;
+import io.github.reionchan.loadbalancer.config.ServerLoadReportAutoConfiguration;
+import io.github.reionchan.loadbalancer.reactive.HedgingLoadBalancerExchangeFilterFunction;
+import io.github.reionchan.loadbalancer.support.SynchronousBlockingLoadBalancerClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
@@ -29,6 +37,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import outside.scan.config.CustomLoadBalancerConfiguration;
+import outside.scan.config.PeakEwmaLoadBalancerConfiguration;
+import outside.scan.config.ServerLoadAwareLoadBalancerConfiguration;
 
 /**
  * 负载均衡启动器
@@ -95,6 +105,19 @@ import outside.scan.config.CustomLoadBalancerConfiguration;
  *    具体根据属性配置：
  *      spring.cloud.loadbalancer.retry.enabled 是否开启，进行条件装配
  *
+ *  1.3 对冲请求 (Hedged Requests)
+ *   WebClient 每次调用只发往一个实例，调用方的长尾延迟即最慢实例的长尾延迟。
+ *   设置 spring.cloud.loadbalancer.hedging.enabled=true 后，{@link HedgingExchangeFilterConfig}
+ *   以 loadbalancer-commons 模块的 {@link HedgingLoadBalancerExchangeFilterFunction} 替换
+ *   {@link ReactorLoadBalancerExchangeFilterFunction}：GET、HEAD 请求超过对冲延迟 (近期耗时的 p95) 未返回时，
+ *   向负载均衡器选出的另一个实例再发一次请求，取先返回的响应并取消另一个，对冲请求数受预算百分比限制。
+ *
+ *  1.4 同步选择 (RestTemplate)
+ *   {@link BlockingLoadBalancerClient#choose(String, Request)} 每次选择都组装 Reactor 管道再 block 等待。
+ *   设置 spring.cloud.loadbalancer.synchronous-choose.enabled=true 后，{@link SynchronousLoadBalancerClientConfig}
+ *   以 {@link SynchronousBlockingLoadBalancerClient} 替换它：负载均衡器实现 {@link SynchronousLoadBalancer}
+ *   (如 {@link PeakEwmaLoadBalancer}) 且实例列表缓存已加载时，在调用线程上直接选择，不创建 Reactor 对象；
+ *   缓存尚未加载时退回原有的响应式路径。RandomLoadBalancer、RoundRobinLoadBalancer 始终使用响应式路径。
  *
  * 负载均衡 spring-cloud-loadbalancer 部分
  *
@@ -140,7 +163,20 @@ import outside.scan.config.CustomLoadBalancerConfiguration;
  *    Spring 使用 {@link LoadBalancerClientFactory} 结合它的父类 {@link NamedContextFactory}
  *    来实现子上下文的隔离效果。
  *
- *  2.3 基于 {@link DiscoveryClientServiceInstanceListSupplier} 的各种包装类实现
+ *  2.3 自定义负载均衡算法
+ *    {@link RandomLoadBalancer}、{@link RoundRobinLoadBalancer} 都不感知实例的响应快慢，
+ *    loadbalancer-commons 模块提供的 {@link PeakEwmaLoadBalancer} 为每个实例维护 Peak-EWMA 延迟评分，
+ *    它同时实现 {@link LoadBalancerLifecycle}，从 onComplete 回调中学习每次请求的耗时，
+ *    使流量在数秒内从变慢的实例上移走。
+ *    将下方 loadbalancer 的 configuration 替换为 {@link PeakEwmaLoadBalancerConfiguration} 即可启用。
+ *
+ *    客户端只能看到自己发出的请求，实例可能被其他客户端压满。{@link ServerLoadReportAutoConfiguration} 在
+ *    server.load-report.enabled=true 时为本服务的每个响应附加 X-Server-Load 响应头 (CPU 使用率、排队请求数、在途请求数)，
+ *    {@link ServerLoadAwareLoadBalancer} 从 onComplete 回调中读取该响应头，为每个实例维护随时间衰减的利用率评分，
+ *    优先选择利用率低的实例，思路类似 gRPC ORCA 的客户端加权。
+ *    将下方 loadbalancer 的 configuration 替换为 {@link ServerLoadAwareLoadBalancerConfiguration} 即可启用。
+ *
+ *  2.4 基于 {@link DiscoveryClientServiceInstanceListSupplier} 的各种包装类实现
  *    这些包装器实现通过对 {@link DiscoveryClientServiceInstanceListSupplier} 包装，实现包括缓存型、
  *    重试型、权重型等不同功能的负载均衡策略，由于此属于具体实现，将放到 loadbalancer-samples 模块介绍
  *
@@ -213,6 +249,12 @@ public class LoadBalancerBootstrap {
             // loadbalancer 指定了 CustomLoadBalancerConfiguration 配置文件中的负载均衡器 RandomLoadBalancer
             @org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient(name = "loadbalancer",
                     configuration = CustomLoadBalancerConfiguration.class)
+            // 替换为 PeakEwmaLoadBalancerConfiguration 使用延迟感知的负载均衡器 PeakEwmaLoadBalancer
+//            @org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient(name = "loadbalancer",
+//                    configuration = PeakEwmaLoadBalancerConfiguration.class)
+            // 替换为 ServerLoadAwareLoadBalancerConfiguration 使用服务端负载感知的负载均衡器 ServerLoadAwareLoadBalancer
+//            @org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient(name = "loadbalancer",
+//                    configuration = ServerLoadAwareLoadBalancerConfiguration.class)
     })
     public static class InnerConfiguration {
     }
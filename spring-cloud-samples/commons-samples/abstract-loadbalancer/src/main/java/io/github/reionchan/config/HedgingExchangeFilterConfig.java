@@ -0,0 +1,55 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.loadbalancer.reactive.HedgingLoadBalancerExchangeFilterFunction;
+import io.github.reionchan.loadbalancer.reactive.HedgingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancerClientRequestTransformer;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 对冲请求交换过滤器配置
+ *
+ * <pre>
+ * 设置 spring.cloud.loadbalancer.hedging.enabled=true 时生效：
+ *   以 {@link HedgingLoadBalancerExchangeFilterFunction} 替换默认的 ReactorLoadBalancerExchangeFilterFunction
+ *   (其为 @ConditionalOnMissingBean)，@LoadBalanced WebClient 的 GET、HEAD 请求在超过对冲延迟后
+ *   会向另一个实例发出对冲请求，参数由 spring.cloud.loadbalancer.hedging.* 属性绑定到 {@link HedgingProperties}
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "spring.cloud.loadbalancer.hedging.enabled", havingValue = "true")
+public class HedgingExchangeFilterConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.cloud.loadbalancer.hedging")
+    public HedgingProperties hedgingProperties() {
+        return new HedgingProperties();
+    }
+
+    @Bean
+    public HedgingLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction(
+            ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+            ObjectProvider<List<LoadBalancerClientRequestTransformer>> transformers,
+            HedgingProperties hedgingProperties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        log.info("=== HedgingExchangeFilterConfig 设置 loadBalancerExchangeFilterFunction, budget: {}% ===",
+                hedgingProperties.getBudgetPercent());
+        return new HedgingLoadBalancerExchangeFilterFunction(loadBalancerFactory,
+                transformers.getIfAvailable(Collections::emptyList), hedgingProperties,
+                meterRegistry.getIfAvailable());
+    }
+}
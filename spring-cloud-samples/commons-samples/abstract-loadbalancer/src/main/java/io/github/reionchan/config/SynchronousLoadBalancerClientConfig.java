@@ -0,0 +1,34 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.loadbalancer.support.SynchronousBlockingLoadBalancerClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 同步选择的阻塞式负载均衡客户端配置
+ *
+ * <pre>
+ * 设置 spring.cloud.loadbalancer.synchronous-choose.enabled=true 时生效：
+ *   以 {@link SynchronousBlockingLoadBalancerClient} 替换默认的 BlockingLoadBalancerClient (其为 @ConditionalOnMissingBean)，
+ *   @LoadBalanced RestTemplate 选择实例时，负载均衡器及服务实例列表提供器均支持同步读取且缓存已加载，
+ *   则不经过 Reactor 直接选择，否则退回原有的响应式路径
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "spring.cloud.loadbalancer.synchronous-choose.enabled", havingValue = "true")
+public class SynchronousLoadBalancerClientConfig {
+
+    @Bean
+    public SynchronousBlockingLoadBalancerClient blockingLoadBalancerClient(
+            LoadBalancerClientFactory loadBalancerClientFactory) {
+        log.info("=== SynchronousLoadBalancerClientConfig 设置 blockingLoadBalancerClient ===");
+        return new SynchronousBlockingLoadBalancerClient(loadBalancerClientFactory);
+    }
+}
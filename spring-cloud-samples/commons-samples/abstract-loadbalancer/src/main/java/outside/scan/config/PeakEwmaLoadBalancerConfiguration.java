@@ -0,0 +1,58 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.PeakEwmaLoadBalancer;
+import io.github.reionchan.supplier.SynchronousCachingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于延迟感知的负载均衡算法配置
+ *
+ * <pre>
+ * 【注意】
+ *      与 {@link CustomLoadBalancerConfiguration} 一样，不要使用 @Configuration 注解，
+ *      仅通过 @LoadBalancerClient 的 configuration 属性方法指定给特定服务。
+ *
+ *      {@link PeakEwmaLoadBalancer} 同时实现了 LoadBalancerLifecycle 接口，
+ *      因此该 Bean 也会作为该服务子上下文中的生命周期回调，从 onComplete 中学习每个实例的响应耗时。
+ *      为使生命周期回调能按类型被发现，这里的返回值声明为具体类型。
+ *
+ *      服务实例列表缓存使用 {@link SynchronousCachingServiceInstanceListSupplier}，
+ *      开启 spring.cloud.loadbalancer.synchronous-choose.enabled 后 @LoadBalanced RestTemplate 可以同步选择实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class PeakEwmaLoadBalancerConfiguration {
+
+    /**
+     * 指定启用该配置的服务使用 PeakEwmaLoadBalancer 负载均衡器
+     */
+    @Bean
+    PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    }
+
+    /**
+     * 以可同步读取的缓存替换默认的 withCaching()，与 withCaching() 一样，没有缓存管理器时不使用缓存
+     */
+    @Bean
+    ServiceInstanceListSupplier synchronousCachingServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient()
+                .with((ctx, delegate) -> {
+                    LoadBalancerCacheManager cacheManager = ctx.getBeanProvider(LoadBalancerCacheManager.class)
+                            .getIfAvailable();
+                    return cacheManager != null
+                            ? new SynchronousCachingServiceInstanceListSupplier(delegate, cacheManager) : delegate;
+                })
+                .build(context);
+    }
+}
@@ -0,0 +1,59 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.ServerLoadAwareLoadBalancer;
+import io.github.reionchan.supplier.SynchronousCachingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于服务端负载报告的负载均衡算法配置
+ *
+ * <pre>
+ * 【注意】
+ *      与 {@link CustomLoadBalancerConfiguration} 一样，不要使用 @Configuration 注解，
+ *      仅通过 @LoadBalancerClient 的 configuration 属性方法指定给特定服务。
+ *
+ *      被调用的服务需注册 {@link io.github.reionchan.loadbalancer.support.ServerLoadReportFilter}
+ *      (参见 {@link io.github.reionchan.loadbalancer.config.ServerLoadReportAutoConfiguration})，在响应头中附带负载报告；
+ *      {@link ServerLoadAwareLoadBalancer} 同时实现了 LoadBalancerLifecycle 接口，从 onComplete 中读取该响应头。
+ *      为使生命周期回调能按类型被发现，这里的返回值声明为具体类型。
+ *
+ *      服务实例列表缓存使用 {@link SynchronousCachingServiceInstanceListSupplier}，
+ *      开启 spring.cloud.loadbalancer.synchronous-choose.enabled 后 @LoadBalanced RestTemplate 可以同步选择实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadAwareLoadBalancerConfiguration {
+
+    /**
+     * 指定启用该配置的服务使用 ServerLoadAwareLoadBalancer 负载均衡器
+     */
+    @Bean
+    ServerLoadAwareLoadBalancer serverLoadAwareLoadBalancer(Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new ServerLoadAwareLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    }
+
+    /**
+     * 以可同步读取的缓存替换默认的 withCaching()，与 withCaching() 一样，没有缓存管理器时不使用缓存
+     */
+    @Bean
+    ServiceInstanceListSupplier synchronousCachingServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient()
+                .with((ctx, delegate) -> {
+                    LoadBalancerCacheManager cacheManager = ctx.getBeanProvider(LoadBalancerCacheManager.class)
+                            .getIfAvailable();
+                    return cacheManager != null
+                            ? new SynchronousCachingServiceInstanceListSupplier(delegate, cacheManager) : delegate;
+                })
+                .build(context);
+    }
+}
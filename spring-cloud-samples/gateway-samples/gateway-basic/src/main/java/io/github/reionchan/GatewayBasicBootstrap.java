@@ -1,13 +1,19 @@
 package io.github.reionchan;
 
+import io.github.reionchan.config.CompiledPathFilterConfig;
+import io.github.reionchan.config.IndexedRouteLookupConfig;
 import io.github.reionchan.config.RegistryRouteDefinitionByInMemoryRepositoryConfig;
 import io.github.reionchan.config.RegistryRouteLocatorByBuilderConfig;
+import io.github.reionchan.config.ResponseCacheConfig;
+import io.github.reionchan.config.VersionedRouteStoreConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.gateway.config.GatewayResilience4JCircuitBreakerAutoConfiguration;
 import org.springframework.cloud.gateway.config.PropertiesRouteDefinitionLocator;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.FallbackHeadersGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerResilience4JFilterFactory;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
 import org.springframework.cloud.gateway.route.InMemoryRouteDefinitionRepository;
 import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
@@ -44,6 +50,38 @@ import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
  *     原理参考：
  *      {@link PropertiesRouteDefinitionLocator} 也继承 {@link RouteDefinitionLocator}，
  *      故原理同 {@link InMemoryRouteDefinitionRepository} 一致
+ *
+ *  6. 使用路由索引加速 {@link RoutePredicateHandlerMapping} 的路由匹配
+ *      6.1 在 application.yaml 中设置 spring.cloud.gateway.route-index.enabled=true
+ *      6.2 路径前缀树、精确 / 通配主机哈希先缩小候选路由，再按声明顺序对候选执行完整断言
+ *
+ *     原理参考：
+ *      {@link IndexedRouteLookupConfig#indexedRoutePredicateHandlerMappingRegistrar} 注释
+ *
+ *  7. 使用响应缓存 {@link GatewayFilter} 减少幂等 GET 路由的重复转发
+ *      7.1 在 application.yaml 中设置 spring.cloud.gateway.response-cache.enabled=true
+ *      7.2 path_route 按 路径 + Accept 缓存 200 响应，新鲜期取自上游 Cache-Control，过期后以 ETag 重新验证
+ *      7.3 命中率指标 gateway.response.cache.hit.ratio 可在 /actuator/metrics 中按 route 标签查看
+ *
+ *     原理参考：
+ *      {@link ResponseCacheConfig} 及 ResponseCacheGatewayFilterFactory 注释
+ *
+ *  8. 预编译 RewritePath / SetPath 过滤器的路径重写规则
+ *      8.1 在 application.yaml 中设置 spring.cloud.gateway.compiled-path.enabled=true
+ *      8.2 前缀截取、前缀替换、路径段捕获等常见正则以字符串截取完成重写，其余形状回退到正则
+ *      8.3 基准测试：运行测试目录下 RewritePathBenchmark 的 main 方法
+ *
+ *     原理参考：
+ *      {@link CompiledPathFilterConfig#compiledPathFilterFactoryRegistrar} 注释
+ *
+ *  9. 使用持久化的带版本路由定义仓库，刷新路由时只重新编译变化部分
+ *      9.1 在 application.yaml 中设置 spring.cloud.gateway.route-store.enabled=true
+ *      9.2 路由定义以追加写的方式保存到 spring.cloud.gateway.route-store.path，重启时内存映射回放，
+ *          代替 {@link InMemoryRouteDefinitionRepository} 成为自定义路由方式一及 /actuator/gateway 的路由仓库
+ *      9.3 RefreshRoutesEvent 只编译新增、变化的路由定义，未变化的复用已编译的路由，删除的被丢弃
+ *
+ *     原理参考：
+ *      {@link VersionedRouteStoreConfig} 注释
  * </pre>
  *
  * @author Reion
@@ -0,0 +1,68 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.filter.CompiledRewritePath;
+import io.github.reionchan.filter.CompiledRewritePathGatewayFilterFactory;
+import io.github.reionchan.filter.CompiledSetPathGatewayFilterFactory;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * 以预编译的路径重写代替逐请求的正则替换与 URI 模板展开
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.compiled-path.enabled", havingValue = "true")
+public class CompiledPathFilterConfig {
+
+    /**
+     * 自动装配的过滤器工厂 Bean 名称及其替换实现
+     */
+    private static final Map<String, Class<?>> REPLACEMENTS = Map.of(
+            "rewritePathGatewayFilterFactory", CompiledRewritePathGatewayFilterFactory.class,
+            "setPathGatewayFilterFactory", CompiledSetPathGatewayFilterFactory.class);
+
+    /**
+     * 将 {@link GatewayAutoConfiguration#rewritePathGatewayFilterFactory}、
+     * {@link GatewayAutoConfiguration#setPathGatewayFilterFactory} 的 Bean 定义替换为预编译实现
+     *
+     * <pre>
+     * 原理：
+     *      替换实现是原工厂的子类且过滤器名称不变，
+     *      {@link GatewayFilterSpec#rewritePath} 按类型获取工厂、配置文件按名称查找工厂时都会得到替换实现；
+     *      直接声明同类型 Bean 会让两个同名工厂并存，因此与 {@link IndexedRouteLookupConfig} 一样替换同名 Bean 定义。
+     *      规则在路由构建时由 {@link CompiledRewritePath} 等编译，无法走快速路径时每次请求仍回退到原实现
+     * </pre>
+     */
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor compiledPathFilterFactoryRegistrar() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                REPLACEMENTS.forEach((beanName, beanClass) -> {
+                    if (registry.containsBeanDefinition(beanName)) {
+                        log.info("--- 过滤器工厂 " + beanName + " 替换为 " + beanClass.getSimpleName() + " ---");
+                        registry.removeBeanDefinition(beanName);
+                        registry.registerBeanDefinition(beanName, new RootBeanDefinition(beanClass));
+                    }
+                });
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.handler.IndexedRoutePredicateHandlerMapping;
+import io.github.reionchan.handler.RouteIndex;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 以路由索引加速路由匹配
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.route-index.enabled", havingValue = "true")
+public class IndexedRouteLookupConfig {
+
+    /**
+     * 自动装配的路由断言处理映射器 Bean 名称
+     */
+    private static final String HANDLER_MAPPING_BEAN_NAME = "routePredicateHandlerMapping";
+
+    /**
+     * 将 {@link GatewayAutoConfiguration#routePredicateHandlerMapping} 的 Bean 定义替换为
+     * {@link IndexedRoutePredicateHandlerMapping}，构造参数与原定义一致，通过构造器自动注入
+     *
+     * <pre>
+     * 原理：
+     *      自动装配的路由断言处理映射器没有 @ConditionalOnMissingBean，直接声明同类型 Bean 会得到两个映射器，
+     *      未命中的请求要被线性匹配两次。这里在配置类解析完成后替换同名 Bean 定义，保证只有一个映射器，
+     *      {@link RouteIndex} 在 {@link RefreshRoutesEvent} 刷新完成后整体重建一次，请求路径上只读取已发布的索引
+     * </pre>
+     */
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor indexedRoutePredicateHandlerMappingRegistrar() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                if (!registry.containsBeanDefinition(HANDLER_MAPPING_BEAN_NAME)) {
+                    return;
+                }
+                log.info("--- 路由断言处理映射器替换为 IndexedRoutePredicateHandlerMapping ---");
+                RootBeanDefinition definition = new RootBeanDefinition(IndexedRoutePredicateHandlerMapping.class);
+                definition.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+                registry.removeBeanDefinition(HANDLER_MAPPING_BEAN_NAME);
+                registry.registerBeanDefinition(HANDLER_MAPPING_BEAN_NAME, definition);
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
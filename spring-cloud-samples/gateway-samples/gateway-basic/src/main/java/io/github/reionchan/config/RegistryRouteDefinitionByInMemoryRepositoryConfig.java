@@ -1,6 +1,7 @@
 package io.github.reionchan.config;
 
 import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
 import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
 import org.springframework.cloud.gateway.route.*;
@@ -38,21 +39,29 @@ public class RegistryRouteDefinitionByInMemoryRepositoryConfig {
      *      整合成 {@link CachingRouteLocator}，
      *      最终被纳入 {@link GatewayAutoConfiguration#routePredicateHandlerMapping} 路由断言处理映射器的属性
      *      当客户端请求时，由 {@link DispatcherHandler} 交给此路由断言处理映射器进行断言匹配路由到所配置的 URI
+     *
+     *      启用 spring.cloud.gateway.route-store.enabled 时由持久化的 {@link VersionedRouteStoreConfig} 仓库代替
      * </pre>
      */
     @Bean
+    @ConditionalOnProperty(value = "spring.cloud.gateway.route-store.enabled", havingValue = "false", matchIfMissing = true)
     public InMemoryRouteDefinitionRepository inMemoryRouteDefinition() {
         log.info("--- 自定义路由方式一：使用 InMemoryRouteDefinitionRepository ---");
         InMemoryRouteDefinitionRepository memoryRouteDefinition = new InMemoryRouteDefinitionRepository();
-        // 路由定义实例
+        // 将路由定义实例保存到内存仓库
+        memoryRouteDefinition.save(Mono.just(userAgentRouteDefinition())).subscribe();
+        return memoryRouteDefinition;
+    }
+
+    /**
+     * 路径 /user-agent 的路由定义实例
+     */
+    static RouteDefinition userAgentRouteDefinition() {
         RouteDefinition routeDefinition = new RouteDefinition();
         routeDefinition.setId("path_route_user_agent");
         // 配置路由断言定义
         routeDefinition.setPredicates(List.of(new PredicateDefinition("Path=/user-agent")));
         routeDefinition.setUri(URI.create(ROUTE_URI));
-
-        // 将路由定义实例保存到内存仓库
-        memoryRouteDefinition.save(Mono.just(routeDefinition)).subscribe();
-        return memoryRouteDefinition;
+        return routeDefinition;
     }
 }
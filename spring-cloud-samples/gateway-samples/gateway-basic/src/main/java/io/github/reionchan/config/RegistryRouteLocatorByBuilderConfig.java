@@ -1,14 +1,19 @@
 package io.github.reionchan.config;
 
+import io.github.reionchan.filter.ResponseCacheGatewayFilterFactory;
 import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.CachingRouteLocator;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.DispatcherHandler;
 
+import java.time.Duration;
 import java.util.List;
 
 import static io.github.reionchan.GatewayBasicBootstrap.ROUTE_URI;
@@ -34,14 +39,23 @@ public class RegistryRouteLocatorByBuilderConfig {
      *      整合成 {@link CachingRouteLocator}，
      *      最终被纳入 {@link GatewayAutoConfiguration#routePredicateHandlerMapping} 路由断言处理映射器的属性
      *      当客户端请求时，由 {@link DispatcherHandler} 交给此路由断言处理映射器进行断言匹配路由到所配置的 URI
+     *
+     *      启用 spring.cloud.gateway.response-cache.enabled 时 path_route 的响应由 {@link ResponseCacheGatewayFilterFactory} 缓存
      * </pre>
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           ObjectProvider<ResponseCacheGatewayFilterFactory> responseCache) {
         log.info("--- 自定义路由方式二：使用 RouteLocatorBuilder ---");
+        // 上游未声明 max-age 时缓存 30 秒，按 Accept 区分不同表示
+        List<GatewayFilter> cacheFilters = responseCache.stream()
+                .map(factory -> factory.apply(c -> c.setTimeToLive(Duration.ofSeconds(30))
+                        .setKeyHeaders(List.of(HttpHeaders.ACCEPT))))
+                .toList();
         return builder.routes()
                 // 路径匹配路由
                 .route("path_route", r -> r.path("/get")
+                        .filters(f -> f.filters(cacheFilters))
                         .uri(ROUTE_URI))
 
                 // 头部字段 host 匹配路由
@@ -0,0 +1,47 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.filter.ResponseCache;
+import io.github.reionchan.filter.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 幂等 GET 路由的响应缓存
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.response-cache.enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+    /**
+     * 所有路由共享的有界缓存，按响应体及响应头字节数加权
+     */
+    @Bean
+    public ResponseCache responseCache(
+            @Value("${spring.cloud.gateway.response-cache.max-size:16MB}") DataSize maxSize,
+            @Value("${spring.cloud.gateway.response-cache.revalidate-window:5m}") Duration revalidateWindow) {
+        log.info("--- 定义网关响应缓存 ResponseCache ---");
+        return new ResponseCache(maxSize, revalidateWindow);
+    }
+
+    /**
+     * 注册为过滤器工厂 Bean 后，既可在 RouteLocatorBuilder 中使用，
+     * 也可在配置文件中以 ResponseCache=30s 的形式添加到路由
+     */
+    @Bean
+    public ResponseCacheGatewayFilterFactory responseCacheGatewayFilterFactory(ResponseCache responseCache,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ResponseCacheGatewayFilterFactory(responseCache, meterRegistry.getIfAvailable());
+    }
+}
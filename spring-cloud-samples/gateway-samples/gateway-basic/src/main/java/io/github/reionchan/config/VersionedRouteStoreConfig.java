@@ -0,0 +1,94 @@
+package io.github.reionchan.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.reionchan.route.IncrementalRouteDefinitionRouteLocator;
+import io.github.reionchan.route.VersionedRouteDefinitionRepository;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.InMemoryRouteDefinitionRepository;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 以本地文件持久化带版本的路由定义，刷新时只重新编译变化的路由
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.route-store.enabled", havingValue = "true")
+public class VersionedRouteStoreConfig {
+
+    /**
+     * 自动装配的路由定义编译器 Bean 名称
+     */
+    private static final String ROUTE_LOCATOR_BEAN_NAME = "routeDefinitionRouteLocator";
+
+    /**
+     * 代替 {@link InMemoryRouteDefinitionRepository} 的路由定义仓库，
+     * 自定义路由方式一的路由定义保存在这里，重启后从文件恢复
+     *
+     * <pre>
+     * 原理：
+     *      {@link GatewayAutoConfiguration#inMemoryRouteDefinitionRepository} 在已有 RouteDefinitionRepository 时不再装配，
+     *      此仓库同样作为 RouteDefinitionLocator 被收集，也是 /actuator/gateway/routes/{id} 增删路由时的写入对象；
+     *      内容不变的保存不分配新版本号，因此每次启动重复保存同一路由不会使文件增长
+     * </pre>
+     */
+    @Bean
+    public VersionedRouteDefinitionRepository versionedRouteDefinitionRepository(ObjectMapper objectMapper,
+            @Value("${spring.cloud.gateway.route-store.path:${java.io.tmpdir}/gateway-basic/routes.log}") Path path,
+            @Value("${spring.cloud.gateway.route-store.fsync:true}") boolean fsync) throws IOException {
+        log.info("--- 自定义路由方式一：使用持久化的 VersionedRouteDefinitionRepository ---");
+        VersionedRouteDefinitionRepository repository = new VersionedRouteDefinitionRepository(path, objectMapper, fsync);
+        repository.save(Mono.just(RegistryRouteDefinitionByInMemoryRepositoryConfig.userAgentRouteDefinition()))
+                .block();
+        return repository;
+    }
+
+    /**
+     * 将 {@link GatewayAutoConfiguration#routeDefinitionRouteLocator} 的 Bean 定义替换为
+     * {@link IncrementalRouteDefinitionRouteLocator}，构造参数与原定义一致，通过构造器自动注入
+     *
+     * <pre>
+     * 原理：
+     *      {@link RouteDefinitionRouteLocator} 每次 {@link RefreshRoutesEvent} 都编译全部路由定义，
+     *      替换实现按版本号 (或 equals) 找出新增、变化、删除的定义，只编译变化部分，其余复用上一次的 Route。
+     *      与 {@link IndexedRouteLookupConfig} 一样替换同名 Bean 定义，保证所有路由定义只被编译一次
+     * </pre>
+     */
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor incrementalRouteDefinitionRouteLocatorRegistrar() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                if (!registry.containsBeanDefinition(ROUTE_LOCATOR_BEAN_NAME)) {
+                    return;
+                }
+                log.info("--- 路由定义编译器替换为 IncrementalRouteDefinitionRouteLocator ---");
+                RootBeanDefinition definition = new RootBeanDefinition(IncrementalRouteDefinitionRouteLocator.class);
+                definition.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+                registry.removeBeanDefinition(ROUTE_LOCATOR_BEAN_NAME);
+                registry.registerBeanDefinition(ROUTE_LOCATOR_BEAN_NAME, definition);
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
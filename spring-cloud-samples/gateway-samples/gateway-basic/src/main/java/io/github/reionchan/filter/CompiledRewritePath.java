@@ -0,0 +1,355 @@
+package io.github.reionchan.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的路径重写规则
+ *
+ * <pre>
+ * RewritePath 过滤器对每个请求执行 Pattern.matcher(path).replaceAll(replacement)，
+ * 正则匹配与替换模板解析都在请求线程上重复进行。本类在路由构建时分析正则与替换模板，
+ * 常见形状直接以字符串比较与截取完成重写，结果与 replaceAll 一致：
+ *   1. 前缀截取 / 替换：/foo/(?&lt;segment&gt;.*)  →  /${segment}、/bar/${segment}
+ *      未以 ^ 锚定时与 replaceAll 相同，从第一次出现前缀的位置开始替换
+ *   2. 路径段捕获：^/users/(?&lt;id&gt;[^/]+)/orders/(?&lt;rest&gt;.*)  →  /orders/${rest}?user=${id}
+ *      须以 ^ 锚定；[^/]+、[^/]* 之后只能是结尾或以 / 开头的字面量，.* 只能位于末尾
+ *
+ * 替换模板按 Matcher.appendReplacement 的语法预先拆分为 字面量 + 分组引用 ($n、${name}、\ 转义)。
+ * 其它正则 (字符类、量词、分支等)、非法的替换模板、含换行符的路径仍交给 {@link Pattern} 处理，
+ * 保证异常与结果都与原过滤器一致。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class CompiledRewritePath {
+
+    private static final int LITERAL = 0;
+
+    private static final int REST = 1;
+
+    private static final int SEGMENT = 2;
+
+    private static final int NON_EMPTY_SEGMENT = 3;
+
+    private final Pattern pattern;
+
+    private final String replacement;
+
+    /**
+     * 正则拆分出的元素，为 null 时回退到 {@link Pattern}
+     */
+    private final Element[] elements;
+
+    private final boolean anchored;
+
+    private final boolean endAnchored;
+
+    private final int groupCount;
+
+    /**
+     * 替换模板：literals[i] 之后追加分组 groups[i] 的内容，groups[i] 为 0 表示没有分组引用
+     */
+    private final String[] literals;
+
+    private final int[] groups;
+
+    private CompiledRewritePath(Pattern pattern, String replacement, Element[] elements, boolean anchored,
+                                boolean endAnchored, int groupCount, String[] literals, int[] groups) {
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.elements = elements;
+        this.anchored = anchored;
+        this.endAnchored = endAnchored;
+        this.groupCount = groupCount;
+        this.literals = literals;
+        this.groups = groups;
+    }
+
+    /**
+     * 编译重写规则，regexp 与 replacement 的含义与 RewritePath 过滤器相同
+     */
+    public static CompiledRewritePath compile(String regexp, String replacement) {
+        Pattern pattern = Pattern.compile(regexp);
+        Map<String, Integer> names = new HashMap<>();
+        List<Element> parsed = new ArrayList<>();
+        boolean anchored = regexp.startsWith("^");
+        boolean endAnchored = parseRegexp(regexp, anchored ? 1 : 0, parsed, names);
+        if (!parsed.isEmpty() && isSupported(parsed, anchored)) {
+            int groupCount = (int) parsed.stream().filter(e -> e.kind != LITERAL).count();
+            List<String> literals = new ArrayList<>();
+            List<Integer> groups = new ArrayList<>();
+            if (parseReplacement(replacement, groupCount, names, literals, groups)) {
+                return new CompiledRewritePath(pattern, replacement, parsed.toArray(new Element[0]), anchored,
+                        endAnchored, groupCount, literals.toArray(new String[0]),
+                        groups.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return new CompiledRewritePath(pattern, replacement, null, false, false, 0, null, null);
+    }
+
+    /**
+     * 是否以快速路径重写，false 表示每次都交给正则处理
+     */
+    public boolean isCompiled() {
+        return elements != null;
+    }
+
+    /**
+     * 重写路径，结果与 pattern.matcher(path).replaceAll(replacement) 一致；路径不变时返回原字符串
+     */
+    public String rewrite(String path) {
+        if (elements == null || hasLineTerminator(path)) {
+            return pattern.matcher(path).replaceAll(replacement);
+        }
+        // bounds[2n]、bounds[2n + 1] 为第 n 个分组的起止位置，bounds[0..1] 为整个匹配
+        int[] bounds = new int[(groupCount + 1) * 2];
+        if (!(anchored ? matchAnchored(path, bounds) : matchPrefix(path, bounds))) {
+            return path;
+        }
+        int length = bounds[0] + path.length() - bounds[1];
+        for (int i = 0; i < literals.length; i++) {
+            length += literals[i].length();
+            if (groups[i] > 0) {
+                length += bounds[groups[i] * 2 + 1] - bounds[groups[i] * 2];
+            }
+        }
+        StringBuilder result = new StringBuilder(length).append(path, 0, bounds[0]);
+        for (int i = 0; i < literals.length; i++) {
+            result.append(literals[i]);
+            if (groups[i] > 0) {
+                result.append(path, bounds[groups[i] * 2], bounds[groups[i] * 2 + 1]);
+            }
+        }
+        return result.append(path, bounds[1], path.length()).toString();
+    }
+
+    /**
+     * 未锚定时只支持 字面量 + .* 的形状：从第一次出现字面量的位置匹配到结尾
+     */
+    private boolean matchPrefix(String path, int[] bounds) {
+        String prefix = elements[0].literal;
+        int start = path.indexOf(prefix);
+        if (start < 0) {
+            return false;
+        }
+        bounds[0] = start;
+        bounds[1] = path.length();
+        bounds[2] = start + prefix.length();
+        bounds[3] = path.length();
+        return true;
+    }
+
+    private boolean matchAnchored(String path, int[] bounds) {
+        int pos = 0;
+        int group = 1;
+        for (Element element : elements) {
+            switch (element.kind) {
+                case LITERAL -> {
+                    if (!path.startsWith(element.literal, pos)) {
+                        return false;
+                    }
+                    pos += element.literal.length();
+                }
+                case REST -> {
+                    bounds[group * 2] = pos;
+                    bounds[group++ * 2 + 1] = path.length();
+                    pos = path.length();
+                }
+                default -> {
+                    int end = path.indexOf('/', pos);
+                    end = end < 0 ? path.length() : end;
+                    if (element.kind == NON_EMPTY_SEGMENT && end == pos) {
+                        return false;
+                    }
+                    bounds[group * 2] = pos;
+                    bounds[group++ * 2 + 1] = end;
+                    pos = end;
+                }
+            }
+        }
+        if (endAnchored && pos != path.length()) {
+            return false;
+        }
+        bounds[0] = 0;
+        bounds[1] = pos;
+        return true;
+    }
+
+    /**
+     * 将正则拆分为字面量与分组，遇到不支持的语法时清空 elements
+     *
+     * @return 是否以 $ 结尾
+     */
+    private static boolean parseRegexp(String regexp, int from, List<Element> elements, Map<String, Integer> names) {
+        StringBuilder literal = new StringBuilder();
+        int group = 0;
+        for (int i = from; i < regexp.length(); i++) {
+            char c = regexp.charAt(i);
+            if (c == '\\' && i + 1 < regexp.length() && !Character.isLetterOrDigit(regexp.charAt(i + 1))) {
+                literal.append(regexp.charAt(++i));
+            } else if (c == '(') {
+                int close = regexp.indexOf(')', i);
+                if (close < 0) {
+                    elements.clear();
+                    return false;
+                }
+                String name = null;
+                int bodyStart = i + 1;
+                if (regexp.startsWith("?<", bodyStart)) {
+                    int nameEnd = regexp.indexOf('>', bodyStart);
+                    if (nameEnd < 0 || nameEnd > close) {
+                        elements.clear();
+                        return false;
+                    }
+                    name = regexp.substring(bodyStart + 2, nameEnd);
+                    // 排除 (?<= 、(?<! 等环视
+                    if (name.isEmpty() || !name.chars().allMatch(Character::isLetterOrDigit)) {
+                        elements.clear();
+                        return false;
+                    }
+                    bodyStart = nameEnd + 1;
+                }
+                int kind = switch (regexp.substring(bodyStart, close)) {
+                    case ".*" -> REST;
+                    case "[^/]*" -> SEGMENT;
+                    case "[^/]+" -> NON_EMPTY_SEGMENT;
+                    default -> LITERAL;
+                };
+                if (kind == LITERAL) {
+                    elements.clear();
+                    return false;
+                }
+                if (literal.length() > 0) {
+                    elements.add(new Element(LITERAL, literal.toString(), null));
+                    literal.setLength(0);
+                }
+                group++;
+                if (name != null) {
+                    names.put(name, group);
+                }
+                elements.add(new Element(kind, null, name));
+                i = close;
+            } else if (c == '$' && i == regexp.length() - 1) {
+                if (literal.length() > 0) {
+                    elements.add(new Element(LITERAL, literal.toString(), null));
+                }
+                return true;
+            } else if (".^$|?*+()[]{}\\".indexOf(c) >= 0) {
+                elements.clear();
+                return false;
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            elements.add(new Element(LITERAL, literal.toString(), null));
+        }
+        return false;
+    }
+
+    private static boolean isSupported(List<Element> elements, boolean anchored) {
+        if (!anchored) {
+            return elements.size() == 2 && elements.get(0).kind == LITERAL && elements.get(1).kind == REST;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            Element next = i + 1 < elements.size() ? elements.get(i + 1) : null;
+            if (element.kind == REST && next != null) {
+                return false;
+            }
+            // 分组贪婪匹配到下一个 / 为止，之后必须紧跟 / 才不需要回溯
+            if ((element.kind == SEGMENT || element.kind == NON_EMPTY_SEGMENT)
+                    && next != null && (next.kind != LITERAL || !next.literal.startsWith("/"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按 {@link java.util.regex.Matcher#appendReplacement} 的语法拆分替换模板，模板非法时返回 false
+     */
+    private static boolean parseReplacement(String replacement, int groupCount, Map<String, Integer> names,
+                                            List<String> literals, List<Integer> groups) {
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < replacement.length(); i++) {
+            char c = replacement.charAt(i);
+            if (c == '\\') {
+                if (++i == replacement.length()) {
+                    return false;
+                }
+                literal.append(replacement.charAt(i));
+            } else if (c == '$') {
+                if (++i == replacement.length()) {
+                    return false;
+                }
+                int group;
+                if (replacement.charAt(i) == '{') {
+                    int close = replacement.indexOf('}', i);
+                    Integer named = close < 0 ? null : names.get(replacement.substring(i + 1, close));
+                    if (named == null) {
+                        return false;
+                    }
+                    group = named;
+                    i = close;
+                } else {
+                    group = replacement.charAt(i) - '0';
+                    if (group < 0 || group > 9 || group > groupCount) {
+                        return false;
+                    }
+                    // 与 Matcher 相同，尽量多地读取数字，只要分组号仍然存在
+                    while (i + 1 < replacement.length() && isDigit(replacement.charAt(i + 1))) {
+                        int next = group * 10 + replacement.charAt(i + 1) - '0';
+                        if (next > groupCount) {
+                            break;
+                        }
+                        group = next;
+                        i++;
+                    }
+                    if (group == 0) {
+                        // $0 引用整个匹配，交给正则处理
+                        return false;
+                    }
+                }
+                literals.add(literal.toString());
+                groups.add(group);
+                literal.setLength(0);
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0 || literals.isEmpty()) {
+            literals.add(literal.toString());
+            groups.add(0);
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean hasLineTerminator(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRewritePath{regexp=" + pattern.pattern() + ", replacement=" + replacement
+                + ", compiled=" + isCompiled() + "}";
+    }
+
+    private record Element(int kind, String literal, String name) {
+    }
+}
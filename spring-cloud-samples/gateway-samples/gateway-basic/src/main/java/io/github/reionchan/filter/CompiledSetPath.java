@@ -0,0 +1,124 @@
+package io.github.reionchan.filter;
+
+import org.springframework.web.util.UriTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的路径模板
+ *
+ * <pre>
+ * SetPath 过滤器对每个请求执行 UriTemplate.expand(variables).getRawPath()，
+ * 需要展开 UriComponents、按 RFC 3986 编码并解析出新的 {@link java.net.URI}。
+ * 本类在路由构建时将模板拆分为 字面量 + 变量名，变量值均为路径中无需编码的字符时直接拼接，结果与原过滤器一致；
+ * 模板或变量值含需要编码的字符 (含 %)、变量缺失、模板含 // 或 ? # 等非路径部分时回退到 {@link UriTemplate}。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class CompiledSetPath {
+
+    private final UriTemplate uriTemplate;
+
+    /**
+     * literals[i] 之后追加变量 names[i] 的值，最后一个字面量之后没有变量 (names 比 literals 少一个)，
+     * 为 null 时回退到 {@link UriTemplate}
+     */
+    private final String[] literals;
+
+    private final String[] names;
+
+    private CompiledSetPath(UriTemplate uriTemplate, String[] literals, String[] names) {
+        this.uriTemplate = uriTemplate;
+        this.literals = literals;
+        this.names = names;
+    }
+
+    public static CompiledSetPath compile(String template) {
+        UriTemplate uriTemplate = new UriTemplate(template);
+        if (!template.startsWith("/") || template.contains("//")) {
+            return new CompiledSetPath(uriTemplate, null, null);
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        for (int open = template.indexOf('{'); open >= 0; open = template.indexOf('{', start)) {
+            int close = template.indexOf('}', open);
+            String name = close < 0 ? "" : template.substring(open + 1, close);
+            // 带正则约束的变量 {name:regex} 及嵌套花括号交给 UriTemplate
+            if (name.isEmpty() || name.indexOf(':') >= 0 || name.indexOf('{') >= 0) {
+                return new CompiledSetPath(uriTemplate, null, null);
+            }
+            literals.add(template.substring(start, open));
+            names.add(name);
+            start = close + 1;
+        }
+        literals.add(template.substring(start));
+        for (String literal : literals) {
+            if (!isPathSafe(literal)) {
+                return new CompiledSetPath(uriTemplate, null, null);
+            }
+        }
+        return new CompiledSetPath(uriTemplate, literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * 是否以快速路径展开，false 表示每次都交给 UriTemplate 处理
+     */
+    public boolean isCompiled() {
+        return literals != null;
+    }
+
+    /**
+     * 展开模板，结果与 uriTemplate.expand(variables).getRawPath() 一致
+     */
+    public String expand(Map<String, String> variables) {
+        if (literals == null) {
+            return uriTemplate.expand(variables).getRawPath();
+        }
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        for (String name : names) {
+            String value = variables.get(name);
+            if (value == null || !isPathSafe(value)) {
+                return uriTemplate.expand(variables).getRawPath();
+            }
+            length += value.length();
+        }
+        StringBuilder path = new StringBuilder(length);
+        for (int i = 0; i < names.length; i++) {
+            path.append(literals[i]).append(variables.get(names[i]));
+        }
+        path.append(literals[names.length]);
+        if (path.length() > 1 && path.charAt(1) == '/') {
+            // 以 // 开头会被 URI 解析为 authority，结果以 UriTemplate 为准
+            return uriTemplate.expand(variables).getRawPath();
+        }
+        return path.toString();
+    }
+
+    /**
+     * 是否全部为路径中无需编码的字符：unreserved、sub-delims、: @ 及 /
+     */
+    private static boolean isPathSafe(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "-._~!$&'()*+,;=:@/".indexOf(c) >= 0;
+            if (!safe) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledSetPath{template=" + uriTemplate + ", compiled=" + isCompiled() + "}";
+    }
+}
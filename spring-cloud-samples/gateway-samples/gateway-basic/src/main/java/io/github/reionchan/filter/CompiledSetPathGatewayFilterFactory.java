@@ -0,0 +1,57 @@
+package io.github.reionchan.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.SetPathGatewayFilterFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.getUriTemplateVariables;
+
+/**
+ * 以 {@link CompiledSetPath} 代替逐请求 UriTemplate 展开的 SetPath 过滤器工厂
+ *
+ * <pre>
+ * 过滤器名称、配置项与 {@link SetPathGatewayFilterFactory} 相同。
+ * 原过滤器将仅含路径的展开结果写入 GATEWAY_REQUEST_URL_ATTR，随后总会被 RouteToRequestUrlFilter 覆盖，
+ * 这里改为写入重建后请求的完整 URI。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class CompiledSetPathGatewayFilterFactory extends SetPathGatewayFilterFactory {
+
+    @Override
+    public String name() {
+        return "SetPath";
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        CompiledSetPath setPath = CompiledSetPath.compile(config.getTemplate());
+        return new GatewayFilter() {
+            @Override
+            public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+                ServerHttpRequest request = exchange.getRequest();
+                addOriginalRequestUrl(exchange, request.getURI());
+                String newPath = setPath.expand(getUriTemplateVariables(exchange));
+                ServerHttpRequest rewritten = request.mutate().path(newPath).build();
+                exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, rewritten.getURI());
+                return chain.filter(exchange.mutate().request(rewritten).build());
+            }
+
+            @Override
+            public String toString() {
+                return filterToStringCreator(CompiledSetPathGatewayFilterFactory.this)
+                        .append("template", config.getTemplate())
+                        .append("compiled", setPath.isCompiled())
+                        .toString();
+            }
+        };
+    }
+}
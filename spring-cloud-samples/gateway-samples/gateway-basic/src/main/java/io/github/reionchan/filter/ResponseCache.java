@@ -0,0 +1,193 @@
+package io.github.reionchan.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关响应缓存存储
+ *
+ * <pre>
+ * 基于 Caffeine 的有界缓存，按 键 + 响应头 + 响应体的字节数加权，总权重超过 maxSize 时按 W-TinyLFU 淘汰。
+ * 条目过期时间为 新鲜期 + revalidateWindow (仅带 ETag 的条目)：
+ *   新鲜期内直接命中；新鲜期后、条目过期前可携带 If-None-Match 向上游重新验证，304 时复用已缓存的响应体。
+ * 响应体以只读 {@link ByteBuffer} 保存，每次命中只创建共享底层字节的视图，不再复制。
+ * 条目同时保存原请求中响应 Vary 所列请求头 (响应带 Content-Encoding 时总包含 Accept-Encoding) 的值，
+ * 这些请求头不一致的请求不使用该条目，例如不会把 gzip 响应体返回给未声明 Accept-Encoding: gzip 的客户端。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ResponseCache {
+
+    private final Cache<String, Entry> cache;
+
+    public ResponseCache(DataSize maxSize, Duration revalidateWindow) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return lifetime(entry, revalidateWindow);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return lifetime(entry, revalidateWindow);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 当前缓存条目数 (近似值)
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static long lifetime(Entry entry, Duration revalidateWindow) {
+        long fresh = Math.max(entry.expiresAt() - System.currentTimeMillis(), 0);
+        long stale = entry.etag() != null ? revalidateWindow.toMillis() : 0;
+        return TimeUnit.MILLISECONDS.toNanos(fresh + stale);
+    }
+
+    /**
+     * 缓存的响应
+     *
+     * @param status    响应状态码
+     * @param headers   只读响应头
+     * @param body      只读响应体
+     * @param etag      上游 ETag，可以为 null
+     * @param storedAt  保存 (或最近一次重新验证) 的时间戳，毫秒
+     * @param expiresAt 新鲜期截止时间戳，毫秒
+     * @param vary      原请求中响应所依赖的请求头及其值
+     */
+    public record Entry(HttpStatusCode status, HttpHeaders headers, ByteBuffer body, String etag,
+                        long storedAt, long expiresAt, Map<String, List<String>> vary) {
+
+        /**
+         * 不转发给客户端或不应随缓存保存的响应头
+         */
+        private static final List<String> EXCLUDED_HEADERS = List.of(HttpHeaders.CONNECTION,
+                HttpHeaders.TRANSFER_ENCODING, "Keep-Alive", HttpHeaders.AGE, HttpHeaders.SET_COOKIE);
+
+        public static Entry of(HttpStatusCode status, HttpHeaders headers, byte[] body, long now, Duration ttl,
+                               HttpHeaders requestHeaders) {
+            Set<String> varyNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            varyNames.addAll(headers.getVary());
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                varyNames.add(HttpHeaders.ACCEPT_ENCODING);
+            }
+            Map<String, List<String>> vary = new LinkedHashMap<>();
+            for (String name : varyNames) {
+                vary.put(name, List.copyOf(requestHeaders.getOrEmpty(name)));
+            }
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return new Entry(status, HttpHeaders.readOnlyHttpHeaders(copy), ByteBuffer.wrap(body).asReadOnlyBuffer(),
+                    headers.getETag(), now, now + ttl.toMillis(), Collections.unmodifiableMap(vary));
+        }
+
+        /**
+         * 上游返回 304 后以新的新鲜期延续条目，响应体保持不变
+         */
+        public Entry revalidated(HttpHeaders notModified, long now, Duration ttl) {
+            HttpHeaders merged = new HttpHeaders();
+            merged.putAll(headers);
+            for (String name : List.of(HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES, HttpHeaders.DATE)) {
+                List<String> values = notModified.get(name);
+                if (values != null) {
+                    merged.put(name, List.copyOf(values));
+                }
+            }
+            String newEtag = notModified.getETag();
+            return new Entry(status, HttpHeaders.readOnlyHttpHeaders(merged), body,
+                    newEtag != null ? newEtag : etag, now, now + ttl.toMillis(), vary);
+        }
+
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        /**
+         * 自保存或最近一次重新验证以来的秒数
+         */
+        public long age(long now) {
+            return Math.max(now - storedAt, 0) / 1000;
+        }
+
+        /**
+         * 返回共享底层字节的只读视图
+         */
+        public ByteBuffer body() {
+            return body.duplicate();
+        }
+
+        /**
+         * 请求中响应所依赖的请求头与原请求一致
+         */
+        public boolean matches(HttpHeaders requestHeaders) {
+            for (Map.Entry<String, List<String>> header : vary.entrySet()) {
+                if (!header.getValue().equals(requestHeaders.getOrEmpty(header.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean matches(List<String> ifNoneMatch) {
+            return etag != null && (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*"));
+        }
+
+        int weight() {
+            int weight = body.capacity();
+            for (Map.Entry<String, List<String>> header : vary.entrySet()) {
+                weight += header.getKey().length() + header.getValue().toString().length();
+            }
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                weight += header.getKey().length();
+                for (String value : header.getValue()) {
+                    weight += value.length();
+                }
+            }
+            return weight;
+        }
+    }
+}
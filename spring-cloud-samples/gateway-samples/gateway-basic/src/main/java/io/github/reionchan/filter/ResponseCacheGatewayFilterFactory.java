@@ -0,0 +1,380 @@
+package io.github.reionchan.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 幂等 GET 路由的响应缓存过滤器工厂
+ *
+ * <pre>
+ * 缓存键：路由 ID + 路径及查询参数 + 配置的请求头 (如 Accept)
+ * 变体：条目记录上游 Vary 所列请求头 (带 Content-Encoding 时含 Accept-Encoding) 在原请求中的值，
+ *      值不一致的请求按未命中转发，其响应替换该条目
+ * 可缓存：GET 请求、上游 200 且 Content-Length 已知不超过 maxEntrySize、无 Set-Cookie、Vary 不为 *，
+ *        Cache-Control 不含 no-store / private
+ * 新鲜期：取上游 Cache-Control 的 s-maxage、max-age，no-cache 视为 0；均未设置时取 timeToLive，
+ *        timeToLive 也未设置则不缓存
+ * 重新验证：新鲜期已过但带 ETag 的条目以 If-None-Match 请求上游，上游 304 时延续新鲜期并返回已缓存的响应体
+ * 条件请求：客户端 If-None-Match 与缓存 ETag 一致时直接返回 304
+ * 带凭证：请求带 Authorization 或 Cookie 时，只有上游明确声明 public 或 s-maxage 的共享响应才会被缓存、被返回
+ *        (RFC 9111 §3.5)，否则既不读也不写缓存，避免把一个用户的响应返回给其他用户
+ * 请求 no-cache：即使条目仍新鲜也必须经上游重新验证
+ *
+ * 指标 (按路由)：
+ *   gateway.response.cache.requests   result = hit / revalidated / miss 的请求数
+ *   gateway.response.cache.hit.ratio  (hit + revalidated) / 全部请求
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * 标记响应来源的响应头：HIT / REVALIDATED / MISS
+     */
+    public static final String CACHE_HEADER = "X-Gateway-Cache";
+
+    private final ResponseCache cache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("timeToLive");
+    }
+
+    /**
+     * 排在 {@link NettyWriteResponseFilter} 之前，使其写出上游响应时经过本过滤器的响应装饰器
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(new GatewayFilter() {
+            @Override
+            public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+                return ResponseCacheGatewayFilterFactory.this.filter(exchange, chain, config);
+            }
+
+            @Override
+            public String toString() {
+                return "[ResponseCache timeToLive = " + config.getTimeToLive()
+                        + ", keyHeaders = " + config.getKeyHeaders() + "]";
+            }
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /**
+     * 路由的缓存命中率，尚无请求时为 0
+     */
+    public double hitRatio(String routeId) {
+        RouteStats routeStats = stats.get(routeId);
+        return routeStats == null ? 0 : routeStats.hitRatio();
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || hasDirective(request.getHeaders(), "no-store")) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        RouteStats routeStats = stats.computeIfAbsent(route != null ? route.getId() : "", RouteStats::new);
+        String key = key(routeStats.routeId, request, config.getKeyHeaders());
+        boolean authenticated = hasCredentials(request.getHeaders());
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null && (!entry.matches(request.getHeaders())
+                || authenticated && !isShared(entry.headers()))) {
+            entry = null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.isFresh(now) && !hasDirective(request.getHeaders(), "no-cache")) {
+            routeStats.hits.increment();
+            return serve(exchange.getResponse(), request.getHeaders().getIfNoneMatch(), entry, now, "HIT");
+        }
+
+        // 过期但带 ETag 的条目向上游重新验证，其余情况按未命中转发
+        // 转发请求的请求头可能与原请求共享，先取出客户端自身的 If-None-Match
+        List<String> ifNoneMatch = List.copyOf(request.getHeaders().getIfNoneMatch());
+        ResponseCache.Entry stale = entry != null && entry.etag() != null ? entry : null;
+        ServerWebExchange forward = exchange;
+        if (stale != null) {
+            forward = exchange.mutate()
+                    .request(builder -> builder.headers(headers -> headers.setIfNoneMatch(stale.etag())))
+                    .build();
+        }
+        CachingResponse response = new CachingResponse(exchange.getResponse(), request.getHeaders(), ifNoneMatch, key,
+                stale, authenticated, config, routeStats);
+        return chain.filter(forward.mutate().response(response).build());
+    }
+
+    private static Mono<Void> serve(ServerHttpResponse response, List<String> ifNoneMatch,
+                                    ResponseCache.Entry entry, long now, String result) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(entry.age(now)));
+        headers.set(CACHE_HEADER, result);
+        if (entry.matches(ifNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(entry.status());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(entry.body())));
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, List<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : keyHeaders) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 由 Cache-Control 解析新鲜期，返回 null 表示不可缓存
+     */
+    static Duration timeToLive(HttpHeaders headers, Duration fallback) {
+        if (hasDirective(headers, "no-store") || hasDirective(headers, "private")) {
+            return null;
+        }
+        if (hasDirective(headers, "no-cache")) {
+            return Duration.ZERO;
+        }
+        Long seconds = directiveValue(headers, "s-maxage");
+        if (seconds == null) {
+            seconds = directiveValue(headers, "max-age");
+        }
+        return seconds != null ? Duration.ofSeconds(seconds) : fallback;
+    }
+
+    /**
+     * 请求是否携带用户凭证
+     */
+    private static boolean hasCredentials(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE);
+    }
+
+    /**
+     * 上游是否明确允许共享缓存保存带凭证请求的响应
+     */
+    private static boolean isShared(HttpHeaders headers) {
+        return hasDirective(headers, "public") || directiveValue(headers, "s-maxage") != null;
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String token : value.split(",")) {
+                if (token.trim().toLowerCase(Locale.ROOT).equals(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long directiveValue(HttpHeaders headers, String directive) {
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String token : value.split(",")) {
+                String trimmed = token.trim().toLowerCase(Locale.ROOT);
+                if (trimmed.startsWith(directive + "=")) {
+                    try {
+                        return Math.max(Long.parseLong(trimmed.substring(directive.length() + 1)), 0);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在上游响应写出时保存响应体，或在上游 304 时改为返回已缓存的响应
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders requestHeaders;
+
+        private final List<String> ifNoneMatch;
+
+        private final String key;
+
+        private final ResponseCache.Entry stale;
+
+        private final boolean authenticated;
+
+        private final Config config;
+
+        private final RouteStats routeStats;
+
+        CachingResponse(ServerHttpResponse delegate, HttpHeaders requestHeaders, List<String> ifNoneMatch, String key,
+                        ResponseCache.Entry stale, boolean authenticated, Config config, RouteStats routeStats) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+            this.ifNoneMatch = ifNoneMatch;
+            this.key = key;
+            this.stale = stale;
+            this.authenticated = authenticated;
+            this.config = config;
+            this.routeStats = routeStats;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long now = System.currentTimeMillis();
+            HttpHeaders headers = getHeaders();
+            if (stale != null && getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                routeStats.revalidated.increment();
+                Duration ttl = timeToLive(headers, config.getTimeToLive());
+                ResponseCache.Entry refreshed = stale.revalidated(headers, now, ttl != null ? ttl : Duration.ZERO);
+                cache.put(key, refreshed);
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(serve(getDelegate(), ifNoneMatch, refreshed, now, "REVALIDATED"));
+            }
+
+            routeStats.misses.increment();
+            headers.set(CACHE_HEADER, "MISS");
+            Duration ttl = timeToLive(headers, config.getTimeToLive());
+            long length = headers.getContentLength();
+            if (getStatusCode() != HttpStatus.OK || ttl == null || (ttl.isZero() && headers.getETag() == null)
+                    || length <= 0 || length > config.getMaxEntrySize().toBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")
+                    || (authenticated && !isShared(headers))) {
+                if (stale != null) {
+                    cache.invalidate(key);
+                }
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                ResponseCache.Entry entry = ResponseCache.Entry.of(getStatusCode(), headers, bytes, now, ttl,
+                        requestHeaders);
+                cache.put(key, entry);
+                return super.writeWith(Mono.just(bufferFactory().wrap(entry.body())));
+            });
+        }
+    }
+
+    private final class RouteStats {
+
+        private final String routeId;
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder revalidated = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        RouteStats(String routeId) {
+            this.routeId = routeId;
+            if (meterRegistry != null) {
+                register("hit", hits);
+                register("revalidated", revalidated);
+                register("miss", misses);
+                Gauge.builder("gateway.response.cache.hit.ratio", this, RouteStats::hitRatio)
+                        .tag("route", routeId)
+                        .register(meterRegistry);
+            }
+        }
+
+        private void register(String result, LongAdder counter) {
+            FunctionCounter.builder("gateway.response.cache.requests", counter, LongAdder::sum)
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        double hitRatio() {
+            long served = hits.sum() + revalidated.sum();
+            long total = served + misses.sum();
+            return total == 0 ? 0 : (double) served / total;
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * 上游未给出 max-age / s-maxage 时使用的新鲜期，为 null 时不缓存此类响应
+         */
+        private Duration timeToLive;
+
+        /**
+         * 参与缓存键的请求头
+         */
+        private List<String> keyHeaders = List.of();
+
+        /**
+         * 单个响应体的上限，超过时不缓存
+         */
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public Config setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public Config setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+            return this;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public Config setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+    }
+}
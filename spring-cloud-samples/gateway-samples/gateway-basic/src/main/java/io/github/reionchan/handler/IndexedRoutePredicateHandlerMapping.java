@@ -0,0 +1,128 @@
+package io.github.reionchan.handler;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.CachingRouteLocator;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_PATH_CONTAINER_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * 基于 {@link RouteIndex} 的路由断言处理映射器
+ *
+ * <pre>
+ * 与 {@link RoutePredicateHandlerMapping#lookupRoute} 的语义一致：按声明顺序执行断言、返回第一个匹配的路由、
+ * 断言异常只记录日志并跳过该路由；区别在于只对索引给出的候选路由执行断言。
+ *
+ * 索引重建：
+ *   请求路径上只读取一次 volatile 索引，不再读取路由列表；索引只在 {@link RefreshRoutesResultEvent} 时重建一次，
+ *   构建完成后以一次 volatile 写整体替换，请求要么使用旧索引、要么使用新索引，不会读到半构建的索引。
+ *   {@link CachingRouteLocator} 收到 {@link RefreshRoutesEvent} 后先发布 {@link RefreshRoutesResultEvent} 再替换缓存，
+ *   因此事件中读到的可能仍是旧列表：读到的列表与当前索引的路由完全相同 (逐个比较路由引用) 时，
+ *   间隔 {@link #STALE_READ_DELAY} 重新读取，最多 {@link #STALE_READ_RETRIES} 次，之后认为路由确实未变化并保留旧索引。
+ *   多次刷新并发重建时只有最近一次刷新的结果会被发布。首次构建完成前按原实现顺序匹配全部路由。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping {
+
+    /**
+     * 读到替换前的旧路由列表时，重新读取的次数及间隔
+     */
+    static final int STALE_READ_RETRIES = 5;
+
+    static final Duration STALE_READ_DELAY = Duration.ofMillis(20);
+
+    private final RouteLocator routeLocator;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile RouteIndex index;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                               GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+    }
+
+    @EventListener
+    public void onRefreshRoutesResult(RefreshRoutesResultEvent event) {
+        if (event.isSuccess()) {
+            rebuildIndex().subscribe(null, e -> logger.error("Failed to rebuild route index", e));
+        }
+    }
+
+    /**
+     * 读取最新的路由列表重建索引
+     *
+     * @return 发布后的索引；路由未变化或已有更新的刷新时为当前索引
+     */
+    public Mono<RouteIndex> rebuildIndex() {
+        long current = generation.incrementAndGet();
+        RouteIndex previous = index;
+        return routeLocator.getRoutes().collectList()
+                .filter(routes -> previous == null || !previous.covers(routes))
+                .repeatWhenEmpty(attempts -> attempts.take(STALE_READ_RETRIES).delayElements(STALE_READ_DELAY))
+                .map(routes -> {
+                    RouteIndex built = new RouteIndex(routes);
+                    if (generation.get() == current) {
+                        index = built;
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("Route index rebuilt with " + built.size() + " routes");
+                        }
+                    }
+                    return built;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> index))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteIndex current = index;
+        if (current == null) {
+            return super.lookupRoute(exchange);
+        }
+        return Flux.fromIterable(candidates(current, exchange))
+                .concatMap(route -> Mono.just(route).filterWhen(r -> {
+                    exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                    return r.getPredicate().apply(exchange);
+                }).doOnError(e -> logger.error("Error applying predicate for route: " + route.getId(), e))
+                        .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Route matched: " + route.getId());
+                    }
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    private static List<Route> candidates(RouteIndex current, ServerWebExchange exchange) {
+        // 与 Path 断言共用同一个解析结果
+        PathContainer path = (PathContainer) exchange.getAttributes().computeIfAbsent(
+                GATEWAY_PREDICATE_PATH_CONTAINER_ATTR,
+                key -> PathContainer.parsePath(exchange.getRequest().getURI().getRawPath()));
+        return current.candidates(path, exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST));
+    }
+}
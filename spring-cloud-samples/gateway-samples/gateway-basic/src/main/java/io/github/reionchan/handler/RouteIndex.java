@@ -0,0 +1,231 @@
+package io.github.reionchan.handler;
+
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.GatewayPredicate;
+import org.springframework.cloud.gateway.handler.predicate.HostRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * 路由匹配索引
+ *
+ * <pre>
+ * 网关默认按声明顺序逐个执行全部路由的断言，路由表增大后每个请求的匹配开销随之线性增长。
+ * 本索引只针对 path() / host() 两种断言缩小候选范围，其余断言仍在候选路由上完整执行：
+ *   1. 路径前缀树：以路径模式开头的字面量段 (不含 * ? {) 建树，请求路径沿树下行，
+ *      途经节点上挂载的路由均为候选
+ *   2. 主机哈希：全字面量模式放入精确主机表，含通配符的模式以右侧连续字面量标签为后缀键放入通配表，
+ *      请求主机查询精确键及其每个标签后缀
+ *   3. 路径候选与主机候选求交集，按路由在列表中的下标 (即声明顺序) 依次返回
+ *
+ * 断言树中只识别 AND 组合，OR / NEGATE 及无法识别的断言视为不约束路径和主机，
+ * 因而候选集总是真实匹配集的超集，不会改变匹配结果。
+ * 字面量比较统一转为小写，兼容大小写不敏感的匹配器配置。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class RouteIndex {
+
+    private static final Field ASYNC_AND_LEFT = field(AsyncPredicate.AndAsyncPredicate.class, "left");
+    private static final Field ASYNC_AND_RIGHT = field(AsyncPredicate.AndAsyncPredicate.class, "right");
+    private static final Field ASYNC_DELEGATE = field(AsyncPredicate.DefaultAsyncPredicate.class, "delegate");
+    private static final Field AND_LEFT = field(GatewayPredicate.AndGatewayPredicate.class, "left");
+    private static final Field AND_RIGHT = field(GatewayPredicate.AndGatewayPredicate.class, "right");
+
+    private final List<Route> routes;
+
+    private final Node root = new Node();
+
+    private final BitSet pathUnconstrained = new BitSet();
+
+    private final Map<String, BitSet> exactHosts = new HashMap<>();
+
+    private final Map<String, BitSet> wildcardHostSuffixes = new HashMap<>();
+
+    private final BitSet hostUnconstrained = new BitSet();
+
+    public RouteIndex(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+        for (int i = 0; i < this.routes.size(); i++) {
+            Constraints constraints = new Constraints();
+            collect(this.routes.get(i).getPredicate(), constraints);
+            indexPath(i, constraints.paths);
+            indexHost(i, constraints.hosts);
+        }
+    }
+
+    /**
+     * 索引是否由给定的路由列表构建 (逐个比较路由对象引用)
+     */
+    public boolean covers(List<Route> routes) {
+        if (routes.size() != this.routes.size()) {
+            return false;
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            if (routes.get(i) != this.routes.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    /**
+     * 按声明顺序返回路径和主机均可能匹配的候选路由
+     *
+     * @param path 请求原始路径解析出的路径容器，与 Path 断言使用的一致
+     * @param host 请求头 Host，可以为 null
+     */
+    public List<Route> candidates(PathContainer path, String host) {
+        BitSet candidates = pathCandidates(path);
+        candidates.and(hostCandidates(host));
+        List<Route> result = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            result.add(routes.get(i));
+        }
+        return result;
+    }
+
+    private BitSet pathCandidates(PathContainer path) {
+        BitSet candidates = (BitSet) pathUnconstrained.clone();
+        Node node = root;
+        candidates.or(node.routes);
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment) || segment.valueToMatch().isEmpty()) {
+                continue;
+            }
+            node = node.children.get(segment.valueToMatch().toLowerCase(Locale.ROOT));
+            if (node == null) {
+                break;
+            }
+            candidates.or(node.routes);
+        }
+        return candidates;
+    }
+
+    private BitSet hostCandidates(String host) {
+        BitSet candidates = (BitSet) hostUnconstrained.clone();
+        if (host == null) {
+            return candidates;
+        }
+        List<String> labels = labels(host);
+        or(candidates, exactHosts.get(String.join(".", labels)));
+        // 依次查询空后缀、最右一个标签、最右两个标签 ... 整个主机
+        for (int i = labels.size(); i >= 0; i--) {
+            or(candidates, wildcardHostSuffixes.get(String.join(".", labels.subList(i, labels.size()))));
+        }
+        return candidates;
+    }
+
+    private void indexPath(int route, List<String> patterns) {
+        if (patterns == null) {
+            pathUnconstrained.set(route);
+            return;
+        }
+        for (String pattern : patterns) {
+            Node node = root;
+            for (String segment : StringUtils.tokenizeToStringArray(pattern, "/")) {
+                if (!isLiteral(segment)) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(segment.toLowerCase(Locale.ROOT), key -> new Node());
+            }
+            node.routes.set(route);
+        }
+    }
+
+    private void indexHost(int route, List<String> patterns) {
+        if (patterns == null) {
+            hostUnconstrained.set(route);
+            return;
+        }
+        for (String pattern : patterns) {
+            List<String> labels = labels(pattern);
+            int literalFrom = labels.size();
+            while (literalFrom > 0 && isLiteral(labels.get(literalFrom - 1))) {
+                literalFrom--;
+            }
+            Map<String, BitSet> table = literalFrom == 0 ? exactHosts : wildcardHostSuffixes;
+            String key = String.join(".", labels.subList(literalFrom, labels.size()));
+            table.computeIfAbsent(key, k -> new BitSet()).set(route);
+        }
+    }
+
+    /**
+     * 按 "." 切分主机标签，与 AntPathMatcher 一致地忽略空标签
+     */
+    private static List<String> labels(String host) {
+        return Arrays.asList(StringUtils.tokenizeToStringArray(host.toLowerCase(Locale.ROOT), "."));
+    }
+
+    private static boolean isLiteral(String token) {
+        return token.indexOf('*') < 0 && token.indexOf('?') < 0 && token.indexOf('{') < 0;
+    }
+
+    private static void or(BitSet target, BitSet source) {
+        if (source != null) {
+            target.or(source);
+        }
+    }
+
+    /**
+     * 沿 AND 组合收集 Path / Host 断言的模式，同一类断言出现多次时取第一个即可 (路由须同时满足)
+     */
+    private static void collect(Object predicate, Constraints constraints) {
+        if (predicate instanceof AsyncPredicate.AndAsyncPredicate) {
+            collect(get(ASYNC_AND_LEFT, predicate), constraints);
+            collect(get(ASYNC_AND_RIGHT, predicate), constraints);
+        } else if (predicate instanceof GatewayPredicate.AndGatewayPredicate) {
+            collect(get(AND_LEFT, predicate), constraints);
+            collect(get(AND_RIGHT, predicate), constraints);
+        } else if (predicate instanceof AsyncPredicate.DefaultAsyncPredicate) {
+            collect(get(ASYNC_DELEGATE, predicate), constraints);
+        } else if (predicate instanceof GatewayPredicate gatewayPredicate) {
+            Class<?> factory = gatewayPredicate.getClass().getEnclosingClass();
+            Object config = gatewayPredicate.getConfig();
+            if (factory == PathRoutePredicateFactory.class && constraints.paths == null
+                    && config instanceof PathRoutePredicateFactory.Config path && path.getPatterns() != null) {
+                constraints.paths = List.copyOf(path.getPatterns());
+            } else if (factory == HostRoutePredicateFactory.class && constraints.hosts == null
+                    && config instanceof HostRoutePredicateFactory.Config host && host.getPatterns() != null) {
+                constraints.hosts = List.copyOf(host.getPatterns());
+            }
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        Field field = ReflectionUtils.findField(type, name);
+        if (field != null) {
+            ReflectionUtils.makeAccessible(field);
+        }
+        return field;
+    }
+
+    /**
+     * 网关版本变化导致字段不存在时返回 null，该分支被视为不约束
+     */
+    private static Object get(Field field, Object target) {
+        return field == null ? null : ReflectionUtils.getField(field, target);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final BitSet routes = new BitSet();
+    }
+
+    private static final class Constraints {
+        private List<String> paths;
+        private List<String> hosts;
+    }
+}
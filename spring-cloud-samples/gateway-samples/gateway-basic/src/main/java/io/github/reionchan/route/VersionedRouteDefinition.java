@@ -0,0 +1,37 @@
+package io.github.reionchan.route;
+
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * 带版本号的路由定义
+ *
+ * <pre>
+ * 由 {@link VersionedRouteDefinitionRepository} 在每次保存时分配版本号，版本号在整个仓库内单调递增，
+ * 同一路由删除后重新保存也不会得到旧的版本号。{@link IncrementalRouteDefinitionRouteLocator} 只需比较版本号
+ * 即可判断路由是否变化，不必逐项比较断言与过滤器定义。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class VersionedRouteDefinition extends RouteDefinition {
+
+    private final long version;
+
+    public VersionedRouteDefinition(RouteDefinition definition, long version) {
+        setId(definition.getId());
+        setPredicates(new ArrayList<>(definition.getPredicates()));
+        setFilters(new ArrayList<>(definition.getFilters()));
+        setUri(definition.getUri());
+        setMetadata(new LinkedHashMap<>(definition.getMetadata()));
+        setOrder(definition.getOrder());
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,349 @@
+package io.github.reionchan.route;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionRepository;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * 基于本地追加写文件的带版本路由定义仓库
+ *
+ * <pre>
+ * 每次保存、删除都在文件末尾追加一条记录，不改写已有内容：
+ *   [int 长度][int CRC32][byte 操作][long 版本号][int ID 长度][ID][路由定义 JSON]
+ * 版本号在仓库内单调递增，每条记录一个，读出的路由定义为 {@link VersionedRouteDefinition}；
+ * 内容不变的重复保存不追加记录，版本号保持不变，下游也就不必重新编译该路由。
+ *
+ * 启动时以只读方式内存映射整个文件顺序回放：先只解析记录头建立 ID → 最新记录的索引，
+ * 再只对存活的路由解析 JSON，被覆盖、已删除的记录不做反序列化。
+ * 末尾校验失败的记录 (写入中途宕机) 被截断；已删除、被覆盖的记录超过存活记录且文件超过 1MB 时，
+ * 以存活记录重写到临时文件后原子替换 (压缩)。
+ *
+ * 写入在 boundedElastic 线程上串行执行，默认每条记录 fsync 一次。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+public class VersionedRouteDefinitionRepository implements RouteDefinitionRepository, Closeable {
+
+    private static final byte SAVE = 1;
+
+    private static final byte DELETE = 2;
+
+    /**
+     * 压缩后文件的第一条记录，保存当时的版本号，保证删除记录被丢弃后版本号也不会回退
+     */
+    private static final byte SEQUENCE = 3;
+
+    /**
+     * 长度 + CRC32
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * 操作 + 版本号 + ID 长度
+     */
+    private static final int MIN_BODY_SIZE = 13;
+
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+
+    private final Path path;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    private final boolean fsync;
+
+    /**
+     * 按首次保存的顺序排列，由 this 保护
+     */
+    private final Map<String, Stored> routes = new LinkedHashMap<>();
+
+    private FileChannel channel;
+
+    private long sequence;
+
+    private long fileSize;
+
+    private long liveBytes;
+
+    public VersionedRouteDefinitionRepository(Path path, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.reader = objectMapper.readerFor(RouteDefinition.class);
+        // 按 RouteDefinition 序列化，不写出 VersionedRouteDefinition 的版本号
+        this.writer = objectMapper.writerFor(RouteDefinition.class);
+        this.fsync = fsync;
+        load();
+    }
+
+    @Override
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.defer(() -> Flux.fromIterable(snapshot()));
+    }
+
+    @Override
+    public Mono<Void> save(Mono<RouteDefinition> route) {
+        return route.publishOn(Schedulers.boundedElastic()).flatMap(r -> {
+            if (!StringUtils.hasText(r.getId())) {
+                return Mono.error(new IllegalArgumentException("id may not be empty"));
+            }
+            try {
+                put(r);
+                return Mono.<Void>empty();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> delete(Mono<String> routeId) {
+        return routeId.publishOn(Schedulers.boundedElastic()).flatMap(id -> {
+            try {
+                return remove(id) ? Mono.<Void>empty()
+                        : Mono.<Void>error(new NotFoundException("RouteDefinition not found: " + id));
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    /**
+     * 当前的版本号，即最近一次写入分配的版本号
+     */
+    public synchronized long getVersion() {
+        return sequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private synchronized List<RouteDefinition> snapshot() {
+        return routes.values().stream().<RouteDefinition>map(Stored::definition).toList();
+    }
+
+    private synchronized void put(RouteDefinition definition) throws IOException {
+        Stored current = routes.get(definition.getId());
+        if (current != null && sameContent(current.definition(), definition)) {
+            return;
+        }
+        long version = sequence + 1;
+        int size = append(SAVE, version, definition.getId(), writer.writeValueAsBytes(definition));
+        sequence = version;
+        routes.put(definition.getId(), new Stored(new VersionedRouteDefinition(definition, version), size));
+        liveBytes += size - (current != null ? current.size() : 0);
+        compactIfNeeded();
+    }
+
+    private synchronized boolean remove(String id) throws IOException {
+        Stored current = routes.get(id);
+        if (current == null) {
+            return false;
+        }
+        append(DELETE, sequence + 1, id, new byte[0]);
+        sequence++;
+        routes.remove(id);
+        liveBytes -= current.size();
+        compactIfNeeded();
+        return true;
+    }
+
+    private static boolean sameContent(RouteDefinition stored, RouteDefinition definition) {
+        return Objects.equals(stored.getPredicates(), definition.getPredicates())
+                && Objects.equals(stored.getFilters(), definition.getFilters())
+                && Objects.equals(stored.getUri(), definition.getUri())
+                && Objects.equals(stored.getMetadata(), definition.getMetadata())
+                && stored.getOrder() == definition.getOrder();
+    }
+
+    private void load() throws IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        long valid = size == 0 ? 0 : replay(size);
+        if (valid < size) {
+            log.warn("Truncating " + (size - valid) + " corrupted bytes at the end of route store " + path);
+            channel.truncate(valid);
+        }
+        fileSize = valid;
+        channel.position(valid);
+        log.info("Loaded " + routes.size() + " route definitions (version " + sequence + ") from " + path
+                + " in " + (System.currentTimeMillis() - start) + " ms");
+        compactIfNeeded();
+    }
+
+    /**
+     * 回放文件，返回最后一条完整记录的结束位置
+     */
+    private long replay(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Route store " + path + " is too large to map: " + size + " bytes");
+        }
+        // 映射在缓冲区被回收时释放
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        Map<String, Slot> latest = new LinkedHashMap<>();
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (buffer.limit() - position >= HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            int bodyStart = position + HEADER_SIZE;
+            if (length < MIN_BODY_SIZE || length > buffer.limit() - bodyStart) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(bodyStart, length));
+            int idLength = buffer.getInt(bodyStart + 9);
+            if ((int) crc.getValue() != buffer.getInt(position + 4) || idLength < 0
+                    || idLength > length - MIN_BODY_SIZE) {
+                break;
+            }
+            byte op = buffer.get(bodyStart);
+            long version = buffer.getLong(bodyStart + 1);
+            sequence = Math.max(sequence, version);
+            if (op != SEQUENCE) {
+                String id = StandardCharsets.UTF_8.decode(buffer.slice(bodyStart + 13, idLength)).toString();
+                if (op == DELETE) {
+                    latest.remove(id);
+                } else {
+                    int jsonStart = bodyStart + MIN_BODY_SIZE + idLength;
+                    latest.put(id, new Slot(version, jsonStart, bodyStart + length - jsonStart,
+                            HEADER_SIZE + length));
+                }
+            }
+            position = bodyStart + length;
+        }
+
+        for (Map.Entry<String, Slot> entry : latest.entrySet()) {
+            Slot slot = entry.getValue();
+            byte[] json = new byte[slot.jsonLength()];
+            buffer.get(slot.jsonOffset(), json);
+            RouteDefinition definition = reader.readValue(json);
+            routes.put(entry.getKey(), new Stored(new VersionedRouteDefinition(definition, slot.version()),
+                    slot.size()));
+            liveBytes += slot.size();
+        }
+        return position;
+    }
+
+    private int append(byte op, long version, String id, byte[] json) throws IOException {
+        ByteBuffer record = encode(op, version, id, json);
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // 丢弃写了一半的记录，否则之后追加的记录在回放时都会被截断
+            channel.truncate(fileSize);
+            channel.position(fileSize);
+            throw e;
+        }
+        fileSize += record.limit();
+        return record.limit();
+    }
+
+    private static ByteBuffer encode(byte op, long version, String id, byte[] json) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int length = MIN_BODY_SIZE + idBytes.length + json.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+        record.putInt(length).putInt(0).put(op).putLong(version).putInt(idBytes.length).put(idBytes).put(json);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, length);
+        record.putInt(4, (int) crc.getValue());
+        return record.flip();
+    }
+
+    /**
+     * 压缩只影响文件大小，失败时保留原文件继续追加
+     */
+    private void compactIfNeeded() {
+        if (fileSize <= COMPACT_THRESHOLD || fileSize - liveBytes <= liveBytes) {
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            compact(temp);
+        } catch (IOException e) {
+            log.warn("Failed to compact route store " + path, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 下次压缩时覆盖
+            }
+        }
+    }
+
+    private void compact(Path temp) throws IOException {
+        long start = System.currentTimeMillis();
+        long before = fileSize;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, encode(SEQUENCE, sequence, "", new byte[0]));
+            for (Map.Entry<String, Stored> entry : routes.entrySet()) {
+                Stored stored = entry.getValue();
+                write(out, encode(SAVE, stored.definition().getVersion(), entry.getKey(),
+                        writer.writeValueAsBytes(stored.definition())));
+            }
+            out.force(true);
+        }
+        // 替换前原文件保持打开，替换失败时仍可继续追加
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel compacted = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.close();
+        channel = compacted;
+        fileSize = channel.size();
+        channel.position(fileSize);
+        liveBytes = fileSize;
+        log.info("Compacted route store " + path + " from " + before + " to " + fileSize + " bytes in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private static void write(FileChannel out, ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            out.write(record);
+        }
+    }
+
+    /**
+     * 存活的路由定义及其记录占用的字节数
+     */
+    private record Stored(VersionedRouteDefinition definition, int size) {
+    }
+
+    /**
+     * 回放时某个 ID 最新记录中 JSON 的位置
+     */
+    private record Slot(long version, int jsonOffset, int jsonLength, int size) {
+    }
+}
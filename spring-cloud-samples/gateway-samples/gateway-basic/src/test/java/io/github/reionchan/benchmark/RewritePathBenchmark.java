@@ -0,0 +1,118 @@
+package io.github.reionchan.benchmark;
+
+import io.github.reionchan.filter.CompiledRewritePath;
+import io.github.reionchan.filter.CompiledRewritePathGatewayFilterFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.RewritePathGatewayFilterFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * RewritePath 过滤器的单次重写开销
+ *
+ * <pre>
+ * 以 gateway-basic 中 rewrite_route 的规则 /foo/(?&lt;segment&gt;.*) → /${segment} 及一个路径段捕获规则，
+ * 分别以两种实现对同一请求路径重写：
+ *   REGEX      {@link RewritePathGatewayFilterFactory}，每次 Pattern.matcher(path).replaceAll (改动前)
+ *   COMPILED   {@link CompiledRewritePathGatewayFilterFactory}，路由构建时编译为字符串截取 (改动后)
+ *
+ * 基准方法：
+ *   rewrite    完整的 filter 调用，包含重建请求 (ServerHttpRequest.mutate) 的开销
+ *   path       只计算新路径，即 replaceAll 与 {@link CompiledRewritePath#rewrite} 的对比
+ *
+ * 运行方式 (GC 分析器输出的 gc.alloc.rate.norm 即每次重写分配的字节数)：
+ *   直接运行 main 方法，JMH 注解处理器在 test-compile 时生成基准测试代码
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewritePathBenchmark {
+
+    public enum Rule {
+        PREFIX_STRIP("/foo/(?<segment>.*)", "/${segment}", "/foo/anything/v1/users"),
+        SEGMENT_CAPTURE("^/users/(?<id>[^/]+)/orders/(?<rest>.*)", "/orders/${rest}?user=${id}",
+                "/users/42/orders/2026/10");
+
+        private final String regexp;
+
+        private final String replacement;
+
+        private final String path;
+
+        Rule(String regexp, String replacement, String path) {
+            this.regexp = regexp;
+            this.replacement = replacement;
+            this.path = path;
+        }
+    }
+
+    public enum Factory {
+        REGEX, COMPILED
+    }
+
+    @Param
+    public Rule rule;
+
+    @Param
+    public Factory factory;
+
+    private GatewayFilter filter;
+
+    private UnaryOperator<String> pathRewriter;
+
+    private MockServerWebExchange exchange;
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Setup
+    public void setup() {
+        RewritePathGatewayFilterFactory filterFactory = factory == Factory.REGEX
+                ? new RewritePathGatewayFilterFactory() : new CompiledRewritePathGatewayFilterFactory();
+        filter = filterFactory.apply(c -> c.setRegexp(rule.regexp).setReplacement(rule.replacement));
+        if (factory == Factory.REGEX) {
+            Pattern pattern = Pattern.compile(rule.regexp);
+            pathRewriter = path -> pattern.matcher(path).replaceAll(rule.replacement);
+        } else {
+            pathRewriter = CompiledRewritePath.compile(rule.regexp, rule.replacement)::rewrite;
+        }
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost:8080" + rule.path));
+    }
+
+    @Benchmark
+    public Mono<Void> rewrite() {
+        // 重写在 filter 调用内同步完成，返回的 Mono 无需订阅
+        return filter.filter(exchange, chain);
+    }
+
+    @Benchmark
+    public String path() {
+        return pathRewriter.apply(rule.path);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RewritePathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.reionchan.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class CompiledRewritePathTest {
+
+    private static final List<String> PATHS = List.of("/foo/bar", "/foo/", "/foo", "/foo/a/b/c", "/x/foo/bar",
+            "/users/42/orders/7", "/users//orders/7", "/users/42", "/users/42/", "/", "", "/foo/a%20b",
+            "/foo/line\nbreak", "/users/42/orders");
+
+    @Test
+    public void compilesCommonShapesAndMatchesRegex() {
+        assertCompiled("/foo/(?<segment>.*)", "/${segment}");
+        assertCompiled("/foo/(?<segment>.*)$", "/bar/$1");
+        assertCompiled("^/foo/(.*)", "/bar/$1");
+        assertCompiled("^/foo", "/bar");
+        assertCompiled("^/users/(?<id>[^/]+)/orders/(?<rest>.*)", "/orders/${rest}?user=${id}");
+        assertCompiled("^/users/([^/]*)/orders/([^/]+)$", "/o/$2/u/$1");
+        assertCompiled("^/users/([^/]+)", "/members/$1");
+        assertCompiled("^/foo\\.json/(.*)", "/\\$1/$1");
+        assertCompiled("/foo/(?<segment>.*)", "/$10");
+    }
+
+    @Test
+    public void fallsBackToRegexForOtherShapes() {
+        assertFallback("/foo/(?<segment>\\d+)", "/${segment}");
+        assertFallback("/(foo|bar)/(.*)", "/$2");
+        assertFallback("^/users/([^/]+)\\.json", "/$1");
+        assertFallback("^/(.*)/orders", "/$1");
+        assertFallback("/foo", "/bar");
+        assertFallback("/foo/(.*)", "$0");
+
+        // 非法的替换模板与正则抛出相同的异常
+        CompiledRewritePath invalid = CompiledRewritePath.compile("/foo/(.*)", "/$2");
+        assertThat(invalid.isCompiled()).isFalse();
+        assertThatThrownBy(() -> invalid.rewrite("/foo/bar")).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void returnsSamePathWhenNothingMatches() {
+        String path = "/bar/baz";
+        assertThat(CompiledRewritePath.compile("/foo/(?<segment>.*)", "/${segment}").rewrite(path)).isSameAs(path);
+    }
+
+    @Test
+    public void setPathMatchesUriTemplate() {
+        List<Map<String, String>> variables = List.of(Map.of("segment", "bar"), Map.of("segment", "a/b"),
+                Map.of("segment", "a b"), Map.of("segment", "50%"), Map.of("segment", ""),
+                Map.of("segment", "/evil"), Map.of("segment", "x", "id", "42"), Map.of("segment", "ü"));
+        for (String template : List.of("/{segment}", "/foo/{segment}", "/foo/{segment}/{id}", "/{segment}.json",
+                "/a b/{segment}", "/foo//{segment}", "/foo/{segment:[a-z]+}")) {
+            CompiledSetPath setPath = CompiledSetPath.compile(template);
+            for (Map<String, String> vars : variables) {
+                UriTemplate uriTemplate = new UriTemplate(template);
+                Object expected;
+                try {
+                    expected = uriTemplate.expand(vars).getRawPath();
+                } catch (RuntimeException e) {
+                    expected = e.getClass();
+                }
+                Object actual;
+                try {
+                    actual = setPath.expand(vars);
+                } catch (RuntimeException e) {
+                    actual = e.getClass();
+                }
+                assertThat(actual).as(template + " " + vars).isEqualTo(expected);
+            }
+        }
+        assertThat(CompiledSetPath.compile("/foo/{segment}").isCompiled()).isTrue();
+        assertThat(CompiledSetPath.compile("/a b/{segment}").isCompiled()).isFalse();
+    }
+
+    private static void assertCompiled(String regexp, String replacement) {
+        CompiledRewritePath rewritePath = CompiledRewritePath.compile(regexp, replacement);
+        assertThat(rewritePath.isCompiled()).as(regexp).isTrue();
+        assertSameAsRegex(rewritePath, regexp, replacement);
+    }
+
+    private static void assertFallback(String regexp, String replacement) {
+        CompiledRewritePath rewritePath = CompiledRewritePath.compile(regexp, replacement);
+        assertThat(rewritePath.isCompiled()).as(regexp).isFalse();
+        assertSameAsRegex(rewritePath, regexp, replacement);
+    }
+
+    private static void assertSameAsRegex(CompiledRewritePath rewritePath, String regexp, String replacement) {
+        Pattern pattern = Pattern.compile(regexp);
+        for (String path : PATHS) {
+            assertThat(rewritePath.rewrite(path)).as(regexp + " on " + path)
+                    .isEqualTo(pattern.matcher(path).replaceAll(replacement));
+        }
+    }
+}
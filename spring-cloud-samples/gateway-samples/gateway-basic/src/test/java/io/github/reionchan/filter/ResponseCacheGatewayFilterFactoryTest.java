@@ -0,0 +1,203 @@
+package io.github.reionchan.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"url\": \"http://httpbin.org/get\"}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(
+            new ResponseCache(DataSize.ofMegabytes(1), Duration.ofMinutes(5)), meterRegistry);
+
+    private final GatewayFilter filter = factory.apply(c -> c.setTimeToLive(Duration.ofSeconds(30))
+            .setKeyHeaders(List.of(HttpHeaders.ACCEPT)));
+
+    private final List<ServerWebExchange> upstreamCalls = new ArrayList<>();
+
+    @Test
+    public void servesSecondRequestFromCache() {
+        GatewayFilterChain chain = upstream(HttpStatus.OK, headers -> headers.setETag("\"v1\""));
+
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/get"));
+        filter.filter(first, chain).block();
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/get"));
+        filter.filter(second, chain).block();
+
+        assertThat(upstreamCalls).hasSize(1);
+        assertThat(first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+
+        // 不同 Accept 使用不同的缓存键
+        filter.filter(exchange(MockServerHttpRequest.get("/get").accept(org.springframework.http.MediaType.TEXT_HTML)),
+                chain).block();
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(factory.hitRatio("path_route")).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get("gateway.response.cache.hit.ratio").tag("route", "path_route").gauge().value())
+                .isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get("gateway.response.cache.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void revalidatesStaleEntryWithETag() {
+        filter.filter(exchange(MockServerHttpRequest.get("/get")),
+                upstream(HttpStatus.OK, headers -> {
+                    headers.setCacheControl("no-cache");
+                    headers.setETag("\"v1\"");
+                })).block();
+
+        MockServerWebExchange revalidated = exchange(MockServerHttpRequest.get("/get"));
+        filter.filter(revalidated, upstream(HttpStatus.NOT_MODIFIED, headers -> headers.setCacheControl("no-cache")))
+                .block();
+
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(upstreamCalls.get(1).getRequest().getHeaders().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("REVALIDATED");
+        assertThat(revalidated.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+
+        // 客户端携带一致的 If-None-Match 时直接返回 304
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get("/get").ifNoneMatch("\"v1\""));
+        filter.filter(conditional, upstream(HttpStatus.NOT_MODIFIED, headers -> { })).block();
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(factory.hitRatio("path_route")).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    public void doesNotCacheNoStoreResponses() {
+        GatewayFilterChain chain = upstream(HttpStatus.OK, headers -> headers.setCacheControl("no-store"));
+
+        filter.filter(exchange(MockServerHttpRequest.get("/get")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/get")), chain).block();
+
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(factory.hitRatio("path_route")).isZero();
+    }
+
+    @Test
+    public void doesNotShareResponsesOfAuthenticatedRequests() {
+        GatewayFilterChain chain = upstream(HttpStatus.OK, headers -> headers.setCacheControl("max-age=60"));
+
+        // 带凭证请求的响应不缓存，也不读取匿名请求缓存的条目
+        filter.filter(exchange(MockServerHttpRequest.get("/get").header(HttpHeaders.AUTHORIZATION, "Bearer a")),
+                chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/get")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/get").cookie(new HttpCookie("SESSION", "b"))), chain)
+                .block();
+        assertThat(upstreamCalls).hasSize(3);
+
+        // 上游明确声明 public 时可以共享
+        GatewayFilterChain shared = upstream(HttpStatus.OK, headers -> headers.setCacheControl("public, max-age=60"));
+        filter.filter(exchange(MockServerHttpRequest.get("/get?shared").header(HttpHeaders.AUTHORIZATION, "Bearer a")),
+                shared).block();
+        MockServerWebExchange other = exchange(MockServerHttpRequest.get("/get?shared")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer b"));
+        filter.filter(other, shared).block();
+        assertThat(upstreamCalls).hasSize(4);
+        assertThat(other.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("HIT");
+    }
+
+    @Test
+    public void requestNoCacheForcesRevalidation() {
+        filter.filter(exchange(MockServerHttpRequest.get("/get")),
+                upstream(HttpStatus.OK, headers -> headers.setETag("\"v1\""))).block();
+
+        MockServerWebExchange reload = exchange(MockServerHttpRequest.get("/get")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        filter.filter(reload, upstream(HttpStatus.NOT_MODIFIED, headers -> { })).block();
+
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(upstreamCalls.get(1).getRequest().getHeaders().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(reload.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("REVALIDATED");
+    }
+
+    @Test
+    public void doesNotServeVariantToRequestWithDifferentHeaders() {
+        GatewayFilterChain gzip = upstream(HttpStatus.OK, headers -> headers.set(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        filter.filter(exchange(MockServerHttpRequest.get("/get").header(HttpHeaders.ACCEPT_ENCODING, "gzip")), gzip)
+                .block();
+
+        // 未声明 Accept-Encoding 的客户端不会收到 gzip 响应体
+        MockServerWebExchange plain = exchange(MockServerHttpRequest.get("/get"));
+        filter.filter(plain, upstream(HttpStatus.OK, headers -> { })).block();
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(plain.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+
+        GatewayFilterChain language = upstream(HttpStatus.OK, headers -> headers.setVary(
+                List.of(HttpHeaders.ACCEPT_LANGUAGE)));
+        filter.filter(exchange(MockServerHttpRequest.get("/lang").header(HttpHeaders.ACCEPT_LANGUAGE, "zh")), language)
+                .block();
+        filter.filter(exchange(MockServerHttpRequest.get("/lang").header(HttpHeaders.ACCEPT_LANGUAGE, "en")), language)
+                .block();
+        assertThat(upstreamCalls).hasSize(4);
+
+        MockServerWebExchange same = exchange(MockServerHttpRequest.get("/lang").header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        filter.filter(same, language).block();
+        assertThat(upstreamCalls).hasSize(4);
+        assertThat(same.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("HIT");
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("path_route")
+                .uri("http://httpbin.org")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    /**
+     * 模拟 NettyWriteResponseFilter：设置上游响应头后写出响应体
+     */
+    private GatewayFilterChain upstream(HttpStatus status, Consumer<HttpHeaders> headers) {
+        return exchange -> {
+            upstreamCalls.add(exchange);
+            ServerHttpResponse response = exchange.getResponse();
+            byte[] body = status == HttpStatus.OK ? BODY.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            response.setStatusCode(status);
+            response.getHeaders().setContentLength(body.length);
+            headers.accept(response.getHeaders());
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body);
+            return response.writeWith(Mono.just(buffer));
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.reionchan.handler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.predicate.HeaderRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.HostRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class RouteIndexTest {
+
+    private final List<Route> routes = List.of(
+            route("path_route", path("/get")),
+            route("host_route", host("*.myhost.org")),
+            route("rewrite_route", host("*.rewrite.org")),
+            route("prop_path_route", path("/status/{codes}")),
+            route("api_route", path("/api/v1/**").and(host("api.example.org"))),
+            route("or_route", path("/orders").or(host("orders.example.org"))),
+            route("negate_route", path("/get").negate().and(header("X-Negate"))),
+            route("fallback_route", path("/**")));
+
+    @Test
+    public void candidatesAreNarrowedInDeclaredOrder() {
+        RouteIndex index = new RouteIndex(routes);
+
+        assertThat(ids(index.candidates(PathContainer.parsePath("/get"), "www.myhost.org")))
+                .containsExactly("path_route", "host_route", "or_route", "negate_route", "fallback_route");
+        assertThat(ids(index.candidates(PathContainer.parsePath("/status/404"), "localhost:8080")))
+                .containsExactly("prop_path_route", "or_route", "negate_route", "fallback_route");
+        assertThat(ids(index.candidates(PathContainer.parsePath("/api/v1/users"), "API.example.org")))
+                .containsExactly("api_route", "or_route", "negate_route", "fallback_route");
+        assertThat(ids(index.candidates(PathContainer.parsePath("/api/v1/users"), "other.org")))
+                .containsExactly("or_route", "negate_route", "fallback_route");
+    }
+
+    @Test
+    public void lookupMatchesSequentialScan() {
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of()), () -> Flux.fromIterable(routes), new GlobalCorsProperties(),
+                new MockEnvironment());
+        mapping.rebuildIndex().block();
+        List<MockServerHttpRequest> requests = List.of(
+                MockServerHttpRequest.get("http://localhost/get").build(),
+                MockServerHttpRequest.get("http://localhost/get/").header("Host", "www.myhost.org").build(),
+                MockServerHttpRequest.get("http://localhost/foo/get").header("Host", "www.rewrite.org").build(),
+                MockServerHttpRequest.get("http://localhost/status/404").build(),
+                MockServerHttpRequest.get("http://localhost/api/v1/users").header("Host", "api.example.org").build(),
+                MockServerHttpRequest.get("http://localhost/api/v1/users").header("Host", "other.org").build(),
+                MockServerHttpRequest.get("http://localhost/anything").header("Host", "orders.example.org").build(),
+                MockServerHttpRequest.get("http://localhost/anything").header("X-Negate", "1").build(),
+                MockServerHttpRequest.get("http://localhost/GET").header("Host", "myhost.org").build());
+
+        for (MockServerHttpRequest request : requests) {
+            Route expected = sequentialScan(MockServerWebExchange.from(request));
+            Route actual = mapping.lookupRoute(MockServerWebExchange.from(request)).block();
+            assertThat(actual).as(request.getURI() + " " + request.getHeaders().getFirst("Host"))
+                    .isSameAs(expected);
+        }
+    }
+
+    @Test
+    public void indexIsRebuiltOnlyOnRefresh() {
+        List<Route> current = new ArrayList<>(List.of(route("path_route", path("/get"))));
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of()), () -> Flux.fromIterable(List.copyOf(current)),
+                new GlobalCorsProperties(), new MockEnvironment());
+        RouteIndex initial = mapping.rebuildIndex().block();
+
+        assertThat(lookup(mapping, "/headers")).isNull();
+        current.add(0, route("headers_route", path("/headers")));
+        // 刷新前请求继续使用已发布的索引
+        assertThat(lookup(mapping, "/headers")).isNull();
+
+        assertThat(mapping.rebuildIndex().block()).isNotSameAs(initial);
+        assertThat(lookup(mapping, "/headers")).isEqualTo("headers_route");
+        assertThat(lookup(mapping, "/get")).isEqualTo("path_route");
+    }
+
+    @Test
+    public void rebuildWaitsForCachedRoutesToBeReplaced() {
+        List<Route> before = List.of(route("path_route", path("/get")));
+        List<Route> after = List.of(route("headers_route", path("/headers")), before.get(0));
+        AtomicInteger reads = new AtomicInteger();
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of()),
+                () -> Flux.defer(() -> Flux.fromIterable(reads.getAndIncrement() < 2 ? before : after)),
+                new GlobalCorsProperties(), new MockEnvironment());
+        mapping.rebuildIndex().block();
+
+        // 模拟 CachingRouteLocator 先发布事件、后替换缓存：第一次读到旧列表，重新读取后才构建
+        assertThat(mapping.rebuildIndex().block().size()).isEqualTo(2);
+        assertThat(lookup(mapping, "/headers")).isEqualTo("headers_route");
+
+        // 路由确实未变化时保留当前索引
+        RouteIndex current = mapping.rebuildIndex().block();
+        assertThat(mapping.rebuildIndex().block()).isSameAs(current);
+    }
+
+    private String lookup(IndexedRoutePredicateHandlerMapping mapping, String path) {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost" + path));
+        return mapping.lookupRoute(exchange).map(Route::getId).block();
+    }
+
+    private Route sequentialScan(ServerWebExchange exchange) {
+        for (Route route : routes) {
+            if (Boolean.TRUE.equals(Mono.from(route.getPredicate().apply(exchange)).block())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> ids(List<Route> routes) {
+        return routes.stream().map(Route::getId).toList();
+    }
+
+    private static Route route(String id, AsyncPredicate<ServerWebExchange> predicate) {
+        return Route.async().id(id).uri("http://httpbin.org").asyncPredicate(predicate).build();
+    }
+
+    private static AsyncPredicate<ServerWebExchange> path(String pattern) {
+        return new PathRoutePredicateFactory().applyAsync(config -> config.setPatterns(List.of(pattern)));
+    }
+
+    private static AsyncPredicate<ServerWebExchange> host(String pattern) {
+        return new HostRoutePredicateFactory().applyAsync(config -> config.setPatterns(List.of(pattern)));
+    }
+
+    private static AsyncPredicate<ServerWebExchange> header(String name) {
+        return new HeaderRoutePredicateFactory().applyAsync(config -> config.setHeader(name));
+    }
+}
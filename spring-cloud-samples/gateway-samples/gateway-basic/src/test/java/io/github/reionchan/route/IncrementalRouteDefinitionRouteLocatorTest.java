@@ -0,0 +1,136 @@
+package io.github.reionchan.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.InMemoryRouteDefinitionRepository;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.validation.Validator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static io.github.reionchan.route.VersionedRouteDefinitionRepositoryTest.route;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class IncrementalRouteDefinitionRouteLocatorTest {
+
+    private final AtomicInteger compiled = new AtomicInteger();
+
+    private final InMemoryRouteDefinitionRepository repository = new InMemoryRouteDefinitionRepository();
+
+    private final GatewayProperties gatewayProperties = new GatewayProperties();
+
+    private final IncrementalRouteDefinitionRouteLocator locator = new IncrementalRouteDefinitionRouteLocator(
+            repository, List.of(new CountingPathRoutePredicateFactory()),
+            List.of(new AddRequestHeaderGatewayFilterFactory()), gatewayProperties, configurationService());
+
+    @Test
+    public void recompilesOnlyChangedVersions() {
+        for (int i = 0; i < 3; i++) {
+            save(new VersionedRouteDefinition(route("route_" + i, "/" + i), i + 1));
+        }
+        Map<String, Route> first = routes();
+        assertThat(first).containsOnlyKeys("route_0", "route_1", "route_2");
+        assertThat(compiled).hasValue(3);
+
+        // 版本号不变：全部复用
+        assertThat(routes()).isEqualTo(first);
+        assertThat(compiled).hasValue(3);
+
+        save(new VersionedRouteDefinition(route("route_1", "/1/v2"), 4));
+        repository.delete(Mono.just("route_2")).block();
+        save(new VersionedRouteDefinition(route("route_3", "/3"), 5));
+        Map<String, Route> second = routes();
+
+        assertThat(compiled).hasValue(5);
+        assertThat(second).containsOnlyKeys("route_0", "route_1", "route_3");
+        assertThat(second.get("route_0")).isSameAs(first.get("route_0"));
+        assertThat(second.get("route_1")).isNotSameAs(first.get("route_1"));
+    }
+
+    @Test
+    public void comparesUnversionedDefinitionsByContent() {
+        save(route("prop_route", "/status"));
+        Route first = routes().get("prop_route");
+
+        save(route("prop_route", "/status"));
+        assertThat(routes().get("prop_route")).isSameAs(first);
+        assertThat(compiled).hasValue(1);
+
+        save(route("prop_route", "/status/{codes}"));
+        assertThat(routes().get("prop_route")).isNotSameAs(first);
+        assertThat(compiled).hasValue(2);
+    }
+
+    @Test
+    public void recompilesAllWhenDefaultFiltersChange() {
+        save(new VersionedRouteDefinition(route("route_0", "/0"), 1));
+        save(route("prop_route", "/status"));
+        Map<String, Route> first = routes();
+        assertThat(first.get("route_0").getFilters()).isEmpty();
+
+        gatewayProperties.getDefaultFilters().add(new FilterDefinition("AddRequestHeader=X-Gateway, basic"));
+        Map<String, Route> second = routes();
+        assertThat(compiled).hasValue(4);
+        assertThat(second.get("route_0").getFilters()).hasSize(1);
+        assertThat(second.get("prop_route").getFilters()).hasSize(1);
+
+        // 原地修改默认过滤器参数同样触发重新编译
+        gatewayProperties.getDefaultFilters().get(0).getArgs().put("_genkey_1", "gateway");
+        routes();
+        assertThat(compiled).hasValue(6);
+        routes();
+        assertThat(compiled).hasValue(6);
+    }
+
+    private void save(RouteDefinition definition) {
+        repository.save(Mono.just(definition)).block();
+    }
+
+    private Map<String, Route> routes() {
+        return locator.getRoutes().collectList().block().stream()
+                .collect(Collectors.toMap(Route::getId, Function.identity()));
+    }
+
+    private static ConfigurationService configurationService() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("conversionService", new DefaultFormattingConversionService());
+        return new ConfigurationService(beanFactory, beanFactory.getBeanProvider(ConversionService.class),
+                beanFactory.getBeanProvider(Validator.class));
+    }
+
+    /**
+     * 统计断言的创建次数，即路由的编译次数
+     */
+    private class CountingPathRoutePredicateFactory extends PathRoutePredicateFactory {
+
+        @Override
+        public Predicate<ServerWebExchange> apply(Config config) {
+            compiled.incrementAndGet();
+            return super.apply(config);
+        }
+
+        @Override
+        public String name() {
+            return "Path";
+        }
+    }
+}
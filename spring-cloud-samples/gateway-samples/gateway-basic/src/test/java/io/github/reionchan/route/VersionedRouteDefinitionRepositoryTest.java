@@ -0,0 +1,123 @@
+package io.github.reionchan.route;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class VersionedRouteDefinitionRepositoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void assignsVersionsAndReloadsLatestState() throws IOException {
+        Path file = dir.resolve("routes.log");
+        try (VersionedRouteDefinitionRepository repository = open(file)) {
+            save(repository, route("a", "/a"));
+            save(repository, route("b", "/b"));
+            save(repository, route("a", "/a/v2"));
+            // 内容不变的保存不分配新版本号
+            save(repository, route("b", "/b"));
+            save(repository, route("c", "/c"));
+            repository.delete(Mono.just("c")).block();
+
+            assertThat(versions(repository)).containsExactly(Map.entry("a", 3L), Map.entry("b", 2L));
+            assertThat(repository.getVersion()).isEqualTo(5);
+            assertThatThrownBy(() -> repository.delete(Mono.just("c")).block())
+                    .isInstanceOf(NotFoundException.class);
+        }
+
+        try (VersionedRouteDefinitionRepository reopened = open(file)) {
+            assertThat(versions(reopened)).containsExactly(Map.entry("a", 3L), Map.entry("b", 2L));
+            assertThat(reopened.getRouteDefinitions().blockFirst().getPredicates())
+                    .containsExactly(new PredicateDefinition("Path=/a/v2"));
+            save(reopened, route("c", "/c"));
+            assertThat(versions(reopened)).containsEntry("c", 6L);
+        }
+    }
+
+    @Test
+    public void truncatesTornRecordAtEndOfFile() throws IOException {
+        Path file = dir.resolve("routes.log");
+        try (VersionedRouteDefinitionRepository repository = open(file)) {
+            save(repository, route("a", "/a"));
+        }
+        long size = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 1, 0, 42, 42}, StandardOpenOption.APPEND);
+
+        try (VersionedRouteDefinitionRepository reopened = open(file)) {
+            assertThat(versions(reopened)).containsExactly(Map.entry("a", 1L));
+            assertThat(Files.size(file)).isEqualTo(size);
+            save(reopened, route("b", "/b"));
+        }
+        try (VersionedRouteDefinitionRepository reopened = open(file)) {
+            assertThat(versions(reopened)).containsExactly(Map.entry("a", 1L), Map.entry("b", 2L));
+        }
+    }
+
+    @Test
+    public void compactsOverwrittenRecords() throws IOException {
+        Path file = dir.resolve("routes.log");
+        String padding = "x".repeat(1024);
+        try (VersionedRouteDefinitionRepository repository = open(file)) {
+            for (int i = 0; i < 2000; i++) {
+                save(repository, route("a", "/a/" + i + padding));
+            }
+            save(repository, route("b", "/b"));
+            repository.delete(Mono.just("b")).block();
+        }
+        assertThat(Files.size(file)).isLessThan(2000L * 1024);
+
+        try (VersionedRouteDefinitionRepository reopened = open(file)) {
+            assertThat(versions(reopened)).containsExactly(Map.entry("a", 2000L));
+            // 压缩丢弃了删除记录，版本号仍不回退
+            assertThat(reopened.getVersion()).isEqualTo(2002);
+        }
+    }
+
+    private VersionedRouteDefinitionRepository open(Path file) throws IOException {
+        return new VersionedRouteDefinitionRepository(file, objectMapper, false);
+    }
+
+    private static void save(VersionedRouteDefinitionRepository repository, RouteDefinition definition) {
+        repository.save(Mono.just(definition)).block();
+    }
+
+    private static Map<String, Long> versions(VersionedRouteDefinitionRepository repository) {
+        List<RouteDefinition> definitions = repository.getRouteDefinitions().collectList().block();
+        return definitions.stream().collect(Collectors.toMap(RouteDefinition::getId,
+                definition -> ((VersionedRouteDefinition) definition).getVersion(),
+                (a, b) -> a, LinkedHashMap::new));
+    }
+
+    static RouteDefinition route(String id, String path) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setPredicates(List.of(new PredicateDefinition("Path=" + path)));
+        definition.setUri(URI.create("http://httpbin.org"));
+        return definition;
+    }
+}
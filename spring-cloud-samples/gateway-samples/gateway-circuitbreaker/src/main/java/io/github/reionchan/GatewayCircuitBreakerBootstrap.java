@@ -1,5 +1,7 @@
 package io.github.reionchan;
 
+import io.github.reionchan.config.AdaptiveTimeLimiterConfig;
+import io.github.reionchan.config.LastKnownGoodFallbackConfig;
 import io.github.reionchan.config.RegistryRouteLocatorByBuilderConfig;
 import io.github.reionchan.controller.FallbackController;
 import org.springframework.boot.SpringApplication;
@@ -32,6 +34,23 @@ import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
  *
  *     原理参考：
  *      {@link RegistryRouteLocatorByBuilderConfig#customRouteLocator}
+ *
+ *  4. 按观测到的延迟自适应调整断路器超时
+ *      4.1 在 application.yaml 中设置 spring.cloud.gateway.adaptive-time-limiter.enabled=true
+ *      4.2 每个断路器名称维护延迟直方图，超时取 p99 × 1.5 并限制在上下限之间
+ *      4.3 当前超时可通过 /actuator/metrics/gateway.circuitbreaker.timeout?tag=name:slowcmd 查看
+ *
+ *     原理参考：
+ *      {@link AdaptiveTimeLimiterConfig#adaptiveTimeLimiter} 注释
+ *
+ *  5. 熔断时以最近一次成功响应补偿，减少客户端收到固定补偿内容后的重试
+ *      5.1 在 application.yaml 中设置 spring.cloud.gateway.last-known-good.enabled=true
+ *      5.2 circuitbreaker_fallback_route 按 路径 + 查询参数 记录 GET 请求的 2xx 响应
+ *      5.3 断路器 OPEN 或调用超时时 {@link FallbackController} 返回记录的响应，并附带 Age 与 Warning: 110 响应头，
+ *          没有记录时仍返回固定的补偿内容
+ *
+ *     原理参考：
+ *      {@link LastKnownGoodFallbackConfig} 及 LastKnownGoodGatewayFilterFactory 注释
  * </pre>
  *
  * @author Reion
@@ -0,0 +1,50 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.timelimiter.AdaptiveTimeLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 按观测到的延迟自适应调整断路器超时
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.adaptive-time-limiter.enabled", havingValue = "true")
+public class AdaptiveTimeLimiterConfig {
+
+    /**
+     * 与断路器工厂共用注册表：{@link RegistryRouteLocatorByBuilderConfig#customizerCircuitBreakerFactory()}
+     * 配置的 2 秒作为 slowcmd 的初始超时，样本足够后改由 p99 × 1.5 决定，并限制在 [min-timeout, max-timeout]
+     */
+    @Bean
+    public AdaptiveTimeLimiter adaptiveTimeLimiter(ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.percentile:99}") double percentile,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.multiplier:1.5}") double multiplier,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.min-timeout:500ms}") Duration minTimeout,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.max-timeout:10s}") Duration maxTimeout,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.update-interval:10s}") Duration updateInterval,
+            @Value("${spring.cloud.gateway.adaptive-time-limiter.window:1m}") Duration window) {
+        log.info("--- 定义按断路器名称自适应调整超时的 AdaptiveTimeLimiter ---");
+        AdaptiveTimeLimiter timeLimiter = new AdaptiveTimeLimiter(circuitBreakerFactory.getCircuitBreakerRegistry(),
+                circuitBreakerFactory.getTimeLimiterRegistry(), meterRegistry.getIfAvailable());
+        timeLimiter.setPercentile(percentile);
+        timeLimiter.setMultiplier(multiplier);
+        timeLimiter.setMinTimeout(minTimeout);
+        timeLimiter.setMaxTimeout(maxTimeout);
+        timeLimiter.setUpdateInterval(updateInterval);
+        timeLimiter.setWindow(window);
+        return timeLimiter;
+    }
+}
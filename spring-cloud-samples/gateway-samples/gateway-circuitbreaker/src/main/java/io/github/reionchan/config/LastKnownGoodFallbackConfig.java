@@ -0,0 +1,46 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.controller.FallbackController;
+import io.github.reionchan.fallback.LastKnownGoodCache;
+import io.github.reionchan.fallback.LastKnownGoodGatewayFilterFactory;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 熔断时以最近一次成功响应补偿
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+@ConditionalOnProperty(value = "spring.cloud.gateway.last-known-good.enabled", havingValue = "true")
+public class LastKnownGoodFallbackConfig {
+
+    /**
+     * 所有断路器路由共享的有界缓存，由 {@link FallbackController} 在熔断补偿时查询，
+     * 保存超过 max-staleness 的响应不再返回给客户端
+     */
+    @Bean
+    public LastKnownGoodCache lastKnownGoodCache(
+            @Value("${spring.cloud.gateway.last-known-good.max-size:16MB}") DataSize maxSize,
+            @Value("${spring.cloud.gateway.last-known-good.max-staleness:1h}") Duration maxStaleness) {
+        log.info("--- 定义断路器路由最近一次成功响应的缓存 LastKnownGoodCache ---");
+        return new LastKnownGoodCache(maxSize, maxStaleness);
+    }
+
+    /**
+     * 注册为过滤器工厂 Bean 后，既可在 RouteLocatorBuilder 中使用，
+     * 也可在配置文件中以 LastKnownGood 的形式添加到路由
+     */
+    @Bean
+    public LastKnownGoodGatewayFilterFactory lastKnownGoodGatewayFilterFactory(LastKnownGoodCache lastKnownGoodCache) {
+        return new LastKnownGoodGatewayFilterFactory(lastKnownGoodCache);
+    }
+}
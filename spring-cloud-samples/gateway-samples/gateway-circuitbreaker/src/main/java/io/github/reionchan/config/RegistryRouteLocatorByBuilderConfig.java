@@ -1,10 +1,13 @@
 package io.github.reionchan.config;
 
+import io.github.reionchan.fallback.LastKnownGoodGatewayFilterFactory;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.CachingRouteLocator;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
@@ -41,8 +44,13 @@ public class RegistryRouteLocatorByBuilderConfig {
      * </pre>
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           ObjectProvider<LastKnownGoodGatewayFilterFactory> lastKnownGood) {
         log.info("--- 自定义具备断路器功能的路由 ---");
+        // 记录成功响应，熔断补偿时优先返回
+        List<GatewayFilter> lastKnownGoodFilters = lastKnownGood.stream()
+                .map(factory -> factory.apply(c -> {}))
+                .toList();
         return builder.routes()
                 // 路径匹配路由
                 .route("path_route", r -> r.path("/get")
@@ -67,8 +75,10 @@ public class RegistryRouteLocatorByBuilderConfig {
                         .uri(ROUTE_URI))
 
                 // 与上方效果区别在于发生超时熔断时，将会触发 fallback 操作，将请求转发到指定的 fallbackUri
+                // 启用 spring.cloud.gateway.last-known-good.enabled 时，补偿端点优先返回该请求最近一次的成功响应
                 .route("circuitbreaker_fallback_route", r -> r.host("*.circuitbreakerfallback.org")
-                        .filters(f -> f.circuitBreaker(c -> c.setName("slowcmd").setFallbackUri("forward:/circuitbreakerfallback")))
+                        .filters(f -> f.filters(lastKnownGoodFilters)
+                                .circuitBreaker(c -> c.setName("slowcmd").setFallbackUri("forward:/circuitbreakerfallback")))
                         .uri(ROUTE_URI))
                 .build();
     }
@@ -77,6 +87,8 @@ public class RegistryRouteLocatorByBuilderConfig {
      * 自定义断路器的超时时间，默认 1 秒钟，此处修改为 2 秒钟
      *
      * 设定配置的名称为：slowcmd，将与下面断路器路由配置中的 c.setName("slowcmd") 对应
+     *
+     * 启用 spring.cloud.gateway.adaptive-time-limiter.enabled 时此处仅为初始超时，之后由 AdaptiveTimeLimiter 按延迟调整
      */
     @Bean
     public Customizer<ReactiveResilience4JCircuitBreakerFactory> customizerCircuitBreakerFactory() {
@@ -1,7 +1,12 @@
 package io.github.reionchan.controller;
 
+import io.github.reionchan.fallback.LastKnownGoodCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 /**
  * 断路器熔断后的补偿控制器
@@ -12,12 +17,35 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class FallbackController {
 
+    /**
+     * 标记过期响应的 Warning 响应头 (RFC 7234 5.5.1)
+     */
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final ObjectProvider<LastKnownGoodCache> lastKnownGoodCache;
+
+    public FallbackController(ObjectProvider<LastKnownGoodCache> lastKnownGoodCache) {
+        this.lastKnownGoodCache = lastKnownGoodCache;
+    }
+
     /**
      * 设置熔断后的补偿操作的请求 endpoint
+     *
+     * 启用 spring.cloud.gateway.last-known-good.enabled 时，断路器 OPEN 或调用超时优先返回该请求最近一次的成功响应，
+     * 以 Age 标明已保存的秒数、以 Warning: 110 标明为过期响应；没有可用的缓存时才返回固定的补偿内容
      */
     @RequestMapping("/circuitbreakerfallback")
-    public String circuitbreakerfallback() {
-        return "This is a fallback";
+    public ResponseEntity<?> circuitbreakerfallback(ServerWebExchange exchange) {
+        LastKnownGoodCache cache = lastKnownGoodCache.getIfAvailable();
+        LastKnownGoodCache.Entry entry = cache != null ? cache.lookup(exchange) : null;
+        if (entry == null) {
+            return ResponseEntity.ok("This is a fallback");
+        }
+        return ResponseEntity.status(entry.status())
+                .headers(entry.headers())
+                .header(HttpHeaders.AGE, String.valueOf(entry.age(System.currentTimeMillis())))
+                .header(HttpHeaders.WARNING, STALE_WARNING)
+                .body(entry.body());
     }
 
 }
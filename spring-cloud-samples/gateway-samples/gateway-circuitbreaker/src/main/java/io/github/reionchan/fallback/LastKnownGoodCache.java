@@ -0,0 +1,171 @@
+package io.github.reionchan.fallback;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * 断路器路由最近一次成功响应的缓存
+ *
+ * <pre>
+ * 基于 Caffeine 的有界缓存，按 键 + 响应头 + 响应体的字节数加权，总权重超过 maxSize 时按 W-TinyLFU 淘汰，
+ * 保存超过 maxStaleness 的条目不再用于补偿。
+ * 记录由 {@link LastKnownGoodGatewayFilterFactory} 完成，并把缓存键放入交换属性 {@link #KEY_ATTR}；
+ * 断路器补偿转发到 fallbackUri 时共享同一份交换属性，补偿端点据此通过 {@link #lookup} 找到原请求的条目。
+ * 条目同时保存原请求中响应 Vary 所列请求头 (响应带 Content-Encoding 时总包含 Accept-Encoding) 的值，
+ * 补偿请求的这些请求头不一致时不返回该条目，例如不会把 gzip 响应体返回给未声明 Accept-Encoding: gzip 的客户端。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class LastKnownGoodCache {
+
+    /**
+     * 当前请求的缓存键，由过滤器写入，补偿端点读取
+     */
+    public static final String KEY_ATTR = LastKnownGoodCache.class.getName() + ".key";
+
+    private final Cache<String, Entry> cache;
+
+    public LastKnownGoodCache(DataSize maxSize, Duration maxStaleness) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.weight())
+                .expireAfterWrite(maxStaleness)
+                .build();
+    }
+
+    public void put(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 断路器处于 OPEN 拒绝调用或调用超时时，返回触发补偿的原请求最近一次的成功响应，其它情况返回 null
+     */
+    public Entry lookup(ServerWebExchange exchange) {
+        String key = exchange.getAttribute(KEY_ATTR);
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        Entry entry = key != null && isServable(cause) ? cache.getIfPresent(key) : null;
+        return entry != null && entry.matches(exchange.getRequest().getHeaders()) ? entry : null;
+    }
+
+    /**
+     * 当前缓存条目数 (近似值)
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 只有断路 (OPEN / HALF_OPEN 限流) 与超时可用旧响应补偿，连接失败等其它异常仍走静态补偿
+     */
+    private static boolean isServable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof CallNotPermittedException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓存的成功响应
+     *
+     * @param status   响应状态码
+     * @param headers  只读响应头
+     * @param body     只读响应体
+     * @param storedAt 保存的时间戳，毫秒
+     * @param vary     原请求中响应所依赖的请求头及其值
+     */
+    public record Entry(HttpStatusCode status, HttpHeaders headers, ByteBuffer body, long storedAt,
+                        Map<String, List<String>> vary) {
+
+        /**
+         * 不转发给客户端或不应随缓存保存的响应头
+         */
+        private static final List<String> EXCLUDED_HEADERS = List.of(HttpHeaders.CONNECTION,
+                HttpHeaders.TRANSFER_ENCODING, "Keep-Alive", HttpHeaders.AGE, HttpHeaders.SET_COOKIE);
+
+        public static Entry of(HttpStatusCode status, HttpHeaders headers, byte[] body, long now,
+                               HttpHeaders requestHeaders) {
+            Set<String> varyNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            varyNames.addAll(headers.getVary());
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                varyNames.add(HttpHeaders.ACCEPT_ENCODING);
+            }
+            Map<String, List<String>> vary = new LinkedHashMap<>();
+            for (String name : varyNames) {
+                vary.put(name, List.copyOf(requestHeaders.getOrEmpty(name)));
+            }
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return new Entry(status, HttpHeaders.readOnlyHttpHeaders(copy), ByteBuffer.wrap(body).asReadOnlyBuffer(),
+                    now, Collections.unmodifiableMap(vary));
+        }
+
+        /**
+         * 请求中响应所依赖的请求头与原请求一致
+         */
+        public boolean matches(HttpHeaders requestHeaders) {
+            for (Map.Entry<String, List<String>> header : vary.entrySet()) {
+                if (!header.getValue().equals(requestHeaders.getOrEmpty(header.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 自保存以来的秒数
+         */
+        public long age(long now) {
+            return Math.max(now - storedAt, 0) / 1000;
+        }
+
+        /**
+         * 返回共享底层字节的只读视图
+         */
+        public ByteBuffer body() {
+            return body.duplicate();
+        }
+
+        int weight() {
+            int weight = body.capacity();
+            for (Map.Entry<String, List<String>> header : vary.entrySet()) {
+                weight += header.getKey().length() + header.getValue().toString().length();
+            }
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                weight += header.getKey().length();
+                for (String value : header.getValue()) {
+                    weight += value.length();
+                }
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.reionchan.fallback;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 记录断路器路由最近一次成功响应的过滤器工厂
+ *
+ * <pre>
+ * 与断路器过滤器配合使用，熔断补偿时由补偿端点返回这里记录的响应，而不是固定的补偿内容：
+ *   缓存键：路由 ID + 路径及查询参数，写入交换属性 {@link LastKnownGoodCache#KEY_ATTR}
+ *   可记录：GET 请求、上游 2xx 且 Content-Length 已知不超过 maxEntrySize、无 Set-Cookie、Vary 不为 *，
+ *          Cache-Control 不含 no-store / private；每次成功都覆盖旧条目
+ *   带凭证：请求带 Authorization 或 Cookie 时，只记录上游明确声明 public 的响应，
+ *          避免熔断时把一个用户的响应返回给其他用户
+ *
+ * 断路器补偿会把同一个交换 (含本过滤器装饰的响应) 转发到 fallbackUri，
+ * 此时交换属性中已有断路器异常，补偿端点写出的响应不会被当作成功响应记录。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class LastKnownGoodGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<LastKnownGoodGatewayFilterFactory.Config> {
+
+    private final LastKnownGoodCache cache;
+
+    public LastKnownGoodGatewayFilterFactory(LastKnownGoodCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    /**
+     * 排在 {@link NettyWriteResponseFilter} 及断路器过滤器之前，
+     * 使上游响应与补偿响应都经过本过滤器的响应装饰器
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(new GatewayFilter() {
+            @Override
+            public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+                return LastKnownGoodGatewayFilterFactory.this.filter(exchange, chain, config);
+            }
+
+            @Override
+            public String toString() {
+                return "[LastKnownGood maxEntrySize = " + config.getMaxEntrySize() + "]";
+            }
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String key = key(route != null ? route.getId() : "", request);
+        exchange.getAttributes().put(LastKnownGoodCache.KEY_ATTR, key);
+        RecordingResponse response = new RecordingResponse(exchange, key, config);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private static String key(String routeId, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        return key.toString();
+    }
+
+    /**
+     * 请求是否携带用户凭证
+     */
+    private static boolean hasCredentials(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.AUTHORIZATION) || headers.containsKey(HttpHeaders.COOKIE);
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String token : value.split(",")) {
+                if (token.trim().toLowerCase(Locale.ROOT).equals(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在上游成功响应写出时保存响应体
+     */
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final String key;
+
+        private final Config config;
+
+        private final HttpHeaders requestHeaders;
+
+        RecordingResponse(ServerWebExchange exchange, String key, Config config) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.config = config;
+            this.requestHeaders = exchange.getRequest().getHeaders();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            long length = headers.getContentLength();
+            if (exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null
+                    || status == null || !status.is2xxSuccessful()
+                    || length <= 0 || length > config.getMaxEntrySize().toBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")
+                    || hasDirective(headers, "no-store") || hasDirective(headers, "private")
+                    || (hasCredentials(requestHeaders) && !hasDirective(headers, "public"))) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                LastKnownGoodCache.Entry entry = LastKnownGoodCache.Entry.of(status, headers, bytes,
+                        System.currentTimeMillis(), requestHeaders);
+                cache.put(key, entry);
+                return super.writeWith(Mono.just(bufferFactory().wrap(entry.body())));
+            });
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * 单个响应体的上限，超过时不记录
+         */
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public Config setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.reionchan.timelimiter;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.apachecommons.CommonsLog;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按断路器名称自适应调整的超时时间
+ *
+ * <pre>
+ * 固定的 TimeLimiter 超时对慢而健康的路由过紧、对快速路由过松 (故障期间连接被占用数秒)。
+ * 本组件为每个断路器名称维护流式延迟直方图，周期性地将超时设为 分位数 × 倍数，并限制在 [minTimeout, maxTimeout]：
+ *   1. 采样：订阅断路器注册表中每个断路器的 onSuccess 事件，以耗时 (微秒) 写入 HdrHistogram {@link Recorder}，
+ *      记录无锁，不在请求路径上计算分位数
+ *   2. 窗口：每隔 updateInterval 取出一段区间直方图，保留覆盖最近 window 时长的 ceil(window / updateInterval) 段，
+ *      合并后计算分位数，旧数据自然淘汰
+ *   3. 生效：ReactiveResilience4JCircuitBreaker 每次执行都从 {@link TimeLimiterRegistry} 按名称查找 TimeLimiter，
+ *      因此以新超时构建 TimeLimiter 替换注册表中的同名条目即可，对变化不足 5% 的结果不做替换
+ *   4. 冷启动：窗口内样本数少于 minSamples 时保持当前超时 (即静态配置的超时)
+ *
+ * 只统计成功的调用：超时被截断的调用无法得知真实耗时。延迟缓慢上升时 分位数 ~ 分位数 × 倍数 之间的成功调用仍会被记录，
+ * 超时随之上调；骤增超过倍数的情况与下游故障无法区分，交由断路器熔断处理。
+ *
+ * 当前生效的超时以 gateway.circuitbreaker.timeout (标签 name) 指标暴露。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+public class AdaptiveTimeLimiter implements SmartLifecycle {
+
+    /**
+     * 新超时与当前超时相差不足此比例时不替换
+     */
+    private static final double MIN_CHANGE = 0.05;
+
+    private final TimeLimiterRegistry timeLimiterRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    private double percentile = 99.0;
+
+    private double multiplier = 1.5;
+
+    private Duration minTimeout = Duration.ofMillis(500);
+
+    private Duration maxTimeout = Duration.ofSeconds(10);
+
+    private Duration updateInterval = Duration.ofSeconds(10);
+
+    private Duration window = Duration.ofMinutes(1);
+
+    private long minSamples = 100;
+
+    private volatile Disposable updateTask;
+
+    public AdaptiveTimeLimiter(CircuitBreakerRegistry circuitBreakerRegistry, TimeLimiterRegistry timeLimiterRegistry,
+                               MeterRegistry meterRegistry) {
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.meterRegistry = meterRegistry;
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::track);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> track(event.getAddedEntry()));
+    }
+
+    /**
+     * 分位数，取值 (0, 100]，默认 99
+     */
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public void setMinTimeout(Duration minTimeout) {
+        this.minTimeout = minTimeout;
+    }
+
+    public void setMaxTimeout(Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+
+    public void setUpdateInterval(Duration updateInterval) {
+        this.updateInterval = updateInterval;
+    }
+
+    /**
+     * 计算分位数的统计时长，默认 1 分钟，至少保留一段区间直方图
+     */
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public void setMinSamples(long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * 断路器当前生效的超时，尚未执行过的断路器返回 null
+     */
+    public Duration currentTimeout(String name) {
+        return timeLimiterRegistry.find(name)
+                .map(timeLimiter -> timeLimiter.getTimeLimiterConfig().getTimeoutDuration())
+                .orElse(null);
+    }
+
+    /**
+     * 滚动各断路器的延迟窗口并按窗口分位数更新超时
+     */
+    public void update() {
+        long intervalNanos = updateInterval.toNanos();
+        int windowSize = (int) Math.max(1, (window.toNanos() + intervalNanos - 1) / intervalNanos);
+        windows.forEach((name, latencyWindow) -> {
+            Histogram histogram = latencyWindow.roll(windowSize);
+            if (histogram.getTotalCount() < minSamples) {
+                return;
+            }
+            long micros = (long) (histogram.getValueAtPercentile(percentile) * multiplier);
+            Duration timeout = clamp(Duration.of(micros, ChronoUnit.MICROS));
+            apply(name, timeout);
+        });
+    }
+
+    private void apply(String name, Duration timeout) {
+        TimeLimiter current = timeLimiterRegistry.find(name).orElse(null);
+        if (current == null) {
+            timeLimiterRegistry.timeLimiter(name, TimeLimiterConfig.from(timeLimiterRegistry.getDefaultConfig())
+                    .timeoutDuration(timeout).build());
+            return;
+        }
+        TimeLimiterConfig config = current.getTimeLimiterConfig();
+        long currentMillis = config.getTimeoutDuration().toMillis();
+        if (Math.abs(timeout.toMillis() - currentMillis) < currentMillis * MIN_CHANGE) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Adaptive timeout of circuit breaker '" + name + "' changed from "
+                    + config.getTimeoutDuration() + " to " + timeout);
+        }
+        timeLimiterRegistry.replace(name, TimeLimiter.of(name,
+                TimeLimiterConfig.from(config).timeoutDuration(timeout).build(), current.getTags()));
+    }
+
+    private Duration clamp(Duration timeout) {
+        if (timeout.compareTo(minTimeout) < 0) {
+            return minTimeout;
+        }
+        return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+
+    private void track(CircuitBreaker circuitBreaker) {
+        String name = circuitBreaker.getName();
+        LatencyWindow window = windows.computeIfAbsent(name, key -> {
+            if (meterRegistry != null) {
+                TimeGauge.builder("gateway.circuitbreaker.timeout", () -> {
+                            Duration timeout = currentTimeout(key);
+                            return timeout != null ? timeout.toMillis() : Double.NaN;
+                        }, TimeUnit.MILLISECONDS)
+                        .tag("name", key)
+                        .description("Effective adaptive time limiter timeout")
+                        .register(meterRegistry);
+            }
+            return new LatencyWindow();
+        });
+        circuitBreaker.getEventPublisher()
+                .onSuccess(event -> window.recorder.recordValue(event.getElapsedDuration().toNanos() / 1000));
+    }
+
+    @Override
+    public void start() {
+        if (updateTask == null) {
+            updateTask = Flux.interval(updateInterval, updateInterval)
+                    .onBackpressureDrop()
+                    .subscribe(tick -> update(), e -> log.warn("Adaptive time limiter update failed", e));
+        }
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = updateTask;
+        updateTask = null;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return updateTask != null;
+    }
+
+    /**
+     * 单个断路器的滑动延迟窗口
+     */
+    private static final class LatencyWindow {
+
+        /**
+         * 3 位有效数字，自动扩容
+         */
+        private final Recorder recorder = new Recorder(3);
+
+        private final Deque<Histogram> intervals = new ArrayDeque<>();
+
+        /**
+         * 取出最近一段区间直方图，返回最近 windowSize 段的合并结果，只由更新任务调用
+         */
+        synchronized Histogram roll(int windowSize) {
+            intervals.addLast(recorder.getIntervalHistogram());
+            while (intervals.size() > windowSize) {
+                intervals.removeFirst();
+            }
+            Histogram merged = new Histogram(3);
+            intervals.forEach(merged::add);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.reionchan.fallback;
+
+import io.github.reionchan.controller.FallbackController;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class LastKnownGoodGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"url\": \"http://httpbin.org/delay/1\"}";
+
+    private final LastKnownGoodCache cache = new LastKnownGoodCache(DataSize.ofMegabytes(1), Duration.ofHours(1));
+
+    private final GatewayFilter filter = new LastKnownGoodGatewayFilterFactory(cache).apply(c -> {});
+
+    private final FallbackController controller = new FallbackController(
+            new StaticListableBeanFactory().getBeanProvider(LastKnownGoodCache.class));
+
+    private final FallbackController cachingController = fallbackController(cache);
+
+    @Test
+    public void servesLastKnownGoodResponseWhenBreakerOpenOrTimedOut() {
+        filter.filter(exchange("/delay/1"), upstream(BODY)).block();
+        assertThat(cache.size()).isEqualTo(1);
+
+        for (Throwable cause : new Throwable[]{
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("slowcmd")),
+                new TimeoutException()}) {
+            MockServerWebExchange exchange = exchange("/delay/1");
+            ResponseEntity<?> fallback = trip(exchange, cause, cachingController);
+
+            assertThat(fallback.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(fallback.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(fallback.getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+            assertThat(fallback.getHeaders().getFirst(HttpHeaders.WARNING)).startsWith("110");
+            assertThat(StandardCharsets.UTF_8.decode((ByteBuffer) fallback.getBody()).toString()).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    public void usesStaticFallbackWithoutCachedEntry() {
+        filter.filter(exchange("/delay/1"), upstream(BODY)).block();
+        TimeoutException timeout = new TimeoutException();
+
+        // 不同的查询参数、连接失败等非熔断异常、未启用缓存时都返回固定的补偿内容
+        assertThat(trip(exchange("/delay/1?page=2"), timeout, cachingController).getBody())
+                .isEqualTo("This is a fallback");
+        assertThat(trip(exchange("/delay/1"), new ConnectException(), cachingController).getBody())
+                .isEqualTo("This is a fallback");
+        assertThat(trip(exchange("/delay/1"), timeout, controller).getBody())
+                .isEqualTo("This is a fallback");
+    }
+
+    @Test
+    public void doesNotRecordFallbackOrFailedResponses() {
+        filter.filter(exchange("/delay/1"), exchange -> {
+            exchange.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, new TimeoutException());
+            return write(exchange.getResponse(), HttpStatus.OK, "This is a fallback");
+        }).block();
+        filter.filter(exchange("/delay/1"),
+                exchange -> write(exchange.getResponse(), HttpStatus.BAD_GATEWAY, BODY)).block();
+        filter.filter(exchange("/delay/1"), exchange -> {
+            exchange.getResponse().getHeaders().setCacheControl("no-store");
+            return write(exchange.getResponse(), HttpStatus.OK, BODY);
+        }).block();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void doesNotShareResponsesOfAuthenticatedRequests() {
+        filter.filter(exchange(MockServerHttpRequest.get("/delay/1").header(HttpHeaders.AUTHORIZATION, "Bearer a")),
+                upstream(BODY)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/delay/1").cookie(new HttpCookie("SESSION", "a"))),
+                upstream(BODY)).block();
+        assertThat(cache.size()).isZero();
+
+        // 上游明确声明 public 时可以记录
+        filter.filter(exchange(MockServerHttpRequest.get("/delay/1").header(HttpHeaders.AUTHORIZATION, "Bearer a")),
+                exchange -> {
+                    exchange.getResponse().getHeaders().setCacheControl("public, max-age=60");
+                    return write(exchange.getResponse(), HttpStatus.OK, BODY);
+                }).block();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void honorsVaryOfRecordedResponse() {
+        filter.filter(exchange(MockServerHttpRequest.get("/delay/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip")),
+                exchange -> {
+                    exchange.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    return write(exchange.getResponse(), HttpStatus.OK, BODY);
+                }).block();
+        TimeoutException timeout = new TimeoutException();
+
+        // gzip 响应体只返回给同样声明 Accept-Encoding: gzip 的客户端
+        assertThat(trip(exchange("/delay/1"), timeout, cachingController).getBody()).isEqualTo("This is a fallback");
+        ResponseEntity<?> gzipped = trip(exchange(MockServerHttpRequest.get("/delay/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")), timeout, cachingController);
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    /**
+     * 模拟断路器补偿：以原交换 (共享交换属性) 调用补偿端点
+     */
+    private ResponseEntity<?> trip(MockServerWebExchange exchange, Throwable cause, FallbackController controller) {
+        ResponseEntity<?>[] fallback = new ResponseEntity<?>[1];
+        filter.filter(exchange, forwarded -> {
+            forwarded.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, cause);
+            fallback[0] = controller.circuitbreakerfallback(forwarded);
+            return Mono.empty();
+        }).block();
+        return fallback[0];
+    }
+
+    private static FallbackController fallbackController(LastKnownGoodCache cache) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("lastKnownGoodCache", cache);
+        return new FallbackController(beanFactory.getBeanProvider(LastKnownGoodCache.class));
+    }
+
+    private static GatewayFilterChain upstream(String body) {
+        return exchange -> {
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return write(exchange.getResponse(), HttpStatus.OK, body);
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, HttpStatus status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setStatusCode(status);
+        response.getHeaders().setContentLength(bytes.length);
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return exchange(MockServerHttpRequest.get(path));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("circuitbreaker_fallback_route")
+                .uri("http://httpbin.org")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.reionchan.timelimiter;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class AdaptiveTimeLimiterTest {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.ofDefaults();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdaptiveTimeLimiter adaptiveTimeLimiter =
+            new AdaptiveTimeLimiter(circuitBreakerRegistry, timeLimiterRegistry, meterRegistry);
+
+    @Test
+    public void followsPercentileOfSuccessfulCalls() {
+        timeLimiterRegistry.timeLimiter("slowcmd", TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofSeconds(2)).build());
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("slowcmd");
+
+        // 样本不足时保持静态配置的超时
+        record(circuitBreaker, 50, 99, 100);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("slowcmd")).isEqualTo(Duration.ofSeconds(2));
+
+        // 99% 的调用 100ms、1% 的调用 600ms：p99 约 100ms，× 1.5 后低于下限 500ms
+        record(circuitBreaker, 990, 100, 100);
+        record(circuitBreaker, 10, 600, 600);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("slowcmd")).isEqualTo(Duration.ofMillis(500));
+
+        // 慢而健康：p99 升到 3s，超时放宽到约 4.5s
+        record(circuitBreaker, 2000, 3000, 3000);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("slowcmd"))
+                .isBetween(Duration.ofMillis(4450), Duration.ofMillis(4550));
+        assertThat(meterRegistry.get("gateway.circuitbreaker.timeout").tag("name", "slowcmd").timeGauge()
+                .value(TimeUnit.MILLISECONDS)).isBetween(4450.0, 4550.0);
+    }
+
+    @Test
+    public void clampsToMaxTimeoutAndIgnoresFailures() {
+        adaptiveTimeLimiter.setMaxTimeout(Duration.ofSeconds(5));
+        adaptiveTimeLimiter.setMinSamples(10);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("fastcmd");
+
+        // 失败调用不计入样本
+        for (int i = 0; i < 20; i++) {
+            circuitBreaker.onError(30, TimeUnit.SECONDS, new IllegalStateException());
+        }
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("fastcmd")).isNull();
+
+        record(circuitBreaker, 20, 8000, 8000);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("fastcmd")).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void windowSpansConfiguredDuration() {
+        adaptiveTimeLimiter.setWindow(Duration.ofSeconds(10));
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("slowcmd");
+
+        record(circuitBreaker, 200, 3000, 3000);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("slowcmd"))
+                .isBetween(Duration.ofMillis(4450), Duration.ofMillis(4550));
+
+        // 统计时长等于更新间隔时只保留最近一段，上一段的慢调用不再参与计算
+        record(circuitBreaker, 200, 1000, 1000);
+        adaptiveTimeLimiter.update();
+        assertThat(adaptiveTimeLimiter.currentTimeout("slowcmd"))
+                .isBetween(Duration.ofMillis(1480), Duration.ofMillis(1520));
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, int count, long fromMillis, long toMillis) {
+        for (int i = 0; i < count; i++) {
+            long millis = fromMillis + (toMillis - fromMillis) * i / Math.max(count - 1, 1);
+            circuitBreaker.onSuccess(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.reionchan;
 
 import io.github.reionchan.config.RegistryRouteLocatorByBuilderConfig;
 import io.github.reionchan.config.SecurityConfig;
+import io.github.reionchan.ratelimit.HybridRateLimiter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
@@ -31,6 +32,14 @@ import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
  *     原理参考：
  *      {@link RegistryRouteLocatorByBuilderConfig#customRouteLocator}
  *
+ *  4. 使用本地优先的 {@link HybridRateLimiter} 替代 {@link RedisRateLimiter}
+ *      4.1 在 application.yaml 中设置 spring.cloud.gateway.hybrid-rate-limiter.enabled=true
+ *      4.2 请求在本地令牌桶中判定，不再逐个访问 Redis
+ *      4.3 按 sync-interval 周期、batch-size 批量同步消耗的令牌，近似全局限额；Redis 不可用时继续本地限流
+ *
+ *     原理参考：
+ *      {@link HybridRateLimiter} 注释
+ *
  * </pre>
  *
  * @author Reion
@@ -1,15 +1,23 @@
 package io.github.reionchan.config;
 
+import io.github.reionchan.ratelimit.HybridRateLimiter;
 import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.cloud.gateway.route.CachingRouteLocator;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.web.reactive.DispatcherHandler;
 
+import java.time.Duration;
 import java.util.List;
 
 import static io.github.reionchan.GatewayRedisRateLimitBootstrap.ROUTE_URI;
@@ -35,30 +43,53 @@ public class RegistryRouteLocatorByBuilderConfig {
      *      整合成 {@link CachingRouteLocator}，
      *      最终被纳入 {@link GatewayAutoConfiguration#routePredicateHandlerMapping} 路由断言处理映射器的属性
      *      当客户端请求时，由 {@link DispatcherHandler} 交给此路由断言处理映射器进行断言匹配路由到所配置的 URI
+     *
+     *      启用 spring.cloud.gateway.hybrid-rate-limiter.enabled 时改用 {@link HybridRateLimiter} 本地判定
      * </pre>
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           ObjectProvider<HybridRateLimiter> hybridRateLimiter) {
         log.info("--- 自定义根据登录用户名为标记进行单个用户请求控频的路由 ---");
+        HybridRateLimiter hybrid = hybridRateLimiter.getIfAvailable();
+        RateLimiter<?> rateLimiter = hybrid != null ? hybrid : redisRateLimiter();
         return builder.routes()
 
-                // 根据登录认证用户唯一标识 principle().getName() （依赖 Spring Security） 记录用户请求频率（记录在 Redis）
+                // 根据登录认证用户唯一标识 principle().getName() （依赖 Spring Security） 记录用户请求频率
+                // （默认每次请求在 Redis 中计数；启用 HybridRateLimiter 时在本地计数，周期性同步到 Redis）
                 // 当此用户请求超过设定频率时，将会返回 429 Too many requests
                 .route("limit_route", r -> r
                         .host("*.limited.org").and().path("/anything/**")
-                        .filters(f -> f.requestRateLimiter(c -> c.setRateLimiter(redisRateLimiter())))
+                        .filters(f -> f.requestRateLimiter(c -> c.setRateLimiter(rateLimiter)))
                         .uri(ROUTE_URI))
                 .build();
     }
 
     /**
-     * 设置基于 Redis 的漏斗限流
+     * 设置基于 Redis 的漏斗限流，始终作为 RequestRateLimiter 过滤器工厂的默认控频器
      */
     @Bean
+    @Primary
     RedisRateLimiter redisRateLimiter() {
         log.info("--- 定义基于 Redis 的漏斗控频器 RedisRateLimiter ---");
         // 每秒向漏斗添加 1 个令牌，漏斗最大 10 个令牌数，每次请求消耗 10 个令牌
         // 即：每 10 秒允许单个用户请求一次
         return new RedisRateLimiter(1, 10, 10);
     }
+
+    /**
+     * 设置本地优先、周期性同步到 Redis 的混合令牌桶限流，参数与 {@link #redisRateLimiter()} 一致，
+     * 只在显式启用后用于 limit_route 路由，不替换默认控频器
+     */
+    @Bean
+    @ConditionalOnProperty(value = "spring.cloud.gateway.hybrid-rate-limiter.enabled", havingValue = "true")
+    HybridRateLimiter hybridRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+            @Value("${spring.cloud.gateway.hybrid-rate-limiter.sync-interval:1s}") Duration syncInterval,
+            @Value("${spring.cloud.gateway.hybrid-rate-limiter.batch-size:500}") int batchSize) {
+        log.info("--- 定义本地优先的混合令牌桶控频器 HybridRateLimiter ---");
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(redisTemplate, 1, 10, 10);
+        rateLimiter.setSyncInterval(syncInterval);
+        rateLimiter.setBatchSize(batchSize);
+        return rateLimiter;
+    }
 }
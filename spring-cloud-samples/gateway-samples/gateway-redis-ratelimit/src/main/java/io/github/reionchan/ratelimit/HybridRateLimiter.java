@@ -0,0 +1,335 @@
+package io.github.reionchan.ratelimit;
+
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.BeansException;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 本地优先的混合令牌桶控频器
+ *
+ * <pre>
+ * {@link RedisRateLimiter} 每个请求都要执行一次 Redis Lua 脚本，Redis 延迟直接叠加到网关尾延迟上。
+ * 本控频器在本地判定，Redis 只用于周期性地近似全局限额：
+ *   1. 本地令牌桶：以 路由 ID + 限流键 (默认为认证用户名) 为键存于 {@link ConcurrentHashMap}，
+ *      桶状态是单个 long 的理论到达时间 (GCRA，与令牌桶等价)，一次 CAS 完成判定与扣减，无锁
+ *   2. 批量同步：每隔 syncInterval 将各桶自上次同步以来消耗的令牌数按 batchSize 分批，
+ *      用一次 Lua 脚本 INCRBY 到全局计数并取回累计值，
+ *      累计值增量减去本节点的消耗即为其它节点的消耗，从本地桶中扣除
+ *   3. 精度：全局超发上限约为 节点数 × 每个同步周期内补充的令牌数，缩短 syncInterval 可提高精度
+ *   4. 容错：判定从不访问 Redis，同步失败只记录日志并丢弃本轮增量，各节点继续按本地桶限流
+ *   5. 回收：已回满且无未同步消耗的桶在同步时先标记为退役再移除，标记后不再接受扣减，
+ *      判定时取到退役的桶会重新取新桶，因此移除不会丢失任何消耗
+ *
+ * 限流参数复用 {@link RedisRateLimiter.Config}，语义与 RedisRateLimiter 相同，
+ * replenishRate 或 burstCapacity 为 0 时拒绝全部请求。
+ * 全局计数键使用同一个 hash tag，以便在 Redis Cluster 中一次脚本调用访问多个键。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+public class HybridRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Config>
+        implements ApplicationContextAware, SmartLifecycle {
+
+    /**
+     * 按路由配置限流参数时的属性前缀
+     */
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+    /**
+     * 全局消耗计数键前缀
+     */
+    public static final String KEY_PREFIX = "{hybrid_rate_limiter}.";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final RedisScript<List<Long>> script;
+
+    private final RedisRateLimiter.Config defaultConfig;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    private int batchSize = 500;
+
+    private Duration counterTtl = Duration.ofMinutes(1);
+
+    private volatile Disposable syncTask;
+
+    public HybridRateLimiter(ReactiveStringRedisTemplate redisTemplate, int replenishRate, int burstCapacity,
+                             int requestedTokens) {
+        this(redisTemplate, replenishRate, burstCapacity, requestedTokens, System::nanoTime);
+    }
+
+    HybridRateLimiter(ReactiveStringRedisTemplate redisTemplate, int replenishRate, int burstCapacity,
+                      int requestedTokens, LongSupplier nanoClock) {
+        super(RedisRateLimiter.Config.class, CONFIGURATION_PROPERTY_NAME, null);
+        this.redisTemplate = redisTemplate;
+        this.script = syncScript();
+        this.defaultConfig = new RedisRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRequestedTokens(requestedTokens);
+        this.nanoClock = nanoClock;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setCounterTtl(Duration counterTtl) {
+        this.counterTtl = counterTtl;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext context) throws BeansException {
+        context.getBeanProvider(ConfigurationService.class).ifAvailable(this::setConfigurationService);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        RedisRateLimiter.Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        if (config.getReplenishRate() <= 0 || config.getBurstCapacity() <= 0) {
+            return Mono.just(new Response(false, headers(config, 0)));
+        }
+        long interval = NANOS_PER_SECOND / config.getReplenishRate();
+        String key = routeId + "." + id;
+        long now = nanoClock.getAsLong();
+        long remaining;
+        do {
+            // 取到同步流程刚退役、尚未移除的桶时重新取
+            remaining = buckets.computeIfAbsent(key, k -> new Bucket()).tryConsume(now, interval,
+                    interval * config.getBurstCapacity(), config.getRequestedTokens());
+        } while (remaining == Bucket.RETIRED);
+        boolean allowed = remaining >= 0;
+        return Mono.just(new Response(allowed, headers(config, allowed ? remaining : -1 - remaining)));
+    }
+
+    /**
+     * 将各桶的本地消耗批量同步到 Redis，并从本地桶中扣除其它节点的消耗
+     */
+    public Mono<Void> sync() {
+        long now = nanoClock.getAsLong();
+        List<Pending> pending = new ArrayList<>();
+        buckets.forEach((key, bucket) -> {
+            if (bucket.retire(now)) {
+                // 已回满且无未同步消耗的桶与新建的桶等价，移除以限制内存占用
+                buckets.remove(key, bucket);
+            } else {
+                pending.add(new Pending(key, bucket, bucket.consumed.getAndSet(0)));
+            }
+        });
+        return Flux.fromIterable(pending)
+                .buffer(batchSize)
+                .concatMap(this::push)
+                .then();
+    }
+
+    /**
+     * 本地跟踪的桶数量
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    @Override
+    public void start() {
+        if (syncTask == null) {
+            syncTask = Flux.interval(syncInterval, syncInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> sync(), 1)
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = syncTask;
+        syncTask = null;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return syncTask != null;
+    }
+
+    private Mono<Void> push(List<Pending> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        args.add(String.valueOf(Math.max(counterTtl.toSeconds(), 1)));
+        for (Pending entry : batch) {
+            keys.add(KEY_PREFIX + entry.key);
+            args.add(String.valueOf(entry.consumed));
+        }
+        return redisTemplate.execute(script, keys, args)
+                .reduce(new ArrayList<Long>(), (totals, results) -> {
+                    totals.addAll(results);
+                    return totals;
+                })
+                .timeout(syncInterval)
+                .doOnNext(totals -> apply(batch, totals))
+                .onErrorResume(e -> {
+                    log.warn("Hybrid rate limiter sync failed, keep enforcing locally: " + e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void apply(List<Pending> batch, List<Long> totals) {
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < batch.size() && i < totals.size(); i++) {
+            Pending entry = batch.get(i);
+            long total = totals.get(i);
+            long lastTotal = entry.bucket.lastTotal;
+            // 首次同步只建立基线；计数键过期重建时累计值会变小，此时同样只重置基线
+            if (lastTotal >= 0 && total - lastTotal - entry.consumed > 0) {
+                entry.bucket.charge(now, total - lastTotal - entry.consumed);
+            }
+            entry.bucket.lastTotal = total;
+        }
+    }
+
+    private Map<String, String> headers(RedisRateLimiter.Config config, long remaining) {
+        return Map.of(RedisRateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Long>> syncScript() {
+        DefaultRedisScript redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(
+                new ClassPathResource("META-INF/scripts/hybrid_rate_limiter_sync.lua")));
+        redisScript.setResultType(List.class);
+        return redisScript;
+    }
+
+    /**
+     * 本地令牌桶
+     *
+     * <pre>
+     * tat 为理论到达时间：桶满时不大于当前时间，每消耗一个令牌后移 interval，
+     * 后移到超过 当前时间 + tolerance (即 burstCapacity 个令牌的时长) 时拒绝。
+     * 退役后 tat 固定为 {@link #RETIRED_TAT}，不再接受扣减。
+     * </pre>
+     */
+    static final class Bucket {
+
+        /**
+         * 桶已退役时 {@link #tryConsume} 的返回值
+         */
+        static final long RETIRED = Long.MIN_VALUE;
+
+        private static final long RETIRED_TAT = Long.MAX_VALUE;
+
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+        private final AtomicLong consumed = new AtomicLong();
+
+        private volatile long interval;
+
+        private volatile long tolerance;
+
+        /**
+         * 上次同步取回的全局累计消耗，只由同步流程读写
+         */
+        private long lastTotal = -1;
+
+        /**
+         * @return 允许时返回剩余令牌数 (>= 0)；拒绝时返回 -1 - 剩余令牌数；桶已退役时返回 {@link #RETIRED}
+         */
+        long tryConsume(long now, long interval, long tolerance, int tokens) {
+            this.interval = interval;
+            this.tolerance = tolerance;
+            long cost = interval * tokens;
+            for (;;) {
+                long current = tat.get();
+                if (current == RETIRED_TAT) {
+                    return RETIRED;
+                }
+                long base = Math.max(current, now);
+                long next = base + cost;
+                if (next - now > tolerance) {
+                    return -1 - (tolerance - (base - now)) / interval;
+                }
+                // 先计入消耗再 CAS：retire 看到消耗为 0 时，与之并发的扣减的 CAS 必然失败
+                consumed.addAndGet(tokens);
+                if (tat.compareAndSet(current, next)) {
+                    return (tolerance - (next - now)) / interval;
+                }
+                // CAS 失败时撤回，若已被同步取走则下一轮以负数同步抵消
+                consumed.addAndGet(-tokens);
+            }
+        }
+
+        /**
+         * 扣除其它节点消耗的令牌，最多扣到桶空
+         */
+        void charge(long now, long tokens) {
+            long interval = this.interval;
+            long tolerance = this.tolerance;
+            if (interval <= 0) {
+                return;
+            }
+            long debt = Math.min(tokens, tolerance / interval) * interval;
+            for (;;) {
+                long current = tat.get();
+                if (current == RETIRED_TAT) {
+                    return;
+                }
+                long next = Math.min(Math.max(current, now) + debt, now + tolerance);
+                if (next <= current || tat.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 桶已回满且没有未同步的消耗时将其退役，退役成功后才可以从桶表中移除
+         */
+        boolean retire(long now) {
+            long current = tat.get();
+            return current <= now && consumed.get() == 0 && tat.compareAndSet(current, RETIRED_TAT);
+        }
+    }
+
+    private record Pending(String key, Bucket bucket, long consumed) {
+    }
+}
@@ -0,0 +1,14 @@
+-- 批量累加各节点本地消耗的令牌数，返回每个键的全局累计消耗
+-- KEYS[i]     全局消耗计数键
+-- ARGV[1]     计数键过期时间（秒）
+-- ARGV[i + 1] 本节点自上次同步以来在 KEYS[i] 上消耗的令牌数
+
+local ttl = tonumber(ARGV[1])
+local totals = {}
+
+for i, key in ipairs(KEYS) do
+  totals[i] = redis.call('incrby', key, tonumber(ARGV[i + 1]))
+  redis.call('expire', key, ttl)
+end
+
+return totals
@@ -0,0 +1,109 @@
+package io.github.reionchan.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class HybridRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+
+    @Test
+    public void enforcesBucketLocallyWithoutRedis() {
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(redisTemplate, 1, 10, 10, clock::get);
+
+        RateLimiter.Response first = rateLimiter.isAllowed("limit_route", "user").block();
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "0");
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isFalse();
+        // 其它用户使用独立的桶
+        assertThat(rateLimiter.isAllowed("limit_route", "admin").block().isAllowed()).isTrue();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isTrue();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    public void syncChargesTokensConsumedByOtherNodes() {
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(redisTemplate, 10, 10, 1, clock::get);
+        when(redisTemplate.execute(any(), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(3L)))
+                // 本节点再消耗 1 个，其它节点消耗 6 个
+                .thenReturn(Flux.just(List.of(10L)));
+
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isTrue();
+        rateLimiter.sync().block();
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().getHeaders())
+                .containsEntry(RedisRateLimiter.REMAINING_HEADER, "8");
+        rateLimiter.sync().block();
+
+        RateLimiter.Response response = rateLimiter.isAllowed("limit_route", "user").block();
+        assertThat(response.isAllowed()).isTrue();
+        assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "1");
+        verify(redisTemplate, times(2)).execute(any(), eq(List.of(HybridRateLimiter.KEY_PREFIX + "limit_route.user")),
+                eq(List.of("60", "1")));
+    }
+
+    @Test
+    public void keepsEnforcingLocallyWhenRedisIsDown() {
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(redisTemplate, 1, 2, 1, clock::get);
+        when(redisTemplate.execute(any(), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("Connection refused")));
+
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isTrue();
+        rateLimiter.sync().block();
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("limit_route", "user").block().isAllowed()).isFalse();
+
+        // 回满且无消耗的桶在同步时被移除
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        rateLimiter.sync().block();
+        rateLimiter.sync().block();
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    public void retiresOnlyFullBucketsWithoutUnsyncedConsumption() {
+        long now = clock.get();
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        HybridRateLimiter.Bucket bucket = new HybridRateLimiter.Bucket();
+        assertThat(bucket.tryConsume(now, interval, interval * 2, 1)).isEqualTo(1);
+
+        // 回满后仍有未同步的消耗，不能退役
+        assertThat(bucket.retire(now + interval)).isFalse();
+
+        HybridRateLimiter.Bucket idle = new HybridRateLimiter.Bucket();
+        assertThat(idle.retire(now)).isTrue();
+        // 退役后的扣减被拒绝并由调用方改用新桶，不会计入已移除的桶
+        assertThat(idle.tryConsume(now, interval, interval * 2, 1)).isEqualTo(HybridRateLimiter.Bucket.RETIRED);
+    }
+
+    @Test
+    public void deniesAllWhenReplenishRateIsZero() {
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(redisTemplate, 0, 10, 1, clock::get);
+
+        RateLimiter.Response response = rateLimiter.isAllowed("limit_route", "user").block();
+        assertThat(response.isAllowed()).isFalse();
+        assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "0");
+        assertThat(rateLimiter.size()).isZero();
+    }
+}
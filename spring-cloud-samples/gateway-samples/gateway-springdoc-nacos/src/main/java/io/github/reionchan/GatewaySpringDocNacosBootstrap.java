@@ -1,5 +1,9 @@
 package io.github.reionchan;
 
+import io.github.reionchan.apidocs.ApiDocsCache;
+import io.github.reionchan.apidocs.ApiDocsGatewayFilterFactory;
+import io.github.reionchan.apidocs.NacosApiDocsRefresher;
+import io.github.reionchan.config.ApiDocsCacheConfig;
 import io.github.reionchan.config.RouteConfig;
 import io.github.reionchan.config.SpringDocConfig;
 import io.github.reionchan.controller.ServerController;
@@ -89,6 +93,14 @@ import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFac
  *          11.3 可以发现，具体的 API 都是按照 Controller tag、方法名的字母排序
  *               这归功于 springdoc.swagger-ui.operations-sorter、springdoc.swagger-ui.tags-sorter 的配置
  *
+ *  12. 网关预取、缓存各服务 API 文档，避免每次打开文档页都实时调用下游服务
+ *      12.1 {@link NacosApiDocsRefresher} 订阅各服务的 Nacos 实例变化，只在实例变化时重新拉取文档
+ *      12.2 {@link ApiDocsCache} 保存上游原始文档及其 gzip 压缩版本，并计算 ETag
+ *      12.3 文档路由第一个过滤器 {@link ApiDocsGatewayFilterFactory} 命中缓存时直接返回 (支持 gzip、304)，
+ *           未命中时继续路径重写实时转发
+ *      12.4 开关 spring.cloud.gateway.api-docs-cache.enabled，默认关闭，设为 true 启用
+ *      原理参考：{@link ApiDocsCacheConfig} 注释
+ *
  * </pre>
  *
  * @author Reion
@@ -0,0 +1,176 @@
+package io.github.reionchan.apidocs;
+
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 下游服务 OpenAPI 文档的预取缓存
+ *
+ * <pre>
+ * 每个服务只保存一份文档，保存时即完成序列化 (上游原始字节) 与 gzip 压缩，并计算 ETag，
+ * 文档页加载时由 {@link ApiDocsGatewayFilterFactory} 直接写出，不再逐个调用下游服务。
+ *   1. {@link #refresh} 由服务实例变化触发，参数为该服务当前可用实例的地址
+ *   2. 实例地址集合 (排序后) 与上次相同且已有文档时不重新拉取
+ *   3. 依次请求各实例的文档地址，取第一个成功的响应；全部失败时按指数退避重试至多 retries 次，
+ *      仍失败则保留旧文档并撤销本次实例集合的记录，下次同样的实例推送会重新拉取，期间由原路由实时转发兜底
+ *   4. 实例全部下线时移除文档
+ * 并发刷新时，只有与最近一次请求的实例集合一致的结果才会写入，旧的拉取结果不会覆盖新的，
+ * 实例集合已变化时也不再重试。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+public class ApiDocsCache {
+
+    private final WebClient webClient;
+
+    private final String path;
+
+    private final Duration timeout;
+
+    /**
+     * 服务 ID → 最近一次请求刷新的实例集合指纹
+     */
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final Map<String, Doc> docs = new ConcurrentHashMap<>();
+
+    private int retries = 3;
+
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    public ApiDocsCache(WebClient.Builder webClientBuilder, String path, Duration timeout, DataSize maxSize) {
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxSize.toBytes()))
+                .build();
+        this.path = path;
+        this.timeout = timeout;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Doc get(String serviceId) {
+        return docs.get(serviceId);
+    }
+
+    /**
+     * 按服务的当前实例刷新文档，实例未变化时直接返回缓存的文档
+     *
+     * @param serviceId 服务 ID
+     * @param instances 可用实例的基础地址，如 http://ip:port
+     * @return 刷新后的文档，拉取失败或无实例时为空
+     */
+    public Mono<Doc> refresh(String serviceId, List<URI> instances) {
+        if (instances.isEmpty()) {
+            evict(serviceId);
+            return Mono.empty();
+        }
+        String fingerprint = fingerprint(instances);
+        String previous = fingerprints.put(serviceId, fingerprint);
+        Doc current = docs.get(serviceId);
+        if (current != null && fingerprint.equals(previous)) {
+            return Mono.just(current);
+        }
+        return Flux.fromIterable(instances)
+                .concatMap(instance -> fetch(serviceId, instance))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("no instance of " + serviceId
+                        + " returned api docs")))
+                .retryWhen(Retry.backoff(retries, retryBackoff)
+                        .filter(e -> fingerprint.equals(fingerprints.get(serviceId))))
+                .map(json -> Doc.of(json, System.currentTimeMillis()))
+                .doOnNext(doc -> {
+                    if (fingerprint.equals(fingerprints.get(serviceId))) {
+                        docs.put(serviceId, doc);
+                        log.info("Cached api docs of " + serviceId + ", " + doc.json().length + " bytes, "
+                                + doc.gzip().length + " bytes gzipped");
+                    }
+                })
+                .onErrorResume(e -> {
+                    // 未拉取到文档时撤销本次记录，否则相同实例的后续推送会被当作已刷新，旧文档将一直被返回
+                    fingerprints.remove(serviceId, fingerprint);
+                    log.warn("Gave up fetching api docs of " + serviceId + ": " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public void evict(String serviceId) {
+        fingerprints.remove(serviceId);
+        if (docs.remove(serviceId) != null) {
+            log.info("Evicted api docs of " + serviceId);
+        }
+    }
+
+    private Mono<byte[]> fetch(String serviceId, URI instance) {
+        URI uri = UriComponentsBuilder.fromUri(instance).path(path).build().toUri();
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.warn("Failed to fetch api docs of " + serviceId + " from " + uri + ": " + e);
+                    return Mono.empty();
+                });
+    }
+
+    private static String fingerprint(List<URI> instances) {
+        return String.join(",", instances.stream().map(URI::toString).sorted().toList());
+    }
+
+    /**
+     * 预先序列化的文档
+     *
+     * @param json      上游返回的原始文档
+     * @param gzip      gzip 压缩后的文档
+     * @param etag      文档内容的强 ETag，压缩版本使用 {@link #gzipEtag()}
+     * @param fetchedAt 拉取的时间戳，毫秒
+     */
+    public record Doc(byte[] json, byte[] gzip, String etag, long fetchedAt) {
+
+        public static Doc of(byte[] json, long now) {
+            return new Doc(json, gzip(json), "\"" + DigestUtils.md5DigestAsHex(json) + "\"", now);
+        }
+
+        /**
+         * 同一文档不同编码的表示使用不同的 ETag
+         */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.reionchan.apidocs;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 从 {@link ApiDocsCache} 直接返回服务文档的过滤器工厂
+ *
+ * <pre>
+ * 放在文档路由 springdoc-route 的第一个过滤器，请求路径 prefix 之后的部分即服务 ID：
+ *   1. 命中缓存：直接写出文档，不再经过路径重写与负载均衡转发
+ *      请求头 Accept-Encoding 包含 gzip 时写出预先压缩的文档，响应头带 Content-Encoding: gzip
+ *      If-None-Match 与文档 ETag 一致时返回 304
+ *      响应头 Cache-Control: no-cache 使浏览器每次都带 ETag 校验，服务实例变化后立即看到新文档
+ *   2. 未命中 (未启用缓存、服务尚未拉取或拉取失败)：继续原路由，实时转发到下游服务
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ApiDocsGatewayFilterFactory extends AbstractGatewayFilterFactory<ApiDocsGatewayFilterFactory.Config> {
+
+    private final ObjectProvider<ApiDocsCache> apiDocsCache;
+
+    public ApiDocsGatewayFilterFactory(ObjectProvider<ApiDocsCache> apiDocsCache) {
+        super(Config.class);
+        this.apiDocsCache = apiDocsCache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("prefix");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new GatewayFilter() {
+            @Override
+            public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+                ApiDocsCache cache = apiDocsCache.getIfAvailable();
+                ApiDocsCache.Doc doc = cache != null ? cache.get(serviceId(exchange.getRequest(), config)) : null;
+                return doc != null ? write(exchange, doc) : chain.filter(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return "[ApiDocs prefix = '" + config.getPrefix() + "']";
+            }
+        };
+    }
+
+    private static String serviceId(ServerHttpRequest request, Config config) {
+        String path = request.getPath().value();
+        if (request.getMethod() != HttpMethod.GET || !path.startsWith(config.getPrefix())) {
+            return "";
+        }
+        String serviceId = path.substring(config.getPrefix().length());
+        return serviceId.indexOf('/') < 0 ? serviceId : "";
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, ApiDocsCache.Doc doc) {
+        boolean gzip = acceptsGzip(exchange.getRequest().getHeaders());
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.setCacheControl(CacheControl.noCache());
+        if (exchange.checkNotModified(gzip ? doc.gzipEtag() : doc.etag())) {
+            return response.setComplete();
+        }
+        byte[] body = gzip ? doc.gzip() : doc.json();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Accept-Encoding 中含 gzip 且权重不为 0
+     */
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String token : value.split(",")) {
+                String[] parts = token.split(";");
+                if (parts[0].trim().toLowerCase(Locale.ROOT).equals("gzip")
+                        && (parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static class Config {
+
+        /**
+         * 文档路由的路径前缀，其后为服务 ID
+         */
+        private String prefix = "/v3/api-docs/";
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public Config setPrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+    }
+}
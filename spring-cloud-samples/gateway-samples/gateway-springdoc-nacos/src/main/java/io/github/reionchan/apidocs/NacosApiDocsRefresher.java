@@ -0,0 +1,114 @@
+package io.github.reionchan.apidocs;
+
+import com.alibaba.cloud.nacos.NacosServiceManager;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 Nacos 服务实例变化刷新 {@link ApiDocsCache}
+ *
+ * <pre>
+ * 不做定时全量拉取，只在服务实例变化时刷新对应服务的文档：
+ *   1. 应用就绪及每次服务发现心跳 {@link HeartbeatEvent} 时，为新出现的服务订阅 Nacos 实例变化
+ *   2. 订阅后 Nacos 立即推送一次当前实例，之后实例上下线、健康状态变化时推送 {@link NamingEvent}
+ *   3. 推送中健康且启用的实例地址交给 {@link ApiDocsCache#refresh}，地址集合未变化 (如仅元数据变化) 不会重新拉取
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+public class NacosApiDocsRefresher implements ApplicationListener<ApplicationEvent>, DisposableBean {
+
+    private final ApiDocsCache apiDocsCache;
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    private final NacosServiceManager nacosServiceManager;
+
+    private final String group;
+
+    private final Map<String, EventListener> listeners = new ConcurrentHashMap<>();
+
+    public NacosApiDocsRefresher(ApiDocsCache apiDocsCache, ReactiveDiscoveryClient discoveryClient,
+                                 NacosServiceManager nacosServiceManager, String group) {
+        this.apiDocsCache = apiDocsCache;
+        this.discoveryClient = discoveryClient;
+        this.nacosServiceManager = nacosServiceManager;
+        this.group = group;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationReadyEvent || event instanceof HeartbeatEvent) {
+            discoveryClient.getServices()
+                    .filter(serviceId -> !listeners.containsKey(serviceId))
+                    .subscribe(this::subscribe,
+                            e -> log.warn("Failed to list services for api docs: " + e));
+        }
+    }
+
+    private void subscribe(String serviceId) {
+        EventListener listener = event -> {
+            if (event instanceof NamingEvent namingEvent) {
+                apiDocsCache.refresh(serviceId, instances(namingEvent.getInstances())).subscribe();
+            }
+        };
+        if (listeners.putIfAbsent(serviceId, listener) != null) {
+            return;
+        }
+        try {
+            nacosServiceManager.getNamingService().subscribe(serviceId, group, listener);
+        } catch (NacosException e) {
+            listeners.remove(serviceId, listener);
+            log.warn("Failed to subscribe " + serviceId + " for api docs: " + e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        listeners.forEach((serviceId, listener) -> {
+            try {
+                nacosServiceManager.getNamingService().unsubscribe(serviceId, group, listener);
+            } catch (NacosException e) {
+                log.debug("Failed to unsubscribe " + serviceId + ": " + e);
+            }
+        });
+        listeners.clear();
+    }
+
+    /**
+     * 健康且启用的实例的基础地址，元数据 secure=true 时使用 https
+     */
+    static List<URI> instances(List<Instance> instances) {
+        List<URI> uris = new ArrayList<>(instances.size());
+        for (Instance instance : instances) {
+            if (!instance.isHealthy() || !instance.isEnabled()) {
+                continue;
+            }
+            String scheme = Boolean.parseBoolean(instance.getMetadata().get("secure")) ? "https" : "http";
+            try {
+                uris.add(new URI(scheme, null, instance.getIp(), instance.getPort(), null, null, null));
+            } catch (URISyntaxException e) {
+                log.warn("Ignored instance " + instance + ": " + e);
+            }
+        }
+        return uris;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.reionchan.config;
+
+import com.alibaba.cloud.nacos.NacosDiscoveryProperties;
+import com.alibaba.cloud.nacos.NacosServiceManager;
+import io.github.reionchan.apidocs.ApiDocsCache;
+import io.github.reionchan.apidocs.ApiDocsGatewayFilterFactory;
+import io.github.reionchan.apidocs.NacosApiDocsRefresher;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * 网关预取、缓存下游服务 API 文档
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Configuration
+@CommonsLog
+public class ApiDocsCacheConfig {
+
+    /**
+     * 过滤器工厂总是注册，使配置文件中的 ApiDocs 过滤器始终可用；
+     * 未启用缓存时它直接交给原路由实时转发
+     */
+    @Bean
+    public ApiDocsGatewayFilterFactory apiDocsGatewayFilterFactory(ObjectProvider<ApiDocsCache> apiDocsCache) {
+        return new ApiDocsGatewayFilterFactory(apiDocsCache);
+    }
+
+    /**
+     * 各服务文档的预取缓存，文档地址与 springdoc.api-docs.path 一致
+     */
+    @Bean
+    @ConditionalOnProperty(value = "spring.cloud.gateway.api-docs-cache.enabled", havingValue = "true")
+    public ApiDocsCache apiDocsCache(WebClient.Builder webClientBuilder,
+            @Value("${springdoc.api-docs.path:/v3/api-docs}") String path,
+            @Value("${spring.cloud.gateway.api-docs-cache.timeout:5s}") Duration timeout,
+            @Value("${spring.cloud.gateway.api-docs-cache.max-size:4MB}") DataSize maxSize,
+            @Value("${spring.cloud.gateway.api-docs-cache.retries:3}") int retries,
+            @Value("${spring.cloud.gateway.api-docs-cache.retry-backoff:1s}") Duration retryBackoff) {
+        log.info("--- 定义服务 API 文档预取缓存 ApiDocsCache ---");
+        ApiDocsCache apiDocsCache = new ApiDocsCache(webClientBuilder, path, timeout, maxSize);
+        apiDocsCache.setRetries(retries);
+        apiDocsCache.setRetryBackoff(retryBackoff);
+        return apiDocsCache;
+    }
+
+    /**
+     * 订阅 Nacos 服务实例变化，只在实例变化时刷新对应服务的文档
+     */
+    @Bean
+    @ConditionalOnProperty(value = "spring.cloud.gateway.api-docs-cache.enabled", havingValue = "true")
+    public NacosApiDocsRefresher nacosApiDocsRefresher(ApiDocsCache apiDocsCache,
+                                                       ReactiveDiscoveryClient discoveryClient,
+                                                       NacosServiceManager nacosServiceManager,
+                                                       NacosDiscoveryProperties nacosDiscoveryProperties) {
+        log.info("--- 定义服务 API 文档刷新器 NacosApiDocsRefresher ---");
+        return new NacosApiDocsRefresher(apiDocsCache, discoveryClient, nacosServiceManager,
+                nacosDiscoveryProperties.getGroup());
+    }
+}
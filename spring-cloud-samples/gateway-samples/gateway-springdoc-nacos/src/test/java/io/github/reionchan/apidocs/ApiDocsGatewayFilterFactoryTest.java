@@ -0,0 +1,157 @@
+package io.github.reionchan.apidocs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ApiDocsGatewayFilterFactoryTest {
+
+    private static final String DOC = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"foo-service\"}}";
+
+    private static final URI DOWN = URI.create("http://10.0.0.1:9000");
+
+    private static final URI UP = URI.create("http://10.0.0.2:9000");
+
+    private final List<String> fetched = new ArrayList<>();
+
+    private final AtomicBoolean upAvailable = new AtomicBoolean(true);
+
+    private final ApiDocsCache cache = new ApiDocsCache(WebClient.builder().exchangeFunction(request -> {
+        fetched.add(request.url().toString());
+        HttpStatus status = request.url().getHost().equals(DOWN.getHost()) || !upAvailable.get()
+                ? HttpStatus.BAD_GATEWAY : HttpStatus.OK;
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(DOC)
+                .build());
+    }), "/v3/api-docs", Duration.ofSeconds(1), DataSize.ofMegabytes(1));
+
+    private final GatewayFilter filter = filter(cache);
+
+    {
+        cache.setRetryBackoff(Duration.ofMillis(1));
+    }
+
+    @Test
+    public void refreshesOnlyWhenInstancesChange() {
+        assertThat(cache.refresh("foo-service", List.of(DOWN, UP)).block()).isNotNull();
+        assertThat(fetched).containsExactly("http://10.0.0.1:9000/v3/api-docs", "http://10.0.0.2:9000/v3/api-docs");
+
+        // 实例相同 (顺序不同) 时不重新拉取
+        fetched.clear();
+        assertThat(cache.refresh("foo-service", List.of(UP, DOWN)).block()).isSameAs(cache.get("foo-service"));
+        assertThat(fetched).isEmpty();
+
+        cache.refresh("foo-service", List.of(UP)).block();
+        assertThat(fetched).containsExactly("http://10.0.0.2:9000/v3/api-docs");
+
+        cache.refresh("foo-service", List.of()).block();
+        assertThat(cache.get("foo-service")).isNull();
+    }
+
+    @Test
+    public void refetchesSameInstancesAfterFailedRefresh() {
+        ApiDocsCache.Doc stale = cache.refresh("foo-service", List.of(UP)).block();
+
+        upAvailable.set(false);
+        fetched.clear();
+        assertThat(cache.refresh("foo-service", List.of(DOWN, UP)).block()).isNull();
+        // 首次拉取加 3 次重试
+        assertThat(fetched).hasSize(8);
+        assertThat(cache.get("foo-service")).isSameAs(stale);
+
+        // 失败的实例集合未被记录，相同实例再次推送时重新拉取而不是一直返回旧文档
+        upAvailable.set(true);
+        fetched.clear();
+        assertThat(cache.refresh("foo-service", List.of(DOWN, UP)).block()).isNotSameAs(stale);
+        assertThat(fetched).containsExactly("http://10.0.0.1:9000/v3/api-docs", "http://10.0.0.2:9000/v3/api-docs");
+    }
+
+    @Test
+    public void servesCachedDocWithGzipAndEtag() throws IOException {
+        ApiDocsCache.Doc doc = cache.refresh("foo-service", List.of(UP)).block();
+
+        MockServerWebExchange plain = exchange(MockServerHttpRequest.get("/v3/api-docs/foo-service"));
+        filter.filter(plain, unreachable()).block();
+        assertThat(plain.getResponse().getHeaders().getETag()).isEqualTo(doc.etag());
+        assertThat(plain.getResponse().getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(plain.getResponse().getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(plain.getResponse().getBodyAsString().block()).isEqualTo(DOC);
+
+        MockServerWebExchange gzipped = exchange(MockServerHttpRequest.get("/v3/api-docs/foo-service")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+        filter.filter(gzipped, unreachable()).block();
+        assertThat(gzipped.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getResponse().getHeaders().getETag()).isEqualTo(doc.gzipEtag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(doc.gzip()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(DOC);
+        }
+
+        MockServerWebExchange revalidated = exchange(MockServerHttpRequest.get("/v3/api-docs/foo-service")
+                .ifNoneMatch(doc.etag()));
+        filter.filter(revalidated, unreachable()).block();
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void fallsThroughWithoutCachedDoc() {
+        cache.refresh("foo-service", List.of(DOWN)).block();
+        boolean[] forwarded = new boolean[3];
+
+        filter.filter(exchange(MockServerHttpRequest.get("/v3/api-docs/foo-service")), forward(forwarded, 0)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/v3/api-docs/bar-service")), forward(forwarded, 1)).block();
+        filter(null).filter(exchange(MockServerHttpRequest.get("/v3/api-docs/foo-service")), forward(forwarded, 2))
+                .block();
+
+        assertThat(forwarded).containsOnly(true);
+    }
+
+    private static GatewayFilter filter(ApiDocsCache cache) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (cache != null) {
+            beanFactory.addBean("apiDocsCache", cache);
+        }
+        return new ApiDocsGatewayFilterFactory(beanFactory.getBeanProvider(ApiDocsCache.class)).apply(c -> {});
+    }
+
+    private static GatewayFilterChain forward(boolean[] forwarded, int index) {
+        return exchange -> {
+            forwarded[index] = true;
+            return Mono.empty();
+        };
+    }
+
+    private static GatewayFilterChain unreachable() {
+        return exchange -> Mono.error(new AssertionError("should be served from cache"));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.reionchan.benchmark;
+
+import io.github.reionchan.loadbalancer.LeastRequestLoadBalancer;
+import io.github.reionchan.loadbalancer.PeakEwmaLoadBalancer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 服务耗时倾斜场景下的负载均衡器对比
+ *
+ * <pre>
+ * 模拟 4 个服务实例，每个实例同一时刻最多处理 concurrency 个请求 (超出则排队)，
+ * 其中第一个实例的服务耗时是其余实例的 slowFactor 倍。16 个线程持续发起请求：
+ *   选择实例 -> onStartRequest -> 实例处理 (排队 + 服务耗时) -> onComplete
+ *
+ * 对比 {@link RoundRobinLoadBalancer}、{@link LeastRequestLoadBalancer}、{@link PeakEwmaLoadBalancer}
+ * 的请求耗时分布，轮询会持续向慢实例分配 1/4 请求并在其上排队，P2C 则会避开在途请求堆积的实例。
+ *
+ * 运行方式：
+ *   1. 直接运行 main 方法
+ *   2. mvn package 后执行 java -jar target/benchmarks.jar SkewedServiceTimeBenchmark
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class SkewedServiceTimeBenchmark {
+
+    private static final String SERVICE_ID = "loadbalancer";
+
+    private static final int INSTANCES = 4;
+
+    private static final int BASE_PORT = 9000;
+
+    @Param({"ROUND_ROBIN", "LEAST_REQUEST", "PEAK_EWMA"})
+    public String balancer;
+
+    /**
+     * 慢实例耗时倍数
+     */
+    @Param({"10"})
+    public int slowFactor;
+
+    /**
+     * 快实例服务耗时 (微秒)
+     */
+    @Param({"100"})
+    public long serviceTimeMicros;
+
+    /**
+     * 单个实例可并发处理的请求数
+     */
+    @Param({"2"})
+    public int concurrency;
+
+    private ReactorServiceInstanceLoadBalancer loadBalancer;
+
+    private LoadBalancerLifecycle<Object, Object, ServiceInstance> lifecycle;
+
+    private SimulatedServer[] servers;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        ServiceInstance[] instances = new ServiceInstance[INSTANCES];
+        servers = new SimulatedServer[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            instances[i] = new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID, "127.0.0.1", BASE_PORT + i, false);
+            long serviceTime = TimeUnit.MICROSECONDS.toNanos(serviceTimeMicros) * (i == 0 ? slowFactor : 1);
+            servers[i] = new SimulatedServer(concurrency, serviceTime);
+        }
+        SimpleObjectProvider<ServiceInstanceListSupplier> provider = new SimpleObjectProvider<>(
+                ServiceInstanceListSuppliers.from(SERVICE_ID, instances));
+        loadBalancer = switch (balancer) {
+            case "LEAST_REQUEST" -> new LeastRequestLoadBalancer(provider, SERVICE_ID);
+            case "PEAK_EWMA" -> new PeakEwmaLoadBalancer(provider, SERVICE_ID);
+            default -> new RoundRobinLoadBalancer(provider, SERVICE_ID);
+        };
+        lifecycle = loadBalancer instanceof LoadBalancerLifecycle ? (LoadBalancerLifecycle<Object, Object, ServiceInstance>) loadBalancer : null;
+    }
+
+    @Benchmark
+    public ServiceInstance request() {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = loadBalancer.choose(request).block();
+        ServiceInstance instance = response.getServer();
+        if (lifecycle != null) {
+            lifecycle.onStartRequest(request, response);
+        }
+        servers[instance.getPort() - BASE_PORT].handle();
+        if (lifecycle != null) {
+            lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        }
+        return instance;
+    }
+
+    /**
+     * 并发能力有限的模拟服务实例
+     */
+    static final class SimulatedServer {
+
+        private final Semaphore permits;
+
+        private final long serviceTimeNanos;
+
+        SimulatedServer(int concurrency, long serviceTimeNanos) {
+            this.permits = new Semaphore(concurrency, true);
+            this.serviceTimeNanos = serviceTimeNanos;
+        }
+
+        void handle() {
+            permits.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(serviceTimeNanos);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SkewedServiceTimeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
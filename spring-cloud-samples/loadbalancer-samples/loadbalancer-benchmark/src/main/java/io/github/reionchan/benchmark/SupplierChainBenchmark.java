@@ -0,0 +1,258 @@
+package io.github.reionchan.benchmark;
+
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataIndexedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataRoute;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.loadbalancer.cache.DefaultLoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheProperties;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerZoneConfig;
+import org.springframework.cloud.loadbalancer.core.HealthCheckServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ServiceInstanceListSupplier 装饰链的选择开销
+ *
+ * <pre>
+ * 以内存中的 {@link SimpleDiscoveryClient} 提供 10 / 100 / 1000 个实例，按
+ * service-instance-list-supplier-decoration 模块 outside.scan.config 中各配置类相同的方式构建装饰链，
+ * 并与真实应用一样注册到 {@link LoadBalancerClientFactory} 的子上下文中，分别测量：
+ *   reactiveChoose   ReactiveLoadBalancer#choose(Request).block()
+ *   blockingChoose   BlockingLoadBalancerClient#choose(serviceId, Request)，额外包含子上下文查找及生命周期处理
+ *
+ * 请求携带 X-SC-LB-Hint、X-SC-LB-Version 请求头及 sc-lb-instance-id Cookie，使基于请求的装饰走到匹配分支。
+ * HEALTH_CHECK 的健康探测替换为恒为 UP 的桩函数，只测量选择路径，不包含探测请求本身。
+ *
+ * 运行方式 (GC 分析器输出的 gc.alloc.rate.norm 即每次选择分配的字节数)：
+ *   1. 直接运行 main 方法
+ *   2. mvn package 后执行 java -jar target/benchmarks.jar SupplierChainBenchmark -prof gc
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SupplierChainBenchmark {
+
+    private static final String SERVICE_ID = "loadbalancer";
+
+    private static final String ZONE = "bar-zone";
+
+    public enum Chain {
+        DEFAULT(DefaultChain.class),
+        WEIGHTED(WeightedChain.class),
+        ZONE_PREFERENCE(ZonePreferenceChain.class),
+        HEALTH_CHECK(HealthCheckChain.class),
+        SAME_INSTANCE_PREFERENCE(SameInstancePreferenceChain.class),
+        REQUEST_BASED_STICKY_SESSION(RequestBasedStickySessionChain.class),
+        HINT(HintChain.class),
+        ALIAS_WEIGHTED(AliasWeightedChain.class),
+        METADATA_INDEXED(MetadataIndexedChain.class);
+
+        private final Class<?> configuration;
+
+        Chain(Class<?> configuration) {
+            this.configuration = configuration;
+        }
+    }
+
+    @Param({"10", "100", "1000"})
+    public int instances;
+
+    @Param
+    public Chain chain;
+
+    private AnnotationConfigApplicationContext parent;
+
+    private ReactorServiceInstanceLoadBalancer loadBalancer;
+
+    private BlockingLoadBalancerClient blockingClient;
+
+    private Request<RequestDataContext> request;
+
+    @Setup
+    public void setup() {
+        List<DefaultServiceInstance> serviceInstances = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            Map<String, String> metadata = Map.of(
+                    "zone", i % 2 == 0 ? ZONE : "foo-zone",
+                    "hint", i % 2 == 0 ? "bar-hint" : "foo-hint",
+                    "version", i % 10 == 0 ? "v2" : "v1",
+                    "weight", String.valueOf(1 + i % 3));
+            serviceInstances.add(new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID,
+                    "10.0." + i / 256 + "." + i % 256, 8080, false, metadata));
+        }
+        SimpleDiscoveryProperties discoveryProperties = new SimpleDiscoveryProperties();
+        discoveryProperties.setInstances(Map.of(SERVICE_ID, serviceInstances));
+
+        LoadBalancerClientFactory clientFactory = new LoadBalancerClientFactory(new LoadBalancerClientsProperties());
+        clientFactory.setConfigurations(List.of(
+                new LoadBalancerClientSpecification(SERVICE_ID, new Class[]{chain.configuration})));
+        parent = new AnnotationConfigApplicationContext();
+        parent.registerBean(SimpleDiscoveryClient.class, () -> new SimpleDiscoveryClient(discoveryProperties));
+        parent.registerBean(LoadBalancerZoneConfig.class, () -> new LoadBalancerZoneConfig(ZONE));
+        parent.registerBean(DefaultLoadBalancerCacheManager.class,
+                () -> new DefaultLoadBalancerCacheManager(new LoadBalancerCacheProperties()));
+        parent.registerBean(LoadBalancerClientFactory.class, () -> clientFactory);
+        parent.refresh();
+
+        loadBalancer = clientFactory.getInstance(SERVICE_ID, ReactorServiceInstanceLoadBalancer.class);
+        blockingClient = new BlockingLoadBalancerClient(clientFactory);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-SC-LB-Hint", "bar-hint");
+        headers.add("X-SC-LB-Version", "v2");
+        MultiValueMap<String, String> cookies = new LinkedMultiValueMap<>();
+        cookies.add("sc-lb-instance-id", SERVICE_ID + "-" + instances / 2);
+        request = new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET,
+                URI.create("http://" + SERVICE_ID + "/server/address"), headers, cookies, new HashMap<>())));
+        if (loadBalancer.choose(request).block().getServer() == null) {
+            throw new IllegalStateException("No instance chosen by chain " + chain);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        parent.close();
+    }
+
+    @Benchmark
+    public Response<ServiceInstance> reactiveChoose() {
+        return loadBalancer.choose(request).block();
+    }
+
+    @Benchmark
+    public ServiceInstance blockingChoose() {
+        return blockingClient.choose(SERVICE_ID, request);
+    }
+
+    public static class DefaultChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching().build(context);
+        }
+    }
+
+    public static class WeightedChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withWeighted().withCaching()
+                    .build(context);
+        }
+    }
+
+    public static class ZonePreferenceChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withZonePreference()
+                    .withCaching().build(context);
+        }
+    }
+
+    public static class HealthCheckChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient()
+                    .with((ctx, delegate) -> new HealthCheckServiceInstanceListSupplier(delegate,
+                            ctx.getBean(LoadBalancerClientFactory.class), (instance, path) -> Mono.just(true)))
+                    .build(context);
+        }
+    }
+
+    public static class SameInstancePreferenceChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withSameInstancePreference()
+                    .build(context);
+        }
+    }
+
+    public static class RequestBasedStickySessionChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                    .withRequestBasedStickySession().build(context);
+        }
+    }
+
+    public static class HintChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withHints().build(context);
+        }
+    }
+
+    public static class AliasWeightedChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                    .with((ctx, delegate) -> new AliasWeightedServiceInstanceListSupplier(delegate))
+                    .build(context);
+        }
+
+        @Bean
+        public AliasWeightedLoadBalancer aliasWeightedLoadBalancer(Environment environment,
+                                                                   LoadBalancerClientFactory loadBalancerClientFactory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new AliasWeightedLoadBalancer(loadBalancerClientFactory
+                    .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+        }
+    }
+
+    public static class MetadataIndexedChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            List<MetadataRoute> routes = List.of(
+                    new MetadataRoute("version", "X-SC-LB-Version", null),
+                    new MetadataRoute("hint", "X-SC-LB-Hint", null),
+                    new MetadataRoute("zone", "X-SC-LB-Zone", ZONE));
+            return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                    .with((ctx, delegate) -> new MetadataIndexedServiceInstanceListSupplier(delegate, routes))
+                    .build(context);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SupplierChainBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.reionchan.benchmark;
+
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.loadbalancer.LeastRequestLoadBalancer;
+import io.github.reionchan.loadbalancer.support.SynchronousBlockingLoadBalancerClient;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataIndexedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataRoute;
+import io.github.reionchan.supplier.SynchronousCachingServiceInstanceListSupplier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.loadbalancer.cache.DefaultLoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheProperties;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplierBuilder;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阻塞式客户端同步快速路径的选择开销
+ *
+ * <pre>
+ * 与 {@link SupplierChainBenchmark} 相同地以 {@link SimpleDiscoveryClient} 提供 10 / 100 / 1000 个实例、
+ * 在 {@link LoadBalancerClientFactory} 子上下文中构建装饰链，缓存层使用 {@link SynchronousCachingServiceInstanceListSupplier}，
+ * 分别以两种客户端测量 choose(serviceId, Request)：
+ *   BLOCKING      {@link BlockingLoadBalancerClient}，每次组装 Reactor 管道并 block (改动前)
+ *   SYNCHRONOUS   {@link SynchronousBlockingLoadBalancerClient}，缓存已加载时直接同步选择 (改动后)
+ *
+ * 运行方式 (GC 分析器输出的 gc.alloc.rate.norm 即每次选择分配的字节数)：
+ *   1. 直接运行 main 方法
+ *   2. mvn package 后执行 java -jar target/benchmarks.jar SynchronousChooseBenchmark -prof gc
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SynchronousChooseBenchmark {
+
+    private static final String SERVICE_ID = "loadbalancer";
+
+    public enum Chain {
+        ALIAS_WEIGHTED(AliasWeightedChain.class),
+        METADATA_INDEXED_LEAST_REQUEST(MetadataIndexedLeastRequestChain.class);
+
+        private final Class<?> configuration;
+
+        Chain(Class<?> configuration) {
+            this.configuration = configuration;
+        }
+    }
+
+    public enum Client {
+        BLOCKING,
+        SYNCHRONOUS
+    }
+
+    @Param({"10", "100", "1000"})
+    public int instances;
+
+    @Param
+    public Chain chain;
+
+    @Param
+    public Client client;
+
+    private AnnotationConfigApplicationContext parent;
+
+    private BlockingLoadBalancerClient blockingClient;
+
+    private Request<RequestDataContext> request;
+
+    @Setup
+    public void setup() {
+        List<DefaultServiceInstance> serviceInstances = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            Map<String, String> metadata = Map.of(
+                    "version", i % 10 == 0 ? "v2" : "v1",
+                    "weight", String.valueOf(1 + i % 3));
+            serviceInstances.add(new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID,
+                    "10.0." + i / 256 + "." + i % 256, 8080, false, metadata));
+        }
+        SimpleDiscoveryProperties discoveryProperties = new SimpleDiscoveryProperties();
+        discoveryProperties.setInstances(Map.of(SERVICE_ID, serviceInstances));
+
+        LoadBalancerClientFactory clientFactory = new LoadBalancerClientFactory(new LoadBalancerClientsProperties());
+        clientFactory.setConfigurations(List.of(
+                new LoadBalancerClientSpecification(SERVICE_ID, new Class[]{chain.configuration})));
+        parent = new AnnotationConfigApplicationContext();
+        parent.registerBean(SimpleDiscoveryClient.class, () -> new SimpleDiscoveryClient(discoveryProperties));
+        parent.registerBean(DefaultLoadBalancerCacheManager.class,
+                () -> new DefaultLoadBalancerCacheManager(new LoadBalancerCacheProperties()));
+        parent.registerBean(LoadBalancerClientFactory.class, () -> clientFactory);
+        parent.refresh();
+
+        blockingClient = client == Client.SYNCHRONOUS
+                ? new SynchronousBlockingLoadBalancerClient(clientFactory)
+                : new BlockingLoadBalancerClient(clientFactory);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-SC-LB-Version", "v2");
+        request = new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET,
+                URI.create("http://" + SERVICE_ID + "/server/address"), headers, new LinkedMultiValueMap<>(),
+                new HashMap<>())));
+        // 首次选择走响应式路径加载缓存
+        if (blockingClient.choose(SERVICE_ID, request) == null) {
+            throw new IllegalStateException("No instance chosen by chain " + chain);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        parent.close();
+    }
+
+    @Benchmark
+    public ServiceInstance choose() {
+        return blockingClient.choose(SERVICE_ID, request);
+    }
+
+    private static ServiceInstanceListSupplierBuilder cachedDiscovery() {
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient()
+                .with((ctx, delegate) -> new SynchronousCachingServiceInstanceListSupplier(delegate,
+                        ctx.getBean(LoadBalancerCacheManager.class)));
+    }
+
+    public static class AliasWeightedChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            return cachedDiscovery()
+                    .with((ctx, delegate) -> new AliasWeightedServiceInstanceListSupplier(delegate))
+                    .build(context);
+        }
+
+        @Bean
+        public AliasWeightedLoadBalancer aliasWeightedLoadBalancer(Environment environment,
+                                                                   LoadBalancerClientFactory loadBalancerClientFactory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new AliasWeightedLoadBalancer(loadBalancerClientFactory
+                    .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+        }
+    }
+
+    public static class MetadataIndexedLeastRequestChain {
+        @Bean
+        public ServiceInstanceListSupplier supplier(ConfigurableApplicationContext context) {
+            List<MetadataRoute> routes = List.of(new MetadataRoute("version", "X-SC-LB-Version", null));
+            return cachedDiscovery()
+                    .with((ctx, delegate) -> new MetadataIndexedServiceInstanceListSupplier(delegate, routes))
+                    .build(context);
+        }
+
+        @Bean
+        public LeastRequestLoadBalancer leastRequestLoadBalancer(Environment environment,
+                                                                 LoadBalancerClientFactory loadBalancerClientFactory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new LeastRequestLoadBalancer(loadBalancerClientFactory
+                    .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SynchronousChooseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.SynchronousServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 两次随机选择 (Power of Two Choices) 负载均衡器模版
+ *
+ * <pre>
+ * 每次选择时随机抽取两个不同的实例，比较子类给出的代价 {@link #cost(ServiceInstance, long)}，取较小者。
+ * 相比全量扫描取最小值，P2C 既能避开高代价实例，又不会让所有客户端同时涌向同一个“最优”实例。
+ *
+ * 代价所需的统计数据来自负载均衡生命周期 {@link LoadBalancerLifecycle}，子类实现 onStartRequest、onComplete
+ * 回调即可。将子类声明为 @LoadBalancerClient 配置类中的 Bean 后，它会同时被
+ * {@link org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory#getInstances}
+ * 作为该服务的生命周期回调收集，统计只对当前服务生效。
+ * 实例列表变化时回调 {@link #retain(Set)}，子类据此移除已下线实例的统计。
+ *
+ * 实现了 {@link SynchronousLoadBalancer}，服务实例列表提供器支持同步读取快照时可以不经过 Reactor 完成选择。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public abstract class AbstractPowerOfTwoChoicesLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        SynchronousLoadBalancer, LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    protected final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private volatile List<ServiceInstance> lastInstances = Collections.emptyList();
+
+    protected AbstractPowerOfTwoChoicesLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, String serviceId) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next()
+                .map(serviceInstances -> processInstanceResponse(supplier, serviceInstances));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Response<ServiceInstance> chooseNow(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        List<ServiceInstance> serviceInstances = SynchronousServiceInstanceListSupplier.getNow(supplier, request);
+        return serviceInstances == null ? null : processInstanceResponse(supplier, serviceInstances);
+    }
+
+    private Response<ServiceInstance> processInstanceResponse(ServiceInstanceListSupplier supplier,
+                                                              List<ServiceInstance> serviceInstances) {
+        Response<ServiceInstance> serviceInstanceResponse = getInstanceResponse(serviceInstances);
+        if (supplier instanceof SelectedInstanceCallback callback && serviceInstanceResponse.hasServer()) {
+            callback.selectedServiceInstance(serviceInstanceResponse.getServer());
+        }
+        return serviceInstanceResponse;
+    }
+
+    private Response<ServiceInstance> getInstanceResponse(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances != lastInstances) {
+            lastInstances = instances;
+            Set<String> instanceKeys = new HashSet<>(instances.size() * 2);
+            for (ServiceInstance instance : instances) {
+                instanceKeys.add(ServiceInstanceKeys.of(instance));
+            }
+            retain(instanceKeys);
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        // 随机选择两个不同的实例，取代价较小者
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        long now = System.nanoTime();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(cost(a, now) <= cost(b, now) ? a : b);
+    }
+
+    /**
+     * 获取实例当前代价，代价越小越优先被选中
+     *
+     * @param instance 候选实例
+     * @param now      本次选择的时间戳 (System.nanoTime)
+     */
+    protected abstract double cost(ServiceInstance instance, long now);
+
+    /**
+     * 实例列表变化时回调，子类只保留给定实例及仍有在途请求的实例的统计，默认不做任何处理
+     *
+     * @param instanceKeys 当前实例列表中各实例的 {@link ServiceInstanceKeys}
+     */
+    protected void retain(Set<String> instanceKeys) {
+        // do nothing
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // do nothing
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceList;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.SynchronousServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 基于别名表的加权负载均衡器
+ *
+ * <pre>
+ * 服务实例列表由 {@link AliasWeightedServiceInstanceListSupplier} 提供时，直接使用列表携带的别名表 O(1) 抽样；
+ * 否则按实例列表的引用缓存一张自建的别名表，上游缓存未刷新时同样不会重复构建。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class AliasWeightedLoadBalancer implements ReactorServiceInstanceLoadBalancer, SynchronousLoadBalancer {
+
+    private final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final ToDoubleFunction<ServiceInstance> weightFunction;
+
+    private volatile AliasWeightedServiceInstanceList table;
+
+    public AliasWeightedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                     String serviceId) {
+        this(serviceInstanceListSupplierProvider, serviceId, AliasWeightedServiceInstanceList::metadataWeight);
+    }
+
+    public AliasWeightedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                     String serviceId, ToDoubleFunction<ServiceInstance> weightFunction) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.weightFunction = weightFunction;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next()
+                .map(serviceInstances -> processInstanceResponse(supplier, serviceInstances));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Response<ServiceInstance> chooseNow(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        List<ServiceInstance> serviceInstances = SynchronousServiceInstanceListSupplier.getNow(supplier, request);
+        return serviceInstances == null ? null : processInstanceResponse(supplier, serviceInstances);
+    }
+
+    private Response<ServiceInstance> processInstanceResponse(ServiceInstanceListSupplier supplier,
+                                                              List<ServiceInstance> serviceInstances) {
+        Response<ServiceInstance> serviceInstanceResponse = getInstanceResponse(serviceInstances);
+        if (supplier instanceof SelectedInstanceCallback callback && serviceInstanceResponse.hasServer()) {
+            callback.selectedServiceInstance(serviceInstanceResponse.getServer());
+        }
+        return serviceInstanceResponse;
+    }
+
+    private Response<ServiceInstance> getInstanceResponse(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        return new DefaultResponse(aliasTable(instances).next());
+    }
+
+    private AliasWeightedServiceInstanceList aliasTable(List<ServiceInstance> instances) {
+        if (instances instanceof AliasWeightedServiceInstanceList weighted) {
+            return weighted;
+        }
+        AliasWeightedServiceInstanceList current = table;
+        if (current == null || current.source() != instances) {
+            current = AliasWeightedServiceInstanceList.of(instances, weightFunction);
+            table = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,271 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.SynchronousServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带负载上限的一致性哈希负载均衡器 (Consistent Hashing with Bounded Loads)
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.RequestBasedStickySessionServiceInstanceListSupplier}
+ * 通过 Cookie 记录实例 ID 实现粘性，一旦该实例变更粘性即失效。本负载均衡器按请求中的哈希键选择实例：
+ *
+ * 1. 哈希环
+ *    每个实例在环上放置 virtualNodes 个虚拟节点，请求的哈希键顺时针找到的第一个虚拟节点即目标实例。
+ *    实例加入或离开时只有约 1/N 的键改变归属，其余键对应实例的本地缓存保持热度。
+ *    哈希环只在实例列表变化时重建，重建时移除已下线且无在途请求的实例计数，
+ *    仍有在途请求的计数保留到请求全部完成后的下一次重建。
+ *
+ * 2. 负载上限
+ *    每个实例的在途请求数不得超过 ceil(loadFactor * (总在途请求数 + 1) / 实例数)，
+ *    目标实例已满时沿环继续寻找下一个未满的实例，避免热点键压垮单个实例。
+ *    在途请求数通过本类实现的 {@link LoadBalancerLifecycle} 回调维护。
+ *
+ * 3. 哈希键由 {@link RequestHashKeyResolver} 从请求头、Cookie 或路径变量中解析，
+ *    解析不到哈希键的请求随机选择实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer, SynchronousLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * 默认负载上限系数
+     */
+    public static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    /**
+     * 默认每个实例的虚拟节点数
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final RequestHashKeyResolver keyResolver;
+
+    private final double loadFactor;
+
+    private final int virtualNodes;
+
+    private final ConcurrentHashMap<String, LongAdder> outstandingRequests = new ConcurrentHashMap<>();
+
+    private final LongAdder totalOutstandingRequests = new LongAdder();
+
+    private volatile Ring ring;
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                      String serviceId, RequestHashKeyResolver keyResolver) {
+        this(serviceInstanceListSupplierProvider, serviceId, keyResolver, DEFAULT_LOAD_FACTOR, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                      String serviceId, RequestHashKeyResolver keyResolver,
+                                      double loadFactor, int virtualNodes) {
+        if (loadFactor < 1.0) {
+            throw new IllegalArgumentException("loadFactor must not be less than 1.0");
+        }
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.keyResolver = keyResolver;
+        this.loadFactor = loadFactor;
+        this.virtualNodes = virtualNodes;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String hashKey = resolveHashKey(request);
+        return supplier.get(request).next()
+                .map(serviceInstances -> processInstanceResponse(supplier, serviceInstances, hashKey));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Response<ServiceInstance> chooseNow(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        List<ServiceInstance> serviceInstances = SynchronousServiceInstanceListSupplier.getNow(supplier, request);
+        return serviceInstances == null ? null
+                : processInstanceResponse(supplier, serviceInstances, resolveHashKey(request));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private String resolveHashKey(Request request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            return keyResolver.resolve(context.getClientRequest());
+        }
+        return null;
+    }
+
+    private Response<ServiceInstance> processInstanceResponse(ServiceInstanceListSupplier supplier,
+                                                              List<ServiceInstance> serviceInstances, String hashKey) {
+        Response<ServiceInstance> serviceInstanceResponse = getInstanceResponse(serviceInstances, hashKey);
+        if (supplier instanceof SelectedInstanceCallback callback && serviceInstanceResponse.hasServer()) {
+            callback.selectedServiceInstance(serviceInstanceResponse.getServer());
+        }
+        return serviceInstanceResponse;
+    }
+
+    private Response<ServiceInstance> getInstanceResponse(List<ServiceInstance> instances, String hashKey) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        if (hashKey == null) {
+            return new DefaultResponse(instances.get(ThreadLocalRandom.current().nextInt(instances.size())));
+        }
+        long capacity = (long) Math.ceil(loadFactor * (totalOutstandingRequests.sum() + 1) / instances.size());
+        return new DefaultResponse(ring(instances).select(Hashing.hash64(hashKey), capacity));
+    }
+
+    private Ring ring(List<ServiceInstance> instances) {
+        Ring current = ring;
+        if (current == null || (current.instances != instances && !current.instances.equals(instances))) {
+            current = new Ring(instances, virtualNodes, outstandingRequests);
+            ring = current;
+            prune(current.keys);
+            log.debug("Rebuilt hash ring for service {} with {} instances", serviceId, instances.size());
+        }
+        return current;
+    }
+
+    /**
+     * 只保留哈希环上的实例及仍有在途请求的实例的计数
+     */
+    private void prune(Set<String> instanceKeys) {
+        outstandingRequests.entrySet().removeIf(entry -> !instanceKeys.contains(entry.getKey())
+                && entry.getValue().sum() <= 0);
+    }
+
+    /**
+     * 当前持有在途请求计数的实例
+     */
+    Set<String> trackedInstances() {
+        return outstandingRequests.keySet();
+    }
+
+    /**
+     * 获取实例当前的在途请求数
+     */
+    public long outstanding(ServiceInstance instance) {
+        LongAdder counter = outstandingRequests.get(ServiceInstanceKeys.of(instance));
+        return counter == null ? 0L : counter.sum();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // do nothing
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        outstandingRequests.computeIfAbsent(ServiceInstanceKeys.of(lbResponse.getServer()), key -> new LongAdder())
+                .increment();
+        totalOutstandingRequests.increment();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        LongAdder counter = outstandingRequests.get(ServiceInstanceKeys.of(
+                completionContext.getLoadBalancerResponse().getServer()));
+        if (counter != null) {
+            counter.decrement();
+            totalOutstandingRequests.decrement();
+        }
+    }
+
+    /**
+     * 不可变的哈希环，虚拟节点按哈希值升序排列
+     */
+    static final class Ring {
+
+        private final List<ServiceInstance> instances;
+
+        private final long[] hashes;
+
+        private final int[] owners;
+
+        private final LongAdder[] counters;
+
+        private final Set<String> keys = new HashSet<>();
+
+        Ring(List<ServiceInstance> instances, int virtualNodes, ConcurrentHashMap<String, LongAdder> outstandingRequests) {
+            this.instances = instances;
+            int size = instances.size() * virtualNodes;
+            long[][] nodes = new long[size][];
+            counters = new LongAdder[instances.size()];
+            for (int i = 0; i < instances.size(); i++) {
+                String key = ServiceInstanceKeys.of(instances.get(i));
+                keys.add(key);
+                counters[i] = outstandingRequests.computeIfAbsent(key, k -> new LongAdder());
+                for (int v = 0; v < virtualNodes; v++) {
+                    nodes[i * virtualNodes + v] = new long[]{Hashing.hash64(key + "#" + v), i};
+                }
+            }
+            Arrays.sort(nodes, Comparator.comparingLong(node -> node[0]));
+            hashes = new long[size];
+            owners = new int[size];
+            for (int i = 0; i < size; i++) {
+                hashes[i] = nodes[i][0];
+                owners[i] = (int) nodes[i][1];
+            }
+        }
+
+        /**
+         * 从哈希值所在位置顺时针寻找第一个在途请求数低于上限的实例
+         */
+        ServiceInstance select(long hash, long capacity) {
+            int start = Arrays.binarySearch(hashes, hash);
+            if (start < 0) {
+                start = -start - 1;
+            }
+            for (int i = 0; i < hashes.length; i++) {
+                int owner = owners[(start + i) % hashes.length];
+                if (counters[owner].sum() < capacity) {
+                    return instances.get(owner);
+                }
+            }
+            return instances.get(owners[start % hashes.length]);
+        }
+    }
+}
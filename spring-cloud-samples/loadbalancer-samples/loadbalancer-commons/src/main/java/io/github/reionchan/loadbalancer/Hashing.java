@@ -0,0 +1,49 @@
+package io.github.reionchan.loadbalancer;
+
+/**
+ * 负载均衡使用的 64 位哈希工具
+ *
+ * <pre>
+ * 一致性哈希环、集合划分等场景需要分布均匀且跨 JVM 稳定的哈希值，
+ * String#hashCode 只有 32 位且低位分布较差，这里采用 FNV-1a 64 位哈希并用 MurmurHash3 的 fmix64 做最终混淆。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * 计算字符序列的 64 位哈希值
+     */
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash ^= c & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= c >>> 8;
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * MurmurHash3 fmix64 终混函数
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe1a85ec1L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
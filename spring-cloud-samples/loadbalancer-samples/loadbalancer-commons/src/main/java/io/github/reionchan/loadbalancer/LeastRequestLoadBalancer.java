@@ -0,0 +1,64 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.InFlightRequestTracker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.util.Set;
+
+/**
+ * 基于最少在途请求数的 P2C 负载均衡器
+ *
+ * <pre>
+ * 突发流量下 {@link org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer}
+ * 依旧按顺序轮流分配，尚在处理前序请求的实例会继续堆积请求。
+ * 本负载均衡器为每个实例维护一个在途请求计数器：
+ *
+ * 1. onStartRequest 时计数加一，onComplete 时计数减一 (成功、失败均减一，DISCARD 时并未发出请求，不计数)
+ * 2. 计数由 {@link InFlightRequestTracker} 维护，实例列表变化时移除已下线且无在途请求的实例计数
+ * 3. 选择时随机抽取两个实例，取在途请求数较少者，参见 {@link AbstractPowerOfTwoChoicesLoadBalancer}
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class LeastRequestLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    private final InFlightRequestTracker tracker = new InFlightRequestTracker();
+
+    public LeastRequestLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId) {
+        super(serviceInstanceListSupplierProvider, serviceId);
+    }
+
+    @Override
+    protected double cost(ServiceInstance instance, long now) {
+        return outstanding(instance);
+    }
+
+    /**
+     * 获取实例当前的在途请求数
+     */
+    public long outstanding(ServiceInstance instance) {
+        return tracker.inFlight(instance);
+    }
+
+    @Override
+    protected void retain(Set<String> instanceKeys) {
+        tracker.retain(instanceKeys);
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        tracker.onStartRequest(request, lbResponse);
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        tracker.onComplete(completionContext);
+    }
+}
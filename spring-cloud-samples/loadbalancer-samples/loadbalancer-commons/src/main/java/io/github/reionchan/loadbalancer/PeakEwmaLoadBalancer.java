@@ -0,0 +1,163 @@
+package io.github.reionchan.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 Peak-EWMA 延迟评分的负载均衡器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.RandomLoadBalancer}、
+ * {@link org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer} 都不感知实例的响应快慢，
+ * 某个实例变慢后依旧会分到 1/N 的请求。本负载均衡器为每个实例维护一个 Peak-EWMA 延迟评分：
+ *
+ * 1. 延迟样本来自负载均衡生命周期 {@link LoadBalancerLifecycle}
+ *    onStartRequest 记录请求开始时间并累加在途请求数，onComplete 计算耗时并更新评分。
+ *
+ * 2. Peak-EWMA 评分
+ *    新样本大于当前值时直接取峰值，使变慢的实例立即被惩罚；
+ *    否则按照距离上次更新的时间 Δt 做指数衰减平均，权重 w = exp(-Δt / decayTime)。
+ *    读取时评分同样随时间向 0 衰减，因此被冷落的实例会在若干个衰减周期后重新获得探测流量。
+ *
+ * 3. 实例代价 cost = ewma * (pending + 1)，选择逻辑参见 {@link AbstractPowerOfTwoChoicesLoadBalancer}，
+ *    避免所有客户端同时涌向同一个“最快”实例。
+ *
+ * 4. 实例列表变化时移除已下线且无在途请求的实例统计，实例重新上线后从零开始评分。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class PeakEwmaLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    /**
+     * 默认衰减时间窗口
+     */
+    public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    /**
+     * 尚无延迟样本但已有在途请求时的惩罚代价，防止新实例在首个响应返回前被请求压垮
+     */
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final double decayNanos;
+
+    private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                String serviceId) {
+        this(serviceInstanceListSupplierProvider, serviceId, DEFAULT_DECAY_TIME);
+    }
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                String serviceId, Duration decayTime) {
+        super(serviceInstanceListSupplierProvider, serviceId);
+        this.decayNanos = decayTime.toNanos();
+    }
+
+    /**
+     * 获取实例当前代价，尚未产生统计的实例代价为 0，使其优先获得探测流量
+     */
+    @Override
+    protected double cost(ServiceInstance instance, long now) {
+        Metric metric = metrics.get(ServiceInstanceKeys.of(instance));
+        return metric == null ? 0 : metric.cost(now);
+    }
+
+    @Override
+    protected void retain(Set<String> instanceKeys) {
+        metrics.entrySet().removeIf(entry -> !instanceKeys.contains(entry.getKey())
+                && entry.getValue().pending.get() <= 0);
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context && context.getRequestStartTime() == 0L) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        metrics.computeIfAbsent(ServiceInstanceKeys.of(lbResponse.getServer()), key -> new Metric(decayNanos))
+                .start();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        long now = System.nanoTime();
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        Metric metric = metrics.get(ServiceInstanceKeys.of(completionContext.getLoadBalancerResponse().getServer()));
+        if (metric == null) {
+            return;
+        }
+        long rtt = -1L;
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() != 0L) {
+            rtt = now - context.getRequestStartTime();
+        }
+        // 失败的请求同样记录耗时，超时类故障会因耗时较长而推高评分
+        metric.complete(rtt, now);
+    }
+
+    /**
+     * 单个实例的 Peak-EWMA 统计
+     */
+    static final class Metric {
+
+        private final double decayNanos;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private double ewma;
+
+        private long stamp = System.nanoTime();
+
+        Metric(double decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        void start() {
+            pending.incrementAndGet();
+        }
+
+        void complete(long rttNanos, long now) {
+            pending.decrementAndGet();
+            if (rttNanos >= 0) {
+                observe(rttNanos, now);
+            }
+        }
+
+        synchronized void observe(double rtt, long now) {
+            if (rtt > ewma) {
+                ewma = rtt;
+            } else {
+                double w = weight(now);
+                ewma = ewma * w + rtt * (1 - w);
+            }
+            stamp = now;
+        }
+
+        synchronized double cost(long now) {
+            double current = ewma * weight(now);
+            int inflight = pending.get();
+            if (current == 0 && inflight > 0) {
+                return PENALTY;
+            }
+            return current * (inflight + 1);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(now - stamp, 0L) / decayNanos);
+        }
+    }
+}
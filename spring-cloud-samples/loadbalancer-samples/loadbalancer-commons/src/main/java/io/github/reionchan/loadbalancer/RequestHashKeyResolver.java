@@ -0,0 +1,77 @@
+package io.github.reionchan.loadbalancer;
+
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * 从负载均衡请求中解析哈希键
+ *
+ * <pre>
+ * 一致性哈希负载均衡器依据该键选择实例，相同的键总是落到同一实例上，
+ * 内置三种来源：请求头、Cookie、路径变量 (如 foo-service 的 /get/user/{id} 中的 id)，
+ * 可以通过 {@link #firstOf(RequestHashKeyResolver...)} 组合成按顺序回退的解析器。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@FunctionalInterface
+public interface RequestHashKeyResolver {
+
+    /**
+     * 解析哈希键，无法解析时返回 null
+     */
+    String resolve(RequestData requestData);
+
+    /**
+     * 使用指定请求头的值作为哈希键
+     */
+    static RequestHashKeyResolver header(String headerName) {
+        return requestData -> requestData.getHeaders() == null ? null
+                : requestData.getHeaders().getFirst(headerName);
+    }
+
+    /**
+     * 使用指定 Cookie 的值作为哈希键
+     */
+    static RequestHashKeyResolver cookie(String cookieName) {
+        return requestData -> requestData.getCookies() == null ? null
+                : requestData.getCookies().getFirst(cookieName);
+    }
+
+    /**
+     * 使用路径变量作为哈希键，例如 pattern=/get/user/{id}，variable=id
+     */
+    static RequestHashKeyResolver pathVariable(String pattern, String variable) {
+        AntPathMatcher matcher = new AntPathMatcher();
+        return requestData -> {
+            if (requestData.getUrl() == null) {
+                return null;
+            }
+            String path = requestData.getUrl().getPath();
+            if (path == null || !matcher.match(pattern, path)) {
+                return null;
+            }
+            Map<String, String> variables = matcher.extractUriTemplateVariables(pattern, path);
+            return variables.get(variable);
+        };
+    }
+
+    /**
+     * 依次尝试多个解析器，返回第一个非空的哈希键
+     */
+    static RequestHashKeyResolver firstOf(RequestHashKeyResolver... resolvers) {
+        return requestData -> {
+            for (RequestHashKeyResolver resolver : resolvers) {
+                String key = resolver.resolve(requestData);
+                if (StringUtils.hasText(key)) {
+                    return key;
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.loadbalancer.support.ServerLoadReport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMessage;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于服务端负载报告的负载均衡器
+ *
+ * <pre>
+ * {@link PeakEwmaLoadBalancer} 只能从客户端视角推测实例的繁忙程度，而实例的 CPU 可能被其他客户端的请求占满。
+ * 本负载均衡器读取服务端在响应头中附带的负载报告 {@link ServerLoadReport}，类似 gRPC ORCA 的客户端加权：
+ *
+ * 1. 负载样本来自负载均衡生命周期 {@link LoadBalancerLifecycle} 的 onComplete 回调，
+ *    从 {@link ResponseData} 或 {@link HttpMessage} 类型的客户端响应中读取响应头，
+ *    利用率 utilization = cpu + queueWeight * queue，即每个排队请求折算为 queueWeight 的 CPU 使用率。
+ *    请求失败且没有负载报告时按利用率 1 记录，使故障实例的评分迅速升高。
+ *
+ * 2. 评分按照距离上次更新的时间 Δt 做指数衰减平均，权重 w = exp(-Δt / decayTime)；
+ *    读取时评分同样随时间向 0 衰减，长时间没有新报告的实例会重新获得探测流量。
+ *
+ * 3. 实例代价 cost = (score + {@value #BASE_COST}) * (pending + 1)，pending 为本客户端的在途请求数，
+ *    在两次报告之间避免把突发请求集中到同一个低负载实例，选择逻辑参见 {@link AbstractPowerOfTwoChoicesLoadBalancer}。
+ *
+ * 4. 最近一次报告早于 staleness 的评分视为过期，按未收到报告处理；
+ *    实例列表变化时移除已下线或评分过期、且无在途请求的实例，重新注册的同一地址不会沿用旧评分。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadAwareLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    /**
+     * 默认衰减时间窗口
+     */
+    public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    /**
+     * 默认每个排队请求折算的 CPU 使用率
+     */
+    public static final double DEFAULT_QUEUE_WEIGHT = 0.1;
+
+    /**
+     * 默认评分过期时间
+     */
+    public static final Duration DEFAULT_STALENESS = Duration.ofSeconds(60);
+
+    /**
+     * 基础代价，使空闲实例之间仍按在途请求数区分
+     */
+    static final double BASE_COST = 0.05;
+
+    private final double decayNanos;
+
+    private final double queueWeight;
+
+    private final long stalenessNanos;
+
+    private final ConcurrentHashMap<String, Score> scores = new ConcurrentHashMap<>();
+
+    public ServerLoadAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                       String serviceId) {
+        this(serviceInstanceListSupplierProvider, serviceId, DEFAULT_DECAY_TIME, DEFAULT_QUEUE_WEIGHT);
+    }
+
+    public ServerLoadAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                       String serviceId, Duration decayTime, double queueWeight) {
+        this(serviceInstanceListSupplierProvider, serviceId, decayTime, queueWeight, DEFAULT_STALENESS);
+    }
+
+    public ServerLoadAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                       String serviceId, Duration decayTime, double queueWeight, Duration staleness) {
+        super(serviceInstanceListSupplierProvider, serviceId);
+        this.decayNanos = decayTime.toNanos();
+        this.queueWeight = queueWeight;
+        this.stalenessNanos = staleness.toNanos();
+    }
+
+    @Override
+    protected double cost(ServiceInstance instance, long now) {
+        String key = ServiceInstanceKeys.of(instance);
+        Score score = scores.get(key);
+        if (score != null && score.isIdle() && score.isStale(now)) {
+            scores.remove(key, score);
+            return BASE_COST;
+        }
+        return score == null ? BASE_COST : score.cost(now);
+    }
+
+    @Override
+    protected void retain(Set<String> instanceKeys) {
+        long now = System.nanoTime();
+        scores.entrySet().removeIf(entry -> entry.getValue().isIdle()
+                && (!instanceKeys.contains(entry.getKey()) || entry.getValue().isStale(now)));
+    }
+
+    /**
+     * 获取实例当前衰减后的利用率评分，尚未收到报告的实例为 0
+     */
+    public double utilization(ServiceInstance instance) {
+        Score score = scores.get(ServiceInstanceKeys.of(instance));
+        return score == null ? 0 : score.utilization(System.nanoTime());
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        scores.computeIfAbsent(ServiceInstanceKeys.of(lbResponse.getServer()),
+                key -> new Score(decayNanos, stalenessNanos)).start();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        Score score = scores.get(ServiceInstanceKeys.of(completionContext.getLoadBalancerResponse().getServer()));
+        if (score == null) {
+            return;
+        }
+        ServerLoadReport report = report(completionContext.getClientResponse());
+        double utilization = -1;
+        if (report != null) {
+            utilization = report.cpu() + queueWeight * report.queue();
+        } else if (CompletionContext.Status.FAILED.equals(completionContext.status())) {
+            utilization = 1;
+        }
+        score.complete(utilization, System.nanoTime());
+    }
+
+    private static ServerLoadReport report(Object clientResponse) {
+        HttpHeaders headers = null;
+        if (clientResponse instanceof ResponseData responseData) {
+            headers = responseData.getHeaders();
+        } else if (clientResponse instanceof HttpMessage message) {
+            headers = message.getHeaders();
+        }
+        return headers == null ? null : ServerLoadReport.parse(headers.getFirst(ServerLoadReport.HEADER));
+    }
+
+    /**
+     * 单个实例的利用率评分
+     */
+    static final class Score {
+
+        private final double decayNanos;
+
+        private final long stalenessNanos;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private double utilization;
+
+        private long stamp = System.nanoTime();
+
+        private boolean reported;
+
+        Score(double decayNanos, long stalenessNanos) {
+            this.decayNanos = decayNanos;
+            this.stalenessNanos = stalenessNanos;
+        }
+
+        void start() {
+            pending.incrementAndGet();
+        }
+
+        void complete(double sample, long now) {
+            pending.decrementAndGet();
+            if (sample >= 0) {
+                observe(sample, now);
+            }
+        }
+
+        synchronized void observe(double sample, long now) {
+            if (reported && !isStale(now)) {
+                double w = weight(now);
+                utilization = utilization * w + sample * (1 - w);
+            } else {
+                utilization = sample;
+                reported = true;
+            }
+            stamp = now;
+        }
+
+        synchronized double utilization(long now) {
+            return isStale(now) ? 0 : utilization * weight(now);
+        }
+
+        /**
+         * 已收到的最近一次报告早于过期时间
+         */
+        synchronized boolean isStale(long now) {
+            return reported && now - stamp >= stalenessNanos;
+        }
+
+        boolean isIdle() {
+            return pending.get() <= 0;
+        }
+
+        double cost(long now) {
+            return (utilization(now) + BASE_COST) * (pending.get() + 1);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(now - stamp, 0L) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.reionchan.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * 服务实例标识工具
+ *
+ * <pre>
+ * 服务实例列表每次刷新都会生成新的 {@link ServiceInstance} 对象，且 Nacos 临时实例不一定带有 instanceId，
+ * 故统一使用 host:port 作为统计数据的键，保证同一实例在多次刷新之间对应同一份统计。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class ServiceInstanceKeys {
+
+    private ServiceInstanceKeys() {
+    }
+
+    /**
+     * 获取服务实例的统计键
+     */
+    public static String of(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.SynchronousServiceInstanceListSupplier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+/**
+ * 可同步选择实例的负载均衡器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient#choose(String, Request)}
+ * 对每次选择都组装一条 Reactor 管道再 block 等待，服务实例列表已有缓存快照时这些分配全部是多余的。
+ * 负载均衡器实现本接口后，{@link io.github.reionchan.loadbalancer.support.SynchronousBlockingLoadBalancerClient}
+ * 先尝试 {@link #chooseNow(Request)}，只有返回 null 时才退回响应式的 choose 方法。
+ *
+ * 实现通常从 {@link SynchronousServiceInstanceListSupplier} 读取快照，提供器不支持同步读取或快照尚未加载时返回 null。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public interface SynchronousLoadBalancer {
+
+    /**
+     * 同步选择实例
+     *
+     * @return 选择结果，需要退回响应式路径时返回 null
+     */
+    @SuppressWarnings("rawtypes")
+    Response<ServiceInstance> chooseNow(Request request);
+}
@@ -0,0 +1,59 @@
+package io.github.reionchan.loadbalancer.reactive;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求预算
+ *
+ * <pre>
+ * 令牌桶：每个可对冲的原始请求存入 budgetPercent / 100 个令牌，每发出一个对冲请求取走 1 个令牌，
+ * 令牌不足时不再对冲。因此长期来看对冲带来的额外负载不超过原始请求数的 budgetPercent%，
+ * 下游整体变慢 (所有请求都超过对冲延迟) 时也不会因对冲而使负载翻倍。
+ *
+ * 桶初始为空，最多累积 maxBurst 个令牌。令牌以千分之一为单位存储，避免浮点运算。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+
+    private final long capacity;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double budgetPercent, int maxBurst) {
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("budgetPercent must be between 0 and 100");
+        }
+        this.deposit = Math.round(budgetPercent * SCALE / 100);
+        this.capacity = Math.max(1, maxBurst) * SCALE;
+    }
+
+    /**
+     * 记录一个原始请求
+     */
+    public void deposit() {
+        if (deposit > 0 && balance.get() < capacity) {
+            balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+        }
+    }
+
+    /**
+     * 尝试取走一个令牌，成功时允许发出一个对冲请求
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
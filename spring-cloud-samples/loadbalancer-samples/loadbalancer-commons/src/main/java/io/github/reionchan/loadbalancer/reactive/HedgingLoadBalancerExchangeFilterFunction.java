@@ -0,0 +1,319 @@
+package io.github.reionchan.loadbalancer.reactive;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancerClientRequestTransformer;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 对冲请求负载均衡交换过滤器 (Hedged Requests)
+ *
+ * <pre>
+ * {@link ReactorLoadBalancerExchangeFilterFunction} 每次调用只发往一个实例，调用方的长尾延迟等于最慢实例的长尾延迟。
+ * 本过滤器对幂等的 GET、HEAD 请求：
+ *
+ * 1. 先按正常流程选择实例并发出原始请求
+ * 2. 原始请求在对冲延迟内未返回时，由负载均衡器另选一个不同的实例发出对冲请求
+ * 3. 先返回的响应胜出，另一个请求被取消 (连接随之释放)，同时到达的另一个响应释放其响应体
+ * 4. 对冲请求发出后任意一方失败时继续等待另一方，两者均失败才返回错误；
+ *    对冲请求发出前原始请求失败时直接返回错误
+ *
+ * 对冲延迟取该服务近期响应耗时的分位数 (默认 p95)，并限制在 [minDelay, maxDelay] 之内，
+ * 即只有约 5% 最慢的请求才会触发对冲。对冲数量受 {@link HedgeBudget} 限制，
+ * 额外负载不超过原始请求数的 budgetPercent%。
+ *
+ * 其它请求方法直接交由父类处理，与未启用对冲时完全一致。
+ *
+ * 每次尝试都是独立的负载均衡请求，{@link LoadBalancerLifecycle} 的回调照常触发，
+ * 被取消的一方以不携带响应数据的 SUCCESS 结束，使在途请求计数得以归还而不被当作失败。
+ *
+ * 提供 MeterRegistry 时记录以下指标，均带有 serviceId 标签：
+ *   loadbalancer.hedge.requests   对冲请求 Counter，outcome 标签为 SENT / WON / THROTTLED
+ *   loadbalancer.hedge.delay      当前对冲延迟 Gauge (毫秒)
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class HedgingLoadBalancerExchangeFilterFunction extends ReactorLoadBalancerExchangeFilterFunction {
+
+    private static final Set<HttpMethod> HEDGEABLE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+
+    /**
+     * 为对冲请求选择不同实例的最大尝试次数
+     */
+    private static final int MAX_SELECTION_ATTEMPTS = 3;
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+
+    private final List<LoadBalancerClientRequestTransformer> transformers;
+
+    private final HedgingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, HedgeState> states = new ConcurrentHashMap<>();
+
+    public HedgingLoadBalancerExchangeFilterFunction(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+                                                     List<LoadBalancerClientRequestTransformer> transformers,
+                                                     HedgingProperties properties) {
+        this(loadBalancerFactory, transformers, properties, null);
+    }
+
+    public HedgingLoadBalancerExchangeFilterFunction(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+                                                     List<LoadBalancerClientRequestTransformer> transformers,
+                                                     HedgingProperties properties, MeterRegistry meterRegistry) {
+        super(loadBalancerFactory, transformers);
+        this.loadBalancerFactory = loadBalancerFactory;
+        this.transformers = transformers;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest clientRequest, ExchangeFunction next) {
+        String serviceId = clientRequest.url().getHost();
+        if (serviceId == null || !HEDGEABLE_METHODS.contains(clientRequest.method())) {
+            return super.filter(clientRequest, next);
+        }
+        HedgeState state = states.computeIfAbsent(serviceId, this::createState);
+        state.budget.deposit();
+        Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        LoadBalancerProperties lbProperties = loadBalancerFactory.getProperties(serviceId);
+        String hint = hint(serviceId, lbProperties.getHint());
+        AtomicReference<ServiceInstance> primaryInstance = new AtomicReference<>();
+        AtomicReference<ClientResponse> winner = new AtomicReference<>();
+        AtomicBoolean hedgeSent = new AtomicBoolean();
+        // 对冲请求失败时携带其异常，未选到其它实例时为空
+        Sinks.One<Throwable> hedgeFailure = Sinks.one();
+
+        Mono<ClientResponse> primary = Mono.defer(() -> attempt(serviceId, clientRequest, next, lifecycles, hint,
+                        lbProperties, state, primaryInstance, false))
+                .flatMap(response -> claim(winner, response))
+                .onErrorResume(throwable -> {
+                    if (!hedgeSent.get()) {
+                        return Mono.error(throwable);
+                    }
+                    // 对冲请求已发出，等待其结果，两者均失败才返回错误
+                    return hedgeFailure.asMono()
+                            .doOnNext(throwable::addSuppressed)
+                            .then(Mono.error(throwable));
+                });
+        Mono<ClientResponse> hedge = Mono.delay(state.delay()).flatMap(tick -> {
+            if (!state.budget.tryAcquire()) {
+                increment(state.throttledCounter);
+                return Mono.never();
+            }
+            increment(state.sentCounter);
+            hedgeSent.set(true);
+            return attempt(serviceId, clientRequest, next, lifecycles, hint, lbProperties, state, primaryInstance, true)
+                    .flatMap(response -> claim(winner, response))
+                    .doOnNext(response -> increment(state.wonCounter))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        hedgeFailure.tryEmitEmpty();
+                        return Mono.never();
+                    }))
+                    // 对冲请求失败时继续等待原始请求
+                    .onErrorResume(throwable -> {
+                        hedgeFailure.tryEmitValue(throwable);
+                        return Mono.never();
+                    });
+        });
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    /**
+     * 先到的响应胜出，另一方随后到达的响应释放其响应体
+     */
+    private static Mono<ClientResponse> claim(AtomicReference<ClientResponse> winner, ClientResponse response) {
+        if (winner.compareAndSet(null, response)) {
+            return Mono.just(response);
+        }
+        return response.releaseBody().then(Mono.never());
+    }
+
+    private Mono<ClientResponse> attempt(String serviceId, ClientRequest clientRequest, ExchangeFunction next,
+                                         Set<LoadBalancerLifecycle> lifecycles, String hint,
+                                         LoadBalancerProperties lbProperties, HedgeState state,
+                                         AtomicReference<ServiceInstance> primaryInstance, boolean hedged) {
+        RequestData requestData = new RequestData(clientRequest);
+        DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(new RequestDataContext(requestData, hint));
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+        Mono<Response<ServiceInstance>> selection = hedged
+                ? chooseOther(serviceId, lbRequest, primaryInstance.get())
+                : choose(serviceId, lbRequest);
+        return selection.defaultIfEmpty(new EmptyResponse()).flatMap(lbResponse -> {
+            ServiceInstance instance = lbResponse.getServer();
+            if (instance == null) {
+                lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                        new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse)));
+                if (hedged) {
+                    log.debug("No other instance available for hedging request to service {}", serviceId);
+                    return Mono.empty();
+                }
+                String message = "LoadBalancer does not contain an instance for the service " + serviceId;
+                log.warn(message);
+                return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).body(message).build());
+            }
+            if (!hedged) {
+                primaryInstance.set(instance);
+            }
+            LoadBalancerProperties.StickySession stickySession = lbProperties.getStickySession();
+            ClientRequest newRequest = buildClientRequest(clientRequest, instance,
+                    stickySession.getInstanceIdCookieName(), stickySession.isAddServiceInstanceCookie());
+            lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+            long start = System.nanoTime();
+            return next.exchange(newRequest)
+                    .doOnSuccess(clientResponse -> {
+                        state.latency.record(System.nanoTime() - start);
+                        lifecycles.forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+                                CompletionContext.Status.SUCCESS, lbRequest, lbResponse,
+                                new ResponseData(clientResponse, requestData))));
+                    })
+                    .doOnError(throwable -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                            new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                                    CompletionContext.Status.FAILED, throwable, lbRequest, lbResponse))))
+                    .doOnCancel(() -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                            new CompletionContext<>(CompletionContext.Status.SUCCESS, lbRequest, lbResponse))));
+        });
+    }
+
+    /**
+     * 选择一个与原始请求不同的实例，多次尝试仍选中同一实例时放弃对冲
+     */
+    private Mono<Response<ServiceInstance>> chooseOther(String serviceId, Request<RequestDataContext> lbRequest,
+                                                        ServiceInstance excluded) {
+        if (excluded == null) {
+            return choose(serviceId, lbRequest);
+        }
+        String excludedKey = ServiceInstanceKeys.of(excluded);
+        return Mono.defer(() -> choose(serviceId, lbRequest))
+                .repeat(MAX_SELECTION_ATTEMPTS - 1)
+                .filter(lbResponse -> lbResponse.hasServer()
+                        && !excludedKey.equals(ServiceInstanceKeys.of(lbResponse.getServer())))
+                .next();
+    }
+
+    private ClientRequest buildClientRequest(ClientRequest request, ServiceInstance instance,
+                                             String instanceIdCookieName, boolean addServiceInstanceCookie) {
+        ClientRequest clientRequest = ClientRequest
+                .create(request.method(), LoadBalancerUriTools.reconstructURI(instance, request.url()))
+                .headers(headers -> headers.addAll(request.headers()))
+                .cookies(cookies -> {
+                    cookies.addAll(request.cookies());
+                    if (instanceIdCookieName != null && !instanceIdCookieName.isEmpty() && addServiceInstanceCookie) {
+                        cookies.add(instanceIdCookieName, instance.getInstanceId());
+                    }
+                })
+                .attributes(attributes -> attributes.putAll(request.attributes()))
+                .body(request.body())
+                .build();
+        if (transformers != null) {
+            for (LoadBalancerClientRequestTransformer transformer : transformers) {
+                clientRequest = transformer.transformRequest(clientRequest, instance);
+            }
+        }
+        return clientRequest;
+    }
+
+    private static String hint(String serviceId, Map<String, String> hints) {
+        String defaultHint = hints.getOrDefault("default", "default");
+        String hintPropertyValue = hints.get(serviceId);
+        return hintPropertyValue != null ? hintPropertyValue : defaultHint;
+    }
+
+    /**
+     * 获取服务当前的对冲延迟
+     */
+    public Duration hedgeDelay(String serviceId) {
+        HedgeState state = states.get(serviceId);
+        return state == null ? properties.getInitialDelay() : state.delay();
+    }
+
+    private HedgeState createState(String serviceId) {
+        HedgeState state = new HedgeState(serviceId);
+        if (meterRegistry != null) {
+            Gauge.builder("loadbalancer.hedge.delay", state, s -> s.delay().toNanos() / 1_000_000.0)
+                    .tag("serviceId", serviceId)
+                    .baseUnit("milliseconds")
+                    .description("Current delay before a hedged request is sent")
+                    .register(meterRegistry);
+        }
+        return state;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 单个服务的耗时窗口、对冲预算及指标
+     */
+    private final class HedgeState {
+
+        private final LatencyWindow latency = new LatencyWindow(properties.getWindowSize(),
+                properties.getDelayPercentile(), properties.getMinSamples());
+
+        private final HedgeBudget budget = new HedgeBudget(properties.getBudgetPercent(), properties.getMaxBurst());
+
+        private final Counter sentCounter;
+
+        private final Counter wonCounter;
+
+        private final Counter throttledCounter;
+
+        HedgeState(String serviceId) {
+            this.sentCounter = hedgeCounter(serviceId, "SENT");
+            this.wonCounter = hedgeCounter(serviceId, "WON");
+            this.throttledCounter = hedgeCounter(serviceId, "THROTTLED");
+        }
+
+        private Counter hedgeCounter(String serviceId, String outcome) {
+            if (meterRegistry == null) {
+                return null;
+            }
+            return Counter.builder("loadbalancer.hedge.requests")
+                    .tag("serviceId", serviceId)
+                    .tag("outcome", outcome)
+                    .description("Number of hedged requests by outcome")
+                    .register(meterRegistry);
+        }
+
+        Duration delay() {
+            long percentile = latency.percentileNanos();
+            if (percentile < 0) {
+                return properties.getInitialDelay();
+            }
+            long nanos = Math.max(properties.getMinDelay().toNanos(),
+                    Math.min(properties.getMaxDelay().toNanos(), percentile));
+            return Duration.ofNanos(nanos);
+        }
+    }
+}
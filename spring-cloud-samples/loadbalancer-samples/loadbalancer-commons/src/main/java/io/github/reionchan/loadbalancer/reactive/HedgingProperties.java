@@ -0,0 +1,43 @@
+package io.github.reionchan.loadbalancer.reactive;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 对冲请求参数
+ *
+ * <pre>
+ * 可绑定到 spring.cloud.loadbalancer.hedging.* 属性：
+ *   delay-percentile   对冲延迟取该服务近期响应耗时的分位数 (0 ~ 1)
+ *   initial-delay      样本数不足 min-samples 时使用的对冲延迟
+ *   min-delay          对冲延迟下限，避免服务很快时几乎每个请求都被对冲
+ *   max-delay          对冲延迟上限
+ *   min-samples        计算分位数所需的最少样本数
+ *   window-size        参与分位数计算的最近样本数
+ *   budget-percent     对冲请求数占原始请求数的最大百分比
+ *   max-burst          对冲预算可累积的最大令牌数，即空闲之后允许连续发出的对冲请求数
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Data
+public class HedgingProperties {
+
+    private double delayPercentile = 0.95;
+
+    private Duration initialDelay = Duration.ofMillis(100);
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    private int minSamples = 20;
+
+    private int windowSize = 512;
+
+    private double budgetPercent = 10;
+
+    private int maxBurst = 10;
+}
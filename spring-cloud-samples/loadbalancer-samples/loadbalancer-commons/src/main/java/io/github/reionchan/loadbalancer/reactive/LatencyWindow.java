@@ -0,0 +1,59 @@
+package io.github.reionchan.loadbalancer.reactive;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 最近 N 次响应耗时的分位数
+ *
+ * <pre>
+ * 耗时样本写入定长环形数组，每写入 N / 8 个样本才重新排序计算一次分位数并缓存，
+ * 读取分位数不加锁、不分配对象。并发写入可能覆盖个别样本，对分位数的估计影响可以忽略。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+final class LatencyWindow {
+
+    private final long[] samples;
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private final int recomputeInterval;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long cachedNanos = -1L;
+
+    LatencyWindow(int size, double percentile, int minSamples) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]");
+        }
+        this.samples = new long[Math.max(8, size)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+        this.recomputeInterval = Math.max(1, samples.length / 8);
+    }
+
+    void record(long nanos) {
+        long index = count.getAndIncrement();
+        samples[(int) (index % samples.length)] = nanos;
+        long recorded = index + 1;
+        if (recorded >= minSamples && (recorded == minSamples || recorded % recomputeInterval == 0)) {
+            int size = (int) Math.min(recorded, samples.length);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            cachedNanos = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * 当前分位数 (纳秒)，样本不足时返回 -1
+     */
+    long percentileNanos() {
+        return cachedNanos;
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.reionchan.loadbalancer.support;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * 并行预加载负载均衡子上下文
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.support.LoadBalancerEagerContextInitializer} 在 ApplicationReadyEvent 时
+ * 按 spring.cloud.loadbalancer.eager-load.clients 逐个创建子上下文，本监听器优先执行，
+ * 通过 {@link ParallelLoadBalancerClientFactory#initialize} 并行创建，之后默认的预加载只会命中已创建的子上下文。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ParallelEagerContextInitializer implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+    private final ParallelLoadBalancerClientFactory factory;
+
+    private final List<String> serviceIds;
+
+    private final int parallelism;
+
+    public ParallelEagerContextInitializer(ParallelLoadBalancerClientFactory factory, List<String> serviceIds,
+                                           int parallelism) {
+        this.factory = factory;
+        this.serviceIds = serviceIds;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        factory.initialize(serviceIds, parallelism);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.reionchan.loadbalancer.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 支持并行创建子上下文及轻量模式的 {@link LoadBalancerClientFactory}
+ *
+ * <pre>
+ * {@link org.springframework.cloud.context.named.NamedContextFactory#getContext(String)} 在同一把锁内创建子上下文，
+ * 即使多个线程同时请求不同服务，子上下文也只能逐个创建。本工厂：
+ *
+ * 1. 每个服务名单独占位，不同服务的子上下文可以并发创建，同一服务只创建一次，
+ *    配合 {@link #initialize(Collection, int)} 在启动时并行预加载 eager-load 中的服务
+ *
+ * 2. 轻量模式 (lightweight=true) 下，没有通过 @LoadBalancerClient / @LoadBalancerClients(defaultConfiguration)
+ *    指定任何配置类，且 spring.cloud.loadbalancer.configurations 为 default 的服务，
+ *    不再创建完整的 AnnotationConfigApplicationContext (注解处理器、配置类解析、条件评估)，
+ *    而是共用同一份预先确定的对象图：
+ *      RoundRobinLoadBalancer -> CachingServiceInstanceListSupplier -> DiscoveryClientServiceInstanceListSupplier
+ *    仅将其注册到一个不含任何后置处理器的 GenericApplicationContext 中，保证 getInstance、getInstances 等
+ *    按上下文查找 Bean 的调用方式不变，DiscoveryClient、LoadBalancerCacheManager 等依赖均来自父上下文。
+ *    负载均衡器的轮询位置、服务 ID 属于每个服务自身的状态，因此每个服务仍各自持有一组对象实例。
+ *
+ * 创建失败 (包括 Error) 时移除占位并以异常完成，等待中的线程随之失败，之后的调用重新创建；
+ * 子上下文中的 Bean 在创建过程中同线程再次获取同一服务的上下文时直接抛出 IllegalStateException，
+ * 而不是等待自身尚未完成的占位造成死锁。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class ParallelLoadBalancerClientFactory extends LoadBalancerClientFactory {
+
+    private static final String DEFAULT_CONFIGURATIONS = "default";
+
+    /**
+     * 当前线程正在创建的子上下文名称
+     */
+    private static final ThreadLocal<Set<String>> CREATING = ThreadLocal.withInitial(HashSet::new);
+
+    private final Map<String, CompletableFuture<GenericApplicationContext>> contexts = new ConcurrentHashMap<>();
+
+    private final boolean lightweight;
+
+    public ParallelLoadBalancerClientFactory(LoadBalancerClientsProperties properties, boolean lightweight) {
+        super(properties);
+        this.lightweight = lightweight;
+    }
+
+    @Override
+    protected GenericApplicationContext getContext(String name) {
+        CompletableFuture<GenericApplicationContext> future = contexts.get(name);
+        if (future == null) {
+            CompletableFuture<GenericApplicationContext> created = new CompletableFuture<>();
+            future = contexts.putIfAbsent(name, created);
+            if (future == null) {
+                return create(name, created);
+            }
+        }
+        if (!future.isDone() && CREATING.get().contains(name)) {
+            throw new IllegalStateException("Load balancer context for " + name
+                    + " is requested while it is being created on the same thread");
+        }
+        return future.join();
+    }
+
+    private GenericApplicationContext create(String name, CompletableFuture<GenericApplicationContext> created) {
+        Set<String> creating = CREATING.get();
+        creating.add(name);
+        try {
+            GenericApplicationContext context = isLightweight(name) ? createLightweightContext(name) : createContext(name);
+            created.complete(context);
+            return context;
+        } catch (Throwable e) {
+            contexts.remove(name, created);
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            creating.remove(name);
+            if (creating.isEmpty()) {
+                CREATING.remove();
+            }
+        }
+    }
+
+    /**
+     * 使用 parallelism 个线程并行创建指定服务的子上下文，全部完成后返回
+     */
+    public void initialize(Collection<String> serviceIds, int parallelism) {
+        if (serviceIds.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, serviceIds.size()), runnable -> {
+            Thread thread = new Thread(runnable, "loadbalancer-eager-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture.allOf(serviceIds.stream()
+                    .map(serviceId -> CompletableFuture.runAsync(() -> getInstance(serviceId), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Initialized {} load balancer contexts in {} ms", serviceIds.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 服务是否使用轻量模式
+     */
+    public boolean isLightweight(String name) {
+        if (!lightweight || getParent() == null) {
+            return false;
+        }
+        String configurations = getParent().getEnvironment()
+                .getProperty("spring.cloud.loadbalancer.configurations", DEFAULT_CONFIGURATIONS);
+        if (!DEFAULT_CONFIGURATIONS.equals(configurations)) {
+            return false;
+        }
+        for (Map.Entry<String, LoadBalancerClientSpecification> entry : getConfigurations().entrySet()) {
+            boolean applies = entry.getKey().equals(name) || entry.getKey().startsWith("default.");
+            if (applies && entry.getValue().getConfiguration().length > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private GenericApplicationContext createLightweightContext(String name) {
+        ApplicationContext parent = getParent();
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setClassLoader(getClass().getClassLoader());
+        context.setParent(parent);
+        context.getEnvironment().getPropertySources().addFirst(
+                new MapPropertySource(NAMESPACE, Collections.singletonMap(PROPERTY_NAME, name)));
+        context.setDisplayName(generateDisplayName(name));
+        boolean reactive = parent.getBeanNamesForType(ReactiveDiscoveryClient.class).length > 0;
+        context.registerBean(ServiceInstanceListSupplier.class, () -> {
+            return (reactive ? ServiceInstanceListSupplier.builder().withDiscoveryClient()
+                    : ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient())
+                    .withCaching().build(context);
+        });
+        context.registerBean(ReactorServiceInstanceLoadBalancer.class,
+                () -> new RoundRobinLoadBalancer(getLazyProvider(name, ServiceInstanceListSupplier.class), name));
+        context.refresh();
+        return context;
+    }
+
+    @Override
+    public Set<String> getContextNames() {
+        return new HashSet<>(contexts.keySet());
+    }
+
+    @Override
+    public void destroy() {
+        for (CompletableFuture<GenericApplicationContext> future : contexts.values()) {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                future.join().close();
+            }
+        }
+        contexts.clear();
+        super.destroy();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.reionchan.loadbalancer.support;
+
+import io.github.reionchan.loadbalancer.SynchronousLoadBalancer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * 带同步快速路径的阻塞式负载均衡客户端
+ *
+ * <pre>
+ * @LoadBalanced RestTemplate 经由 {@link BlockingLoadBalancerClient#choose(String, Request)} 选择实例，
+ * 每次都要组装 Mono/Flux 管道并 block 等待。本客户端：
+ *
+ * 1. 负载均衡器实现 {@link SynchronousLoadBalancer} 时，先在调用线程上同步选择，不创建任何 Reactor 对象
+ * 2. 负载均衡器不支持同步选择，或其服务实例列表快照尚未加载 (chooseNow 返回 null) 时，退回原有的响应式路径，
+ *    响应式路径完成首次加载后，后续的选择即可走快速路径
+ *
+ * execute 及生命周期回调沿用父类实现，与原客户端行为一致。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class SynchronousBlockingLoadBalancerClient extends BlockingLoadBalancerClient {
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerClientFactory;
+
+    public SynchronousBlockingLoadBalancerClient(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerClientFactory) {
+        super(loadBalancerClientFactory);
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+    }
+
+    @Override
+    public <T> ServiceInstance choose(String serviceId, Request<T> request) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerClientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return null;
+        }
+        Response<ServiceInstance> loadBalancerResponse = null;
+        if (loadBalancer instanceof SynchronousLoadBalancer synchronous) {
+            loadBalancerResponse = synchronous.chooseNow(request);
+        }
+        if (loadBalancerResponse == null) {
+            loadBalancerResponse = Mono.from(loadBalancer.choose(request)).block();
+        }
+        return loadBalancerResponse == null ? null : loadBalancerResponse.getServer();
+    }
+}
@@ -0,0 +1,314 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 每个实例的自适应并发限制 (Gradient)
+ *
+ * <pre>
+ * 实例变慢时客户端仍会不断向其堆积请求，直到超时才发现问题。本类作为 {@link LoadBalancerLifecycle}
+ * 统计每个实例的 RTT，结合 {@link InFlightRequestTracker} 统计的在途请求数自动调整该实例的并发上限：
+ *
+ * 1. 长期 RTT 为 RTT 的指数移动平均 (窗口 longWindow 个样本)，近似实例无排队时的耗时
+ * 2. 每次请求完成，gradient = clamp(rttTolerance * 长期 RTT / 本次 RTT, 0.5, 1)，
+ *    新上限 = 上限 * gradient + sqrt(上限)，再按 smoothing 与旧上限加权平均
+ *    RTT 稳定时上限以 sqrt(上限) 的排队余量缓慢增长，RTT 升高说明请求在实例上排队，上限随之收缩
+ * 3. 在途请求数不足上限一半时不增长上限，避免空闲实例的上限无限膨胀
+ * 4. 请求失败或下游返回 429、503 时上限乘以 backoffRatio
+ *
+ * 由 {@link ConcurrencyLimitServiceInstanceListSupplier} 在选择实例时跳过在途请求数已达上限的实例，
+ * 全部实例饱和时返回空列表，请求立即以“无可用实例”失败，而不是继续堆积到已过载的实例上。
+ * 上限是软限制：过滤实例与负载均衡器选中实例、在途请求数加一是分开的两步，不预留名额，
+ * 同一时刻并发选择同一实例的请求都可能通过检查，超出量不超过这些并发选择的请求数，
+ * 下一次过滤时即按超出后的在途请求数跳过该实例。
+ *
+ * InFlightRequestTracker 需要同时注册为负载均衡子上下文中的 Bean；
+ * 实例列表变化时移除已下线实例的上限、指标及在途请求计数。
+ *
+ * 提供 MeterRegistry 时，沿用 MicrometerStatsLoadBalancerLifecycle 的 loadbalancer.requests.* 指标族，
+ * 按实例记录以下指标，标签与 loadbalancer.requests.active 相同 (serviceId、serviceInstance.*)：
+ *   loadbalancer.requests.limit       当前并发上限 Gauge
+ *   loadbalancer.requests.inflight    当前在途请求数 Gauge
+ * 以及只带 serviceId 标签的：
+ *   loadbalancer.requests.rejected    全部实例饱和而被拒绝的选择次数 Counter
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final InFlightRequestTracker tracker;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, InstanceLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * 上一次过滤的实例列表，列表变化时才清理已下线实例
+     */
+    private volatile List<ServiceInstance> lastInstances = Collections.emptyList();
+
+    private final ConcurrentHashMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, InFlightRequestTracker tracker) {
+        this(properties, tracker, null);
+    }
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, InFlightRequestTracker tracker,
+                                      MeterRegistry meterRegistry) {
+        this(properties, tracker, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, InFlightRequestTracker tracker,
+                               MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (properties.getMinLimit() < 1 || properties.getMinLimit() > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("minLimit must be between 1 and maxLimit");
+        }
+        this.properties = properties;
+        this.tracker = tracker;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 过滤掉在途请求数已达上限的实例，全部饱和时返回空列表
+     */
+    public List<ServiceInstance> filter(List<ServiceInstance> instances) {
+        if (instances != lastInstances) {
+            lastInstances = instances;
+            prune(instances);
+        }
+        if (limits.isEmpty() || instances.isEmpty()) {
+            return instances;
+        }
+        List<ServiceInstance> available = null;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get(i);
+            if (isSaturated(instance)) {
+                if (available == null) {
+                    available = new ArrayList<>(instances.subList(0, i));
+                }
+            } else if (available != null) {
+                available.add(instance);
+            }
+        }
+        if (available == null) {
+            return instances;
+        }
+        if (available.isEmpty()) {
+            String serviceId = instances.get(0).getServiceId();
+            log.debug("All {} instances of service {} reached their concurrency limit", instances.size(), serviceId);
+            Counter counter = rejectedCounter(serviceId);
+            if (counter != null) {
+                counter.increment();
+            }
+            return Collections.emptyList();
+        }
+        return available;
+    }
+
+    /**
+     * 实例的在途请求数是否已达并发上限，先检查后选择，因此是软限制
+     */
+    public boolean isSaturated(ServiceInstance instance) {
+        InstanceLimit limit = limits.get(ServiceInstanceKeys.of(instance));
+        return limit != null && tracker.inFlight(instance) >= limit.limit();
+    }
+
+    /**
+     * 获取实例当前的并发上限
+     */
+    public int limit(ServiceInstance instance) {
+        InstanceLimit limit = limits.get(ServiceInstanceKeys.of(instance));
+        return limit == null ? properties.getInitialLimit() : limit.limit();
+    }
+
+    /**
+     * 获取实例当前的在途请求数
+     */
+    public long inFlight(ServiceInstance instance) {
+        return tracker.inFlight(instance);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // do nothing
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context && context.getRequestStartTime() == 0L) {
+            context.setRequestStartTime(nanoClock.getAsLong());
+        }
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        limits.computeIfAbsent(ServiceInstanceKeys.of(instance), key -> createLimit(instance));
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        long now = nanoClock.getAsLong();
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        ServiceInstance instance = completionContext.getLoadBalancerResponse().getServer();
+        InstanceLimit limit = limits.get(ServiceInstanceKeys.of(instance));
+        if (limit == null) {
+            return;
+        }
+        // 与 InFlightRequestTracker 的回调顺序不确定，在途请求数可能已减去本次请求，只用于判断实例是否被充分使用
+        long inFlight = tracker.inFlight(instance);
+        if (isDropped(completionContext)) {
+            limit.backoff(properties);
+        } else if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() != 0L) {
+            limit.sample(now - context.getRequestStartTime(), inFlight, properties);
+        }
+    }
+
+    private static boolean isDropped(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.FAILED.equals(completionContext.status())) {
+            return true;
+        }
+        if (completionContext.getClientResponse() instanceof ResponseData responseData
+                && responseData.getHttpStatus() != null) {
+            int status = responseData.getHttpStatus().value();
+            return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        return false;
+    }
+
+    /**
+     * 移除已下线实例的上限及指标，在途请求计数交给 {@link InFlightRequestTracker#retain} 清理
+     */
+    private void prune(List<ServiceInstance> instances) {
+        Set<String> keys = new HashSet<>(instances.size() * 2);
+        for (ServiceInstance instance : instances) {
+            keys.add(ServiceInstanceKeys.of(instance));
+        }
+        limits.entrySet().removeIf(entry -> {
+            if (keys.contains(entry.getKey())) {
+                return false;
+            }
+            if (meterRegistry != null) {
+                entry.getValue().meters.forEach(meterRegistry::remove);
+            }
+            log.debug("Removed concurrency limit of departed instance {}", entry.getKey());
+            return true;
+        });
+        tracker.retain(keys);
+    }
+
+    private InstanceLimit createLimit(ServiceInstance instance) {
+        InstanceLimit limit = new InstanceLimit(properties.getInitialLimit());
+        if (meterRegistry != null) {
+            Tags tags = Tags.of("serviceId", String.valueOf(instance.getServiceId()),
+                    "serviceInstance.instanceId", String.valueOf(instance.getInstanceId()),
+                    "serviceInstance.host", String.valueOf(instance.getHost()),
+                    "serviceInstance.port", String.valueOf(instance.getPort()));
+            limit.meters.add(Gauge.builder("loadbalancer.requests.limit", limit, InstanceLimit::limit)
+                    .tags(tags)
+                    .description("Adaptive concurrency limit of the service instance")
+                    .register(meterRegistry));
+            limit.meters.add(Gauge.builder("loadbalancer.requests.inflight", tracker, t -> t.inFlight(instance))
+                    .tags(tags)
+                    .description("Number of in-flight requests to the service instance")
+                    .register(meterRegistry));
+        }
+        return limit;
+    }
+
+    private Counter rejectedCounter(String serviceId) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        return rejectedCounters.computeIfAbsent(String.valueOf(serviceId), id -> Counter
+                .builder("loadbalancer.requests.rejected")
+                .tag("serviceId", id)
+                .description("Number of selections rejected because every instance reached its concurrency limit")
+                .register(meterRegistry));
+    }
+
+    /**
+     * 单个实例的在途请求数及并发上限
+     */
+    static final class InstanceLimit {
+
+        private final List<Meter> meters = new ArrayList<>(2);
+
+        private volatile double estimatedLimit;
+
+        private double longRtt;
+
+        InstanceLimit(int initialLimit) {
+            this.estimatedLimit = initialLimit;
+        }
+
+        int limit() {
+            return (int) estimatedLimit;
+        }
+
+        synchronized void sample(long rtt, long inFlight, ConcurrencyLimitProperties properties) {
+            if (rtt <= 0) {
+                return;
+            }
+            if (longRtt == 0) {
+                longRtt = rtt;
+            } else {
+                longRtt += (rtt - longRtt) * 2.0 / (properties.getLongWindow() + 1);
+            }
+            // RTT 长时间处于高位后回落时，加速长期 RTT 的回落，使上限尽快恢复增长
+            if (longRtt / rtt > 2.0) {
+                longRtt *= 0.95;
+            }
+            // 实例未被充分使用时，RTT 无法反映上限是否合适
+            if (inFlight < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / rtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+            estimatedLimit = clamp(newLimit, properties);
+        }
+
+        synchronized void backoff(ConcurrencyLimitProperties properties) {
+            estimatedLimit = clamp(estimatedLimit * properties.getBackoffRatio(), properties);
+        }
+
+        private static double clamp(double limit, ConcurrencyLimitProperties properties) {
+            return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), limit));
+        }
+    }
+}
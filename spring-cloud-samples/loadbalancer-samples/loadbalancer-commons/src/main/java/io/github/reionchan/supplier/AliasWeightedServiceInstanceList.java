@@ -0,0 +1,158 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 携带 Vose 别名表的加权服务实例列表
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.WeightedServiceInstanceListSupplier} 通过按权重展开实例列表
+ * 实现加权选择，实例多、权重比例大时展开列表的内存与计算开销都落在选择路径上。
+ * 本列表在构建时一次性生成别名表 (Alias Method)，之后每次加权抽样只需：
+ *   1. 均匀随机选取一个槽位 i
+ *   2. 再抛一次 [0, 1) 的随机数，小于 probability[i] 取 i，否则取 alias[i]
+ * 时间复杂度 O(1)，且不产生任何对象分配。
+ *
+ * 列表本身的元素仍是原始实例 (不展开)，因此可以在 {@link org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier}
+ * 装饰链中原样向下游传递，只有识别该类型的负载均衡器才会使用别名表。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class AliasWeightedServiceInstanceList extends AbstractList<ServiceInstance> implements RandomAccess {
+
+    /**
+     * 权重元数据键，与 Nacos 实例 metadata 中设置的 weight 保持一致
+     */
+    public static final String METADATA_WEIGHT_KEY = "weight";
+
+    /**
+     * Nacos 服务发现自动写入的实例权重元数据键
+     */
+    public static final String NACOS_WEIGHT_KEY = "nacos.weight";
+
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    private final List<ServiceInstance> instances;
+
+    private final double[] probability;
+
+    private final int[] alias;
+
+    private AliasWeightedServiceInstanceList(List<ServiceInstance> instances, double[] probability, int[] alias) {
+        this.instances = instances;
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * 根据实例权重构建别名表
+     */
+    public static AliasWeightedServiceInstanceList of(List<ServiceInstance> instances,
+                                                      ToDoubleFunction<ServiceInstance> weightFunction) {
+        int n = instances.size();
+        double[] scaled = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double weight = weightFunction.applyAsDouble(instances.get(i));
+            scaled[i] = weight > 0 && Double.isFinite(weight) ? weight : DEFAULT_WEIGHT;
+            sum += scaled[i];
+        }
+
+        // Vose 算法：将权重缩放为均值 1，低于 1 的槽位由高于 1 的槽位补足
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = scaled[i] * n / sum;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // 剩余槽位理论上均为 1，浮点误差导致的残留同样按 1 处理
+        while (largeSize > 0) {
+            probability[large[--largeSize]] = 1.0;
+        }
+        while (smallSize > 0) {
+            probability[small[--smallSize]] = 1.0;
+        }
+        return new AliasWeightedServiceInstanceList(instances, probability, alias);
+    }
+
+    /**
+     * 按权重抽取一个实例，列表为空时返回 null
+     */
+    public ServiceInstance next() {
+        int n = instances.size();
+        if (n == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int slot = random.nextInt(n);
+        return instances.get(random.nextDouble() < probability[slot] ? slot : alias[slot]);
+    }
+
+    /**
+     * 构建本别名表所使用的原始实例列表
+     */
+    public List<ServiceInstance> source() {
+        return instances;
+    }
+
+    @Override
+    public ServiceInstance get(int index) {
+        return instances.get(index);
+    }
+
+    @Override
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * 从实例元数据读取权重，优先使用 weight，其次 Nacos 写入的 nacos.weight，缺失或非法时使用默认权重
+     */
+    public static double metadataWeight(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        if (metadata == null) {
+            return DEFAULT_WEIGHT;
+        }
+        String value = metadata.get(METADATA_WEIGHT_KEY);
+        if (value == null) {
+            value = metadata.get(NACOS_WEIGHT_KEY);
+        }
+        if (value == null) {
+            return DEFAULT_WEIGHT;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+}
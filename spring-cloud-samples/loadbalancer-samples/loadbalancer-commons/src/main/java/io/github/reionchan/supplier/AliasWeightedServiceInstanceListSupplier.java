@@ -0,0 +1,76 @@
+package io.github.reionchan.supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 基于别名表的加权服务实例列表提供器
+ *
+ * <pre>
+ * 与 {@link org.springframework.cloud.loadbalancer.core.WeightedServiceInstanceListSupplier} 读取相同的 weight 元数据，
+ * 但不展开实例列表，而是将其包装为 {@link AliasWeightedServiceInstanceList}。
+ *
+ * 别名表只在实例列表发生变化时重建：上游 (通常是缓存装饰器) 每次发出的列表先与上一次的快照比较，
+ * 引用相同或元素相同时直接复用上一次构建的别名表，故选择路径上不会重复分配与计算。
+ *
+ * 配合 {@link io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer} 使用即可实现 O(1) 的加权选择。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class AliasWeightedServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    private final ToDoubleFunction<ServiceInstance> weightFunction;
+
+    private volatile AliasWeightedServiceInstanceList snapshot;
+
+    public AliasWeightedServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        this(delegate, AliasWeightedServiceInstanceList::metadataWeight);
+    }
+
+    public AliasWeightedServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                    ToDoubleFunction<ServiceInstance> weightFunction) {
+        super(delegate);
+        this.weightFunction = weightFunction;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::toWeighted);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(this::toWeighted);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : toWeighted(instances);
+    }
+
+    private List<ServiceInstance> toWeighted(List<ServiceInstance> instances) {
+        if (instances instanceof AliasWeightedServiceInstanceList weighted) {
+            return weighted;
+        }
+        AliasWeightedServiceInstanceList current = snapshot;
+        if (current != null && (current.source() == instances || current.source().equals(instances))) {
+            return current;
+        }
+        current = AliasWeightedServiceInstanceList.of(instances, weightFunction);
+        snapshot = current;
+        log.debug("Rebuilt alias table for service {} with {} instances", getServiceId(), instances.size());
+        return current;
+    }
+}
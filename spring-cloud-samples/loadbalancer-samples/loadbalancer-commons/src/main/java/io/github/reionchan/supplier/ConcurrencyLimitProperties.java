@@ -0,0 +1,38 @@
+package io.github.reionchan.supplier;
+
+import lombok.Data;
+
+/**
+ * 自适应并发限制参数
+ *
+ * <pre>
+ * 默认值参考 Netflix concurrency-limits 的 Gradient2Limit，可绑定到 spring.cloud.loadbalancer.concurrency-limit.* 属性：
+ *   initial-limit    每个实例的初始并发上限
+ *   min-limit        并发上限的下限
+ *   max-limit        并发上限的上限
+ *   smoothing        每次调整时新上限的权重 (0 ~ 1)，越小调整越平缓
+ *   rtt-tolerance    短期 RTT 超过长期 RTT 的该倍数时才开始收缩上限
+ *   long-window      长期 RTT 指数移动平均的样本窗口
+ *   backoff-ratio    请求失败或被下游拒绝 (429、503) 时上限乘以该系数
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Data
+public class ConcurrencyLimitProperties {
+
+    private int initialLimit = 20;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 200;
+
+    private double smoothing = 0.2;
+
+    private double rttTolerance = 1.5;
+
+    private int longWindow = 600;
+
+    private double backoffRatio = 0.9;
+}
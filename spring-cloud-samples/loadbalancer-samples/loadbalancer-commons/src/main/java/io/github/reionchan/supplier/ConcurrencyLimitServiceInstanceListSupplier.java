@@ -0,0 +1,53 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * 自适应并发限制的服务实例列表提供器
+ *
+ * <pre>
+ * 依据 {@link AdaptiveConcurrencyLimiter} 跳过在途请求数已达并发上限的实例；
+ * 全部实例饱和时发出空列表，负载均衡器返回无可用实例，请求快速失败
+ * (WebClient 得到 503 响应，RestTemplate 抛出 IllegalStateException)。
+ *
+ * AdaptiveConcurrencyLimiter 及其使用的 InFlightRequestTracker 需要同时注册为负载均衡子上下文中的 Bean，
+ * 才能作为 LoadBalancerLifecycle 收到调用结果。
+ * 过滤只读取计数，可以放在缓存之上。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ConcurrencyLimitServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                       AdaptiveConcurrencyLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(limiter::filter);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(limiter::filter);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : limiter.filter(instances);
+    }
+}
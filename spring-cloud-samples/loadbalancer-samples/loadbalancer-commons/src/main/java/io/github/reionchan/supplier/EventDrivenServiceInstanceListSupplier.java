@@ -0,0 +1,183 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 事件驱动的服务实例列表提供器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.DiscoveryClientServiceInstanceListSupplier} 每次都向服务发现客户端
+ * 拉取实例列表，依赖缓存装饰器限制拉取频率，缓存过期前感知不到实例变化，过期后即使实例未变也要重建下游的计算结果。
+ * 本提供器作为装饰链的基础提供器：
+ *
+ * 1. 监听服务发现的变化通知 {@link HeartbeatEvent} (如 Nacos 的 NacosWatch 定期发布，携带服务目录的状态值，
+ *    状态值与上次相同时直接忽略) 及 {@link InstanceRegisteredEvent}，收到通知时才调用 DiscoveryClient#getInstances
+ * 2. 只在实例成员 (host:port 及元数据) 确实变化时发出新的 {@link VersionedServiceInstanceList}，版本号加一；
+ *    未变化时下游持有的仍是同一个列表对象，按引用或版本号比较的装饰器无需任何重新计算
+ * 3. 订阅时立即得到最新快照，还没有快照或快照为空时先在 boundedElastic 线程上拉取一次
+ *
+ * 负载均衡子上下文收不到父上下文发布的事件，构造时传入子上下文即在其父上下文上注册监听 (没有父上下文时注册在其自身上)。
+ * 装饰链只把最外层的提供器注册为 Bean，本类的 destroy() 不会被容器调用，因此由监听器自己处理注销：
+ * 子上下文关闭时发布的 {@link ContextClosedEvent} 会传播到父上下文，收到所属上下文或父上下文的关闭事件即注销监听。
+ * 不需要再叠加缓存装饰器。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class EventDrivenServiceInstanceListSupplier implements SynchronousServiceInstanceListSupplier,
+        ApplicationListener<ApplicationEvent>, DisposableBean {
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final ConfigurableApplicationContext context;
+
+    private final ConfigurableApplicationContext eventSource;
+
+    private final Sinks.Many<List<ServiceInstance>> sink = Sinks.many().replay().latest();
+
+    private volatile VersionedServiceInstanceList snapshot;
+
+    private Map<String, Map<String, String>> membership = Collections.emptyMap();
+
+    private Object lastHeartbeat;
+
+    public EventDrivenServiceInstanceListSupplier(DiscoveryClient discoveryClient, String serviceId) {
+        this(discoveryClient, serviceId, null);
+    }
+
+    /**
+     * @param context 所属的负载均衡子上下文，在其父上下文上监听服务发现事件，随其关闭注销监听
+     */
+    public EventDrivenServiceInstanceListSupplier(DiscoveryClient discoveryClient, String serviceId,
+                                                  ConfigurableApplicationContext context) {
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.context = context;
+        this.eventSource = context != null && context.getParent() instanceof ConfigurableApplicationContext parent
+                ? parent : context;
+        if (eventSource != null) {
+            eventSource.addApplicationListener(this);
+        }
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        VersionedServiceInstanceList current = snapshot;
+        if (current != null && !current.isEmpty()) {
+            return sink.asFlux();
+        }
+        return Mono.fromRunnable(this::refresh).subscribeOn(Schedulers.boundedElastic()).thenMany(sink.asFlux());
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        VersionedServiceInstanceList current = snapshot;
+        return current != null && !current.isEmpty() ? current : null;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof HeartbeatEvent heartbeat) {
+            synchronized (this) {
+                if (lastHeartbeat != null && Objects.equals(lastHeartbeat, heartbeat.getValue())) {
+                    return;
+                }
+                lastHeartbeat = heartbeat.getValue();
+            }
+            refresh();
+        } else if (event instanceof InstanceRegisteredEvent) {
+            refresh();
+        } else if (event instanceof ContextClosedEvent closed
+                && (closed.getApplicationContext() == context || closed.getApplicationContext() == eventSource)) {
+            destroy();
+        }
+    }
+
+    /**
+     * 拉取实例列表，成员变化时发出新版本的快照
+     */
+    public synchronized void refresh() {
+        List<ServiceInstance> instances;
+        try {
+            instances = discoveryClient.getInstances(serviceId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to fetch instances of service {}, keep version {}: {}", serviceId,
+                    snapshot == null ? 0 : snapshot.version(), e.getMessage());
+            if (snapshot == null) {
+                publish(Collections.emptyList(), Collections.emptyMap());
+            }
+            return;
+        }
+        Map<String, Map<String, String>> current = membership(instances);
+        if (snapshot != null && current.equals(membership)) {
+            return;
+        }
+        publish(instances, current);
+        log.debug("Instances of service {} changed to version {} with {} instances", serviceId, snapshot.version(),
+                instances.size());
+    }
+
+    private void publish(List<ServiceInstance> instances, Map<String, Map<String, String>> current) {
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+        snapshot = new VersionedServiceInstanceList(this, version, instances);
+        membership = current;
+        sink.emitNext(snapshot, Sinks.EmitFailureHandler.FAIL_FAST);
+    }
+
+    private static Map<String, Map<String, String>> membership(List<ServiceInstance> instances) {
+        Map<String, Map<String, String>> membership = new HashMap<>();
+        for (ServiceInstance instance : instances) {
+            Map<String, String> metadata = instance.getMetadata();
+            membership.put(ServiceInstanceKeys.of(instance),
+                    metadata == null ? Collections.emptyMap() : new HashMap<>(metadata));
+        }
+        return membership;
+    }
+
+    /**
+     * 当前快照的版本号，尚未拉取时为 0
+     */
+    public long version() {
+        VersionedServiceInstanceList current = snapshot;
+        return current == null ? 0 : current.version();
+    }
+
+    @Override
+    public void destroy() {
+        if (eventSource != null) {
+            eventSource.removeApplicationListener(this);
+        }
+        sink.tryEmitComplete();
+    }
+}
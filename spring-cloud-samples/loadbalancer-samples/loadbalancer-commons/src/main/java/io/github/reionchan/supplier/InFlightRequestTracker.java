@@ -0,0 +1,78 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 统计每个实例的在途请求数
+ *
+ * <pre>
+ * 作为 {@link LoadBalancerLifecycle} 在 onStartRequest 时加一、onComplete 时减一，
+ * 供需要感知实例负载的服务实例列表提供器使用，如 {@link ZoneAwareServiceInstanceListSupplier}、
+ * {@link AdaptiveConcurrencyLimiter}。
+ * 需要注册为负载均衡子上下文中的 Bean 才能收到请求生命周期回调。
+ * 实例下线后可通过 {@link #retain} 移除其计数，仍有在途请求的计数保留到请求全部完成后的下一次调用。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class InFlightRequestTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ConcurrentHashMap<String, LongAdder> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * 获取实例当前的在途请求数
+     */
+    public long inFlight(ServiceInstance instance) {
+        LongAdder counter = inFlightRequests.get(ServiceInstanceKeys.of(instance));
+        return counter == null ? 0L : Math.max(counter.sum(), 0L);
+    }
+
+    /**
+     * 只保留给定实例及仍有在途请求的实例的计数
+     */
+    public void retain(Collection<String> instanceKeys) {
+        inFlightRequests.entrySet().removeIf(entry -> !instanceKeys.contains(entry.getKey())
+                && entry.getValue().sum() <= 0);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // do nothing
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            inFlightRequests.computeIfAbsent(ServiceInstanceKeys.of(lbResponse.getServer()), key -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        LongAdder counter = inFlightRequests.get(ServiceInstanceKeys.of(
+                completionContext.getLoadBalancerResponse().getServer()));
+        if (counter != null) {
+            counter.decrement();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.reionchan.supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.*;
+
+/**
+ * 基于元数据索引的服务实例列表提供器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.HintBasedServiceInstanceListSupplier} 每次请求都遍历实例列表
+ * 比较 hint 元数据，且只支持 hint 一个条件。本提供器按配置的多个 {@link MetadataRoute} (如 hint、version、zone) 路由：
+ *
+ * 1. 实例列表变化时一次性构建不可变索引：对条件的每个组合 (最多 2^n 个)，按实例在这些元数据上的取值分组，
+ *    请求路径上只需按组合及取值做哈希查找，与实例数量无关
+ * 2. 每个条件的期望值优先取请求头，其次取默认值，两者都没有的条件不参与本次路由
+ * 3. 按全部参与条件查找，无匹配实例时按配置顺序从后往前依次放弃条件，
+ *    如 [version, hint, zone] 依次回退为 [version, hint]、[version]，仍无匹配时返回全部实例
+ *
+ * 因此配置顺序即条件的重要程度，金丝雀、蓝绿发布的版本条件应放在最前。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class MetadataIndexedServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    /**
+     * 参与路由的条件数上限，索引大小与 2^n 成正比
+     */
+    public static final int MAX_ROUTES = 8;
+
+    private final List<MetadataRoute> routes;
+
+    private volatile MetadataIndex index;
+
+    public MetadataIndexedServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, List<MetadataRoute> routes) {
+        super(delegate);
+        Assert.isTrue(routes.size() <= MAX_ROUTES, "At most " + MAX_ROUTES + " metadata routes are supported");
+        this.routes = List.copyOf(routes);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> route(instances, null));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        HttpHeaders requestHeaders = headers(request);
+        return delegate.get(request).map(instances -> route(instances, requestHeaders));
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : route(instances, headers(request));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static HttpHeaders headers(Request request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            return context.getClientRequest().getHeaders();
+        }
+        return null;
+    }
+
+    private List<ServiceInstance> route(List<ServiceInstance> instances, HttpHeaders headers) {
+        if (instances.isEmpty() || routes.isEmpty()) {
+            return instances;
+        }
+        String[] values = new String[routes.size()];
+        int mask = 0;
+        for (int i = 0; i < routes.size(); i++) {
+            values[i] = resolveValue(routes.get(i), headers);
+            if (values[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        MetadataIndex current = index(instances);
+        while (mask != 0) {
+            List<ServiceInstance> matched = current.lookup(mask, values);
+            if (matched != null) {
+                return matched;
+            }
+            // 放弃当前参与条件中配置顺序最靠后的一个
+            mask &= ~Integer.highestOneBit(mask);
+        }
+        return instances;
+    }
+
+    private static String resolveValue(MetadataRoute route, HttpHeaders headers) {
+        if (headers != null && route.getHeader() != null) {
+            String value = headers.getFirst(route.getHeader());
+            if (StringUtils.hasText(value)) {
+                return value;
+            }
+        }
+        return StringUtils.hasText(route.getDefaultValue()) ? route.getDefaultValue() : null;
+    }
+
+    private MetadataIndex index(List<ServiceInstance> instances) {
+        MetadataIndex current = index;
+        if (current != null && (current.source == instances || current.source.equals(instances))) {
+            return current;
+        }
+        current = new MetadataIndex(instances, routes);
+        index = current;
+        log.debug("Rebuilt metadata index for service {} with {} instances", getServiceId(), instances.size());
+        return current;
+    }
+
+    /**
+     * 不可变的元数据索引：条件组合 -> 各条件取值 -> 实例列表
+     */
+    static final class MetadataIndex {
+
+        private final List<ServiceInstance> source;
+
+        private final Map<Integer, Map<List<String>, List<ServiceInstance>>> buckets;
+
+        MetadataIndex(List<ServiceInstance> source, List<MetadataRoute> routes) {
+            this.source = source;
+            int combinations = 1 << routes.size();
+            Map<Integer, Map<List<String>, List<ServiceInstance>>> grouped = new HashMap<>();
+            for (ServiceInstance instance : source) {
+                Map<String, String> metadata = instance.getMetadata() == null ? Map.of() : instance.getMetadata();
+                for (int mask = 1; mask < combinations; mask++) {
+                    List<String> key = key(mask, routes, metadata);
+                    if (key != null) {
+                        grouped.computeIfAbsent(mask, m -> new HashMap<>())
+                                .computeIfAbsent(key, k -> new ArrayList<>()).add(instance);
+                    }
+                }
+            }
+            Map<Integer, Map<List<String>, List<ServiceInstance>>> frozen = new HashMap<>();
+            grouped.forEach((mask, byValues) -> {
+                Map<List<String>, List<ServiceInstance>> copy = new HashMap<>();
+                byValues.forEach((values, instances) -> copy.put(values, List.copyOf(instances)));
+                frozen.put(mask, Map.copyOf(copy));
+            });
+            this.buckets = Map.copyOf(frozen);
+        }
+
+        private static List<String> key(int mask, List<MetadataRoute> routes, Map<String, String> metadata) {
+            List<String> key = new ArrayList<>(Integer.bitCount(mask));
+            for (int i = 0; i < routes.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    String value = metadata.get(routes.get(i).getMetadataKey());
+                    if (value == null) {
+                        return null;
+                    }
+                    key.add(value);
+                }
+            }
+            return List.copyOf(key);
+        }
+
+        /**
+         * 按条件组合及期望值查找实例，无匹配时返回 null
+         */
+        List<ServiceInstance> lookup(int mask, String[] values) {
+            Map<List<String>, List<ServiceInstance>> byValues = buckets.get(mask);
+            if (byValues == null) {
+                return null;
+            }
+            String[] key = new String[Integer.bitCount(mask)];
+            int position = 0;
+            for (int i = 0; i < values.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    key[position++] = values[i];
+                }
+            }
+            return byValues.get(Arrays.asList(key));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.reionchan.supplier;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 元数据路由条件
+ *
+ * <pre>
+ * 描述一个参与路由的实例元数据键，以及请求中该键期望值的来源：
+ *   metadataKey    实例元数据键，如 hint、version、zone
+ *   header         请求头名称，请求头存在时优先使用其值，如 X-SC-LB-Hint
+ *   defaultValue   请求头不存在时使用的默认值，为空表示该条件不参与本次路由
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetadataRoute {
+
+    private String metadataKey;
+
+    private String header;
+
+    private String defaultValue;
+}
@@ -0,0 +1,40 @@
+package io.github.reionchan.supplier;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 被动异常实例摘除参数
+ *
+ * <pre>
+ * 默认值参考 Envoy outlier detection，可绑定到 spring.cloud.loadbalancer.outlier-detection.* 属性：
+ *   consecutive-failures     连续失败次数达到该值即摘除
+ *   failure-rate-threshold   统计窗口内失败率达到该值即摘除 (0 ~ 1)
+ *   minimum-requests         统计窗口内请求数不足该值时不计算失败率
+ *   interval                 失败率统计窗口长度
+ *   base-ejection-time       首次摘除时长，之后每次摘除翻倍
+ *   max-ejection-time        单次摘除时长上限
+ *   max-ejection-percent     同时被摘除的实例占实例总数的最大百分比
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Data
+public class OutlierDetectionProperties {
+
+    private int consecutiveFailures = 5;
+
+    private double failureRateThreshold = 0.5;
+
+    private int minimumRequests = 10;
+
+    private Duration interval = Duration.ofSeconds(10);
+
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    private int maxEjectionPercent = 50;
+}
@@ -0,0 +1,244 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 根据调用结果被动识别异常实例
+ *
+ * <pre>
+ * 作为 {@link LoadBalancerLifecycle} 收集每个实例的调用结果，请求抛出异常或响应状态码为 5xx 均视为失败：
+ *   1. 连续失败次数达到 consecutiveFailures
+ *   2. 一个统计窗口 interval 内请求数不少于 minimumRequests，且失败率达到 failureRateThreshold
+ * 满足任一条件即摘除该实例，摘除时长为 baseEjectionTime * 2^(摘除次数 - 1)，不超过 maxEjectionTime；
+ * 实例在一个完整统计窗口内没有再被摘除，摘除次数减一。
+ * 被摘除实例的占比已达到 maxEjectionPercent 时不再摘除新的实例，避免故障扩散时实例被全部摘除，
+ * 占比只按当前实例列表计算；实例列表变化时移除已下线实例的统计，也不再记录它们的调用结果。
+ *
+ * 不发送任何探测请求，实例的恢复依赖摘除到期后的真实流量。
+ * 由 {@link OutlierEjectionServiceInstanceListSupplier} 据此过滤服务实例列表。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class OutlierDetector implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final OutlierDetectionProperties properties;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, InstanceState> states = new ConcurrentHashMap<>();
+
+    private volatile List<ServiceInstance> lastInstances = Collections.emptyList();
+
+    private volatile Set<String> liveKeys = Collections.emptySet();
+
+    public OutlierDetector(OutlierDetectionProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    OutlierDetector(OutlierDetectionProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 过滤掉当前被摘除的实例，全部被摘除时返回原列表
+     */
+    public List<ServiceInstance> filter(List<ServiceInstance> instances) {
+        if (instances != lastInstances) {
+            lastInstances = instances;
+            prune(instances);
+        }
+        if (states.isEmpty()) {
+            return instances;
+        }
+        long now = nanoClock.getAsLong();
+        List<ServiceInstance> available = null;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get(i);
+            InstanceState state = states.get(ServiceInstanceKeys.of(instance));
+            if (state != null && state.isEjected(now)) {
+                if (available == null) {
+                    available = new ArrayList<>(instances.subList(0, i));
+                }
+            } else if (available != null) {
+                available.add(instance);
+            }
+        }
+        if (available == null) {
+            return instances;
+        }
+        return available.isEmpty() ? instances : available;
+    }
+
+    /**
+     * 实例当前是否被摘除
+     */
+    public boolean isEjected(ServiceInstance instance) {
+        InstanceState state = states.get(ServiceInstanceKeys.of(instance));
+        return state != null && state.isEjected(nanoClock.getAsLong());
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // do nothing
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        // do nothing
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        String key = ServiceInstanceKeys.of(completionContext.getLoadBalancerResponse().getServer());
+        if (!liveKeys.contains(key)) {
+            // 已下线实例的在途请求
+            return;
+        }
+        InstanceState state = states.computeIfAbsent(key, k -> new InstanceState(nanoClock.getAsLong()));
+        long now = nanoClock.getAsLong();
+        if (state.record(isFailure(completionContext), now, properties) && canEject(now)) {
+            long ejectionTime = state.eject(now, properties);
+            log.warn("Ejected outlier instance {} for {} ms", key, ejectionTime / 1_000_000);
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (CompletionContext.Status.FAILED.equals(completionContext.status())) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData responseData
+                && responseData.getHttpStatus() != null && responseData.getHttpStatus().is5xxServerError();
+    }
+
+    /**
+     * 摘除新实例后被摘除实例的占比仍不超过 maxEjectionPercent 时才允许摘除，
+     * 因此单实例或 maxEjectionPercent 不足一个实例时不会摘除任何实例
+     */
+    private boolean canEject(long now) {
+        Set<String> keys = liveKeys;
+        if (keys.isEmpty()) {
+            return false;
+        }
+        long ejected = 0;
+        for (String key : keys) {
+            InstanceState state = states.get(key);
+            if (state != null && state.isEjected(now)) {
+                ejected++;
+            }
+        }
+        return (ejected + 1) * 100 <= (long) properties.getMaxEjectionPercent() * keys.size();
+    }
+
+    /**
+     * 记录当前实例列表并移除已下线实例的统计
+     */
+    private void prune(List<ServiceInstance> instances) {
+        Set<String> keys = new HashSet<>(instances.size() * 2);
+        for (ServiceInstance instance : instances) {
+            keys.add(ServiceInstanceKeys.of(instance));
+        }
+        liveKeys = keys;
+        states.keySet().retainAll(keys);
+    }
+
+    /**
+     * 单个实例的调用统计及摘除状态
+     */
+    static final class InstanceState {
+
+        private int consecutiveFailures;
+
+        private long windowStart;
+
+        private int windowRequests;
+
+        private int windowFailures;
+
+        private int ejectionCount;
+
+        private volatile long ejectedUntil;
+
+        private boolean ejectedInWindow;
+
+        InstanceState(long now) {
+            this.windowStart = now;
+            this.ejectedUntil = now;
+        }
+
+        boolean isEjected(long now) {
+            return now - ejectedUntil < 0;
+        }
+
+        /**
+         * 记录一次调用结果，返回是否达到摘除条件
+         */
+        synchronized boolean record(boolean failure, long now, OutlierDetectionProperties properties) {
+            if (now - windowStart >= properties.getInterval().toNanos()) {
+                if (!ejectedInWindow && !isEjected(now) && ejectionCount > 0) {
+                    ejectionCount--;
+                }
+                windowStart = now;
+                windowRequests = 0;
+                windowFailures = 0;
+                ejectedInWindow = false;
+            }
+            if (isEjected(now)) {
+                // 摘除前已选中该实例的在途请求
+                return false;
+            }
+            windowRequests++;
+            if (!failure) {
+                consecutiveFailures = 0;
+                return false;
+            }
+            windowFailures++;
+            consecutiveFailures++;
+            return consecutiveFailures >= properties.getConsecutiveFailures()
+                    || (windowRequests >= properties.getMinimumRequests()
+                    && windowFailures >= properties.getFailureRateThreshold() * windowRequests);
+        }
+
+        /**
+         * 摘除实例并返回本次摘除时长 (纳秒)
+         */
+        synchronized long eject(long now, OutlierDetectionProperties properties) {
+            ejectionCount = Math.min(ejectionCount + 1, 30);
+            long ejectionTime = Math.min(properties.getBaseEjectionTime().toNanos() << (ejectionCount - 1),
+                    properties.getMaxEjectionTime().toNanos());
+            if (ejectionTime <= 0) {
+                ejectionTime = properties.getMaxEjectionTime().toNanos();
+            }
+            ejectedUntil = now + ejectionTime;
+            ejectedInWindow = true;
+            consecutiveFailures = 0;
+            windowRequests = 0;
+            windowFailures = 0;
+            return ejectionTime;
+        }
+    }
+}
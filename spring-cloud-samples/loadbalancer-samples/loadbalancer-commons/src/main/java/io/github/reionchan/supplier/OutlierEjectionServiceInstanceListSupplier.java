@@ -0,0 +1,52 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * 被动异常实例摘除的服务实例列表提供器
+ *
+ * <pre>
+ * 与 {@link org.springframework.cloud.loadbalancer.core.HealthCheckServiceInstanceListSupplier} 主动轮询健康检测端点不同，
+ * 本提供器依据 {@link OutlierDetector} 从真实调用结果中识别的异常实例过滤服务实例列表：
+ * 健康检测为 UP 却持续返回 5xx 或超时的实例同样会被摘除，且不产生额外的探测流量，
+ * 也可以放在缓存之上，不影响实例列表缓存。
+ *
+ * OutlierDetector 需要同时注册为负载均衡子上下文中的 Bean，才能作为 LoadBalancerLifecycle 收到调用结果。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class OutlierEjectionServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    private final OutlierDetector outlierDetector;
+
+    public OutlierEjectionServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                      OutlierDetector outlierDetector) {
+        super(delegate);
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(outlierDetector::filter);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(outlierDetector::filter);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : outlierDetector.filter(instances);
+    }
+}
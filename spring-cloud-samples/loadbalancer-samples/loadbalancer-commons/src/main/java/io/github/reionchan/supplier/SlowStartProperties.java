@@ -0,0 +1,32 @@
+package io.github.reionchan.supplier;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 新实例慢启动参数
+ *
+ * <pre>
+ * 参考 Envoy slow_start_config，可绑定到 spring.cloud.loadbalancer.slow-start.* 属性：
+ *   window                      慢启动窗口，新实例的权重在该时长内升至 100%
+ *   aggression                  升权曲线，系数 = (已启动时长 / window)^(1 / aggression)，
+ *                               1 为线性，大于 1 前期升得更快，小于 1 前期升得更慢
+ *   min-weight-percent          新实例权重系数的下限 (百分比)
+ *   start-time-metadata-key     实例元数据中记录启动时间 (epoch 毫秒) 的键，缺失时以客户端首次发现该实例的时间为准
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Data
+public class SlowStartProperties {
+
+    private Duration window = Duration.ofSeconds(30);
+
+    private double aggression = 1.0;
+
+    private double minWeightPercent = 10;
+
+    private String startTimeMetadataKey = "start-time";
+}
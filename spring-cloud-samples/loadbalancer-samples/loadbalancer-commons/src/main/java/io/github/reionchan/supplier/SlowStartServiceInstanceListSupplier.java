@@ -0,0 +1,179 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 新实例慢启动的加权服务实例列表提供器
+ *
+ * <pre>
+ * 新启动的实例 JIT 尚未预热、连接池为空，轮询会立即向其分配等量流量，每次发布都会出现一次延迟尖刺。
+ * 本提供器在实例权重 (默认读取 weight 元数据，同 {@link AliasWeightedServiceInstanceListSupplier}) 之上乘以升权系数：
+ *
+ *   系数 = max(minWeightPercent / 100, (已启动时长 / window)^(1 / aggression))
+ *
+ * 1. 启动时间优先取实例元数据 startTimeMetadataKey (epoch 毫秒)，否则取本客户端首次发现该实例的时间；
+ *    客户端启动后第一次拿到的实例视为已预热，避免客户端自身重启时把所有实例都当作新实例
+ * 2. 实例下线后其发现时间被清除，重新上线时再次慢启动
+ * 3. 输出为 {@link AliasWeightedServiceInstanceList}，需要与 {@link io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer}
+ *    配合才会按权重选择；存在升权中的实例时，别名表最多每 REBUILD_INTERVAL_MILLIS 重建一次，
+ *    全部实例升权完成后与 AliasWeightedServiceInstanceListSupplier 一样按实例列表复用
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class SlowStartServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    /**
+     * 升权期间别名表的最小重建间隔
+     */
+    static final long REBUILD_INTERVAL_MILLIS = 1000;
+
+    /**
+     * 升权系数下限，别名表会把非正权重当作默认权重
+     */
+    private static final double MIN_FACTOR = 0.001;
+
+    private final SlowStartProperties properties;
+
+    private final ToDoubleFunction<ServiceInstance> baseWeightFunction;
+
+    private final LongSupplier clock;
+
+    private final long windowMillis;
+
+    private final Map<String, Long> firstSeen = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized;
+
+    private volatile Snapshot snapshot;
+
+    public SlowStartServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, SlowStartProperties properties) {
+        this(delegate, properties, AliasWeightedServiceInstanceList::metadataWeight);
+    }
+
+    public SlowStartServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, SlowStartProperties properties,
+                                                ToDoubleFunction<ServiceInstance> baseWeightFunction) {
+        this(delegate, properties, baseWeightFunction, System::currentTimeMillis);
+    }
+
+    SlowStartServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, SlowStartProperties properties,
+                                         ToDoubleFunction<ServiceInstance> baseWeightFunction, LongSupplier clock) {
+        super(delegate);
+        Assert.isTrue(!properties.getWindow().isNegative() && !properties.getWindow().isZero(),
+                "window must be positive");
+        Assert.isTrue(properties.getAggression() > 0, "aggression must be positive");
+        this.properties = properties;
+        this.baseWeightFunction = baseWeightFunction;
+        this.clock = clock;
+        this.windowMillis = properties.getWindow().toMillis();
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::ramp);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(this::ramp);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : ramp(instances);
+    }
+
+    private List<ServiceInstance> ramp(List<ServiceInstance> instances) {
+        long now = clock.getAsLong();
+        Snapshot current = snapshot;
+        boolean sameInstances = current != null && (current.source == instances || current.source.equals(instances));
+        if (sameInstances && (current.builtAt >= current.rampEndsAt || now - current.builtAt < REBUILD_INTERVAL_MILLIS)) {
+            return current.weighted;
+        }
+        if (!sameInstances) {
+            observe(instances, now);
+        }
+        long rampEndsAt = 0;
+        for (ServiceInstance instance : instances) {
+            rampEndsAt = Math.max(rampEndsAt, startTime(instance) + windowMillis);
+        }
+        current = new Snapshot(instances, AliasWeightedServiceInstanceList.of(instances,
+                instance -> baseWeightFunction.applyAsDouble(instance) * rampFactor(instance, now)), now, rampEndsAt);
+        snapshot = current;
+        return current.weighted;
+    }
+
+    /**
+     * 记录新出现实例的发现时间，清除已下线实例
+     */
+    private void observe(List<ServiceInstance> instances, long now) {
+        Set<String> keys = new HashSet<>();
+        // 客户端首次拿到的实例视为早已启动
+        long seenAt = initialized ? now : Long.MIN_VALUE / 2;
+        for (ServiceInstance instance : instances) {
+            String key = ServiceInstanceKeys.of(instance);
+            keys.add(key);
+            if (firstSeen.putIfAbsent(key, seenAt) == null && initialized) {
+                log.debug("Instance {} of service {} enters slow start", key, getServiceId());
+            }
+        }
+        firstSeen.keySet().retainAll(keys);
+        initialized = true;
+    }
+
+    private long startTime(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        String value = metadata == null ? null : metadata.get(properties.getStartTimeMetadataKey());
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                // 忽略非法值，使用发现时间
+            }
+        }
+        return firstSeen.getOrDefault(ServiceInstanceKeys.of(instance), Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * 获取实例当前的升权系数 (0 ~ 1]
+     */
+    public double rampFactor(ServiceInstance instance) {
+        return rampFactor(instance, clock.getAsLong());
+    }
+
+    private double rampFactor(ServiceInstance instance, long now) {
+        long elapsed = now - startTime(instance);
+        if (elapsed >= windowMillis) {
+            return 1.0;
+        }
+        double progress = Math.max(0, elapsed) / (double) windowMillis;
+        double factor = Math.pow(progress, 1.0 / properties.getAggression());
+        return Math.max(Math.max(MIN_FACTOR, properties.getMinWeightPercent() / 100.0), factor);
+    }
+
+    /**
+     * 别名表及其对应的原始实例列表、构建时间、升权结束时间
+     */
+    private record Snapshot(List<ServiceInstance> source, AliasWeightedServiceInstanceList weighted,
+                            long builtAt, long rampEndsAt) {
+    }
+}
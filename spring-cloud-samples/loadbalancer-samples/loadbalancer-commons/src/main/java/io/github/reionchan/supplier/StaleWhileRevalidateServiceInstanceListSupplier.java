@@ -0,0 +1,215 @@
+package io.github.reionchan.supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 过期后台重新验证 (stale-while-revalidate) 的缓存服务实例列表提供器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.CachingServiceInstanceListSupplier} 在缓存过期后，
+ * 恰好到达的请求需要同步等待一次服务发现调用，表现为周期性的 p99 尖刺。本提供器：
+ *
+ * 1. 总是立即返回上一次的实例列表快照，请求路径上不等待服务发现
+ * 2. 快照年龄超过 refreshAfter (应小于原缓存 ttl) 时，在后台发起一次刷新，同一时刻最多只有一个刷新在途
+ * 3. 服务发现不可用时 (出错或返回空列表) 保留原快照继续提供服务，
+ *    但快照年龄超过 maxStaleness 后不再使用，请求改为等待刷新结果，刷新仍失败则返回空列表
+ * 4. 首个快照在 afterPropertiesSet 时预先加载，未加载完成前的请求等待首次刷新
+ *
+ * 提供 MeterRegistry 时记录以下指标，均带有 serviceId 标签：
+ *   loadbalancer.instances.refresh        刷新耗时 Timer，outcome 标签为 SUCCESS / EMPTY / FAILED
+ *   loadbalancer.instances.snapshot.age   当前快照年龄 Gauge，单位秒
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class StaleWhileRevalidateServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    public static final Duration DEFAULT_REFRESH_AFTER = Duration.ofSeconds(25);
+
+    public static final Duration DEFAULT_MAX_STALENESS = Duration.ofMinutes(5);
+
+    private final long refreshAfterNanos;
+
+    private final long maxStalenessNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Mono<List<ServiceInstance>>> pendingRefresh = new AtomicReference<>();
+
+    private final Timer successTimer;
+
+    private final Timer emptyTimer;
+
+    private final Timer failedTimer;
+
+    private volatile Snapshot snapshot;
+
+    public StaleWhileRevalidateServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        this(delegate, DEFAULT_REFRESH_AFTER, DEFAULT_MAX_STALENESS, null);
+    }
+
+    public StaleWhileRevalidateServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, Duration refreshAfter,
+                                                           Duration maxStaleness, MeterRegistry meterRegistry) {
+        this(delegate, refreshAfter, maxStaleness, meterRegistry, System::nanoTime);
+    }
+
+    StaleWhileRevalidateServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, Duration refreshAfter,
+                                                    Duration maxStaleness, MeterRegistry meterRegistry,
+                                                    LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(maxStaleness.compareTo(refreshAfter) >= 0, "maxStaleness must not be less than refreshAfter");
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.nanoClock = nanoClock;
+        if (meterRegistry != null) {
+            this.successTimer = refreshTimer(meterRegistry, "SUCCESS");
+            this.emptyTimer = refreshTimer(meterRegistry, "EMPTY");
+            this.failedTimer = refreshTimer(meterRegistry, "FAILED");
+            Gauge.builder("loadbalancer.instances.snapshot.age", this,
+                            StaleWhileRevalidateServiceInstanceListSupplier::snapshotAgeSeconds)
+                    .tag("serviceId", getServiceId())
+                    .description("Age of the service instance list snapshot")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        } else {
+            this.successTimer = null;
+            this.emptyTimer = null;
+            this.failedTimer = null;
+        }
+    }
+
+    private Timer refreshTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("loadbalancer.instances.refresh")
+                .tag("serviceId", getServiceId())
+                .tag("outcome", outcome)
+                .description("Time taken to refresh the service instance list from the delegate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return refresh().flux();
+        }
+        long age = nanoClock.getAsLong() - current.fetchedAt;
+        if (age >= refreshAfterNanos) {
+            Mono<List<ServiceInstance>> refresh = refresh();
+            if (age > maxStalenessNanos) {
+                log.warn("Snapshot of service {} is older than max staleness, waiting for refresh", getServiceId());
+                return refresh.flux();
+            }
+        }
+        return Flux.just(current.instances);
+    }
+
+    /**
+     * 与 get 相同地返回快照或触发后台刷新，需要等待刷新结果时返回 null
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        long age = nanoClock.getAsLong() - current.fetchedAt;
+        if (age >= refreshAfterNanos) {
+            refresh();
+            if (age > maxStalenessNanos) {
+                return null;
+            }
+        }
+        return current.instances;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        super.afterPropertiesSet();
+        refresh();
+    }
+
+    /**
+     * 发起一次后台刷新，已有刷新在途时复用其结果。
+     * 返回的 Mono 在刷新失败时发出仍可使用的快照，没有可用快照时发出空列表。
+     */
+    Mono<List<ServiceInstance>> refresh() {
+        while (true) {
+            Mono<List<ServiceInstance>> pending = pendingRefresh.get();
+            if (pending != null) {
+                return pending;
+            }
+            Sinks.One<List<ServiceInstance>> sink = Sinks.one();
+            Mono<List<ServiceInstance>> result = sink.asMono();
+            if (pendingRefresh.compareAndSet(null, result)) {
+                long start = nanoClock.getAsLong();
+                delegate.get().next()
+                        .defaultIfEmpty(Collections.emptyList())
+                        .subscribe(instances -> {
+                            boolean empty = instances.isEmpty();
+                            record(empty ? emptyTimer : successTimer, start);
+                            if (!empty || snapshot == null) {
+                                snapshot = new Snapshot(instances, nanoClock.getAsLong());
+                            } else {
+                                log.warn("Service {} returned no instances, keep serving the last snapshot", getServiceId());
+                            }
+                            complete(result, sink);
+                        }, error -> {
+                            record(failedTimer, start);
+                            log.warn("Failed to refresh instances of service {}, keep serving the last snapshot",
+                                    getServiceId(), error);
+                            complete(result, sink);
+                        });
+                return result;
+            }
+        }
+    }
+
+    private void complete(Mono<List<ServiceInstance>> result, Sinks.One<List<ServiceInstance>> sink) {
+        pendingRefresh.compareAndSet(result, null);
+        Snapshot current = snapshot;
+        boolean usable = current != null && nanoClock.getAsLong() - current.fetchedAt <= maxStalenessNanos;
+        sink.tryEmitValue(usable ? current.instances : Collections.emptyList());
+    }
+
+    private void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(nanoClock.getAsLong() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 当前快照年龄 (秒)，尚无快照时为 NaN
+     */
+    public double snapshotAgeSeconds() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Double.NaN;
+        }
+        return (nanoClock.getAsLong() - current.fetchedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private record Snapshot(List<ServiceInstance> instances, long fetchedAt) {
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.reionchan.supplier;
+
+import io.github.reionchan.loadbalancer.Hashing;
+import io.github.reionchan.loadbalancer.ServiceInstanceKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于 Rendezvous 哈希的确定性子集服务实例列表提供器
+ *
+ * <pre>
+ * 每个客户端都与服务的全部实例建立连接时，连接总数为 客户端数 × 实例数，且每个连接池的流量都很稀疏。
+ * 本提供器让每个客户端只使用实例的一个大小为 subsetSize 的稳定子集：
+ *
+ * 1. 对每个实例计算 score = mix64(hash(客户端实例 ID) ^ hash(host:port))，取分数最高的 subsetSize 个实例
+ *    (Rendezvous / Highest Random Weight 哈希)，同一客户端每次得到相同的子集，不同客户端的子集相互独立
+ * 2. 成员变化时只有被影响的位置发生变化：移除一个实例只会让子集中含有它的客户端补入下一名，
+ *    新增一个实例只会替换掉各客户端子集中分数最低且低于它的实例，其余连接保持不变
+ * 3. 实例数不超过 subsetSize 时直接使用全部实例
+ *
+ * 子集只在实例列表变化时重新计算，输出保持实例在原列表中的顺序。
+ * 各实例被选入子集的客户端数服从二项分布，客户端数远大于 实例数 / subsetSize 时负载趋于均匀。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class SubsetServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    /**
+     * 默认子集大小
+     */
+    public static final int DEFAULT_SUBSET_SIZE = 100;
+
+    private final long clientHash;
+
+    private final int subsetSize;
+
+    private volatile Subset subset;
+
+    public SubsetServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, String clientInstanceId) {
+        this(delegate, clientInstanceId, DEFAULT_SUBSET_SIZE);
+    }
+
+    public SubsetServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, String clientInstanceId,
+                                             int subsetSize) {
+        super(delegate);
+        Assert.hasText(clientInstanceId, "clientInstanceId must not be empty");
+        Assert.isTrue(subsetSize > 0, "subsetSize must be positive");
+        this.clientHash = Hashing.hash64(clientInstanceId);
+        this.subsetSize = subsetSize;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::subset);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(this::subset);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : subset(instances);
+    }
+
+    private List<ServiceInstance> subset(List<ServiceInstance> instances) {
+        if (instances.size() <= subsetSize) {
+            return instances;
+        }
+        Subset current = subset;
+        if (current != null && (current.source == instances || current.source.equals(instances))) {
+            return current.instances;
+        }
+        current = new Subset(instances, select(instances));
+        subset = current;
+        log.debug("Rebuilt subset of {} out of {} instances for service {}", current.instances.size(),
+                instances.size(), getServiceId());
+        return current.instances;
+    }
+
+    /**
+     * 选出分数最高的 subsetSize 个实例，按原列表顺序返回
+     */
+    private List<ServiceInstance> select(List<ServiceInstance> instances) {
+        int n = instances.size();
+        // 高 32 位存放分数的高位，低 32 位存放下标，排序后同时得到分数顺序与下标
+        long[] ranked = new long[n];
+        for (int i = 0; i < n; i++) {
+            long score = Hashing.mix64(clientHash ^ Hashing.hash64(ServiceInstanceKeys.of(instances.get(i))));
+            ranked[i] = (score & 0xffffffff00000000L) | i;
+        }
+        Arrays.sort(ranked);
+        int[] selected = new int[subsetSize];
+        for (int i = 0; i < subsetSize; i++) {
+            selected[i] = (int) ranked[n - 1 - i];
+        }
+        Arrays.sort(selected);
+        List<ServiceInstance> result = new ArrayList<>(subsetSize);
+        for (int index : selected) {
+            result.add(instances.get(index));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 子集计算结果与其对应的原始实例列表
+     */
+    private record Subset(List<ServiceInstance> source, List<ServiceInstance> instances) {
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.CachingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.util.List;
+
+/**
+ * 可同步读取缓存的缓存服务实例列表提供器
+ *
+ * <pre>
+ * 与 {@link CachingServiceInstanceListSupplier} 共用同一个缓存 (名称及 serviceId 键均相同)，可直接替换 withCaching()：
+ *
+ *   ServiceInstanceListSupplier.builder()
+ *           .withBlockingDiscoveryClient()
+ *           .with((context, delegate) -> new SynchronousCachingServiceInstanceListSupplier(delegate, cacheManager))
+ *
+ * {@link #getNow(Request)} 直接读取缓存中的实例列表，缓存未命中 (或为空列表) 时返回 null，
+ * 由响应式的 get 方法加载并写入缓存。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class SynchronousCachingServiceInstanceListSupplier extends CachingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    private final CacheManager cacheManager;
+
+    public SynchronousCachingServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                         CacheManager cacheManager) {
+        super(delegate, cacheManager);
+        this.cacheManager = cacheManager;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        Cache cache = cacheManager.getCache(SERVICE_INSTANCE_CACHE_NAME);
+        if (cache == null) {
+            return null;
+        }
+        List<ServiceInstance> instances = cache.get(getServiceId(), List.class);
+        return instances == null || instances.isEmpty() ? null : instances;
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.util.List;
+
+/**
+ * 可同步读取实例列表快照的服务实例列表提供器
+ *
+ * <pre>
+ * {@link ServiceInstanceListSupplier#get(Request)} 每次调用都要组装 Flux，阻塞式调用方还需要 block 等待结果。
+ * 已经持有实例列表快照的提供器实现本接口，直接在调用线程上返回快照，不创建任何 Reactor 对象：
+ *
+ * 1. 基础提供器 (带缓存的提供器) 返回当前快照，缓存尚未加载、已失效或需要等待刷新时返回 null
+ * 2. 装饰器提供器通过 {@link #getNow(ServiceInstanceListSupplier, Request)} 读取委托的快照，
+ *    委托返回 null 时同样返回 null，否则对快照执行与 get 相同的变换
+ *
+ * 返回 null 表示调用方应退回响应式路径 {@link ServiceInstanceListSupplier#get(Request)}，
+ * 由其完成首次加载或刷新；返回空列表表示确实没有可用实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public interface SynchronousServiceInstanceListSupplier extends ServiceInstanceListSupplier {
+
+    /**
+     * 同步获取实例列表快照
+     *
+     * @return 实例列表，需要退回响应式路径时返回 null
+     */
+    @SuppressWarnings("rawtypes")
+    List<ServiceInstance> getNow(Request request);
+
+    /**
+     * 同步获取任意提供器的实例列表快照，提供器未实现本接口时返回 null
+     */
+    @SuppressWarnings("rawtypes")
+    static List<ServiceInstance> getNow(ServiceInstanceListSupplier supplier, Request request) {
+        return supplier instanceof SynchronousServiceInstanceListSupplier synchronous
+                ? synchronous.getNow(request) : null;
+    }
+}
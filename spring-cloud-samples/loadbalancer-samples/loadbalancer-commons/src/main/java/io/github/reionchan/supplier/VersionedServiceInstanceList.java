@@ -0,0 +1,68 @@
+package io.github.reionchan.supplier;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 带版本号的不可变服务实例列表
+ *
+ * <pre>
+ * 由 {@link EventDrivenServiceInstanceListSupplier} 在实例成员变化时发出，同一来源的版本号单调递增，
+ * 成员未变化时下游收到的始终是同一个列表对象。
+ * 下游装饰器可以通过 {@link #version()} 判断列表是否变化；
+ * 与同一来源的另一版本比较时 equals 只比较版本号，不再逐个比较实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public final class VersionedServiceInstanceList extends AbstractList<ServiceInstance> implements RandomAccess {
+
+    private final Object origin;
+
+    private final long version;
+
+    private final List<ServiceInstance> instances;
+
+    VersionedServiceInstanceList(Object origin, long version, List<ServiceInstance> instances) {
+        this.origin = origin;
+        this.version = version;
+        this.instances = List.copyOf(instances);
+    }
+
+    /**
+     * 列表版本号，成员每变化一次加一
+     */
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public ServiceInstance get(int index) {
+        return instances.get(index);
+    }
+
+    @Override
+    public int size() {
+        return instances.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof VersionedServiceInstanceList other && other.origin == origin) {
+            return other.version == version;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.reionchan.supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerZoneConfig;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于区域负载溢出的服务实例列表提供器
+ *
+ * <pre>
+ * {@link org.springframework.cloud.loadbalancer.core.ZonePreferenceServiceInstanceListSupplier} 只在本区域没有实例时
+ * 才使用其他区域的实例，本区域实例过载时依然承担全部流量。本提供器：
+ *
+ * 1. 按实例元数据 zone 将实例分为本区域与其他区域，分区结果只在实例列表变化时重新计算
+ * 2. 本区域实例的平均在途请求数不超过 spilloverThreshold 时，只返回本区域实例
+ * 3. 超过阈值时，超出部分的比例 (平均在途请求数 - 阈值) / 平均在途请求数 的请求溢出到其他区域，
+ *    其他区域的平均在途请求数不低于本区域时不溢出
+ * 4. 本区域没有实例或未配置区域时，返回全部实例
+ *
+ * 在途请求数由 {@link InFlightRequestTracker} 统计，它需要注册为负载均衡子上下文中的 Bean。
+ *
+ * 提供 MeterRegistry 时记录以下指标，均带有 serviceId 标签：
+ *   loadbalancer.zone.requests          选择次数 Counter，locality 标签为 IN_ZONE / SPILLOVER / ALL_ZONES
+ *   loadbalancer.zone.in-zone.ratio     当前留在本区域的请求比例 Gauge
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+public class ZoneAwareServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier
+        implements SynchronousServiceInstanceListSupplier {
+
+    private static final String ZONE = "zone";
+
+    public static final double DEFAULT_SPILLOVER_THRESHOLD = 8;
+
+    private final LoadBalancerZoneConfig zoneConfig;
+
+    private final InFlightRequestTracker tracker;
+
+    private final double spilloverThreshold;
+
+    private final Counter inZoneCounter;
+
+    private final Counter spilloverCounter;
+
+    private final Counter allZonesCounter;
+
+    private volatile Partition partition;
+
+    private volatile double inZoneRatio = 1.0;
+
+    public ZoneAwareServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, LoadBalancerZoneConfig zoneConfig,
+                                                InFlightRequestTracker tracker) {
+        this(delegate, zoneConfig, tracker, DEFAULT_SPILLOVER_THRESHOLD, null);
+    }
+
+    public ZoneAwareServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, LoadBalancerZoneConfig zoneConfig,
+                                                InFlightRequestTracker tracker, double spilloverThreshold,
+                                                MeterRegistry meterRegistry) {
+        super(delegate);
+        this.zoneConfig = zoneConfig;
+        this.tracker = tracker;
+        this.spilloverThreshold = spilloverThreshold;
+        if (meterRegistry != null) {
+            this.inZoneCounter = selectionCounter(meterRegistry, "IN_ZONE");
+            this.spilloverCounter = selectionCounter(meterRegistry, "SPILLOVER");
+            this.allZonesCounter = selectionCounter(meterRegistry, "ALL_ZONES");
+            Gauge.builder("loadbalancer.zone.in-zone.ratio", this, ZoneAwareServiceInstanceListSupplier::inZoneRatio)
+                    .tag("serviceId", getServiceId())
+                    .description("Share of requests currently kept in the local zone")
+                    .register(meterRegistry);
+        } else {
+            this.inZoneCounter = null;
+            this.spilloverCounter = null;
+            this.allZonesCounter = null;
+        }
+    }
+
+    private Counter selectionCounter(MeterRegistry meterRegistry, String locality) {
+        return Counter.builder("loadbalancer.zone.requests")
+                .tag("serviceId", getServiceId())
+                .tag("locality", locality)
+                .description("Number of instance list selections by locality")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::selectByZone);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(this::selectByZone);
+    }
+
+    @Override
+    public List<ServiceInstance> getNow(Request request) {
+        List<ServiceInstance> instances = SynchronousServiceInstanceListSupplier.getNow(delegate, request);
+        return instances == null ? null : selectByZone(instances);
+    }
+
+    private List<ServiceInstance> selectByZone(List<ServiceInstance> instances) {
+        Partition current = partition(instances);
+        if (current.local.isEmpty() || current.remote.isEmpty()) {
+            inZoneRatio = current.local.isEmpty() ? 0.0 : 1.0;
+            increment(current.local.isEmpty() ? allZonesCounter : inZoneCounter);
+            return instances;
+        }
+        double localLoad = averageInFlight(current.local);
+        double spillover = 0;
+        if (localLoad > spilloverThreshold && averageInFlight(current.remote) < localLoad) {
+            spillover = (localLoad - spilloverThreshold) / localLoad;
+        }
+        inZoneRatio = 1.0 - spillover;
+        if (spillover > 0 && ThreadLocalRandom.current().nextDouble() < spillover) {
+            increment(spilloverCounter);
+            return current.remote;
+        }
+        increment(inZoneCounter);
+        return current.local;
+    }
+
+    private double averageInFlight(List<ServiceInstance> instances) {
+        long sum = 0;
+        for (int i = 0; i < instances.size(); i++) {
+            sum += tracker.inFlight(instances.get(i));
+        }
+        return sum / (double) instances.size();
+    }
+
+    private Partition partition(List<ServiceInstance> instances) {
+        Partition current = partition;
+        if (current != null && (current.source == instances || current.source.equals(instances))) {
+            return current;
+        }
+        String zone = zoneConfig.getZone();
+        List<ServiceInstance> local = new ArrayList<>();
+        List<ServiceInstance> remote = new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            if (zone != null && zone.equalsIgnoreCase(getZone(instance))) {
+                local.add(instance);
+            } else {
+                remote.add(instance);
+            }
+        }
+        current = new Partition(instances, List.copyOf(local), List.copyOf(remote));
+        partition = current;
+        log.debug("Partitioned service {} into {} in-zone and {} other-zone instances", getServiceId(),
+                local.size(), remote.size());
+        return current;
+    }
+
+    private static String getZone(ServiceInstance serviceInstance) {
+        Map<String, String> metadata = serviceInstance.getMetadata();
+        return metadata == null ? null : metadata.get(ZONE);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 当前留在本区域的请求比例
+     */
+    public double inZoneRatio() {
+        return inZoneRatio;
+    }
+
+    private record Partition(List<ServiceInstance> source, List<ServiceInstance> local, List<ServiceInstance> remote) {
+    }
+}
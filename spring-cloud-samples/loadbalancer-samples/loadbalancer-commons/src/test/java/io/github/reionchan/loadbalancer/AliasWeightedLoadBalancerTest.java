@@ -0,0 +1,66 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceList;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class AliasWeightedLoadBalancerTest {
+
+    private final ServiceInstance light = instance("light", 8081, "2");
+    private final ServiceInstance heavy = instance("heavy", 8082, "8");
+
+    @Test
+    public void selectsProportionallyToWeight() {
+        ServiceInstanceListSupplier supplier = new AliasWeightedServiceInstanceListSupplier(
+                ServiceInstanceListSuppliers.from("loadbalancer", light, heavy));
+        AliasWeightedLoadBalancer loadBalancer = new AliasWeightedLoadBalancer(
+                new SimpleObjectProvider<>(supplier), "loadbalancer");
+
+        int heavyPicks = 0;
+        int total = 20000;
+        for (int i = 0; i < total; i++) {
+            if (loadBalancer.choose().block().getServer() == heavy) {
+                heavyPicks++;
+            }
+        }
+        assertThat((double) heavyPicks / total).isCloseTo(0.8, within(0.02));
+    }
+
+    @Test
+    public void aliasTableIsReusedUntilInstancesChange() {
+        ServiceInstanceListSupplier supplier = new AliasWeightedServiceInstanceListSupplier(
+                ServiceInstanceListSuppliers.from("loadbalancer", light, heavy));
+        List<ServiceInstance> first = supplier.get().blockFirst();
+        List<ServiceInstance> second = supplier.get().blockFirst();
+
+        assertThat(first).isInstanceOf(AliasWeightedServiceInstanceList.class).containsExactly(light, heavy);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void readsNacosWeightWhenWeightMetadataMissing() {
+        ServiceInstance nacos = new DefaultServiceInstance("nacos", "loadbalancer", "127.0.0.1", 8083, false,
+                Map.of("nacos.weight", "0.5"));
+        assertThat(AliasWeightedServiceInstanceList.metadataWeight(nacos)).isEqualTo(0.5);
+        assertThat(AliasWeightedServiceInstanceList.metadataWeight(instance("bad", 8084, "x"))).isEqualTo(1.0);
+    }
+
+    private static ServiceInstance instance(String id, int port, String weight) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false, Map.of("weight", weight));
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.reionchan.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ConsistentHashLoadBalancerTest {
+
+    private static final int KEYS = 2000;
+
+    private final RequestHashKeyResolver keyResolver = RequestHashKeyResolver.firstOf(
+            RequestHashKeyResolver.header("X-Hash-Key"),
+            RequestHashKeyResolver.pathVariable("/get/user/{id}", "id"));
+
+    @Test
+    public void sameKeyAlwaysChoosesSameInstance() {
+        ConsistentHashLoadBalancer loadBalancer = loadBalancer(instances(3));
+        ServiceInstance first = choose(loadBalancer, "/get/user/42", null);
+        for (int i = 0; i < 10; i++) {
+            assertThat(choose(loadBalancer, "/get/user/42", null)).isEqualTo(first);
+        }
+        assertThat(choose(loadBalancer, "/server/address", "42")).isEqualTo(first);
+    }
+
+    @Test
+    public void addingInstanceRemapsAboutOneNthOfKeys() {
+        ConsistentHashLoadBalancer three = loadBalancer(instances(3));
+        ConsistentHashLoadBalancer four = loadBalancer(instances(4));
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            ServiceInstance before = choose(three, "/server/address", "user-" + i);
+            ServiceInstance after = choose(four, "/server/address", "user-" + i);
+            if (!before.equals(after)) {
+                moved++;
+                // 改变归属的键只会移动到新加入的实例上
+                assertThat(after.getPort()).isEqualTo(9003);
+            }
+        }
+        assertThat(moved / (double) KEYS).isBetween(0.15, 0.35);
+    }
+
+    @Test
+    public void spillsOverWhenTargetReachesCapacity() {
+        ServiceInstance[] instances = instances(2);
+        ConsistentHashLoadBalancer loadBalancer = loadBalancer(instances);
+        ServiceInstance target = choose(loadBalancer, "/server/address", "hot-key");
+        ServiceInstance other = target.equals(instances[0]) ? instances[1] : instances[0];
+
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> targetResponse = new DefaultResponse(target);
+        loadBalancer.onStartRequest(request, targetResponse);
+        loadBalancer.onStartRequest(request, targetResponse);
+
+        // capacity = ceil(1.25 * (2 + 1) / 2) = 2，目标实例已满
+        assertThat(choose(loadBalancer, "/server/address", "hot-key")).isEqualTo(other);
+
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, targetResponse));
+        assertThat(loadBalancer.outstanding(target)).isEqualTo(1);
+        assertThat(choose(loadBalancer, "/server/address", "hot-key")).isEqualTo(target);
+    }
+
+    @Test
+    public void prunesDepartedInstancesWhenRingIsRebuilt() {
+        ServiceInstance[] instances = instances(3);
+        List<ServiceInstance> current = new ArrayList<>(List.of(instances));
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer(
+                new SimpleObjectProvider<>(new ServiceInstanceListSupplier() {
+                    @Override
+                    public String getServiceId() {
+                        return "loadbalancer";
+                    }
+
+                    @Override
+                    public Flux<List<ServiceInstance>> get() {
+                        return Flux.just(List.copyOf(current));
+                    }
+                }), "loadbalancer", keyResolver);
+        choose(loadBalancer, "/server/address", "user-0");
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = new DefaultResponse(instances[2]);
+        loadBalancer.onStartRequest(request, response);
+        assertThat(loadBalancer.trackedInstances()).hasSize(3);
+
+        // 无在途请求的实例下线后立即移除，仍有在途请求的实例保留到请求完成后的下一次重建
+        current.remove(instances[1]);
+        current.remove(instances[2]);
+        current.add(instances(4)[3]);
+        choose(loadBalancer, "/server/address", "user-0");
+        assertThat(loadBalancer.trackedInstances())
+                .containsExactlyInAnyOrder("127.0.0.1:9000", "127.0.0.1:9003", "127.0.0.1:9002");
+        assertThat(loadBalancer.outstanding(instances[2])).isEqualTo(1);
+
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        current.remove(0);
+        current.add(instances[1]);
+        choose(loadBalancer, "/server/address", "user-0");
+        assertThat(loadBalancer.trackedInstances()).containsExactlyInAnyOrder("127.0.0.1:9003", "127.0.0.1:9001");
+    }
+
+    private ConsistentHashLoadBalancer loadBalancer(ServiceInstance... instances) {
+        return new ConsistentHashLoadBalancer(ServiceInstanceListSuppliers.toProvider("loadbalancer", instances),
+                "loadbalancer", keyResolver);
+    }
+
+    private static ServiceInstance[] instances(int count) {
+        ServiceInstance[] instances = new ServiceInstance[count];
+        for (int i = 0; i < count; i++) {
+            instances[i] = new DefaultServiceInstance("instance-" + i, "loadbalancer", "127.0.0.1", 9000 + i, false);
+        }
+        return instances;
+    }
+
+    private static ServiceInstance choose(ConsistentHashLoadBalancer loadBalancer, String path, String hashKey) {
+        HttpHeaders headers = new HttpHeaders();
+        if (hashKey != null) {
+            headers.add("X-Hash-Key", hashKey);
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://loadbalancer" + path), headers,
+                new LinkedMultiValueMap<>(), attributes);
+        return loadBalancer.choose(new DefaultRequest<>(new RequestDataContext(requestData))).block().getServer();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.reionchan.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class LeastRequestLoadBalancerTest {
+
+    private final ServiceInstance busy = new DefaultServiceInstance("busy", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance idle = new DefaultServiceInstance("idle", "loadbalancer", "127.0.0.1", 8082, false);
+
+    private final LeastRequestLoadBalancer loadBalancer = new LeastRequestLoadBalancer(
+            ServiceInstanceListSuppliers.toProvider("loadbalancer", busy, idle), "loadbalancer");
+
+    @Test
+    public void choosesInstanceWithFewerOutstandingRequests() {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> busyResponse = new DefaultResponse(busy);
+        loadBalancer.onStartRequest(request, busyResponse);
+        loadBalancer.onStartRequest(request, busyResponse);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(loadBalancer.choose().block().getServer()).isSameAs(idle);
+        }
+
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, busyResponse));
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, request, busyResponse));
+        assertThat(loadBalancer.outstanding(busy)).isZero();
+    }
+
+    @Test
+    public void keepsCountOfDepartedInstanceUntilRequestsComplete() {
+        List<ServiceInstance> instances = new ArrayList<>(List.of(busy, idle));
+        LeastRequestLoadBalancer loadBalancer = new LeastRequestLoadBalancer(
+                new SimpleObjectProvider<>(new ServiceInstanceListSupplier() {
+                    @Override
+                    public String getServiceId() {
+                        return "loadbalancer";
+                    }
+
+                    @Override
+                    public Flux<List<ServiceInstance>> get() {
+                        return Flux.just(List.copyOf(instances));
+                    }
+                }), "loadbalancer");
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> busyResponse = new DefaultResponse(busy);
+        loadBalancer.onStartRequest(request, busyResponse);
+
+        // 仍有在途请求的实例下线时计数保留，请求完成后正常归还
+        instances.remove(busy);
+        assertThat(loadBalancer.choose().block().getServer()).isSameAs(idle);
+        assertThat(loadBalancer.outstanding(busy)).isEqualTo(1);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, busyResponse));
+        assertThat(loadBalancer.outstanding(busy)).isZero();
+
+        instances.add(busy);
+        loadBalancer.choose().block();
+        assertThat(loadBalancer.outstanding(busy)).isZero();
+    }
+}
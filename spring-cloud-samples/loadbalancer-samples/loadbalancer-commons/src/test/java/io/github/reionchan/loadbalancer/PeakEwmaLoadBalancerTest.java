@@ -0,0 +1,101 @@
+package io.github.reionchan.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class PeakEwmaLoadBalancerTest {
+
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance fast1 = new DefaultServiceInstance("fast1", "loadbalancer", "127.0.0.1", 8082, false);
+    private final ServiceInstance fast2 = new DefaultServiceInstance("fast2", "loadbalancer", "127.0.0.1", 8083, false);
+
+    private PeakEwmaLoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void setup() {
+        loadBalancer = new PeakEwmaLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("loadbalancer", slow, fast1, fast2), "loadbalancer");
+    }
+
+    @Test
+    public void trafficMovesOffDegradedInstance() {
+        for (int i = 0; i < 5; i++) {
+            call(slow, 200);
+            call(fast1, 10);
+            call(fast2, 10);
+        }
+        int slowPicks = 0;
+        for (int i = 0; i < 1000; i++) {
+            ServiceInstance chosen = loadBalancer.choose().block().getServer();
+            if (chosen == slow) {
+                slowPicks++;
+            }
+        }
+        assertThat(slowPicks).isLessThan(50);
+    }
+
+    @Test
+    public void pendingInstanceWithoutSamplesIsPenalized() {
+        call(fast1, 10);
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        loadBalancer.onStartRequest(request, new DefaultResponse(slow));
+
+        long now = System.nanoTime();
+        assertThat(loadBalancer.cost(slow, now)).isGreaterThan(loadBalancer.cost(fast1, now));
+        // 尚无任何统计的实例代价为 0，可以立即获得探测流量
+        assertThat(loadBalancer.cost(fast2, now)).isZero();
+    }
+
+    @Test
+    public void prunesDepartedInstances() {
+        List<ServiceInstance> instances = new ArrayList<>(List.of(slow, fast1, fast2));
+        loadBalancer = new PeakEwmaLoadBalancer(new SimpleObjectProvider<>(new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "loadbalancer";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.copyOf(instances));
+            }
+        }), "loadbalancer");
+        call(slow, 200);
+        call(fast1, 10);
+        assertThat(loadBalancer.cost(slow, System.nanoTime())).isPositive();
+
+        // 下线后评分被移除，重新上线的同一地址从零开始
+        instances.remove(slow);
+        loadBalancer.choose().block();
+        instances.add(slow);
+        loadBalancer.choose().block();
+        assertThat(loadBalancer.cost(slow, System.nanoTime())).isZero();
+        assertThat(loadBalancer.cost(fast1, System.nanoTime())).isPositive();
+    }
+
+    private void call(ServiceInstance instance, long rttMillis) {
+        DefaultRequestContext context = new DefaultRequestContext();
+        context.setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        Request<Object> request = new DefaultRequest<>(context);
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+    }
+}
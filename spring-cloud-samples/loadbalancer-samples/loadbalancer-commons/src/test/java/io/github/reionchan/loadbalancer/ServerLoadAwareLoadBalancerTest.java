@@ -0,0 +1,127 @@
+package io.github.reionchan.loadbalancer;
+
+import io.github.reionchan.loadbalancer.support.ServerLoadReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadAwareLoadBalancerTest {
+
+    private final ServiceInstance hot = new DefaultServiceInstance("hot", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance idle1 = new DefaultServiceInstance("idle1", "loadbalancer", "127.0.0.1", 8082, false);
+    private final ServiceInstance idle2 = new DefaultServiceInstance("idle2", "loadbalancer", "127.0.0.1", 8083, false);
+
+    private ServerLoadAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void setup() {
+        loadBalancer = new ServerLoadAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("loadbalancer", hot, idle1, idle2), "loadbalancer");
+    }
+
+    @Test
+    public void trafficMovesOffHeavilyLoadedInstance() {
+        call(hot, "cpu=0.95,queue=12,inflight=20");
+        call(idle1, "cpu=0.1,queue=0,inflight=1");
+        call(idle2, "cpu=0.15,queue=0,inflight=2");
+
+        assertThat(loadBalancer.utilization(hot)).isCloseTo(0.95 + 1.2, within(0.01));
+        int hotPicks = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (loadBalancer.choose().block().getServer() == hot) {
+                hotPicks++;
+            }
+        }
+        assertThat(hotPicks).isZero();
+    }
+
+    @Test
+    public void failureWithoutReportCountsAsSaturated() {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = new DefaultResponse(hot);
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                new IllegalStateException("connect timed out"), request, response));
+
+        assertThat(loadBalancer.utilization(hot)).isCloseTo(1.0, within(0.01));
+        // 成功但未携带报告的响应不更新评分
+        call(idle1, null);
+        assertThat(loadBalancer.utilization(idle1)).isZero();
+    }
+
+    @Test
+    public void evictsDepartedAndStaleScores() {
+        List<ServiceInstance> instances = new ArrayList<>(List.of(hot, idle1, idle2));
+        loadBalancer = new ServerLoadAwareLoadBalancer(new SimpleObjectProvider<>(new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "loadbalancer";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.copyOf(instances));
+            }
+        }), "loadbalancer", ServerLoadAwareLoadBalancer.DEFAULT_DECAY_TIME,
+                ServerLoadAwareLoadBalancer.DEFAULT_QUEUE_WEIGHT, Duration.ofSeconds(1));
+        call(hot, "cpu=0.95,queue=0,inflight=20");
+        call(idle1, "cpu=0.5,queue=0,inflight=1");
+
+        // 下线后评分被移除，重新注册的同一地址不沿用旧评分
+        instances.remove(hot);
+        loadBalancer.choose().block();
+        instances.add(hot);
+        loadBalancer.choose().block();
+        assertThat(loadBalancer.utilization(hot)).isZero();
+
+        // 超过过期时间的评分按未收到报告处理
+        long later = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        assertThat(loadBalancer.utilization(idle1)).isPositive();
+        assertThat(loadBalancer.cost(idle1, later)).isEqualTo(ServerLoadAwareLoadBalancer.BASE_COST);
+        assertThat(loadBalancer.utilization(idle1)).isZero();
+    }
+
+    @Test
+    public void parseIgnoresUnknownKeysAndRejectsMalformedValues() {
+        assertThat(ServerLoadReport.parse("cpu=0.5, queue=2, inflight=4, rps=120"))
+                .isEqualTo(new ServerLoadReport(0.5, 2, 4));
+        assertThat(ServerLoadReport.parse(new ServerLoadReport(0.4216, 0, 3).toHeaderValue()))
+                .isEqualTo(new ServerLoadReport(0.422, 0, 3));
+        assertThat(ServerLoadReport.parse("cpu=high")).isNull();
+        assertThat(ServerLoadReport.parse("garbage")).isNull();
+        assertThat(ServerLoadReport.parse(null)).isNull();
+    }
+
+    private void call(ServiceInstance instance, String load) {
+        HttpHeaders headers = new HttpHeaders();
+        if (load != null) {
+            headers.set(ServerLoadReport.HEADER, load);
+        }
+        ResponseData responseData = new ResponseData(HttpStatus.OK, headers, new LinkedMultiValueMap<>(), null);
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response,
+                responseData));
+    }
+}
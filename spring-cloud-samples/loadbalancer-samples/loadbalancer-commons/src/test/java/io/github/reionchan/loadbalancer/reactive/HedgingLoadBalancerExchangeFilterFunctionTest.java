@@ -0,0 +1,190 @@
+package io.github.reionchan.loadbalancer.reactive;
+
+import io.github.reionchan.supplier.InFlightRequestTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class HedgingLoadBalancerExchangeFilterFunctionTest {
+
+    private final ServiceInstance slowInstance = instance("slow", 8081);
+    private final ServiceInstance fastInstance = instance("fast", 8082);
+
+    private final InFlightRequestTracker tracker = new InFlightRequestTracker();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    /**
+     * 8081 实例 300ms 后才响应，8082 实例立即响应
+     */
+    private final ExchangeFunction exchangeFunction = request -> {
+        exchanges.incrementAndGet();
+        ServiceInstance instance = request.url().getPort() == 8081 ? slowInstance : fastInstance;
+        Mono<ClientResponse> response = Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header("X-Instance", instance.getInstanceId()).build());
+        return instance == slowInstance
+                ? response.delayElement(Duration.ofMillis(300)).doOnCancel(cancelled::incrementAndGet)
+                : response;
+    };
+
+    @Test
+    public void hedgesSlowRequestToAnotherInstance() {
+        HedgingLoadBalancerExchangeFilterFunction filter = filter(100);
+
+        ClientResponse response = filter.filter(request(HttpMethod.GET), exchangeFunction).block();
+
+        assertThat(response.headers().header("X-Instance")).containsExactly("fast");
+        assertThat(exchanges).hasValue(2);
+        assertThat(cancelled).hasValue(1);
+        assertThat(tracker.inFlight(slowInstance)).isZero();
+        assertThat(tracker.inFlight(fastInstance)).isZero();
+        assertThat(meterRegistry.get("loadbalancer.hedge.requests").tag("outcome", "SENT").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("loadbalancer.hedge.requests").tag("outcome", "WON").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void waitsForHedgeWhenPrimaryFails() {
+        HedgingLoadBalancerExchangeFilterFunction filter = filter(100);
+        // 原始请求 100ms 后失败，对冲请求 20ms 后发出、再过 150ms 成功
+        ExchangeFunction failingPrimary = request -> {
+            exchanges.incrementAndGet();
+            if (request.url().getPort() == 8081) {
+                return Mono.<ClientResponse>error(new IllegalStateException("primary failed"))
+                        .delaySubscription(Duration.ofMillis(100));
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK).header("X-Instance", "fast").build())
+                    .delayElement(Duration.ofMillis(150));
+        };
+
+        ClientResponse response = filter.filter(request(HttpMethod.GET), failingPrimary).block();
+
+        assertThat(response.headers().header("X-Instance")).containsExactly("fast");
+        assertThat(exchanges).hasValue(2);
+        assertThat(tracker.inFlight(slowInstance)).isZero();
+        assertThat(tracker.inFlight(fastInstance)).isZero();
+
+        // 两者均失败时才返回错误
+        ExchangeFunction failingBoth = request -> Mono.<ClientResponse>error(
+                new IllegalStateException("failed on " + request.url().getPort()))
+                .delaySubscription(Duration.ofMillis(request.url().getPort() == 8081 ? 100 : 150));
+        assertThatThrownBy(() -> filter.filter(request(HttpMethod.GET), failingBoth).block())
+                .hasMessage("failed on 8081")
+                .satisfies(throwable -> assertThat(throwable.getSuppressed())
+                        .anyMatch(suppressed -> "failed on 8082".equals(suppressed.getMessage())));
+    }
+
+    @Test
+    public void doesNotHedgeWithoutBudget() {
+        HedgingLoadBalancerExchangeFilterFunction filter = filter(0);
+
+        ClientResponse response = filter.filter(request(HttpMethod.GET), exchangeFunction).block();
+
+        assertThat(response.headers().header("X-Instance")).containsExactly("slow");
+        assertThat(exchanges).hasValue(1);
+        assertThat(meterRegistry.get("loadbalancer.hedge.requests").tag("outcome", "THROTTLED").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotHedgeNonIdempotentRequests() {
+        HedgingLoadBalancerExchangeFilterFunction filter = filter(100);
+
+        ClientResponse response = filter.filter(request(HttpMethod.POST), exchangeFunction).block();
+
+        assertThat(response.headers().header("X-Instance")).containsExactly("slow");
+        assertThat(exchanges).hasValue(1);
+    }
+
+    @Test
+    public void budgetCapsHedgesAtConfiguredPercentage() {
+        HedgeBudget budget = new HedgeBudget(10, 10);
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+        assertThat(hedges).isEqualTo(100);
+    }
+
+    private HedgingLoadBalancerExchangeFilterFunction filter(double budgetPercent) {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setInitialDelay(Duration.ofMillis(20));
+        properties.setBudgetPercent(budgetPercent);
+        return new HedgingLoadBalancerExchangeFilterFunction(new AlternatingFactory(), List.of(), properties,
+                meterRegistry);
+    }
+
+    private static ClientRequest request(HttpMethod method) {
+        return ClientRequest.create(method, URI.create("http://loadbalancer/server/address")).build();
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false);
+    }
+
+    /**
+     * 依次选择慢实例、快实例的负载均衡器工厂
+     */
+    private class AlternatingFactory implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+        private final AtomicInteger position = new AtomicInteger();
+
+        private final LoadBalancerProperties properties = new LoadBalancerProperties();
+
+        @Override
+        public LoadBalancerProperties getProperties(String serviceId) {
+            return properties;
+        }
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            ReactorServiceInstanceLoadBalancer loadBalancer = request -> Mono.just(new DefaultResponse(
+                    position.getAndIncrement() % 2 == 0 ? slowInstance : fastInstance));
+            return loadBalancer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return LoadBalancerLifecycle.class.equals(type) ? Map.of("tracker", (X) tracker) : Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+    }
+}
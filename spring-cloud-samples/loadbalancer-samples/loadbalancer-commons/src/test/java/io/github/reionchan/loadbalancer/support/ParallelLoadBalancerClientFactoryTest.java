@@ -0,0 +1,172 @@
+package io.github.reionchan.loadbalancer.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.cloud.loadbalancer.core.RandomLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ParallelLoadBalancerClientFactoryTest {
+
+    private static final int SERVICES = 50;
+
+    private final AnnotationConfigApplicationContext parent = new AnnotationConfigApplicationContext();
+
+    private ParallelLoadBalancerClientFactory factory;
+
+    @AfterEach
+    public void close() {
+        factory.destroy();
+        parent.close();
+    }
+
+    @Test
+    public void initializesContextsInParallel() {
+        factory = factory(false);
+        List<String> serviceIds = serviceIds();
+        factory.initialize(serviceIds, 8);
+
+        assertThat(factory.getContextNames()).containsExactlyInAnyOrderElementsOf(serviceIds);
+        ReactorServiceInstanceLoadBalancer loadBalancer = factory.getInstance("service-7",
+                ReactorServiceInstanceLoadBalancer.class);
+        assertThat(loadBalancer).isInstanceOf(RoundRobinLoadBalancer.class);
+        assertThat(loadBalancer.choose().block().getServer().getServiceId()).isEqualTo("service-7");
+    }
+
+    @Test
+    public void createsEachContextOnceUnderConcurrentAccess() {
+        factory = factory(false);
+        List<CompletableFuture<ReactiveLoadBalancer<ServiceInstance>>> futures = IntStream.range(0, 16)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> factory.getInstance("service-1")))
+                .toList();
+        Set<ReactiveLoadBalancer<ServiceInstance>> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        futures.forEach(future -> instances.add(future.join()));
+        assertThat(instances).hasSize(1);
+    }
+
+    @Test
+    public void lightweightModeSkipsContextsWithoutCustomConfiguration() {
+        factory = factory(true);
+        factory.initialize(serviceIds(), 8);
+
+        assertThat(factory.isLightweight("service-3")).isTrue();
+        ReactorServiceInstanceLoadBalancer loadBalancer = factory.getInstance("service-3",
+                ReactorServiceInstanceLoadBalancer.class);
+        assertThat(loadBalancer).isInstanceOf(RoundRobinLoadBalancer.class);
+        Response<ServiceInstance> response = loadBalancer.choose().block();
+        assertThat(response.getServer().getServiceId()).isEqualTo("service-3");
+        assertThat(factory.getInstance("service-3", ServiceInstanceListSupplier.class).getServiceId())
+                .isEqualTo("service-3");
+
+        // 指定了 @LoadBalancerClient 配置的服务仍创建完整子上下文
+        assertThat(factory.isLightweight("custom")).isFalse();
+        assertThat(factory.getInstance("custom")).isInstanceOf(RandomLoadBalancer.class);
+    }
+
+    @Test
+    public void failsFastOnReentrantCreation() {
+        factory = factory(false);
+
+        assertThatThrownBy(() -> factory.getInstance("reentrant"))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasStackTraceContaining("being created on the same thread");
+        assertThat(factory.getContextNames()).doesNotContain("reentrant");
+    }
+
+    @Test
+    public void releasesPlaceholderWhenCreationFailsWithError() {
+        AtomicInteger attempts = new AtomicInteger();
+        factory = new ParallelLoadBalancerClientFactory(new LoadBalancerClientsProperties(), false) {
+            @Override
+            public GenericApplicationContext createContext(String name) {
+                attempts.incrementAndGet();
+                throw new NoClassDefFoundError("missing");
+            }
+        };
+
+        assertThatThrownBy(() -> factory.getInstance("service-1")).isInstanceOf(NoClassDefFoundError.class);
+        // 占位已移除，再次获取时重新创建而不是永久等待
+        assertThat(CompletableFuture.supplyAsync(() -> {
+            try {
+                return factory.getInstance("service-1");
+            } catch (NoClassDefFoundError e) {
+                return null;
+            }
+        }).orTimeout(5, TimeUnit.SECONDS).join()).isNull();
+        assertThat(attempts).hasValue(2);
+    }
+
+    private ParallelLoadBalancerClientFactory factory(boolean lightweight) {
+        SimpleDiscoveryProperties properties = new SimpleDiscoveryProperties();
+        Map<String, List<DefaultServiceInstance>> instances = new HashMap<>();
+        for (String serviceId : serviceIds()) {
+            instances.put(serviceId, List.of(new DefaultServiceInstance(serviceId + "-1", serviceId, "127.0.0.1", 8080, false)));
+        }
+        instances.put("custom", List.of(new DefaultServiceInstance("custom-1", "custom", "127.0.0.1", 8080, false)));
+        properties.setInstances(instances);
+        ParallelLoadBalancerClientFactory clientFactory = new ParallelLoadBalancerClientFactory(
+                new LoadBalancerClientsProperties(), lightweight);
+        clientFactory.setConfigurations(List.of(
+                new LoadBalancerClientSpecification("custom", new Class[]{RandomConfiguration.class}),
+                new LoadBalancerClientSpecification("reentrant", new Class[]{ReentrantConfiguration.class})));
+        parent.registerBean(SimpleDiscoveryClient.class, () -> new SimpleDiscoveryClient(properties));
+        parent.registerBean(ParallelLoadBalancerClientFactory.class, () -> clientFactory);
+        parent.refresh();
+        return clientFactory;
+    }
+
+    private static List<String> serviceIds() {
+        return IntStream.range(0, SERVICES).mapToObj(i -> "service-" + i).toList();
+    }
+
+    static class ReentrantConfiguration {
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> reentrantLoadBalancer(Environment environment,
+                                                                          LoadBalancerClientFactory loadBalancerClientFactory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            loadBalancerClientFactory.getInstance(name, ServiceInstanceListSupplier.class);
+            return new RandomLoadBalancer(loadBalancerClientFactory.getLazyProvider(name,
+                    ServiceInstanceListSupplier.class), name);
+        }
+    }
+
+    static class RandomConfiguration {
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> randomLoadBalancer(Environment environment,
+                                                                       LoadBalancerClientFactory loadBalancerClientFactory) {
+            String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            ObjectProvider<ServiceInstanceListSupplier> provider = loadBalancerClientFactory
+                    .getLazyProvider(name, ServiceInstanceListSupplier.class);
+            return new RandomLoadBalancer(provider, name);
+        }
+    }
+}
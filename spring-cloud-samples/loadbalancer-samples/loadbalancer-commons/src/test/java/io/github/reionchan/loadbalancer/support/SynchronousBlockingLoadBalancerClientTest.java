@@ -0,0 +1,99 @@
+package io.github.reionchan.loadbalancer.support;
+
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.supplier.SynchronousCachingServiceInstanceListSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.loadbalancer.core.CachingServiceInstanceListSupplier.SERVICE_INSTANCE_CACHE_NAME;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class SynchronousBlockingLoadBalancerClientTest {
+
+    private final ServiceInstance instance1 = new DefaultServiceInstance("1", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance instance2 = new DefaultServiceInstance("2", "loadbalancer", "127.0.0.1", 8082, false);
+
+    @Test
+    public void fallsBackToReactivePathOnlyWhileCacheIsCold() {
+        AtomicInteger fetches = new AtomicInteger();
+        ServiceInstanceListSupplier discovery = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "loadbalancer";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.defer(() -> {
+                    fetches.incrementAndGet();
+                    return Flux.just(List.of(instance1, instance2));
+                });
+            }
+        };
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(SERVICE_INSTANCE_CACHE_NAME);
+        SynchronousCachingServiceInstanceListSupplier supplier =
+                new SynchronousCachingServiceInstanceListSupplier(discovery, cacheManager);
+        assertThat(supplier.getNow(null)).isNull();
+
+        AliasWeightedLoadBalancer loadBalancer = new AliasWeightedLoadBalancer(
+                new StaticListableBeanFactory(Map.of("supplier", supplier))
+                        .getBeanProvider(ServiceInstanceListSupplier.class), "loadbalancer");
+        SynchronousBlockingLoadBalancerClient client = new SynchronousBlockingLoadBalancerClient(factory(loadBalancer));
+
+        assertThat(client.choose("loadbalancer")).isIn(instance1, instance2);
+        assertThat(fetches.get()).isEqualTo(1);
+        assertThat(supplier.getNow(null)).containsExactly(instance1, instance2);
+
+        // 缓存已加载，之后的选择直接读取快照
+        assertThat(loadBalancer.chooseNow(null)).isNotNull();
+        for (int i = 0; i < 100; i++) {
+            assertThat(client.choose("loadbalancer")).isIn(instance1, instance2);
+        }
+        assertThat(fetches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void balancerWithoutSynchronousSupportUsesReactivePath() {
+        RoundRobinLoadBalancer loadBalancer = new RoundRobinLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("loadbalancer", instance1, instance2), "loadbalancer");
+        SynchronousBlockingLoadBalancerClient client = new SynchronousBlockingLoadBalancerClient(factory(loadBalancer));
+
+        assertThat(client.choose("loadbalancer")).isIn(instance1, instance2);
+        assertThat(client.choose("unknown")).isNull();
+    }
+
+    private static ReactiveLoadBalancer.Factory<ServiceInstance> factory(ReactiveLoadBalancer<ServiceInstance> loadBalancer) {
+        return new ReactiveLoadBalancer.Factory<>() {
+            @Override
+            public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+                return "loadbalancer".equals(serviceId) ? loadBalancer : null;
+            }
+
+            @Override
+            public <X> Map<String, X> getInstances(String name, Class<X> type) {
+                return Map.of();
+            }
+
+            @Override
+            public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.reionchan.supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final ServiceInstance first = new DefaultServiceInstance("first", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance second = new DefaultServiceInstance("second", "loadbalancer", "127.0.0.1", 8082, false);
+
+    private final AtomicLong clock = new AtomicLong(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InFlightRequestTracker tracker = new InFlightRequestTracker();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(), tracker,
+            meterRegistry, clock::get);
+
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(first, second));
+
+    private final ConcurrencyLimitServiceInstanceListSupplier supplier = new ConcurrencyLimitServiceInstanceListSupplier(
+            new ServiceInstanceListSupplier() {
+                @Override
+                public String getServiceId() {
+                    return "loadbalancer";
+                }
+
+                @Override
+                public Flux<List<ServiceInstance>> get() {
+                    return Flux.just(List.copyOf(instances));
+                }
+            }, limiter);
+
+    @Test
+    public void growsWhileRttIsStableAndShrinksWhenRttRises() {
+        for (int i = 0; i < 20; i++) {
+            round(first, Duration.ofMillis(10));
+        }
+        int grown = limiter.limit(first);
+        assertThat(grown).isGreaterThan(10);
+
+        for (int i = 0; i < 5; i++) {
+            round(first, Duration.ofMillis(50));
+        }
+        assertThat(limiter.limit(first)).isLessThan(grown / 2);
+        assertThat(meterRegistry.get("loadbalancer.requests.limit").tag("serviceInstance.instanceId", "first")
+                .gauge().value()).isEqualTo(limiter.limit(first));
+    }
+
+    @Test
+    public void backsOffOnFailures() {
+        List<Request<Object>> requests = start(first, 1);
+        complete(new CompletionContext<>(CompletionContext.Status.FAILED, new IllegalStateException(),
+                requests.get(0), new DefaultResponse(first)));
+        assertThat(limiter.limit(first)).isEqualTo(9);
+    }
+
+    @Test
+    public void skipsSaturatedInstancesAndRejectsWhenAllAreSaturated() {
+        start(first, 10);
+        assertThat(limiter.isSaturated(first)).isTrue();
+        assertThat(supplier.get().blockFirst()).containsExactly(second);
+        assertThat(meterRegistry.get("loadbalancer.requests.inflight").tag("serviceInstance.instanceId", "first")
+                .gauge().value()).isEqualTo(10);
+
+        start(second, 10);
+        assertThat(supplier.get().blockFirst()).isEmpty();
+        assertThat(meterRegistry.get("loadbalancer.requests.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void prunesDepartedInstances() {
+        supplier.get().blockFirst();
+        List<Request<Object>> requests = start(first, 2);
+        start(second, 1);
+        assertThat(meterRegistry.find("loadbalancer.requests.limit").gauges()).hasSize(2);
+
+        instances.remove(second);
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+        assertThat(meterRegistry.find("loadbalancer.requests.limit").gauges()).hasSize(1);
+        assertThat(meterRegistry.find("loadbalancer.requests.inflight").tag("serviceInstance.instanceId", "second")
+                .gauge()).isNull();
+        // 已下线实例的在途请求完成后不再产生统计
+        assertThat(limiter.inFlight(first)).isEqualTo(2);
+
+        // 仍有在途请求的实例下线时，计数保留到请求完成后的下一次清理
+        instances.remove(first);
+        supplier.get().blockFirst();
+        assertThat(limiter.inFlight(first)).isEqualTo(2);
+        requests.forEach(request -> complete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request,
+                new DefaultResponse(first))));
+        instances.add(second);
+        supplier.get().blockFirst();
+        assertThat(limiter.inFlight(first)).isZero();
+        assertThat(limiter.limit(first)).isEqualTo(10);
+    }
+
+    /**
+     * 以当前并发上限同时发出请求，经过 rtt 后全部完成
+     */
+    private void round(ServiceInstance instance, Duration rtt) {
+        List<Request<Object>> requests = start(instance, limiter.limit(instance));
+        clock.addAndGet(rtt.toNanos());
+        for (Request<Object> request : requests) {
+            complete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, new DefaultResponse(instance)));
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<Request<Object>> start(ServiceInstance instance, int count) {
+        List<Request<Object>> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Request request = new DefaultRequest<>(new DefaultRequestContext());
+            tracker.onStartRequest(request, new DefaultResponse(instance));
+            limiter.onStartRequest(request, new DefaultResponse(instance));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private void complete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        limiter.onComplete(completionContext);
+        tracker.onComplete(completionContext);
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        return properties;
+    }
+}
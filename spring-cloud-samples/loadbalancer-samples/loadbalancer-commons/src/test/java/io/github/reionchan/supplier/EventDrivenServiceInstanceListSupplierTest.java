@@ -0,0 +1,120 @@
+package io.github.reionchan.supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class EventDrivenServiceInstanceListSupplierTest {
+
+    private final List<DefaultServiceInstance> registered = new ArrayList<>(List.of(
+            instance("first", 8081, "v1"), instance("second", 8082, "v1")));
+
+    private final SimpleDiscoveryProperties properties = new SimpleDiscoveryProperties();
+
+    private final SimpleDiscoveryClient discoveryClient = new SimpleDiscoveryClient(properties);
+
+    {
+        properties.setInstances(Map.of("loadbalancer", registered));
+    }
+
+    @Test
+    public void emitsNewVersionOnlyWhenMembershipChanges() {
+        EventDrivenServiceInstanceListSupplier supplier =
+                new EventDrivenServiceInstanceListSupplier(discoveryClient, "loadbalancer");
+
+        List<ServiceInstance> initial = supplier.get().blockFirst();
+        assertThat(initial).hasSize(2);
+        assertThat(((VersionedServiceInstanceList) initial).version()).isEqualTo(1);
+
+        supplier.onApplicationEvent(new HeartbeatEvent(this, 1L));
+        supplier.onApplicationEvent(new InstanceRegisteredEvent<>(this, null));
+        assertThat(supplier.get().blockFirst()).isSameAs(initial);
+
+        registered.set(1, instance("second", 8082, "v2"));
+        supplier.onApplicationEvent(new HeartbeatEvent(this, 2L));
+        List<ServiceInstance> changed = supplier.get().blockFirst();
+        assertThat(((VersionedServiceInstanceList) changed).version()).isEqualTo(2);
+        assertThat(changed.get(1).getMetadata()).containsEntry("version", "v2");
+
+        registered.add(instance("third", 8083, "v1"));
+        // 状态值未变化的心跳不触发拉取
+        supplier.onApplicationEvent(new HeartbeatEvent(this, 2L));
+        assertThat(supplier.version()).isEqualTo(2);
+        supplier.onApplicationEvent(new HeartbeatEvent(this, 3L));
+        assertThat(supplier.get().blockFirst()).hasSize(3);
+        assertThat(supplier.version()).isEqualTo(3);
+    }
+
+    @Test
+    public void downstreamDecoratorReusesResultForUnchangedVersion() {
+        EventDrivenServiceInstanceListSupplier supplier =
+                new EventDrivenServiceInstanceListSupplier(discoveryClient, "loadbalancer");
+        AliasWeightedServiceInstanceListSupplier weighted = new AliasWeightedServiceInstanceListSupplier(supplier);
+
+        List<ServiceInstance> first = weighted.get().blockFirst();
+        supplier.onApplicationEvent(new HeartbeatEvent(this, 1L));
+        assertThat(weighted.get().blockFirst()).isSameAs(first);
+    }
+
+    @Test
+    public void listensOnEventSourceUntilDestroyed() {
+        GenericApplicationContext parent = new GenericApplicationContext();
+        parent.refresh();
+        EventDrivenServiceInstanceListSupplier supplier =
+                new EventDrivenServiceInstanceListSupplier(discoveryClient, "loadbalancer", parent);
+        supplier.get().blockFirst();
+
+        registered.remove(0);
+        parent.publishEvent(new HeartbeatEvent(this, 1L));
+        assertThat(supplier.version()).isEqualTo(2);
+
+        supplier.destroy();
+        registered.remove(0);
+        parent.publishEvent(new HeartbeatEvent(this, 2L));
+        assertThat(supplier.version()).isEqualTo(2);
+        parent.close();
+    }
+
+    @Test
+    public void stopsListeningWhenOwningContextCloses() {
+        GenericApplicationContext parent = new GenericApplicationContext();
+        parent.refresh();
+        GenericApplicationContext child = new GenericApplicationContext(parent);
+        child.refresh();
+        // 装饰链中的基础提供器不是 Bean，不会被调用 destroy()
+        EventDrivenServiceInstanceListSupplier supplier =
+                new EventDrivenServiceInstanceListSupplier(discoveryClient, "loadbalancer", child);
+        supplier.get().blockFirst();
+
+        registered.remove(0);
+        parent.publishEvent(new HeartbeatEvent(this, 1L));
+        assertThat(supplier.version()).isEqualTo(2);
+        assertThat(parent.getApplicationListeners()).contains(supplier);
+
+        child.close();
+        assertThat(parent.getApplicationListeners()).doesNotContain(supplier);
+        registered.remove(0);
+        parent.publishEvent(new HeartbeatEvent(this, 2L));
+        assertThat(supplier.version()).isEqualTo(2);
+        parent.close();
+    }
+
+    private static DefaultServiceInstance instance(String id, int port, String version) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false, Map.of("version", version));
+    }
+}
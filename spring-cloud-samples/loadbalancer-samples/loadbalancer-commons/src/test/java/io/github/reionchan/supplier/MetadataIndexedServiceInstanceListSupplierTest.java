@@ -0,0 +1,76 @@
+package io.github.reionchan.supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class MetadataIndexedServiceInstanceListSupplierTest {
+
+    private final ServiceInstance v1Foo = instance("v1-foo", 8081, "v1", "foo-hint", "bar-zone");
+    private final ServiceInstance v1Bar = instance("v1-bar", 8082, "v1", "bar-hint", "bar-zone");
+    private final ServiceInstance v2Foo = instance("v2-foo", 8083, "v2", "foo-hint", "foo-zone");
+    private final ServiceInstance v2Bar = instance("v2-bar", 8084, "v2", "bar-hint", "bar-zone");
+
+    private final MetadataIndexedServiceInstanceListSupplier supplier = new MetadataIndexedServiceInstanceListSupplier(
+            ServiceInstanceListSuppliers.from("loadbalancer", v1Foo, v1Bar, v2Foo, v2Bar),
+            List.of(new MetadataRoute("version", "X-SC-LB-Version", null),
+                    new MetadataRoute("hint", "X-SC-LB-Hint", "foo-hint"),
+                    new MetadataRoute("zone", "X-SC-LB-Zone", null)));
+
+    @Test
+    public void matchesAllRequestedKeys() {
+        assertThat(get(Map.of("X-SC-LB-Version", "v2", "X-SC-LB-Hint", "bar-hint"))).containsExactly(v2Bar);
+        assertThat(get(Map.of("X-SC-LB-Hint", "bar-hint", "X-SC-LB-Zone", "bar-zone"))).containsExactly(v1Bar, v2Bar);
+    }
+
+    @Test
+    public void fallsBackByDroppingLastKeyFirst() {
+        // 不存在 v2 + foo-hint + bar-zone 的实例，放弃 zone 后匹配 v2-foo
+        assertThat(get(Map.of("X-SC-LB-Version", "v2", "X-SC-LB-Zone", "bar-zone"))).containsExactly(v2Foo);
+        // 不存在 v3 的实例，全部条件放弃后返回全部实例
+        assertThat(get(Map.of("X-SC-LB-Version", "v3"))).containsExactly(v1Foo, v1Bar, v2Foo, v2Bar);
+    }
+
+    @Test
+    public void usesDefaultValueWithoutHeader() {
+        assertThat(get(Map.of())).containsExactly(v1Foo, v2Foo);
+        assertThat(supplier.get().blockFirst()).containsExactly(v1Foo, v2Foo);
+    }
+
+    @Test
+    public void reusesIndexForSameInstanceList() {
+        List<ServiceInstance> first = get(Map.of("X-SC-LB-Version", "v1"));
+        assertThat(get(Map.of("X-SC-LB-Version", "v1"))).isSameAs(first);
+    }
+
+    private List<ServiceInstance> get(Map<String, String> headerValues) {
+        HttpHeaders headers = new HttpHeaders();
+        headerValues.forEach(headers::add);
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://loadbalancer/server/address"),
+                headers, new LinkedMultiValueMap<>(), new HashMap<>());
+        return supplier.get(new DefaultRequest<>(new RequestDataContext(requestData))).blockFirst();
+    }
+
+    private static ServiceInstance instance(String id, int port, String version, String hint, String zone) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false,
+                Map.of("version", version, "hint", hint, "zone", zone));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.reionchan.supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class OutlierEjectionServiceInstanceListSupplierTest {
+
+    private final ServiceInstance healthy = new DefaultServiceInstance("healthy", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance faulty = new DefaultServiceInstance("faulty", "loadbalancer", "127.0.0.1", 8082, false);
+    private final ServiceInstance other = new DefaultServiceInstance("other", "loadbalancer", "127.0.0.1", 8083, false);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final OutlierDetector detector = new OutlierDetector(new OutlierDetectionProperties(), clock::get);
+
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(healthy, faulty, other));
+
+    private final OutlierEjectionServiceInstanceListSupplier supplier = new OutlierEjectionServiceInstanceListSupplier(
+            new ServiceInstanceListSupplier() {
+                @Override
+                public String getServiceId() {
+                    return "loadbalancer";
+                }
+
+                @Override
+                public Flux<List<ServiceInstance>> get() {
+                    return Flux.just(List.copyOf(instances));
+                }
+            }, detector);
+
+    @Test
+    public void ejectsAfterConsecutiveFailuresWithExponentialBackoff() {
+        assertThat(supplier.get().blockFirst()).containsExactly(healthy, faulty, other);
+
+        fail(faulty, 5);
+        assertThat(supplier.get().blockFirst()).containsExactly(healthy, other);
+
+        advance(Duration.ofSeconds(31));
+        assertThat(supplier.get().blockFirst()).containsExactly(healthy, faulty, other);
+
+        // 第二次摘除时长翻倍为 60s
+        fail(faulty, 5);
+        advance(Duration.ofSeconds(31));
+        assertThat(detector.isEjected(faulty)).isTrue();
+        advance(Duration.ofSeconds(30));
+        assertThat(detector.isEjected(faulty)).isFalse();
+    }
+
+    @Test
+    public void ejectsOnFailureRateFromServerErrors() {
+        supplier.get().blockFirst();
+        for (int i = 0; i < 10; i++) {
+            complete(faulty, i % 2 == 0 ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        assertThat(detector.isEjected(faulty)).isTrue();
+        assertThat(supplier.get().blockFirst()).containsExactly(healthy, other);
+    }
+
+    @Test
+    public void capsEjectedInstancesAtMaxEjectionPercent() {
+        supplier.get().blockFirst();
+        fail(faulty, 5);
+        fail(other, 5);
+        fail(healthy, 5);
+
+        // 3 个实例最多摘除 50%，摘除第一个后占比 33%，再摘除会达到 67% 超过上限，因此只摘除一个
+        assertThat(detector.isEjected(faulty)).isTrue();
+        assertThat(supplier.get().blockFirst()).containsExactly(healthy, other);
+    }
+
+    @Test
+    public void countsOnlyCurrentInstancesAfterReplacement() {
+        supplier.get().blockFirst();
+        fail(faulty, 5);
+        assertThat(detector.isEjected(faulty)).isTrue();
+
+        // 滚动发布后旧实例全部被替换，已下线实例的统计被移除，不再放大摘除上限的分母
+        ServiceInstance first = new DefaultServiceInstance("first", "loadbalancer", "127.0.0.1", 9081, false);
+        ServiceInstance second = new DefaultServiceInstance("second", "loadbalancer", "127.0.0.1", 9082, false);
+        instances.clear();
+        instances.addAll(List.of(first, second));
+        assertThat(supplier.get().blockFirst()).containsExactly(first, second);
+        assertThat(detector.isEjected(faulty)).isFalse();
+        fail(faulty, 5);
+        assertThat(detector.isEjected(faulty)).isFalse();
+
+        // 2 个实例最多摘除 50%，即一个
+        fail(first, 5);
+        fail(second, 5);
+        assertThat(detector.isEjected(first)).isTrue();
+        assertThat(detector.isEjected(second)).isFalse();
+        assertThat(supplier.get().blockFirst()).containsExactly(second);
+    }
+
+    private void fail(ServiceInstance instance, int times) {
+        for (int i = 0; i < times; i++) {
+            Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+            detector.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                    new IllegalStateException("timeout"), request, new DefaultResponse(instance)));
+        }
+    }
+
+    private void complete(ServiceInstance instance, HttpStatus status) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        ResponseData responseData = new ResponseData(status, new HttpHeaders(), null, null);
+        detector.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request,
+                new DefaultResponse(instance), responseData));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.reionchan.supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class SlowStartServiceInstanceListSupplierTest {
+
+    private final ServiceInstance warm = instance("warm", 8081, Map.of());
+    private final ServiceInstance fresh = instance("fresh", 8082, Map.of());
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private final AtomicReference<List<ServiceInstance>> instances = new AtomicReference<>(List.of(warm));
+
+    private final SlowStartServiceInstanceListSupplier supplier = new SlowStartServiceInstanceListSupplier(
+            delegate(), properties(2.0), AliasWeightedServiceInstanceList::metadataWeight, clock::get);
+
+    @Test
+    public void rampsNewlyDiscoveredInstanceAlongCurve() {
+        supplier.get().blockFirst();
+        assertThat(supplier.rampFactor(warm)).isEqualTo(1.0);
+
+        instances.set(List.of(warm, fresh));
+        assertThat(supplier.get().blockFirst()).isInstanceOf(AliasWeightedServiceInstanceList.class);
+        assertThat(supplier.rampFactor(fresh)).isEqualTo(0.1);
+
+        // aggression = 2 时，窗口过去 1/4 系数为 (1/4)^(1/2) = 0.5
+        clock.addAndGet(Duration.ofSeconds(25).toMillis());
+        assertThat(supplier.rampFactor(fresh)).isCloseTo(0.5, offset(1e-9));
+        assertThat(share(fresh)).isCloseTo(0.5 / 1.5, offset(0.03));
+
+        clock.addAndGet(Duration.ofSeconds(75).toMillis());
+        assertThat(supplier.rampFactor(fresh)).isEqualTo(1.0);
+        assertThat(share(fresh)).isCloseTo(0.5, offset(0.03));
+    }
+
+    @Test
+    public void usesStartTimeMetadataAndRestartsRampAfterRejoin() {
+        ServiceInstance restarted = instance("restarted", 8083,
+                Map.of("start-time", String.valueOf(clock.get() - Duration.ofSeconds(50).toMillis())));
+        instances.set(List.of(warm, restarted));
+        supplier.get().blockFirst();
+        assertThat(supplier.rampFactor(restarted)).isCloseTo(Math.sqrt(0.5), offset(1e-9));
+
+        instances.set(List.of(warm, restarted, fresh));
+        supplier.get().blockFirst();
+        clock.addAndGet(Duration.ofSeconds(200).toMillis());
+        assertThat(supplier.rampFactor(fresh)).isEqualTo(1.0);
+
+        // 下线后重新上线，再次慢启动
+        instances.set(List.of(warm, restarted));
+        supplier.get().blockFirst();
+        instances.set(List.of(warm, restarted, fresh));
+        supplier.get().blockFirst();
+        assertThat(supplier.rampFactor(fresh)).isEqualTo(0.1);
+    }
+
+    private double share(ServiceInstance instance) {
+        clock.addAndGet(SlowStartServiceInstanceListSupplier.REBUILD_INTERVAL_MILLIS);
+        AliasWeightedServiceInstanceList weighted = (AliasWeightedServiceInstanceList) supplier.get().blockFirst();
+        int hits = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (weighted.next() == instance) {
+                hits++;
+            }
+        }
+        return hits / 20000.0;
+    }
+
+    private ServiceInstanceListSupplier delegate() {
+        ServiceInstanceListSupplier base = ServiceInstanceListSuppliers.from("loadbalancer");
+        return new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return base.getServiceId();
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.defer(() -> Flux.just(instances.get()));
+            }
+        };
+    }
+
+    private static SlowStartProperties properties(double aggression) {
+        SlowStartProperties properties = new SlowStartProperties();
+        properties.setWindow(Duration.ofSeconds(100));
+        properties.setAggression(aggression);
+        return properties;
+    }
+
+    private static ServiceInstance instance(String id, int port, Map<String, String> metadata) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false, metadata);
+    }
+}
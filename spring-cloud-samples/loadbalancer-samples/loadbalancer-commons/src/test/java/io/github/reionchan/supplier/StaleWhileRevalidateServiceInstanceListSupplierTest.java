@@ -0,0 +1,99 @@
+package io.github.reionchan.supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class StaleWhileRevalidateServiceInstanceListSupplierTest {
+
+    private final ServiceInstance first = new DefaultServiceInstance("first", "loadbalancer", "127.0.0.1", 8081, false);
+    private final ServiceInstance second = new DefaultServiceInstance("second", "loadbalancer", "127.0.0.1", 8082, false);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicReference<Flux<List<ServiceInstance>>> discovery = new AtomicReference<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StaleWhileRevalidateServiceInstanceListSupplier supplier = new StaleWhileRevalidateServiceInstanceListSupplier(
+            new ServiceInstanceListSupplier() {
+                @Override
+                public String getServiceId() {
+                    return "loadbalancer";
+                }
+
+                @Override
+                public Flux<List<ServiceInstance>> get() {
+                    fetches.incrementAndGet();
+                    return discovery.get();
+                }
+            }, Duration.ofSeconds(25), Duration.ofMinutes(5), meterRegistry, clock::get);
+
+    @Test
+    public void servesSnapshotWhileRefreshingInBackground() throws Exception {
+        discovery.set(Flux.just(List.of(first)));
+        supplier.afterPropertiesSet();
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+
+        Sinks.One<List<ServiceInstance>> slowDiscovery = Sinks.one();
+        discovery.set(slowDiscovery.asMono().flux());
+        advance(Duration.ofSeconds(30));
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+        assertThat(fetches).hasValue(2);
+
+        slowDiscovery.tryEmitValue(List.of(first, second));
+        assertThat(supplier.get().blockFirst()).containsExactly(first, second);
+        assertThat(supplier.snapshotAgeSeconds()).isZero();
+        assertThat(meterRegistry.get("loadbalancer.instances.refresh").tag("outcome", "SUCCESS").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void keepsServingStaleSnapshotUntilMaxStaleness() throws Exception {
+        discovery.set(Flux.just(List.of(first)));
+        supplier.afterPropertiesSet();
+
+        discovery.set(Flux.error(new IllegalStateException("discovery unavailable")));
+        advance(Duration.ofMinutes(1));
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+
+        // 服务发现返回空列表同样视为不可用，不覆盖已有快照
+        discovery.set(Flux.just(List.of()));
+        advance(Duration.ofMinutes(1));
+        assertThat(supplier.get().blockFirst()).containsExactly(first);
+        assertThat(meterRegistry.get("loadbalancer.instances.snapshot.age").gauge().value()).isEqualTo(120);
+
+        advance(Duration.ofMinutes(4));
+        assertThat(supplier.get().blockFirst()).isEmpty();
+
+        discovery.set(Flux.just(List.of(second)));
+        assertThat(supplier.get().blockFirst()).containsExactly(second);
+        assertThat(meterRegistry.get("loadbalancer.instances.refresh").tag("outcome", "FAILED").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("loadbalancer.instances.refresh").tag("outcome", "EMPTY").timer().count())
+                .isEqualTo(2);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.reionchan.supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class SubsetServiceInstanceListSupplierTest {
+
+    private static final int SUBSET_SIZE = 10;
+
+    private final List<ServiceInstance> instances = instances(50);
+
+    @Test
+    public void selectsStableSubsetPerClient() {
+        List<ServiceInstance> subset = subset("client-1", instances);
+
+        assertThat(subset).hasSize(SUBSET_SIZE);
+        assertThat(subset("client-1", instances)).isEqualTo(subset);
+        assertThat(subset("client-2", instances)).isNotEqualTo(subset);
+        assertThat(subset("client-1", instances.subList(0, SUBSET_SIZE))).isEqualTo(instances.subList(0, SUBSET_SIZE));
+    }
+
+    @Test
+    public void rebalancesMinimallyWhenMembershipChanges() {
+        List<ServiceInstance> subset = subset("client-1", instances);
+
+        List<ServiceInstance> withoutOutsider = new ArrayList<>(instances);
+        withoutOutsider.removeIf(instance -> !subset.contains(instance) && instance.getPort() % 2 == 0);
+        assertThat(subset("client-1", withoutOutsider)).isEqualTo(subset);
+
+        List<ServiceInstance> withoutMember = new ArrayList<>(instances);
+        withoutMember.remove(subset.get(0));
+        List<ServiceInstance> shrunk = subset("client-1", withoutMember);
+        assertThat(shrunk).hasSize(SUBSET_SIZE).containsAll(subset.subList(1, SUBSET_SIZE));
+
+        List<ServiceInstance> grown = new ArrayList<>(instances);
+        grown.add(instances(51).get(50));
+        List<ServiceInstance> expanded = subset("client-1", grown);
+        assertThat(expanded).hasSize(SUBSET_SIZE);
+        assertThat(expanded.stream().filter(subset::contains).count()).isGreaterThanOrEqualTo(SUBSET_SIZE - 1);
+    }
+
+    @Test
+    public void spreadsClientsAcrossInstances() {
+        Map<ServiceInstance, Integer> clients = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            for (ServiceInstance instance : subset("client-" + i, instances)) {
+                clients.merge(instance, 1, Integer::sum);
+            }
+        }
+        // 每个实例期望被 1000 * 10 / 50 = 200 个客户端选中
+        assertThat(clients).hasSize(instances.size());
+        assertThat(clients.values()).allSatisfy(count -> assertThat(count).isBetween(140, 260));
+    }
+
+    private static List<ServiceInstance> subset(String clientInstanceId, List<ServiceInstance> instances) {
+        return new SubsetServiceInstanceListSupplier(ServiceInstanceListSuppliers.from("loadbalancer",
+                instances.toArray(new ServiceInstance[0])), clientInstanceId, SUBSET_SIZE).get().blockFirst();
+    }
+
+    private static List<ServiceInstance> instances(int count) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instances.add(new DefaultServiceInstance("instance-" + i, "loadbalancer", "10.0.0." + i, 8080 + i, false));
+        }
+        return instances;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.reionchan.supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerZoneConfig;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ZoneAwareServiceInstanceListSupplierTest {
+
+    private static final int SELECTIONS = 4000;
+
+    private final ServiceInstance barInstance = instance("bar", 8081, "bar-zone");
+    private final ServiceInstance fooInstance = instance("foo", 8082, "foo-zone");
+
+    private final InFlightRequestTracker tracker = new InFlightRequestTracker();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ZoneAwareServiceInstanceListSupplier supplier = new ZoneAwareServiceInstanceListSupplier(
+            ServiceInstanceListSuppliers.from("loadbalancer", barInstance, fooInstance),
+            new LoadBalancerZoneConfig("bar-zone"), tracker, 8, meterRegistry);
+
+    @Test
+    public void keepsTrafficInZoneBelowThreshold() {
+        start(barInstance, 8);
+        for (int i = 0; i < 100; i++) {
+            assertThat(supplier.get().blockFirst()).containsExactly(barInstance);
+        }
+        assertThat(supplier.inZoneRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void spillsProportionalShareWhenZoneIsOverloaded() {
+        start(barInstance, 16);
+        int spilled = 0;
+        for (int i = 0; i < SELECTIONS; i++) {
+            List<ServiceInstance> instances = supplier.get().blockFirst();
+            if (instances.contains(fooInstance)) {
+                spilled++;
+            }
+        }
+        // (16 - 8) / 16 = 50% 的请求溢出到 foo-zone
+        assertThat(spilled / (double) SELECTIONS).isCloseTo(0.5, offset(0.05));
+        assertThat(supplier.inZoneRatio()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("loadbalancer.zone.requests").tag("locality", "SPILLOVER").counter().count())
+                .isEqualTo(spilled);
+    }
+
+    @Test
+    public void doesNotSpillToBusierZone() {
+        start(barInstance, 16);
+        start(fooInstance, 20);
+        for (int i = 0; i < 100; i++) {
+            assertThat(supplier.get().blockFirst()).containsExactly(barInstance);
+        }
+    }
+
+    private void start(ServiceInstance instance, int requests) {
+        for (int i = 0; i < requests; i++) {
+            tracker.onStartRequest(new DefaultRequest<>(new DefaultRequestContext()), new DefaultResponse(instance));
+        }
+    }
+
+    private static ServiceInstance instance(String id, int port, String zone) {
+        return new DefaultServiceInstance(id, "loadbalancer", "127.0.0.1", port, false, Map.of("zone", zone));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.reionchan.loadbalancer.config;
+
+import io.github.reionchan.loadbalancer.support.ServerLoadReport;
+import io.github.reionchan.loadbalancer.support.ServerLoadReportFilter;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 服务端负载报告自动配置
+ *
+ * <pre>
+ * 引入 server-load-report 模块的 Servlet Web 服务设置 server.load-report.enabled=true 后生效：
+ *   注册 {@link ServerLoadReportFilter}，为每个响应 (如 /server/address) 附加 {@value ServerLoadReport#HEADER}
+ *   响应头，报告进程 CPU 使用率、排队请求数及在途请求数，供调用方的
+ *   ServerLoadAwareLoadBalancer (loadbalancer-commons 模块) 按实例负载分配流量
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@CommonsLog
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(value = "server.load-report.enabled", havingValue = "true")
+public class ServerLoadReportAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ServerLoadReportFilter serverLoadReportFilter() {
+        log.info("--- 定义服务端负载报告过滤器 ServerLoadReportFilter, header: " + ServerLoadReport.HEADER + " ---");
+        return new ServerLoadReportFilter();
+    }
+}
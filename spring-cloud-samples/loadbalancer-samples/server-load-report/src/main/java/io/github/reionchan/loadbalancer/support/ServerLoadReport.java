@@ -0,0 +1,76 @@
+package io.github.reionchan.loadbalancer.support;
+
+/**
+ * 服务端负载报告
+ *
+ * <pre>
+ * 服务端在响应头 {@value #HEADER} 中附带自身负载，客户端负载均衡器据此调整各实例的选择概率，
+ * 思路与 gRPC ORCA (Open Request Cost Aggregation) 的 endpoint-load-metrics 响应头一致。
+ * 响应头格式紧凑，逗号分隔的 key=value：
+ *
+ *   X-Server-Load: cpu=0.42,queue=3,inflight=7
+ *
+ *   cpu       进程 CPU 使用率，取值 [0, 1]
+ *   queue     排队等待处理的请求数
+ *   inflight  正在处理的请求数
+ *
+ * 解析时忽略未知的 key，缺失的 key 取 0，便于服务端日后追加新的指标。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public record ServerLoadReport(double cpu, int queue, int inflight) {
+
+    /**
+     * 负载报告响应头名称
+     */
+    public static final String HEADER = "X-Server-Load";
+
+    public ServerLoadReport {
+        cpu = Double.isNaN(cpu) ? 0 : Math.min(Math.max(cpu, 0), 1);
+        queue = Math.max(queue, 0);
+        inflight = Math.max(inflight, 0);
+    }
+
+    /**
+     * 格式化为响应头的值，CPU 使用率保留三位小数
+     */
+    public String toHeaderValue() {
+        return "cpu=" + Math.round(cpu * 1000) / 1000.0 + ",queue=" + queue + ",inflight=" + inflight;
+    }
+
+    /**
+     * 解析响应头的值
+     *
+     * @return 负载报告，值为空或格式错误时返回 null
+     */
+    public static ServerLoadReport parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        double cpu = 0;
+        int queue = 0;
+        int inflight = 0;
+        try {
+            for (String pair : value.split(",")) {
+                int eq = pair.indexOf('=');
+                if (eq < 0) {
+                    return null;
+                }
+                String number = pair.substring(eq + 1).trim();
+                switch (pair.substring(0, eq).trim()) {
+                    case "cpu" -> cpu = Double.parseDouble(number);
+                    case "queue" -> queue = Integer.parseInt(number);
+                    case "inflight" -> inflight = Integer.parseInt(number);
+                    default -> {
+                        // 忽略未知指标
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new ServerLoadReport(cpu, queue, inflight);
+    }
+}
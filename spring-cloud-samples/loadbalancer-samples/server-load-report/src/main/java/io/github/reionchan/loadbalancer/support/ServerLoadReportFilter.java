@@ -0,0 +1,100 @@
+package io.github.reionchan.loadbalancer.support;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 为每个响应附加服务端负载报告 {@link ServerLoadReport} 的 Servlet 过滤器
+ *
+ * <pre>
+ * 1. inflight 为进入本过滤器且尚未返回的请求数 (包含当前请求)
+ * 2. queue 为超出 CPU 核数的在途请求数，即需要排队等待 CPU 的请求数的近似值；
+ *    Tomcat 接收队列中尚未分配线程的连接不会经过过滤器，无法在此统计
+ * 3. cpu 为进程 CPU 使用率，读取 MXBean 需要系统调用，最多每秒采样一次
+ *
+ * 响应头在调用过滤器链之前写入，此时响应尚未提交，报告反映的是请求开始处理时的负载。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadReportFilter extends OncePerRequestFilter {
+
+    /**
+     * CPU 使用率的采样间隔
+     */
+    static final long CPU_SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final DoubleSupplier cpuLoad;
+
+    private final int processors;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final AtomicLong nextCpuSample = new AtomicLong(System.nanoTime());
+
+    private volatile double cpu;
+
+    public ServerLoadReportFilter() {
+        this(processCpuLoad(), Runtime.getRuntime().availableProcessors());
+    }
+
+    ServerLoadReportFilter(DoubleSupplier cpuLoad, int processors) {
+        this.cpuLoad = cpuLoad;
+        this.processors = processors;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int current = inflight.incrementAndGet();
+        try {
+            response.setHeader(ServerLoadReport.HEADER, report(current).toHeaderValue());
+            filterChain.doFilter(request, response);
+        } finally {
+            inflight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 获取当前负载报告
+     */
+    public ServerLoadReport report() {
+        return report(inflight.get());
+    }
+
+    private ServerLoadReport report(int current) {
+        return new ServerLoadReport(cpu(), current - processors, current);
+    }
+
+    private double cpu() {
+        long now = System.nanoTime();
+        long next = nextCpuSample.get();
+        if (now - next >= 0 && nextCpuSample.compareAndSet(next, now + CPU_SAMPLE_INTERVAL_NANOS)) {
+            cpu = cpuLoad.getAsDouble();
+        }
+        return cpu;
+    }
+
+    /**
+     * 优先使用 HotSpot 扩展的进程 CPU 使用率，不可用时以系统平均负载除以核数近似
+     */
+    private static DoubleSupplier processCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean hotSpot) {
+            return hotSpot::getProcessCpuLoad;
+        }
+        return () -> os.getSystemLoadAverage() / os.getAvailableProcessors();
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.reionchan.loadbalancer.config;
+
+import io.github.reionchan.loadbalancer.support.ServerLoadReportFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadReportAutoConfigurationTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ServerLoadReportAutoConfiguration.class));
+
+    @Test
+    public void disabledByDefault() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(ServerLoadReportFilter.class));
+    }
+
+    @Test
+    public void registersFilterForServletApplicationsWhenEnabled() {
+        runner.withPropertyValues("server.load-report.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(ServerLoadReportFilter.class));
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ServerLoadReportAutoConfiguration.class))
+                .withPropertyValues("server.load-report.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(ServerLoadReportFilter.class));
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.reionchan.loadbalancer.support;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Reion
+ * @date 2026-10-17
+ **/
+public class ServerLoadReportFilterTest {
+
+    @Test
+    public void reportsInflightAndQueueBeyondProcessors() throws Exception {
+        ServerLoadReportFilter filter = new ServerLoadReportFilter(() -> 0.5, 2);
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        MockHttpServletResponse innermost = new MockHttpServletResponse();
+
+        // 在过滤器链中嵌套处理另外两个请求，模拟三个并发请求
+        FilterChain third = (request, response) ->
+                filter.doFilter(new MockHttpServletRequest(), innermost, new MockFilterChain());
+        FilterChain second = (request, response) -> filter.doFilter(new MockHttpServletRequest(), inner, third);
+        filter.doFilter(new MockHttpServletRequest(), outer, second);
+
+        assertThat(ServerLoadReport.parse(outer.getHeader(ServerLoadReport.HEADER)))
+                .isEqualTo(new ServerLoadReport(0.5, 0, 1));
+        assertThat(ServerLoadReport.parse(innermost.getHeader(ServerLoadReport.HEADER)))
+                .isEqualTo(new ServerLoadReport(0.5, 1, 3));
+        assertThat(filter.report().inflight()).isZero();
+    }
+
+    @Test
+    public void cpuIsSampledAtMostOncePerInterval() throws Exception {
+        AtomicInteger samples = new AtomicInteger();
+        ServerLoadReportFilter filter = new ServerLoadReportFilter(() -> {
+            samples.incrementAndGet();
+            return 0.3;
+        }, 4);
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        assertThat(samples.get()).isEqualTo(1);
+    }
+}
@@ -1,6 +1,22 @@
 package io.github.reionchan;
 
+import io.github.reionchan.config.ParallelEagerLoadConfig;
 import io.github.reionchan.lifecycle.CustomLoadBalancerLifecycle;
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.loadbalancer.ConsistentHashLoadBalancer;
+import io.github.reionchan.loadbalancer.LeastRequestLoadBalancer;
+import io.github.reionchan.loadbalancer.support.ParallelLoadBalancerClientFactory;
+import io.github.reionchan.supplier.AdaptiveConcurrencyLimiter;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.ConcurrencyLimitServiceInstanceListSupplier;
+import io.github.reionchan.supplier.EventDrivenServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataIndexedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.OutlierDetector;
+import io.github.reionchan.supplier.OutlierEjectionServiceInstanceListSupplier;
+import io.github.reionchan.supplier.SlowStartServiceInstanceListSupplier;
+import io.github.reionchan.supplier.StaleWhileRevalidateServiceInstanceListSupplier;
+import io.github.reionchan.supplier.SubsetServiceInstanceListSupplier;
+import io.github.reionchan.supplier.ZoneAwareServiceInstanceListSupplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
@@ -23,6 +39,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import outside.scan.config.*;
 import reactor.core.publisher.Flux;
@@ -64,6 +81,11 @@ import java.util.List;
  *    loadbalancer.requests.failed
  *    loadbalancer.requests.discard
  *
+ * 5. 设置 spring.cloud.loadbalancer.eager-load.parallel=true 时，{@link ParallelEagerLoadConfig} 以
+ *    {@link ParallelLoadBalancerClientFactory} 替换默认的 LoadBalancerClientFactory，
+ *    并行创建 eager-load 中服务的子上下文，开启 lightweight 后，未指定自定义配置的服务 (如本服务 instanceListSupplier)
+ *    使用轻量子上下文，不再解析 LoadBalancerClientConfiguration 等配置类。
+ *
  * </pre>
  *
  * @author Reion
@@ -75,11 +97,22 @@ public class InstanceListSupplierDecorationBootstrap {
 
     @Configuration
 //    @LoadBalancerClient(name = "loadbalancer", configuration = WeightedServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = AliasWeightedServiceConfig.class)
 //    @LoadBalancerClient(name = "loadbalancer", configuration = ZoneBasedServiceConfig.class)
 //    @LoadBalancerClient(name = "loadbalancer", configuration = HealthCheckServiceConfig.class)
 //    @LoadBalancerClient(name = "loadbalancer", configuration = SameInstancePreferenceServiceConfig.class)
     @LoadBalancerClient(name = "loadbalancer", configuration = RequestBasedStickySessionServiceConfig.class)
 //    @LoadBalancerClient(name = "loadbalancer", configuration = HintBasedServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = LeastRequestServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = ConsistentHashServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = StaleWhileRevalidateServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = OutlierEjectionServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = ZoneAwareServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = MetadataRoutingServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = ConcurrencyLimitServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = SubsetServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = SlowStartServiceConfig.class)
+//    @LoadBalancerClient(name = "loadbalancer", configuration = EventDrivenServiceConfig.class)
     static class InnerClass {
     }
 
@@ -143,6 +176,17 @@ public class InstanceListSupplierDecorationBootstrap {
          *    相较默认设置，中间增加 WeightedServiceInstanceListSupplier 装饰，它提供了按照权重大小分配多个实例被选择的几率，
          *    下面测试尝试在两个 loadbalancer 实例，选择 10 次，可以看出权重为 8 的服务器被选中次数明显更多，几率在 80%
          *
+         *    使用 {@link AliasWeightedServiceConfig} 可替换为别名表实现的加权选择，观察日志输出：
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	      {@link AliasWeightedServiceInstanceListSupplier}
+         * 		      {@link CachingServiceInstanceListSupplier}
+         * 				{@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *    WeightedServiceInstanceListSupplier 每次发出实例列表都要按权重重新展开，
+         *    AliasWeightedServiceInstanceListSupplier 仅在实例列表变化时构建一次 Vose 别名表，
+         *    配合 {@link AliasWeightedLoadBalancer} 每次选择为 O(1) 且不分配对象，权重同样读取元数据 weight。
+         *
          * 2.2 使用 {@link ZoneBasedServiceConfig}，设置基于 Zone 配置的负载均衡，分别在目标项目启动两个实例
          *     在其 application.yaml 文件的 spring.cloud.nacos.discovery.meta.zone 设置区域分别为 foo-zone 和 bar-zone
          *     在本应用的 application.yaml 文件的 spring.cloud.loadbalancer.zone 设置仅使用 bar-zone 标识的服务器实例
@@ -184,8 +228,16 @@ public class InstanceListSupplierDecorationBootstrap {
         inspectSupplier(supplier);
         org.springframework.cloud.client.loadbalancer.LoadBalancerClient client = context.getBean(org.springframework.cloud.client.loadbalancer.LoadBalancerClient.class);
         // RequestBasedStickySessionServiceInstanceListSupplier 采用 RestTemplate 形式测试 （因为需要根据 request 中的 cookie 来进行负载均衡）
-        if (!(containTargetDelegate(supplier, RequestBasedStickySessionServiceInstanceListSupplier.class)
-                || containTargetDelegate(supplier, HintBasedServiceInstanceListSupplier.class))) {
+        // 实现了 LoadBalancerLifecycle 的负载均衡器依赖请求生命周期回调收集统计，同样采用 RestTemplate 形式测试
+        boolean lifecycleAware = loadBalancerClientFactory.getInstance("loadbalancer") instanceof LoadBalancerLifecycle
+                || containTargetDelegate(supplier, OutlierEjectionServiceInstanceListSupplier.class)
+                || containTargetDelegate(supplier, ZoneAwareServiceInstanceListSupplier.class)
+                || containTargetDelegate(supplier, ConcurrencyLimitServiceInstanceListSupplier.class);
+        boolean requestBased = containTargetDelegate(supplier, RequestBasedStickySessionServiceInstanceListSupplier.class)
+                || containTargetDelegate(supplier, HintBasedServiceInstanceListSupplier.class)
+                || containTargetDelegate(supplier, MetadataIndexedServiceInstanceListSupplier.class)
+                || lifecycleAware;
+        if (!requestBased) {
             ServiceInstance instance = null;
             for (int i=0; i<10; i++) {
                 Thread.sleep(1000);
@@ -236,10 +288,114 @@ public class InstanceListSupplierDecorationBootstrap {
          * 	   如果不存在，它再从 application.yaml 中的 spring.cloud.loadbalancer.hint.loadbalancer.hint=foo-hint 获取 hint 值
          * 	   如果还是不存在，它再设置默认的 hint 值 default
          *
+         * 2.7 使用 {@link LeastRequestServiceConfig}，设置最少在途请求数 (P2C) 的负载均衡，分别在目标项目启动两个实例
+         *     它不改变服务实例列表的装饰结构，而是将负载均衡器替换为 {@link LeastRequestLoadBalancer}：
+         *     每次随机抽取两个实例，选择在途请求数较少者，在途请求数在 LoadBalancerLifecycle 的
+         *     onStartRequest 中加一、onComplete 中减一。
+         *     由于统计依赖请求生命周期回调，下面使用支持负载均衡的 RestTemplate 发送请求，观察日志输出。
+         *
+         * 2.8 使用 {@link ConsistentHashServiceConfig}，设置带负载上限的一致性哈希负载均衡，分别在目标项目启动两个实例
+         *     负载均衡器替换为 {@link ConsistentHashLoadBalancer}，按请求头 X-Hash-Key 的值在哈希环上选择实例，
+         *     相同的键总是落到同一实例，使目标实例上的本地缓存保持命中；实例增减时只有约 1/N 的键改变归属。
+         *     某实例的在途请求数达到上限 ceil(1.25 * (总在途请求数 + 1) / 实例数) 时，沿哈希环溢出到下一个实例。
+         *     下面的请求轮流携带 X-Hash-Key=user-0、user-1、user-2，观察日志输出，相同的键始终返回相同的端口。
+         *
+         * 2.9 使用 {@link StaleWhileRevalidateServiceConfig}，设置过期后台重新验证的实例列表缓存，采用上方 2.1 ~ 2.4 的方式测试
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link StaleWhileRevalidateServiceInstanceListSupplier}
+         * 		    {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     默认的 CachingServiceInstanceListSupplier 在缓存过期时，请求需同步等待一次服务发现调用；
+         *     此装饰总是立即返回上次的实例列表快照，快照年龄超过 refresh-after 时在后台刷新，
+         *     运行期间停止 Nacos，日志中仍能持续选出实例，直到快照年龄超过 max-staleness。
+         *     通过 actuator 的 metrics 端点可访问 loadbalancer.instances.refresh 及 loadbalancer.instances.snapshot.age
+         *
+         * 2.10 使用 {@link OutlierEjectionServiceConfig}，设置被动异常实例摘除的负载均衡，分别在目标项目启动两个实例
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link OutlierEjectionServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     相较 2.3 的健康检测，保留了缓存且不发送探测请求，由 {@link OutlierDetector} 作为 LoadBalancerLifecycle
+         *     统计真实请求的结果，连续失败或失败率过高的实例被摘除，摘除时长随摘除次数翻倍。
+         *     下面使用支持负载均衡的 RestTemplate 发送请求，期间用调试器暂停其中一个实例 (请求超时失败)，
+         *     观察日志输出，失败数次后该实例被摘除，请求全部落到另一实例，摘除到期后重新参与负载均衡。
+         *
+         * 2.11 使用 {@link ZoneAwareServiceConfig}，设置基于区域负载溢出的负载均衡，目标项目及 application.yaml 设置同 2.2
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link ZoneAwareServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     2.2 的 ZonePreferenceServiceInstanceListSupplier 只在本区域没有实例时才使用其他区域实例，
+         *     此装饰在本区域实例平均在途请求数超过 spring.cloud.loadbalancer.zone-aware.spillover-threshold 后，
+         *     将超出部分按比例溢出到其他区域，下面使用支持负载均衡的 RestTemplate 发送请求，
+         *     并发较低时所有请求都留在 bar-zone，可通过 metrics 端点的 loadbalancer.zone.requests 及
+         *     loadbalancer.zone.in-zone.ratio 观察本区域请求比例与溢出次数。
+         *
+         * 2.12 使用 {@link MetadataRoutingServiceConfig}，设置基于元数据索引路由的负载均衡，分别在目标项目启动两个实例
+         *     在其 application.yaml 文件的 spring.cloud.nacos.discovery.metadata 中设置 version 分别为 v1 和 v2，hint 同 2.6
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link MetadataIndexedServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     相较 2.6 的 HintBasedServiceInstanceListSupplier 每次请求遍历实例列表，它在实例列表变化时构建
+         *     元数据 version、hint、zone 的索引，请求时按请求头 X-SC-LB-Version、X-SC-LB-Hint、X-SC-LB-Zone 直接查找，
+         *     无匹配实例时从后往前依次放弃条件。下面的请求携带 X-SC-LB-Version=v2 及 X-SC-LB-Hint=bar-hint，
+         *     观察日志输出，请求总是落到 version 为 v2 的实例，即使其 hint 不是 bar-hint。
+         *
+         * 2.13 使用 {@link ConcurrencyLimitServiceConfig}，设置基于自适应并发限制的负载均衡，分别在目标项目启动两个实例
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link ConcurrencyLimitServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     {@link AdaptiveConcurrencyLimiter} 作为 LoadBalancerLifecycle 按 RTT 的变化自动调整每个实例的并发上限，
+         *     在途请求数达到上限的实例在选择时被跳过，全部实例饱和时请求立即失败，而不是堆积到变慢的实例上。
+         *     下面使用支持负载均衡的 RestTemplate 发送请求，可通过 metrics 端点的 loadbalancer.requests.limit、
+         *     loadbalancer.requests.inflight 及 loadbalancer.requests.rejected 观察每个实例的上限与在途请求数。
+         *
+         * 2.14 使用 {@link SubsetServiceConfig}，设置基于确定性子集的负载均衡，在目标项目启动多个实例，
+         *     并在 application.yaml 中将 spring.cloud.loadbalancer.subset.size 设置为小于实例数的值
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link SubsetServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     每个客户端按自身实例 ID 以 Rendezvous 哈希选出固定的 size 个实例，客户端数 × 实例数 的连接数
+         *     降为 客户端数 × size，实例上下线时只影响子集中的个别位置。
+         *     观察日志输出，轮询只在子集内的实例间进行，修改 spring.cloud.loadbalancer.subset.instance-id 后子集随之改变。
+         *
+         * 2.15 使用 {@link SlowStartServiceConfig}，设置新实例慢启动的负载均衡，先在目标项目启动一个实例
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link SlowStartServiceInstanceListSupplier}
+         * 		    {@link CachingServiceInstanceListSupplier}
+         * 		        {@link DiscoveryClientServiceInstanceListSupplier}
+         *
+         *     本示例运行期间再启动第二个实例，它的权重在 spring.cloud.loadbalancer.slow-start.window 内
+         *     从 min-weight-percent 逐步升至 100%，观察日志输出，新实例被选中的比例逐渐升高，直至与旧实例持平。
+         *
+         * 2.16 使用 {@link EventDrivenServiceConfig}，设置事件驱动的负载均衡，分别在目标项目启动两个实例
+         *
+         *     === ServiceInstanceListSupplier Info ===
+         * 	    {@link EventDrivenServiceInstanceListSupplier}
+         *
+         *     以上各装饰链的基础提供器 {@link DiscoveryClientServiceInstanceListSupplier} 每次都向服务发现拉取实例，
+         *     依赖缓存限制拉取频率。此提供器只在收到 Nacos 发布的 HeartbeatEvent 且服务目录状态变化时才拉取，
+         *     实例成员确实变化时才发出带版本号的新快照，下游装饰器据此跳过重复计算。
+         *     观察日志输出，运行期间停止其中一个实例，下一次心跳事件后请求只落到剩余实例。
+         *
          */
         RestTemplate restTemplate = context.getBean("loadBalancedRestTemplate", RestTemplate.class);
-        if (containTargetDelegate(supplier, RequestBasedStickySessionServiceInstanceListSupplier.class)
-                || containTargetDelegate(supplier, HintBasedServiceInstanceListSupplier.class)) {
+        if (requestBased) {
             for (int i=0; i<30; i++) {
                 Thread.sleep(3000);
                 HttpHeaders headers = new HttpHeaders();
@@ -253,10 +409,35 @@ public class InstanceListSupplierDecorationBootstrap {
                     headers.add("X-SC-LB-Hint", "bar-hint");
                     info = "Header 选择 Hint 为 bar-hint 的服务实例，";
                 }
+                if (lifecycleAware) {
+                    info = loadBalancerClientFactory.getInstance("loadbalancer").getClass().getSimpleName() + " 选择的服务实例，";
+                }
+                if (containTargetDelegate(supplier, MetadataIndexedServiceInstanceListSupplier.class)) {
+                    headers.add("X-SC-LB-Version", "v2");
+                    headers.add("X-SC-LB-Hint", "bar-hint");
+                    info = "Header 选择 version 为 v2、Hint 为 bar-hint 的服务实例，";
+                }
+                if (containTargetDelegate(supplier, OutlierEjectionServiceInstanceListSupplier.class)) {
+                    info = "摘除异常实例后选择的服务实例，";
+                }
+                if (containTargetDelegate(supplier, ZoneAwareServiceInstanceListSupplier.class)) {
+                    info = "区域负载溢出选择的服务实例，";
+                }
+                if (containTargetDelegate(supplier, ConcurrencyLimitServiceInstanceListSupplier.class)) {
+                    info = "跳过并发饱和实例后选择的服务实例，";
+                }
+                if (loadBalancerClientFactory.getInstance("loadbalancer") instanceof ConsistentHashLoadBalancer) {
+                    headers.add("X-Hash-Key", "user-" + i % 3);
+                    info = "Header 哈希键为 user-" + i % 3 + " 的服务实例，";
+                }
 
                 RequestEntity<Void> requestEntity = RequestEntity.get(new URI("http://loadbalancer/server/address")).headers(headers).build();
-                ResponseEntity<String> responseEntity = restTemplate.exchange(requestEntity, String.class);
-                log.info("{} 返回结果: {}", info, responseEntity.getBody());
+                try {
+                    ResponseEntity<String> responseEntity = restTemplate.exchange(requestEntity, String.class);
+                    log.info("{} 返回结果: {}", info, responseEntity.getBody());
+                } catch (RestClientException e) {
+                    log.warn("{} 请求失败: {}", info, e.getMessage());
+                }
             }
         }
     }
@@ -0,0 +1,57 @@
+package io.github.reionchan.config;
+
+import io.github.reionchan.loadbalancer.support.ParallelEagerContextInitializer;
+import io.github.reionchan.loadbalancer.support.ParallelLoadBalancerClientFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerEagerLoadProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 并行预加载负载均衡子上下文配置
+ *
+ * <pre>
+ * 设置 spring.cloud.loadbalancer.eager-load.parallel=true 时生效：
+ *   1. 以 {@link ParallelLoadBalancerClientFactory} 替换默认的 LoadBalancerClientFactory (其为 @ConditionalOnMissingBean)
+ *   2. 在 ApplicationReadyEvent 时以 spring.cloud.loadbalancer.eager-load.parallelism 个线程
+ *      (默认 CPU 核数) 并行创建 spring.cloud.loadbalancer.eager-load.clients 中服务的子上下文
+ *   3. spring.cloud.loadbalancer.eager-load.lightweight=true 时，未指定自定义配置的服务使用轻量子上下文
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "spring.cloud.loadbalancer.eager-load.parallel", havingValue = "true")
+public class ParallelEagerLoadConfig {
+
+    @Bean
+    public ParallelLoadBalancerClientFactory loadBalancerClientFactory(LoadBalancerClientsProperties properties,
+                                                                       ObjectProvider<List<LoadBalancerClientSpecification>> configurations,
+                                                                       Environment environment) {
+        boolean lightweight = environment.getProperty("spring.cloud.loadbalancer.eager-load.lightweight",
+                Boolean.class, false);
+        log.info("=== ParallelEagerLoadConfig 设置 loadBalancerClientFactory, lightweight: {} ===", lightweight);
+        ParallelLoadBalancerClientFactory clientFactory = new ParallelLoadBalancerClientFactory(properties, lightweight);
+        clientFactory.setConfigurations(configurations.getIfAvailable(Collections::emptyList));
+        return clientFactory;
+    }
+
+    @Bean
+    public ParallelEagerContextInitializer parallelEagerContextInitializer(ParallelLoadBalancerClientFactory clientFactory,
+                                                                           LoadBalancerEagerLoadProperties properties,
+                                                                           Environment environment) {
+        int parallelism = environment.getProperty("spring.cloud.loadbalancer.eager-load.parallelism", Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        return new ParallelEagerContextInitializer(clientFactory, properties.getClients(), parallelism);
+    }
+}
@@ -0,0 +1,38 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.supplier.AliasWeightedServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于别名表权重的服务列表提供及负载均衡配置
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class AliasWeightedServiceConfig {
+    @Bean
+    public ServiceInstanceListSupplier aliasWeightedServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== AliasWeightedServiceConfig 设置 aliasWeightedServiceInstanceListSupplier ===");
+        // 缓存放在别名表之下，缓存未过期时上游发出的是同一个列表，别名表无需任何比较即可复用
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new AliasWeightedServiceInstanceListSupplier(delegate))
+                .build(context);
+    }
+
+    @Bean
+    public AliasWeightedLoadBalancer aliasWeightedLoadBalancer(Environment environment,
+                                                               LoadBalancerClientFactory loadBalancerClientFactory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new AliasWeightedLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    }
+}
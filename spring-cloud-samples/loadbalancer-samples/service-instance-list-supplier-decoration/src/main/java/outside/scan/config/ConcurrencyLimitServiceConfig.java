@@ -0,0 +1,57 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.AdaptiveConcurrencyLimiter;
+import io.github.reionchan.supplier.ConcurrencyLimitProperties;
+import io.github.reionchan.supplier.ConcurrencyLimitServiceInstanceListSupplier;
+import io.github.reionchan.supplier.InFlightRequestTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于自适应并发限制的服务列表提供配置
+ *
+ * <pre>
+ * 限制参数通过 spring.cloud.loadbalancer.concurrency-limit.* 设置，参见 {@link ConcurrencyLimitProperties}。
+ * InFlightRequestTracker、AdaptiveConcurrencyLimiter 的返回值声明为具体类型，使其能按 LoadBalancerLifecycle 类型被发现。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class ConcurrencyLimitServiceConfig {
+
+    @Bean
+    public InFlightRequestTracker inFlightRequestTracker() {
+        log.info("=== ConcurrencyLimitServiceConfig 设置 inFlightRequestTracker ===");
+        return new InFlightRequestTracker();
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(Environment environment,
+                                                                 InFlightRequestTracker inFlightRequestTracker,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        log.info("=== ConcurrencyLimitServiceConfig 设置 adaptiveConcurrencyLimiter ===");
+        ConcurrencyLimitProperties properties = Binder.get(environment)
+                .bind("spring.cloud.loadbalancer.concurrency-limit", ConcurrencyLimitProperties.class)
+                .orElseGet(ConcurrencyLimitProperties::new);
+        return new AdaptiveConcurrencyLimiter(properties, inFlightRequestTracker, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public ServiceInstanceListSupplier concurrencyLimitServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== ConcurrencyLimitServiceConfig 设置 concurrencyLimitServiceInstanceListSupplier ===");
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new ConcurrencyLimitServiceInstanceListSupplier(delegate,
+                        ctx.getBean(AdaptiveConcurrencyLimiter.class)))
+                .build(context);
+    }
+}
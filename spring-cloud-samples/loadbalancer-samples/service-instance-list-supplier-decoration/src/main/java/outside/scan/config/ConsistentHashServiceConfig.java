@@ -0,0 +1,50 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.ConsistentHashLoadBalancer;
+import io.github.reionchan.loadbalancer.RequestHashKeyResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于带负载上限的一致性哈希的负载均衡配置
+ *
+ * <pre>
+ * 服务实例列表沿用默认的 Caching -> DiscoveryClient 装饰链，仅替换负载均衡器。
+ * 哈希键依次从下列来源解析，均可在 application.yaml 中通过 spring.cloud.loadbalancer.consistent-hash.* 修改：
+ *   1. 请求头 header，默认 X-Hash-Key
+ *   2. Cookie cookie，默认 sc-lb-hash-key
+ *   3. 路径变量 path-pattern 与 path-variable，默认 /get/user/{id} 中的 id
+ * 负载上限系数 load-factor 默认 1.25，即任一实例的在途请求数不超过平均值的 1.25 倍。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class ConsistentHashServiceConfig {
+
+    private static final String PROPERTY_PREFIX = "spring.cloud.loadbalancer.consistent-hash.";
+
+    @Bean
+    public ConsistentHashLoadBalancer consistentHashLoadBalancer(Environment environment,
+                                                                 LoadBalancerClientFactory loadBalancerClientFactory) {
+        log.info("=== ConsistentHashServiceConfig 设置 consistentHashLoadBalancer ===");
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        RequestHashKeyResolver keyResolver = RequestHashKeyResolver.firstOf(
+                RequestHashKeyResolver.header(environment.getProperty(PROPERTY_PREFIX + "header", "X-Hash-Key")),
+                RequestHashKeyResolver.cookie(environment.getProperty(PROPERTY_PREFIX + "cookie", "sc-lb-hash-key")),
+                RequestHashKeyResolver.pathVariable(
+                        environment.getProperty(PROPERTY_PREFIX + "path-pattern", "/get/user/{id}"),
+                        environment.getProperty(PROPERTY_PREFIX + "path-variable", "id")));
+        double loadFactor = environment.getProperty(PROPERTY_PREFIX + "load-factor", Double.class,
+                ConsistentHashLoadBalancer.DEFAULT_LOAD_FACTOR);
+        return new ConsistentHashLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name, keyResolver,
+                loadFactor, ConsistentHashLoadBalancer.DEFAULT_VIRTUAL_NODES);
+    }
+}
@@ -0,0 +1,37 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.EventDrivenServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 基于服务发现变化事件的服务列表提供配置
+ *
+ * <pre>
+ * 以 {@link EventDrivenServiceInstanceListSupplier} 替换 withBlockingDiscoveryClient() 作为装饰链的基础提供器，
+ * 其在父上下文上监听 HeartbeatEvent、InstanceRegisteredEvent，子上下文关闭时自行注销监听，不再需要 withCaching()，
+ * 其余装饰器仍可通过 builder().withBase(...) 之后的 with 系列方法叠加。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class EventDrivenServiceConfig {
+
+    @Bean
+    public ServiceInstanceListSupplier eventDrivenServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== EventDrivenServiceConfig 设置 eventDrivenServiceInstanceListSupplier ===");
+        String serviceId = context.getEnvironment().getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return ServiceInstanceListSupplier.builder()
+                .withBase(new EventDrivenServiceInstanceListSupplier(context.getBean(DiscoveryClient.class), serviceId,
+                        context))
+                .build(context);
+    }
+}
@@ -0,0 +1,33 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.LeastRequestLoadBalancer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于最少在途请求数 (P2C) 的负载均衡配置
+ *
+ * <pre>
+ * 服务实例列表沿用默认的 Caching -> DiscoveryClient 装饰链，仅替换负载均衡器。
+ * 负载均衡器同时也是 LoadBalancerLifecycle，返回值声明为具体类型，使其能按生命周期类型被发现。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class LeastRequestServiceConfig {
+    @Bean
+    public LeastRequestLoadBalancer leastRequestLoadBalancer(Environment environment,
+                                                             LoadBalancerClientFactory loadBalancerClientFactory) {
+        log.info("=== LeastRequestServiceConfig 设置 leastRequestLoadBalancer ===");
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastRequestLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    }
+}
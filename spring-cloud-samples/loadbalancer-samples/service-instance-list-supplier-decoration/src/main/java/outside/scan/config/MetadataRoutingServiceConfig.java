@@ -0,0 +1,50 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.MetadataIndexedServiceInstanceListSupplier;
+import io.github.reionchan.supplier.MetadataRoute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * 基于元数据索引路由的服务列表提供配置
+ *
+ * <pre>
+ * 路由条件通过 spring.cloud.loadbalancer.metadata-routing.routes 设置，未设置时默认按以下顺序：
+ *   version   请求头 X-SC-LB-Version
+ *   hint      请求头 X-SC-LB-Hint，默认值取 spring.cloud.loadbalancer.hint.[serviceId]
+ *   zone      请求头 X-SC-LB-Zone，默认值取 spring.cloud.loadbalancer.zone
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class MetadataRoutingServiceConfig {
+    @Bean
+    public ServiceInstanceListSupplier metadataIndexedServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== MetadataRoutingServiceConfig 设置 metadataIndexedServiceInstanceListSupplier ===");
+        Environment environment = context.getEnvironment();
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        List<MetadataRoute> routes = Binder.get(environment)
+                .bind("spring.cloud.loadbalancer.metadata-routing.routes", Bindable.listOf(MetadataRoute.class))
+                .orElseGet(() -> List.of(
+                        new MetadataRoute("version", "X-SC-LB-Version", null),
+                        new MetadataRoute("hint", "X-SC-LB-Hint",
+                                environment.getProperty("spring.cloud.loadbalancer.hint." + name)),
+                        new MetadataRoute("zone", "X-SC-LB-Zone",
+                                environment.getProperty("spring.cloud.loadbalancer.zone"))));
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new MetadataIndexedServiceInstanceListSupplier(delegate, routes))
+                .build(context);
+    }
+}
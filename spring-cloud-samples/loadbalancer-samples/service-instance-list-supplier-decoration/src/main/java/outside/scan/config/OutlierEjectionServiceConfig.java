@@ -0,0 +1,47 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.OutlierDetectionProperties;
+import io.github.reionchan.supplier.OutlierDetector;
+import io.github.reionchan.supplier.OutlierEjectionServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于被动异常实例摘除的服务列表提供配置
+ *
+ * <pre>
+ * 与 {@link HealthCheckServiceConfig} 不同，保留缓存且不轮询健康检测端点，
+ * 摘除参数通过 spring.cloud.loadbalancer.outlier-detection.* 设置，参见 {@link OutlierDetectionProperties}。
+ * OutlierDetector 的返回值声明为具体类型，使其能按 LoadBalancerLifecycle 类型被发现。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class OutlierEjectionServiceConfig {
+
+    @Bean
+    public OutlierDetector outlierDetector(Environment environment) {
+        log.info("=== OutlierEjectionServiceConfig 设置 outlierDetector ===");
+        OutlierDetectionProperties properties = Binder.get(environment)
+                .bind("spring.cloud.loadbalancer.outlier-detection", OutlierDetectionProperties.class)
+                .orElseGet(OutlierDetectionProperties::new);
+        return new OutlierDetector(properties);
+    }
+
+    @Bean
+    public ServiceInstanceListSupplier outlierEjectionServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== OutlierEjectionServiceConfig 设置 outlierEjectionServiceInstanceListSupplier ===");
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new OutlierEjectionServiceInstanceListSupplier(delegate,
+                        ctx.getBean(OutlierDetector.class)))
+                .build(context);
+    }
+}
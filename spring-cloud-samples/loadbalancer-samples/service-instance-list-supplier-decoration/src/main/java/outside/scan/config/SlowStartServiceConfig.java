@@ -0,0 +1,48 @@
+package outside.scan.config;
+
+import io.github.reionchan.loadbalancer.AliasWeightedLoadBalancer;
+import io.github.reionchan.supplier.SlowStartProperties;
+import io.github.reionchan.supplier.SlowStartServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于新实例慢启动的服务列表提供及负载均衡配置
+ *
+ * <pre>
+ * 慢启动参数通过 spring.cloud.loadbalancer.slow-start.* 设置，参见 {@link SlowStartProperties}。
+ * 升权结果以别名表权重体现，与 {@link AliasWeightedServiceConfig} 一样使用 AliasWeightedLoadBalancer 选择实例。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class SlowStartServiceConfig {
+
+    @Bean
+    public ServiceInstanceListSupplier slowStartServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== SlowStartServiceConfig 设置 slowStartServiceInstanceListSupplier ===");
+        SlowStartProperties properties = Binder.get(context.getEnvironment())
+                .bind("spring.cloud.loadbalancer.slow-start", SlowStartProperties.class)
+                .orElseGet(SlowStartProperties::new);
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new SlowStartServiceInstanceListSupplier(delegate, properties))
+                .build(context);
+    }
+
+    @Bean
+    public AliasWeightedLoadBalancer aliasWeightedLoadBalancer(Environment environment,
+                                                               LoadBalancerClientFactory loadBalancerClientFactory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new AliasWeightedLoadBalancer(loadBalancerClientFactory
+                .getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    }
+}
@@ -0,0 +1,46 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.StaleWhileRevalidateServiceInstanceListSupplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * 基于过期后台重新验证 (stale-while-revalidate) 缓存的服务列表提供配置
+ *
+ * <pre>
+ * 以 {@link StaleWhileRevalidateServiceInstanceListSupplier} 替换默认的 CachingServiceInstanceListSupplier，
+ * 可在 application.yaml 中通过 spring.cloud.loadbalancer.stale-while-revalidate.* 修改：
+ *   refresh-after   快照年龄超过该值时后台刷新，默认 25s，应小于原缓存 ttl
+ *   max-staleness   服务发现不可用时快照最多继续使用的时长，默认 5m
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class StaleWhileRevalidateServiceConfig {
+
+    private static final String PROPERTY_PREFIX = "spring.cloud.loadbalancer.stale-while-revalidate.";
+
+    @Bean
+    public ServiceInstanceListSupplier staleWhileRevalidateServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== StaleWhileRevalidateServiceConfig 设置 staleWhileRevalidateServiceInstanceListSupplier ===");
+        Environment environment = context.getEnvironment();
+        Duration refreshAfter = environment.getProperty(PROPERTY_PREFIX + "refresh-after", Duration.class,
+                StaleWhileRevalidateServiceInstanceListSupplier.DEFAULT_REFRESH_AFTER);
+        Duration maxStaleness = environment.getProperty(PROPERTY_PREFIX + "max-staleness", Duration.class,
+                StaleWhileRevalidateServiceInstanceListSupplier.DEFAULT_MAX_STALENESS);
+        return ServiceInstanceListSupplier.builder().withDiscoveryClient()
+                .with((ctx, delegate) -> new StaleWhileRevalidateServiceInstanceListSupplier(delegate, refreshAfter,
+                        maxStaleness, ctx.getBeanProvider(MeterRegistry.class).getIfAvailable()))
+                .build(context);
+    }
+}
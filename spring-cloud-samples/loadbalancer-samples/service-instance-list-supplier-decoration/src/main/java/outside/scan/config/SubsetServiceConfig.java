@@ -0,0 +1,47 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.SubsetServiceInstanceListSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.commons.util.IdUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 基于确定性子集的服务列表提供配置
+ *
+ * <pre>
+ * 客户端实例 ID 取 spring.cloud.loadbalancer.subset.instance-id，未设置时使用
+ * {@link IdUtils#getDefaultInstanceId} (应用名:端口:随机值，同一进程内不变)，
+ * 子集大小取 spring.cloud.loadbalancer.subset.size (默认 100)。
+ * 子集装饰放在缓存之上，只在缓存的实例列表变化时重新计算。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class SubsetServiceConfig {
+
+    private static final String PROPERTY_PREFIX = "spring.cloud.loadbalancer.subset.";
+
+    @Bean
+    public ServiceInstanceListSupplier subsetServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        String instanceId = environment.getProperty(PROPERTY_PREFIX + "instance-id");
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = IdUtils.getDefaultInstanceId(environment);
+        }
+        int size = environment.getProperty(PROPERTY_PREFIX + "size", Integer.class,
+                SubsetServiceInstanceListSupplier.DEFAULT_SUBSET_SIZE);
+        log.info("=== SubsetServiceConfig 设置 subsetServiceInstanceListSupplier, instanceId: {}, size: {} ===",
+                instanceId, size);
+        String clientInstanceId = instanceId;
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new SubsetServiceInstanceListSupplier(delegate, clientInstanceId, size))
+                .build(context);
+    }
+}
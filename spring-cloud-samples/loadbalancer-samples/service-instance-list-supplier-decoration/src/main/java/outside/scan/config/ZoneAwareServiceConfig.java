@@ -0,0 +1,47 @@
+package outside.scan.config;
+
+import io.github.reionchan.supplier.InFlightRequestTracker;
+import io.github.reionchan.supplier.ZoneAwareServiceInstanceListSupplier;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerZoneConfig;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 基于区域负载溢出的服务列表提供配置
+ *
+ * <pre>
+ * 与 {@link ZoneBasedServiceConfig} 相同，通过 spring.cloud.loadbalancer.zone 设置本区域，
+ * 本区域实例平均在途请求数超过 spring.cloud.loadbalancer.zone-aware.spillover-threshold (默认 8) 时按比例溢出到其他区域。
+ * InFlightRequestTracker 的返回值声明为具体类型，使其能按 LoadBalancerLifecycle 类型被发现。
+ * </pre>
+ *
+ * @author Reion
+ * @date 2026-10-17
+ **/
+@Slf4j
+@Configuration
+public class ZoneAwareServiceConfig {
+
+    @Bean
+    public InFlightRequestTracker inFlightRequestTracker() {
+        log.info("=== ZoneAwareServiceConfig 设置 inFlightRequestTracker ===");
+        return new InFlightRequestTracker();
+    }
+
+    @Bean
+    public ServiceInstanceListSupplier zoneAwareServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        log.info("=== ZoneAwareServiceConfig 设置 zoneAwareServiceInstanceListSupplier ===");
+        double spilloverThreshold = context.getEnvironment().getProperty(
+                "spring.cloud.loadbalancer.zone-aware.spillover-threshold", Double.class,
+                ZoneAwareServiceInstanceListSupplier.DEFAULT_SPILLOVER_THRESHOLD);
+        return ServiceInstanceListSupplier.builder().withBlockingDiscoveryClient().withCaching()
+                .with((ctx, delegate) -> new ZoneAwareServiceInstanceListSupplier(delegate,
+                        ctx.getBean(LoadBalancerZoneConfig.class), ctx.getBean(InFlightRequestTracker.class),
+                        spilloverThreshold, ctx.getBeanProvider(MeterRegistry.class).getIfAvailable()))
+                .build(context);
+    }
+}